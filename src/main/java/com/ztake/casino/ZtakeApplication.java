@@ -1,6 +1,9 @@
 package com.ztake.casino;
 
+import com.ztake.casino.analytics.SessionAnalytics;
+import com.ztake.casino.config.AppConfig;
 import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.game.GameRegistry;
 import com.ztake.casino.repository.*;
 import com.ztake.casino.service.*;
 import javafx.application.Application;
@@ -21,24 +24,96 @@ public class ZtakeApplication extends Application {
     // Mantener referencias globales a los servicios
     private static AuthService authService;
     private static GameService gameService;
+    private static AbandonedSessionSweeper abandonedSessionSweeper;
+    private static SessionArchiver sessionArchiver;
+    private static GameHistoryCache gameHistoryCache;
+    private static ExposureTracker exposureTracker;
+    private static Leaderboard leaderboard;
+    private static SessionAnalytics sessionAnalytics;
+    private static FairnessService fairnessService;
+    private static CrashService crashService;
+    private static PlinkoService plinkoService;
+    private static MinesAutoBetService minesAutoBetService;
+    private static WalletCommitPipeline walletCommitPipeline;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
         // Inicializar la base de datos
         DatabaseConfig.initialize();
 
-        // Inicializar el repositorio y servicios
+        // Inicializar el repositorio y servicios (lecturas de historial sin contexto de persistencia)
         UserRepository userRepository = new UserRepositoryImpl();
-        GameSessionRepository gameSessionRepository = new GameSessionRepositoryImpl();
-        TransactionRepository transactionRepository = new TransactionRepositoryImpl();
+        GameSessionRepository gameSessionRepository = new ReadOnlyGameSessionRepositoryImpl();
+        TransactionRepository transactionRepository = new ReadOnlyTransactionRepositoryImpl();
         SupportTicketRepository supportTicketRepository = new SupportTicketRepositoryImpl();
+        WalletRepository walletRepository = new WalletRepositoryImpl();
 
         // Inicializar usuarios de prueba
         ((UserRepositoryImpl) userRepository).initializeTestUsers();
 
         // Inicializar servicios
         authService = new AuthServiceImpl(userRepository);
-        gameService = new GameServiceImpl(gameSessionRepository, transactionRepository, userRepository);
+        gameHistoryCache = new GameHistoryCache();
+        exposureTracker = new ExposureTracker();
+        LeaderboardRepositoryImpl leaderboardRepository = new LeaderboardRepositoryImpl();
+        leaderboard = new Leaderboard();
+        leaderboard.rebuild(leaderboardRepository);
+        // Semillas demostrablemente justas, generadas de antemano en segundo plano
+        fairnessService = new FairnessService();
+        fairnessService.setHistoryCache(gameHistoryCache);
+        fairnessService.start();
+        if (AppConfig.getBoolean("wallet.groupCommit.enabled", false)) {
+            // Aperturas y liquidaciones concurrentes confirmadas juntas en una sola transacción
+            walletCommitPipeline = new WalletCommitPipeline((WalletRepositoryImpl) walletRepository);
+            walletCommitPipeline.start();
+        }
+        // Las rondas de una sola apuesta retienen el importe y escriben el saldo una vez al liquidarse
+        gameService = GameServiceImpl.builder(gameSessionRepository, transactionRepository, userRepository)
+                .walletRepository(walletRepository)
+                .historyCache(gameHistoryCache)
+                .pnlRollupRepository(new PnlRollupRepositoryImpl())
+                .exposureTracker(exposureTracker)
+                .leaderboard(leaderboard)
+                .leaderboardRepository(leaderboardRepository)
+                .fairnessService(fairnessService)
+                .commitPipeline(walletCommitPipeline)
+                .holdFunds(AppConfig.getBoolean("wallet.holds.enabled", true))
+                .build();
+
+        // Juegos disponibles: sus tablas se calculan la primera vez que se abre cada uno
+        GameRegistry.getDefault();
+
+        // Caída automática de bolas de Plinko en el servidor
+        plinkoService = new PlinkoService(gameService);
+        plinkoService.start();
+
+        // Apuesta automática de Mines: las rondas se juegan en el servidor y se guardan por lotes
+        minesAutoBetService = new MinesAutoBetService(gameService);
+        minesAutoBetService.start();
+
+        // Mesa de Crash compartida: las apuestas de cada ronda se liquidan en un único lote (después
+        // de iniciar las semillas, que revelan las de una ronda interrumpida)
+        crashService = new CrashService(walletRepository, gameService, new FairnessRepositoryImpl());
+        crashService.setHistoryCache(gameHistoryCache);
+        crashService.setExposureTracker(exposureTracker);
+        crashService.start();
+
+        // Liquidar en segundo plano las sesiones abandonadas (cierres o fallos a mitad de partida)
+        abandonedSessionSweeper = new AbandonedSessionSweeper(walletRepository, gameService);
+        abandonedSessionSweeper.setExposureTracker(exposureTracker);
+        abandonedSessionSweeper.start();
+
+        // Archivo columnar de los meses cerrados (se rehace el mes si se liquidan sesiones que quedaron en curso)
+        if (AppConfig.getBoolean("archive.enabled", true)) {
+            sessionArchiver = new SessionArchiver(new SessionArchiveRepositoryImpl());
+            sessionArchiver.start();
+        }
+
+        // Analítica de la casa en memoria (opcional: ocupa unos 22 bytes por sesión)
+        if (AppConfig.getBoolean("analytics.enabled", false)) {
+            sessionAnalytics = new SessionAnalytics();
+            sessionAnalytics.start();
+        }
 
         // Cargar el FXML
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
@@ -64,6 +139,35 @@ public class ZtakeApplication extends Application {
     public void stop() {
         // Cerrar recursos al finalizar la aplicación
         try {
+            if (abandonedSessionSweeper != null) {
+                abandonedSessionSweeper.stop();
+            }
+            if (sessionArchiver != null) {
+                sessionArchiver.stop();
+            }
+            if (crashService != null) {
+                crashService.stop();
+            }
+            if (plinkoService != null) {
+                plinkoService.stop();
+            }
+            if (minesAutoBetService != null) {
+                minesAutoBetService.stop();
+            }
+            if (walletCommitPipeline != null) {
+                // Confirma lo que quede encolado antes de cerrar la base de datos
+                walletCommitPipeline.stop();
+            }
+            if (sessionAnalytics != null) {
+                sessionAnalytics.stop();
+            }
+            if (fairnessService != null) {
+                // Revela las semillas activas antes de cerrar la base de datos
+                fairnessService.stop();
+            }
+            if (gameHistoryCache != null) {
+                gameHistoryCache.logStats();
+            }
             DatabaseConfig.shutdown();
             LOGGER.info("Aplicación cerrada correctamente");
         } catch (Exception e) {
@@ -89,6 +193,46 @@ public class ZtakeApplication extends Application {
         return gameService;
     }
 
+    /**
+     * Obtiene la mesa de Crash compartida.
+     * @return la mesa de Crash
+     */
+    public static CrashService getCrashService() {
+        return crashService;
+    }
+
+    /**
+     * Obtiene el servicio de Plinko.
+     * @return el servicio de Plinko
+     */
+    public static PlinkoService getPlinkoService() {
+        return plinkoService;
+    }
+
+    /**
+     * Obtiene el servicio de apuesta automática de Mines.
+     * @return el servicio de apuesta automática de Mines
+     */
+    public static MinesAutoBetService getMinesAutoBetService() {
+        return minesAutoBetService;
+    }
+
+    /**
+     * Obtiene la exposición de la casa en las rondas en curso.
+     * @return la exposición de la casa
+     */
+    public static ExposureTracker getExposureTracker() {
+        return exposureTracker;
+    }
+
+    /**
+     * Obtiene la analítica de sesiones.
+     * @return la analítica, o null si analytics.enabled=false
+     */
+    public static SessionAnalytics getSessionAnalytics() {
+        return sessionAnalytics;
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,66 @@
+package com.ztake.casino.analytics;
+
+/**
+ * Totales agregados de un conjunto de sesiones (de un tipo de juego o de toda la casa).
+ * Los importes se acumulan en céntimos para evitar errores de redondeo.
+ */
+public class GameTypeTotals {
+    private final long rounds;
+    private final long roundsWon;
+    private final long betCents;
+    private final long winCents;
+
+    public GameTypeTotals(long rounds, long roundsWon, long betCents, long winCents) {
+        this.rounds = rounds;
+        this.roundsWon = roundsWon;
+        this.betCents = betCents;
+        this.winCents = winCents;
+    }
+
+    GameTypeTotals plus(GameTypeTotals other) {
+        return new GameTypeTotals(rounds + other.rounds, roundsWon + other.roundsWon,
+                betCents + other.betCents, winCents + other.winCents);
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getRoundsWon() {
+        return roundsWon;
+    }
+
+    public double getTotalBet() {
+        return betCents / 100.0;
+    }
+
+    public double getTotalWon() {
+        return winCents / 100.0;
+    }
+
+    /**
+     * @return ingresos brutos de juego de la casa (apostado - pagado)
+     */
+    public double getGgr() {
+        return (betCents - winCents) / 100.0;
+    }
+
+    /**
+     * @return retorno al jugador (pagado / apostado), 0 si no hubo apuestas
+     */
+    public double getRtp() {
+        return betCents > 0 ? (double) winCents / betCents : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "GameTypeTotals{" +
+                "rounds=" + rounds +
+                ", roundsWon=" + roundsWon +
+                ", totalBet=" + getTotalBet() +
+                ", totalWon=" + getTotalWon() +
+                ", ggr=" + getGgr() +
+                ", rtp=" + getRtp() +
+                '}';
+    }
+}
@@ -0,0 +1,532 @@
+package com.ztake.casino.analytics;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.config.DatabaseConfig;
+import org.hibernate.StatelessSession;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Motor de analítica de la casa sobre game_sessions.
+ *
+ * <p>Las sesiones finalizadas se cargan en columnas de tipos primitivos divididas en bloques
+ * de {@value #CHUNK_SIZE} filas (usuario, tipo de juego, apuesta y ganancia en céntimos,
+ * fecha en segundos y si se ganó), unos 22 bytes por sesión. Las consultas (GGR, RTP por
+ * tipo de juego, distribución de apuestas y jugadores activos) recorren los bloques en
+ * paralelo con fork-join, sin pasar por la base de datos.</p>
+ *
+ * <p>{@link #refresh()} carga solo lo nuevo: las sesiones con ID mayor que el último cargado.
+ * Las que estaban en curso al cargarse se guardan como pendientes y se vuelven a consultar
+ * en cada actualización hasta que se liquidan. Las consultas trabajan sobre una instantánea
+ * inmutable, por lo que pueden ejecutarse mientras se actualiza.</p>
+ */
+public class SessionAnalytics {
+    private static final Logger LOGGER = Logger.getLogger(SessionAnalytics.class.getName());
+
+    static final int CHUNK_SIZE = 1 << 16;
+    private static final int PAGE_SIZE = 50_000;
+    private static final int PENDING_QUERY_SIZE = 1000;
+    private static final String GAME_RESULT_IN_PROGRESS = "in_progress";
+    private static final String GAME_RESULT_WON = "won";
+    // Las fechas se guardan como segundos desde este instante (int válido hasta 2088)
+    private static final long EPOCH_SECONDS = LocalDateTime.of(2020, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final ForkJoinPool pool;
+    // Ciclo de vida con su propio cerrojo: stop() no espera a que termine una carga
+    private final Object lifecycleLock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    // Estado del cargador (protegido por this)
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final List<String> gameTypes = new ArrayList<>();
+    private final Map<String, Integer> gameTypeCodes = new HashMap<>();
+    private final Map<Long, Integer> userIndexes = new HashMap<>();
+    private final Set<Long> pendingIds = new HashSet<>();
+    private long highestLoadedId;
+    private long rows;
+
+    private volatile Snapshot snapshot = new Snapshot(new Chunk[0], 0, new String[0], 0);
+
+    public SessionAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SessionAnalytics(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Inicia la actualización periódica en un hilo daemon (cada {@code analytics.refreshSeconds}).
+     * La primera carga completa se hace en ese hilo.
+     */
+    public void start() {
+        int refreshSeconds = AppConfig.getInt("analytics.refreshSeconds", 60);
+        synchronized (lifecycleLock) {
+            if (scheduler != null) {
+                return;
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-analytics-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::refreshSafely, 0, refreshSeconds, TimeUnit.SECONDS);
+        }
+
+        LOGGER.info("Analítica de sesiones iniciada - Actualización cada " + refreshSeconds + " s");
+    }
+
+    /**
+     * Detiene la actualización periódica. Los datos cargados siguen disponibles.
+     */
+    public void stop() {
+        synchronized (lifecycleLock) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // No propagar: una excepción cancelaría las ejecuciones siguientes
+            LOGGER.log(Level.SEVERE, "Error en la actualización de la analítica: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carga las sesiones nuevas y las pendientes que ya se liquidaron.
+     *
+     * @return número de sesiones añadidas
+     */
+    public synchronized int refresh() {
+        int added = 0;
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            added += loadSettledPending(session);
+
+            List<Object[]> page;
+            do {
+                page = session.createSelectionQuery(
+                                "SELECT g.id, g.user.id, g.gameType, g.betAmount, g.winningAmount, g.result, g.sessionDate " +
+                                        "FROM GameSession g WHERE g.id > :after ORDER BY g.id", Object[].class)
+                        .setParameter("after", highestLoadedId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList();
+
+                for (Object[] row : page) {
+                    long id = ((Number) row[0]).longValue();
+                    highestLoadedId = Math.max(highestLoadedId, id);
+                    if (GAME_RESULT_IN_PROGRESS.equals(row[5])) {
+                        pendingIds.add(id);
+                    } else {
+                        appendRow(row);
+                        added++;
+                    }
+                }
+                publish();
+            } while (page.size() == PAGE_SIZE);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al actualizar la analítica de sesiones", e);
+            throw new RuntimeException("No se pudo actualizar la analítica de sesiones", e);
+        }
+
+        if (added > 0) {
+            LOGGER.log(Level.INFO, "Analítica actualizada - Sesiones añadidas: {0} - Total: {1} - Pendientes: {2}",
+                    new Object[]{added, rows, pendingIds.size()});
+        }
+        return added;
+    }
+
+    /**
+     * Vuelve a consultar las sesiones que estaban en curso: añade las liquidadas y olvida las
+     * que ya no existen (cuentas eliminadas).
+     */
+    private int loadSettledPending(StatelessSession session) {
+        if (pendingIds.isEmpty()) {
+            return 0;
+        }
+
+        int added = 0;
+        List<Long> ids = new ArrayList<>(pendingIds);
+        ids.sort(null);
+        for (int start = 0; start < ids.size(); start += PENDING_QUERY_SIZE) {
+            List<Long> batch = ids.subList(start, Math.min(start + PENDING_QUERY_SIZE, ids.size()));
+            List<Object[]> found = session.createSelectionQuery(
+                            "SELECT g.id, g.user.id, g.gameType, g.betAmount, g.winningAmount, g.result, g.sessionDate " +
+                                    "FROM GameSession g WHERE g.id IN :ids", Object[].class)
+                    .setParameter("ids", batch)
+                    .getResultList();
+
+            batch.forEach(pendingIds::remove);
+            for (Object[] row : found) {
+                if (GAME_RESULT_IN_PROGRESS.equals(row[5])) {
+                    pendingIds.add(((Number) row[0]).longValue());
+                } else {
+                    appendRow(row);
+                    added++;
+                }
+            }
+        }
+        publish();
+        return added;
+    }
+
+    private void appendRow(Object[] row) {
+        long userId = ((Number) row[1]).longValue();
+        String gameType = (String) row[2];
+        long betCents = Math.round(((Number) row[3]).doubleValue() * 100);
+        long winCents = Math.round(((Number) row[4]).doubleValue() * 100);
+        boolean won = GAME_RESULT_WON.equals(row[5]);
+        append(userId, gameType, betCents, winCents, won, (LocalDateTime) row[6]);
+    }
+
+    /**
+     * Añade una sesión a las columnas. No es visible para las consultas hasta {@link #publish()}.
+     */
+    synchronized void append(long userId, String gameType, long betCents, long winCents, boolean won,
+                             LocalDateTime sessionDate) {
+        int position = (int) (rows & (CHUNK_SIZE - 1));
+        if (position == 0) {
+            chunks.add(new Chunk());
+        }
+        Chunk chunk = chunks.get(chunks.size() - 1);
+
+        int seconds = toSeconds(sessionDate);
+        chunk.users[position] = userIndexes.computeIfAbsent(userId, id -> userIndexes.size());
+        chunk.gameTypes[position] = (byte) gameTypeCode(gameType);
+        chunk.betCents[position] = (int) betCents;
+        chunk.winCents[position] = winCents;
+        chunk.times[position] = seconds;
+        chunk.won[position] = won;
+        chunk.minTime = Math.min(chunk.minTime, seconds);
+        chunk.maxTime = Math.max(chunk.maxTime, seconds);
+        rows++;
+    }
+
+    private int gameTypeCode(String gameType) {
+        Integer code = gameTypeCodes.get(gameType);
+        if (code == null) {
+            if (gameTypes.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Demasiados tipos de juego distintos para la analítica");
+            }
+            code = gameTypes.size();
+            gameTypes.add(gameType);
+            gameTypeCodes.put(gameType, code);
+        }
+        return code;
+    }
+
+    /**
+     * Hace visibles para las consultas las filas añadidas hasta ahora.
+     */
+    synchronized void publish() {
+        snapshot = new Snapshot(chunks.toArray(new Chunk[0]), rows, gameTypes.toArray(new String[0]), userIndexes.size());
+    }
+
+    // --- Consultas ---
+
+    /**
+     * Calcula los totales por tipo de juego de las sesiones del rango.
+     *
+     * @param fromDate fecha de inicio (null para sin límite)
+     * @param toDate   fecha de fin (null para sin límite)
+     * @return totales por tipo de juego, en orden de aparición
+     */
+    public Map<String, GameTypeTotals> totalsByGameType(LocalDateTime fromDate, LocalDateTime toDate) {
+        Snapshot s = snapshot;
+        int typeCount = s.gameTypes.length;
+        // Acumuladores contiguos por tipo: [rondas, ganadas, apostado, pagado]
+        long[] totals = scan(s, fromDate, toDate, new Scanner<long[]>() {
+            @Override
+            public long[] empty() {
+                return new long[typeCount * 4];
+            }
+
+            @Override
+            public long[] scan(Chunk chunk, int size, int minTime, int maxTime, long[] result) {
+                int[] times = chunk.times;
+                byte[] types = chunk.gameTypes;
+                int[] bets = chunk.betCents;
+                long[] wins = chunk.winCents;
+                boolean[] won = chunk.won;
+                for (int i = 0; i < size; i++) {
+                    int time = times[i];
+                    if (time < minTime || time > maxTime) {
+                        continue;
+                    }
+                    int base = types[i] << 2;
+                    result[base]++;
+                    result[base + 1] += won[i] ? 1 : 0;
+                    result[base + 2] += bets[i];
+                    result[base + 3] += wins[i];
+                }
+                return result;
+            }
+
+            @Override
+            public long[] combine(long[] a, long[] b) {
+                for (int i = 0; i < a.length; i++) {
+                    a[i] += b[i];
+                }
+                return a;
+            }
+        });
+
+        Map<String, GameTypeTotals> byType = new LinkedHashMap<>();
+        for (int type = 0; type < typeCount; type++) {
+            int base = type << 2;
+            if (totals[base] > 0) {
+                byType.put(s.gameTypes[type], new GameTypeTotals(totals[base], totals[base + 1],
+                        totals[base + 2], totals[base + 3]));
+            }
+        }
+        return byType;
+    }
+
+    /**
+     * @return totales de toda la casa en el rango (GGR y RTP globales)
+     */
+    public GameTypeTotals totals(LocalDateTime fromDate, LocalDateTime toDate) {
+        GameTypeTotals total = new GameTypeTotals(0, 0, 0, 0);
+        for (GameTypeTotals totals : totalsByGameType(fromDate, toDate).values()) {
+            total = total.plus(totals);
+        }
+        return total;
+    }
+
+    /**
+     * Cuenta las sesiones del rango por tamaño de apuesta.
+     *
+     * @param fromDate     fecha de inicio (null para sin límite)
+     * @param toDate       fecha de fin (null para sin límite)
+     * @param upperBounds  límites superiores (inclusive) de cada intervalo, en orden creciente
+     * @return un contador por intervalo más uno final para las apuestas mayores que el último límite
+     */
+    public long[] betSizeHistogram(LocalDateTime fromDate, LocalDateTime toDate, double... upperBounds) {
+        int[] boundsCents = new int[upperBounds.length];
+        for (int i = 0; i < upperBounds.length; i++) {
+            boundsCents[i] = (int) Math.round(upperBounds[i] * 100);
+        }
+
+        return scan(snapshot, fromDate, toDate, new Scanner<long[]>() {
+            @Override
+            public long[] empty() {
+                return new long[boundsCents.length + 1];
+            }
+
+            @Override
+            public long[] scan(Chunk chunk, int size, int minTime, int maxTime, long[] result) {
+                int[] times = chunk.times;
+                int[] bets = chunk.betCents;
+                for (int i = 0; i < size; i++) {
+                    int time = times[i];
+                    if (time < minTime || time > maxTime) {
+                        continue;
+                    }
+                    result[bucketOf(boundsCents, bets[i])]++;
+                }
+                return result;
+            }
+
+            @Override
+            public long[] combine(long[] a, long[] b) {
+                for (int i = 0; i < a.length; i++) {
+                    a[i] += b[i];
+                }
+                return a;
+            }
+        });
+    }
+
+    /**
+     * Cuenta los jugadores distintos con al menos una sesión en el rango.
+     *
+     * @param fromDate fecha de inicio (null para sin límite)
+     * @param toDate   fecha de fin (null para sin límite)
+     * @return número de jugadores activos
+     */
+    public int activePlayers(LocalDateTime fromDate, LocalDateTime toDate) {
+        Snapshot s = snapshot;
+        int words = (s.users + 63) >>> 6;
+        long[] seen = scan(s, fromDate, toDate, new Scanner<long[]>() {
+            @Override
+            public long[] empty() {
+                return new long[words];
+            }
+
+            @Override
+            public long[] scan(Chunk chunk, int size, int minTime, int maxTime, long[] result) {
+                int[] times = chunk.times;
+                int[] users = chunk.users;
+                for (int i = 0; i < size; i++) {
+                    int time = times[i];
+                    if (time >= minTime && time <= maxTime) {
+                        int user = users[i];
+                        result[user >>> 6] |= 1L << user;
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public long[] combine(long[] a, long[] b) {
+                for (int i = 0; i < a.length; i++) {
+                    a[i] |= b[i];
+                }
+                return a;
+            }
+        });
+
+        int count = 0;
+        for (long word : seen) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int bucketOf(int[] bounds, int value) {
+        // Con pocos intervalos se cuentan los límites superados sin saltos: los tamaños de
+        // apuesta son impredecibles y una búsqueda con ramas falla la predicción a menudo
+        if (bounds.length <= 16) {
+            int bucket = 0;
+            for (int bound : bounds) {
+                bucket += (bound - value) >>> 31;
+            }
+            return bucket;
+        }
+        int bucket = Arrays.binarySearch(bounds, value);
+        return bucket >= 0 ? bucket : -bucket - 1;
+    }
+
+    public long getLoadedRows() {
+        return snapshot.rows;
+    }
+
+    public synchronized long getHighestLoadedId() {
+        return highestLoadedId;
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingIds.size();
+    }
+
+    private <R> R scan(Snapshot s, LocalDateTime fromDate, LocalDateTime toDate, Scanner<R> scanner) {
+        int minTime = fromDate != null ? toSeconds(fromDate) : Integer.MIN_VALUE;
+        int maxTime = toDate != null ? toSeconds(toDate) : Integer.MAX_VALUE;
+        if (s.chunks.length == 0) {
+            return scanner.empty();
+        }
+        return pool.invoke(new ScanTask<>(s, 0, s.chunks.length, minTime, maxTime, scanner));
+    }
+
+    private static int toSeconds(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) - EPOCH_SECONDS);
+    }
+
+    /**
+     * Recorrido de un bloque y combinación de resultados parciales.
+     */
+    private interface Scanner<R> {
+        R empty();
+
+        R scan(Chunk chunk, int size, int minTime, int maxTime, R result);
+
+        R combine(R a, R b);
+    }
+
+    /**
+     * Tarea fork-join que divide el rango de bloques hasta llegar a uno solo.
+     */
+    private static final class ScanTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final Snapshot snapshot;
+        private final int from;
+        private final int to;
+        private final int minTime;
+        private final int maxTime;
+        private final Scanner<R> scanner;
+
+        ScanTask(Snapshot snapshot, int from, int to, int minTime, int maxTime, Scanner<R> scanner) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.scanner = scanner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                Chunk chunk = snapshot.chunks[from];
+                R result = scanner.empty();
+                // Las sesiones llegan casi en orden de fecha: se saltan los bloques fuera del rango
+                if (chunk.maxTime < minTime || chunk.minTime > maxTime) {
+                    return result;
+                }
+                return scanner.scan(chunk, snapshot.sizeOf(from), minTime, maxTime, result);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask<R> left = new ScanTask<>(snapshot, from, middle, minTime, maxTime, scanner);
+            left.fork();
+            R right = new ScanTask<>(snapshot, middle, to, minTime, maxTime, scanner).compute();
+            return scanner.combine(left.join(), right);
+        }
+    }
+
+    /**
+     * Bloque de columnas. Solo el cargador escribe; las consultas leen hasta el tamaño publicado.
+     */
+    static final class Chunk {
+        final int[] users = new int[CHUNK_SIZE];
+        final byte[] gameTypes = new byte[CHUNK_SIZE];
+        final int[] betCents = new int[CHUNK_SIZE];
+        final long[] winCents = new long[CHUNK_SIZE];
+        final int[] times = new int[CHUNK_SIZE];
+        final boolean[] won = new boolean[CHUNK_SIZE];
+        volatile int minTime = Integer.MAX_VALUE;
+        volatile int maxTime = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Vista inmutable de las columnas publicadas.
+     */
+    private static final class Snapshot {
+        final Chunk[] chunks;
+        final long rows;
+        final String[] gameTypes;
+        final int users;
+
+        Snapshot(Chunk[] chunks, long rows, String[] gameTypes, int users) {
+            this.chunks = chunks;
+            this.rows = rows;
+            this.gameTypes = gameTypes;
+            this.users = users;
+        }
+
+        int sizeOf(int chunk) {
+            return chunk < chunks.length - 1 ? CHUNK_SIZE : (int) (rows - (long) chunk * CHUNK_SIZE);
+        }
+    }
+}
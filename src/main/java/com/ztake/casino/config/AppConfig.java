@@ -0,0 +1,93 @@
+package com.ztake.casino.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Configuración general de la aplicación (fuera de la conexión a base de datos).
+ * Lee application.properties del classpath; cualquier clave puede sobrescribirse
+ * con una propiedad de sistema del mismo nombre (-Dclave=valor).
+ */
+public class AppConfig {
+    private static final Logger LOGGER = Logger.getLogger(AppConfig.class.getName());
+    private static final String PROPERTIES_FILE = "application.properties";
+    private static Properties properties;
+
+    private AppConfig() {
+    }
+
+    private static synchronized Properties getProperties() {
+        if (properties == null) {
+            Properties props = new Properties();
+            try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+                if (in != null) {
+                    props.load(in);
+                } else {
+                    LOGGER.warning("No se encontró " + PROPERTIES_FILE + ", se usarán valores por defecto");
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error al leer " + PROPERTIES_FILE + ": " + e.getMessage(), e);
+            }
+            properties = props;
+        }
+        return properties;
+    }
+
+    /**
+     * Obtiene una propiedad de texto.
+     *
+     * @param key          clave de la propiedad
+     * @param defaultValue valor a usar si la clave no está definida
+     * @return el valor configurado o el valor por defecto
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = getProperties().getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Obtiene una propiedad entera.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valor entero inválido para " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Obtiene una propiedad decimal.
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valor decimal inválido para " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Obtiene una propiedad booleana.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
@@ -3,6 +3,8 @@ package com.ztake.casino.config;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -56,6 +58,13 @@ public class DatabaseConfig {
             configOverrides.put("hibernate.format_sql", dbProps.getProperty("hibernate.format_sql"));
             configOverrides.put("hibernate.hbm2ddl.auto", dbProps.getProperty("hibernate.hbm2ddl.auto"));
 
+            // Agrupar en lotes JDBC las actualizaciones de liquidaciones masivas
+            configOverrides.put("hibernate.jdbc.batch_size", dbProps.getProperty("hibernate.jdbc.batch_size", "100"));
+            configOverrides.put("hibernate.order_updates", "true");
+
+            // Contar sentencias por operación para detectar cargas perezosas N+1
+            configOverrides.put("hibernate.session_factory.statement_inspector", SqlStatementCounter.class.getName());
+
             // Verificar si HikariCP está disponible
             try {
                 Class.forName("com.zaxxer.hikari.hibernate.HikariConnectionProvider");
@@ -87,6 +96,14 @@ public class DatabaseConfig {
             }
             props.load(in);
         }
+
+        // Una propiedad del sistema con el mismo nombre sustituye al valor del archivo
+        for (String name : props.stringPropertyNames()) {
+            String override = System.getProperty(name);
+            if (override != null) {
+                props.setProperty(name, override);
+            }
+        }
         return props;
     }
 
@@ -108,6 +125,25 @@ public class DatabaseConfig {
         return emf.createEntityManager();
     }
 
+    /**
+     * Abre una sesión sin estado para lecturas masivas de solo lectura.
+     * No mantiene contexto de persistencia ni instantáneas para la comprobación de cambios,
+     * por lo que las entidades devueltas quedan desligadas desde el primer momento.
+     *
+     * @return StatelessSession conectada a la base de datos
+     */
+    public static StatelessSession openStatelessSession() {
+        if (!initialized) {
+            initialize();
+        }
+
+        if (emf == null || !emf.isOpen()) {
+            throw new IllegalStateException("EntityManagerFactory no está inicializada o está cerrada");
+        }
+
+        return emf.unwrap(SessionFactory.class).openStatelessSession();
+    }
+
     /**
      * Cierra los recursos de la base de datos al finalizar la aplicación
      */
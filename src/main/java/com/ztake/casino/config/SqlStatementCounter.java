@@ -0,0 +1,136 @@
+package com.ztake.casino.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate ejecuta en cada operación del hilo actual.
+ *
+ * <p>Se registra como {@code hibernate.session_factory.statement_inspector}. Una operación
+ * se mide con {@link #measure}: al terminar se comprueba que no superó su presupuesto de
+ * sentencias y que ninguna SELECT idéntica se repitió más de {@code sql.maxRepeatedSelects}
+ * veces, el patrón típico de N+1 por asociaciones perezosas. Por defecto solo se avisa en el
+ * log; con {@code sql.strict=true} (modo de prueba) la operación falla con
+ * {@link IllegalStateException}. Las operaciones que confirman su propia transacción se miden
+ * con {@link #measureCommitted}: cuando se comprueba el presupuesto los cambios ya están
+ * guardados, así que el exceso nunca se lanza como error.</p>
+ *
+ * <p>Las sentencias enviadas directamente por JDBC ({@code Session.doWork}) no pasan por
+ * Hibernate y no se cuentan.</p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(SqlStatementCounter.class.getName());
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public String inspect(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (!scopes.isEmpty()) {
+            // Las operaciones anidadas también cuentan para las que las contienen
+            for (Scope scope : scopes) {
+                scope.record(sql);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta una operación midiendo las sentencias SQL que genera.
+     *
+     * @param operation nombre de la operación (para el log y los errores)
+     * @param maxStatements número máximo de sentencias esperado
+     * @param work la operación
+     * @return el resultado de la operación
+     * @throws IllegalStateException en modo estricto, si se supera el presupuesto o hay N+1
+     */
+    public static <T> T measure(String operation, int maxStatements, Supplier<T> work) {
+        return measure(operation, maxStatements, false, work);
+    }
+
+    /**
+     * Como {@link #measure}, para operaciones que confirman su transacción antes de devolver
+     * (liquidaciones): el exceso se registra en el log, como error en modo estricto, pero no se
+     * lanza, porque el llamador tomaría por fallida una operación ya guardada.
+     *
+     * @param operation nombre de la operación (para el log)
+     * @param maxStatements número máximo de sentencias esperado
+     * @param work la operación
+     * @return el resultado de la operación
+     */
+    public static <T> T measureCommitted(String operation, int maxStatements, Supplier<T> work) {
+        return measure(operation, maxStatements, true, work);
+    }
+
+    private static <T> T measure(String operation, int maxStatements, boolean committed, Supplier<T> work) {
+        Scope scope = new Scope(operation, maxStatements);
+        Deque<Scope> scopes = SCOPES.get();
+        scopes.push(scope);
+        T result;
+        try {
+            result = work.get();
+        } finally {
+            scopes.pop();
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+        scope.verify(committed);
+        return result;
+    }
+
+    /**
+     * Sentencias registradas durante una operación.
+     */
+    private static final class Scope {
+        private final String operation;
+        private final int maxStatements;
+        private final Map<String, Integer> selects = new HashMap<>();
+        private int statements;
+
+        Scope(String operation, int maxStatements) {
+            this.operation = operation;
+            this.maxStatements = maxStatements;
+        }
+
+        void record(String sql) {
+            statements++;
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        void verify(boolean committed) {
+            int maxRepeats = AppConfig.getInt("sql.maxRepeatedSelects", 2);
+            String problem = null;
+
+            for (Map.Entry<String, Integer> select : selects.entrySet()) {
+                if (select.getValue() > maxRepeats) {
+                    problem = "posible N+1 en " + operation + ": la misma consulta se ejecutó "
+                            + select.getValue() + " veces - " + select.getKey();
+                    break;
+                }
+            }
+            if (problem == null && statements > maxStatements) {
+                problem = operation + " ejecutó " + statements + " sentencias SQL (máximo " + maxStatements + ")";
+            }
+
+            if (problem == null) {
+                LOGGER.log(Level.FINE, "{0}: {1} sentencias SQL", new Object[]{operation, statements});
+            } else if (!AppConfig.getBoolean("sql.strict", false)) {
+                LOGGER.warning("Exceso de sentencias SQL: " + problem);
+            } else if (committed) {
+                LOGGER.severe("Exceso de sentencias SQL (la operación ya se confirmó): " + problem);
+            } else {
+                throw new IllegalStateException("Exceso de sentencias SQL: " + problem);
+            }
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.game.blackjack.BlackjackEngine;
+import com.ztake.casino.game.blackjack.BlackjackRules;
+import com.ztake.casino.game.blackjack.BlackjackStrategy;
+import com.ztake.casino.game.blackjack.Shoe;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.Wager;
+import com.ztake.casino.service.GameService;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador para el Blackjack. Cada mano es una sesión de juego: se abre con la apuesta
+ * inicial, doblar y dividir añaden apuestas con {@link GameService#raiseBet} y al terminar se
+ * registra una transacción de premio por cada mano ganadora.
+ *
+ * <p>Con servicio, cada ronda reparte de un zapato recién barajado con el generador justo de
+ * la sesión, así que las cartas se pueden reproducir con las semillas; sin servicio se juega
+ * con un zapato local que se baraja al llegar a la carta de corte.</p>
+ */
+public class BlackjackGameController implements GameController {
+    private static final Logger LOGGER = Logger.getLogger(BlackjackGameController.class.getName());
+    private static final String GAME_TYPE = "Blackjack";
+    // Exposición mientras se juega: una mano normal paga como mucho el doble de su apuesta
+    private static final double EXPOSURE_MULTIPLIER = 2.0;
+
+    @FXML
+    private Label balanceLabel;
+
+    @FXML
+    private TextField betAmountField;
+
+    @FXML
+    private HBox dealerCardsBox;
+
+    @FXML
+    private Label dealerValueLabel;
+
+    @FXML
+    private VBox playerHandsBox;
+
+    @FXML
+    private Label hintLabel;
+
+    @FXML
+    private Label gameInfoLabel;
+
+    @FXML
+    private Label rulesLabel;
+
+    @FXML
+    private Button dealButton;
+
+    @FXML
+    private Button hitButton;
+
+    @FXML
+    private Button standButton;
+
+    @FXML
+    private Button doubleButton;
+
+    @FXML
+    private Button splitButton;
+
+    @FXML
+    private Button exitButton;
+
+    @FXML
+    private Label lastWinLabel;
+
+    private User currentUser;
+    private GameService gameService;
+    private boolean updateInProgress = false;
+
+    private long betCents = 100;
+    private long roundBetCents;
+    private final BlackjackRules rules = BlackjackRules.getDefault();
+    private final BlackjackStrategy strategy = BlackjackStrategy.of(rules);
+    private final Shoe shoe = new Shoe(rules.getDecks(), rules.getPenetration(), new SplittableRandom());
+    private final BlackjackEngine engine = new BlackjackEngine(rules, shoe);
+    private GameSession gameSession;
+
+    /**
+     * Inicializa el controlador después de que el FXML ha sido cargado.
+     */
+    @FXML
+    public void initialize() {
+        betAmountField.setText(String.format("%.2f", betCents / 100.0));
+
+        // Validación de entrada para la apuesta
+        betAmountField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                betAmountField.setText(oldVal);
+                return;
+            }
+
+            try {
+                double bet = Double.parseDouble(newVal);
+                if (bet > 0) {
+                    betCents = Math.round(bet * 100);
+                }
+            } catch (NumberFormatException e) {
+                // Ignorar excepciones de conversión
+            }
+        });
+
+        rulesLabel.setText(String.format("%d barajas - el crupier %s con 17 blando - blackjack paga %s - "
+                        + "RTP con estrategia básica %.2f%%",
+                rules.getDecks(), rules.isDealerHitsSoft17() ? "pide" : "se planta",
+                rules.getBlackjackPayout() == 1.5 ? "3 a 2" : rules.getBlackjackPayout() == 1.2 ? "6 a 5"
+                        : String.format("%.2f a 1", rules.getBlackjackPayout()),
+                100 * strategy.getRtp()));
+        refreshTable();
+    }
+
+    /**
+     * Configura el usuario actual para mostrar su saldo.
+     */
+    @Override
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        updateBalanceLabel();
+    }
+
+    /**
+     * Configura el servicio de juego.
+     */
+    @Override
+    public void setGameService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Maneja el evento de clic en el botón REPARTIR.
+     */
+    @FXML
+    public void handleDealButtonAction(ActionEvent event) {
+        if (updateInProgress || engine.getState() == BlackjackEngine.State.PLAYER_TURN) {
+            return;
+        }
+        updateInProgress = true;
+        try {
+            roundBetCents = betCents;
+            if (gameService != null && currentUser != null) {
+                // Verificar saldo suficiente
+                if (currentUser.getBalance() * 100 < roundBetCents) {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Saldo insuficiente para realizar esta apuesta.");
+                    return;
+                }
+                gameSession = gameService.startGame(currentUser, GAME_TYPE, roundBetCents / 100.0);
+                updateBalanceLabel();
+                // Zapato nuevo barajado con el generador justo de la ronda
+                shoe.reset(gameService.getOutcomeRandom(gameSession));
+            }
+            engine.deal();
+            afterAction();
+        } catch (IllegalStateException e) {
+            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al repartir: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al repartir: " + e.getMessage());
+        } finally {
+            updateInProgress = false;
+        }
+    }
+
+    @FXML
+    public void handleHitButtonAction(ActionEvent event) {
+        play(BlackjackStrategy.Action.HIT);
+    }
+
+    @FXML
+    public void handleStandButtonAction(ActionEvent event) {
+        play(BlackjackStrategy.Action.STAND);
+    }
+
+    @FXML
+    public void handleDoubleButtonAction(ActionEvent event) {
+        play(BlackjackStrategy.Action.DOUBLE);
+    }
+
+    @FXML
+    public void handleSplitButtonAction(ActionEvent event) {
+        play(BlackjackStrategy.Action.SPLIT);
+    }
+
+    /**
+     * Aplica una jugada a la mano actual. Doblar y dividir cobran antes la apuesta adicional.
+     */
+    private void play(BlackjackStrategy.Action action) {
+        if (updateInProgress || engine.getState() != BlackjackEngine.State.PLAYER_TURN) {
+            return;
+        }
+        updateInProgress = true;
+        try {
+            switch (action) {
+                case DOUBLE:
+                    raiseBet("doblar:" + (engine.getCurrentHand() + 1));
+                    engine.doubleDown();
+                    break;
+                case SPLIT:
+                    raiseBet("dividir:" + (engine.getHandCount() + 1));
+                    engine.split();
+                    break;
+                case HIT:
+                    engine.hit();
+                    break;
+                default:
+                    engine.stand();
+                    break;
+            }
+            afterAction();
+        } catch (IllegalStateException e) {
+            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error en la jugada " + action + ": " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error en la jugada: " + e.getMessage());
+        } finally {
+            updateInProgress = false;
+        }
+    }
+
+    /**
+     * Cobra la apuesta adicional de doblar o dividir sobre la sesión en curso.
+     */
+    private void raiseBet(String reference) {
+        if (gameService == null || gameSession == null) {
+            return;
+        }
+        GameSession raised = gameService.raiseBet(gameSession, new Wager(reference, roundBetCents / 100.0));
+        if (raised.getUser() != null && currentUser != null) {
+            currentUser.setBalance(raised.getUser().getBalance());
+        }
+        gameService.updateExposure(raised, EXPOSURE_MULTIPLIER);
+        updateBalanceLabel();
+    }
+
+    /**
+     * Tras repartir o jugar: si la ronda ha terminado se liquida; si no, se actualiza la mesa.
+     */
+    private void afterAction() {
+        if (engine.getState() == BlackjackEngine.State.FINISHED) {
+            finishRound();
+        } else if (gameService != null && gameSession != null) {
+            gameService.updateExposure(gameSession, EXPOSURE_MULTIPLIER);
+        }
+        refreshTable();
+    }
+
+    /**
+     * Liquida la ronda: una transacción de premio por cada mano que devuelve algo (también los
+     * empates, que devuelven la apuesta) y las cartas repartidas en game_data para poder
+     * reproducir la ronda.
+     */
+    private void finishRound() {
+        long returnedCents = 0;
+        List<Wager> winnings = new ArrayList<>();
+        JSONArray hands = new JSONArray();
+        for (int h = 0; h < engine.getHandCount(); h++) {
+            long stakeCents = engine.getStake(h) * roundBetCents;
+            long handReturn = Math.round((engine.getStake(h) + engine.getHandResult(h)) * roundBetCents);
+            returnedCents += handReturn;
+            if (handReturn > 0) {
+                winnings.add(new Wager("mano:" + (h + 1), handReturn / 100.0));
+            }
+            hands.put(new JSONObject()
+                    .put("cards", cardList(h))
+                    .put("value", engine.getHandValue(h))
+                    .put("bet", stakeCents / 100.0)
+                    .put("paid", handReturn / 100.0));
+        }
+        long totalBetCents = engine.getTotalStake() * roundBetCents;
+
+        if (gameService != null && gameSession != null) {
+            StringBuilder cards = new StringBuilder();
+            for (int card : shoe.getRoundCards()) {
+                cards.append(cards.length() > 0 ? "," : "").append(card);
+            }
+            StringBuilder dealer = new StringBuilder();
+            for (int i = 0; i < engine.getDealerCardCount(); i++) {
+                dealer.append(i > 0 ? "," : "").append(engine.getDealerCard(i));
+            }
+            JSONObject gameData = new JSONObject();
+            gameData.put("decks", rules.getDecks());
+            gameData.put("cards", cards.toString());
+            gameData.put("dealer", dealer.toString());
+            gameData.put("dealerValue", engine.getDealerValue());
+            gameData.put("hands", hands);
+            gameData.put("multiplier", (double) returnedCents / totalBetCents);
+
+            try {
+                GameSession settled = gameService.endGame(gameSession, winnings, returnedCents > 0 ? "won" : "lost",
+                        gameData.toString());
+                // El premio se abona sobre el usuario de la sesión: sincronizar el saldo mostrado
+                if (settled.getUser() != null && currentUser != null) {
+                    currentUser.setBalance(settled.getUser().getBalance());
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al finalizar la mano: " + e.getMessage(), e);
+                showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al finalizar la mano: " + e.getMessage());
+            }
+            LOGGER.info("Mano de blackjack - Nonce: " + gameSession.getNonce() + ", manos: " + engine.getHandCount()
+                    + ", apostado: " + totalBetCents / 100.0 + ", pagado: " + returnedCents / 100.0);
+            gameSession = null;
+        }
+
+        updateBalanceLabel();
+        lastWinLabel.setText(String.format("%.2f", returnedCents / 100.0));
+        long netCents = returnedCents - totalBetCents;
+        if (engine.getHandCount() == 1 && engine.isNatural(0) && netCents > 0) {
+            gameInfoLabel.setText(String.format("¡Blackjack! Has ganado %.2f.", netCents / 100.0));
+        } else if (netCents > 0) {
+            gameInfoLabel.setText(String.format("¡Ganas %.2f! El crupier tiene %s.", netCents / 100.0, dealerDescription()));
+        } else if (netCents == 0) {
+            gameInfoLabel.setText("Empate: se devuelve la apuesta. El crupier tiene " + dealerDescription() + ".");
+        } else {
+            gameInfoLabel.setText(String.format("Pierdes %.2f. El crupier tiene %s.", -netCents / 100.0, dealerDescription()));
+        }
+    }
+
+    private String dealerDescription() {
+        if (engine.isDealerBlackjack()) {
+            return "blackjack";
+        }
+        int value = engine.getDealerValue();
+        return value > 21 ? value + " (se pasa)" : String.valueOf(value);
+    }
+
+    /**
+     * Dibuja las cartas, el consejo de estrategia básica y el estado de los botones.
+     */
+    private void refreshTable() {
+        BlackjackEngine.State state = engine.getState();
+        boolean playing = state == BlackjackEngine.State.PLAYER_TURN;
+
+        dealerCardsBox.getChildren().clear();
+        playerHandsBox.getChildren().clear();
+        if (state != BlackjackEngine.State.IDLE) {
+            // Durante el turno del jugador solo se ve la carta descubierta
+            int shown = playing ? 1 : engine.getDealerCardCount();
+            for (int i = 0; i < shown; i++) {
+                dealerCardsBox.getChildren().add(cardLabel(engine.getDealerCard(i)));
+            }
+            if (playing) {
+                Label hidden = new Label("?");
+                hidden.getStyleClass().addAll("bj-card", "bj-card-hidden");
+                dealerCardsBox.getChildren().add(hidden);
+                dealerValueLabel.setText(String.valueOf(engine.getUpcard() == 1 ? 11 : engine.getUpcard()));
+            } else {
+                dealerValueLabel.setText(dealerDescription());
+            }
+
+            for (int h = 0; h < engine.getHandCount(); h++) {
+                HBox cards = new HBox(6);
+                cards.setAlignment(Pos.CENTER_LEFT);
+                for (int i = 0; i < engine.getCardCount(h); i++) {
+                    cards.getChildren().add(cardLabel(engine.getCard(h, i)));
+                }
+                int value = engine.getHandValue(h);
+                String text = (engine.isSoft(h) ? "blando " : "") + value + (value > 21 ? " (te pasas)" : "")
+                        + (engine.getStake(h) == 2 ? " - doblada" : "");
+                if (state == BlackjackEngine.State.FINISHED) {
+                    text += String.format(" - %+.2f", engine.getHandResult(h) * roundBetCents / 100.0);
+                }
+                Label valueLabel = new Label(text);
+                valueLabel.getStyleClass().add("text-label");
+                HBox hand = new HBox(12, cards, valueLabel);
+                hand.setAlignment(Pos.CENTER_LEFT);
+                hand.getStyleClass().add("bj-hand");
+                if (playing && h == engine.getCurrentHand() && engine.getHandCount() > 1) {
+                    hand.getStyleClass().add("bj-hand-active");
+                }
+                playerHandsBox.getChildren().add(hand);
+            }
+        } else {
+            dealerValueLabel.setText("-");
+        }
+
+        if (playing) {
+            int hand = engine.getCurrentHand();
+            BlackjackStrategy.Action best = strategy.decide(engine);
+            int pairRank = engine.canSplit() ? engine.getCard(hand, 0) : 0;
+            double ev = strategy.getEv(best, engine.getHandValue(hand), engine.isSoft(hand), engine.getUpcard(), pairRank);
+            hintLabel.setText(String.format("Estrategia básica: %s (valor esperado %+.3f por unidad)",
+                    best.getDisplayName(), ev));
+            if (engine.getHandCount() > 1) {
+                gameInfoLabel.setText("Jugando la mano " + (hand + 1) + " de " + engine.getHandCount() + ".");
+            } else {
+                gameInfoLabel.setText("Pide, plántate, dobla o divide.");
+            }
+        } else {
+            hintLabel.setText("");
+        }
+
+        dealButton.setDisable(playing);
+        betAmountField.setDisable(playing);
+        hitButton.setDisable(!playing || !engine.canHit());
+        standButton.setDisable(!playing);
+        doubleButton.setDisable(!playing || !engine.canDouble());
+        splitButton.setDisable(!playing || !engine.canSplit());
+    }
+
+    private String cardList(int hand) {
+        StringBuilder cards = new StringBuilder();
+        for (int i = 0; i < engine.getCardCount(hand); i++) {
+            cards.append(i > 0 ? "," : "").append(engine.getCard(hand, i));
+        }
+        return cards.toString();
+    }
+
+    private static Label cardLabel(int rank) {
+        Label card = new Label(rank == 1 ? "A" : String.valueOf(rank));
+        card.getStyleClass().add("bj-card");
+        return card;
+    }
+
+    /**
+     * Maneja el evento de clic en el botón SALIR.
+     */
+    @FXML
+    public void handleExitButtonAction(ActionEvent event) {
+        if (updateInProgress) {
+            LOGGER.info("Operación en progreso, ignorando clic en SALIR");
+            return;
+        }
+        if (engine.getState() == BlackjackEngine.State.PLAYER_TURN) {
+            showAlert(Alert.AlertType.WARNING, "Mano en juego", "Termina la mano antes de salir.");
+            return;
+        }
+        navigateToDashboard();
+    }
+
+    /**
+     * Actualiza la etiqueta de saldo con el valor actual.
+     */
+    private void updateBalanceLabel() {
+        if (currentUser != null && balanceLabel != null) {
+            balanceLabel.setText(String.format("%.2f", currentUser.getBalance()));
+        }
+    }
+
+    /**
+     * Navega de vuelta al dashboard principal.
+     */
+    private void navigateToDashboard() {
+        try {
+            // Cargar la vista principal
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main-view.fxml"));
+            Parent mainRoot = loader.load();
+
+            // Configurar el controlador con los datos del usuario y los servicios
+            MainController mainController = loader.getController();
+            if (currentUser != null) {
+                mainController.setCurrentUser(currentUser);
+            }
+            if (gameService != null) {
+                mainController.setGameService(gameService);
+            }
+
+            // Sustituir la vista en la ventana actual
+            Stage stage = (Stage) exitButton.getScene().getWindow();
+            if (stage != null && stage.getScene() != null) {
+                stage.getScene().setRoot(mainRoot);
+            } else {
+                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la vista principal: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo cargar la vista principal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra una alerta con el mensaje especificado.
+     */
+    private void showAlert(Alert.AlertType type, String header, String content) {
+        Platform.runLater(() -> {
+            try {
+                Alert alert = new Alert(type);
+                alert.setTitle("Blackjack");
+                alert.setHeaderText(header);
+                alert.setContentText(content);
+                alert.showAndWait();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al mostrar alerta: " + e.getMessage(), e);
+            }
+        });
+    }
+}
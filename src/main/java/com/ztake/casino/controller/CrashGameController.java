@@ -0,0 +1,346 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.ZtakeApplication;
+import com.ztake.casino.game.crash.CrashCurve;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.CrashService;
+import com.ztake.casino.service.GameService;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador para la mesa de Crash. La ronda es compartida y la lleva {@link CrashService};
+ * la vista solo la consulta periódicamente, apuesta durante la fase de apuestas y cobra
+ * mientras sube el multiplicador. El premio llega al saldo cuando la ronda se liquida en lote.
+ */
+public class CrashGameController implements GameController {
+    private static final Logger LOGGER = Logger.getLogger(CrashGameController.class.getName());
+    private static final int REFRESH_MILLIS = 50;
+    private static final int RECENT_ROUNDS = 8;
+
+    @FXML
+    private Label balanceLabel;
+
+    @FXML
+    private TextField betAmountField;
+
+    @FXML
+    private TextField autoCashoutField;
+
+    @FXML
+    private Label multiplierLabel;
+
+    @FXML
+    private Label phaseLabel;
+
+    @FXML
+    private Label roundLabel;
+
+    @FXML
+    private Label playersLabel;
+
+    @FXML
+    private Label recentLabel;
+
+    @FXML
+    private Label gameInfoLabel;
+
+    @FXML
+    private Button betButton;
+
+    @FXML
+    private Button cashoutButton;
+
+    @FXML
+    private Button exitButton;
+
+    @FXML
+    private Label lastWinLabel;
+
+    private User currentUser;
+    private GameService gameService;
+    private CrashService crashService;
+    private Timeline refreshTimeline;
+
+    private double betAmount = 1.0;
+    private CrashService.Bet currentBet;
+    private long lastCrashedRound;
+    private final Deque<String> recentCrashPoints = new ArrayDeque<>();
+
+    /**
+     * Inicializa el controlador después de que el FXML ha sido cargado.
+     */
+    @FXML
+    public void initialize() {
+        betAmountField.setText(String.format("%.2f", betAmount));
+
+        // Validación de entrada para la apuesta y el cobro automático
+        betAmountField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                betAmountField.setText(oldVal);
+                return;
+            }
+
+            try {
+                double bet = Double.parseDouble(newVal);
+                if (bet > 0) {
+                    betAmount = bet;
+                }
+            } catch (NumberFormatException e) {
+                // Ignorar excepciones de conversión
+            }
+        });
+        autoCashoutField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                autoCashoutField.setText(oldVal);
+            }
+        });
+
+        crashService = ZtakeApplication.getCrashService();
+
+        refreshTimeline = new Timeline(new KeyFrame(Duration.millis(REFRESH_MILLIS), e -> refresh()));
+        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+        refreshTimeline.play();
+    }
+
+    /**
+     * Configura el usuario actual para mostrar su saldo.
+     */
+    @Override
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        updateBalanceLabel();
+    }
+
+    /**
+     * Configura el servicio de juego (para volver al dashboard).
+     */
+    @Override
+    public void setGameService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Configura la mesa de Crash compartida.
+     */
+    public void setCrashService(CrashService crashService) {
+        this.crashService = crashService;
+        refresh();
+    }
+
+    /**
+     * Apuesta en la ronda que está aceptando apuestas.
+     */
+    @FXML
+    public void handleBetButtonAction(ActionEvent event) {
+        if (crashService == null || currentUser == null) {
+            showAlert(Alert.AlertType.ERROR, "Mesa no disponible", "La mesa de Crash no está disponible.");
+            return;
+        }
+        if (currentBet != null) {
+            return;
+        }
+
+        int autoCashout;
+        try {
+            String text = autoCashoutField.getText().trim();
+            autoCashout = text.isEmpty() ? 0 : (int) Math.round(Double.parseDouble(text) * 100);
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.WARNING, "Cobro automático inválido", "Escribe un multiplicador como 2.00 o déjalo vacío.");
+            return;
+        }
+
+        try {
+            currentBet = crashService.placeBet(currentUser, betAmount, autoCashout);
+            updateBalanceLabel();
+            gameInfoLabel.setText(autoCashout > 0
+                    ? String.format("Apuesta de %.2f con cobro automático en x%.2f.", betAmount, autoCashout / 100.0)
+                    : String.format("Apuesta de %.2f. Pulsa COBRAR antes de que caiga.", betAmount));
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.WARNING, "Apuesta inválida", e.getMessage());
+        } catch (IllegalStateException e) {
+            showAlert(Alert.AlertType.WARNING, "No se pudo apostar", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al apostar en Crash: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo realizar la apuesta: " + e.getMessage());
+        }
+        refresh();
+    }
+
+    /**
+     * Cobra la apuesta al multiplicador actual.
+     */
+    @FXML
+    public void handleCashoutButtonAction(ActionEvent event) {
+        if (currentBet == null || crashService == null) {
+            return;
+        }
+        if (crashService.cashOut(currentBet)) {
+            gameInfoLabel.setText(String.format("¡Cobrado en x%.2f! El premio llega al saldo al terminar la ronda.",
+                    currentBet.getCashout() / 100.0));
+        }
+        refresh();
+    }
+
+    /**
+     * Vuelve al dashboard. No se puede salir con una apuesta sin liquidar.
+     */
+    @FXML
+    public void handleExitButtonAction(ActionEvent event) {
+        if (currentBet != null) {
+            showAlert(Alert.AlertType.WARNING, "Apuesta en juego", "Espera a que termine la ronda antes de salir.");
+            return;
+        }
+        refreshTimeline.stop();
+        navigateToDashboard();
+    }
+
+    /**
+     * Refleja el estado de la ronda compartida y, cuando la apuesta propia se liquida,
+     * actualiza el saldo y el último premio.
+     */
+    private void refresh() {
+        if (crashService == null) {
+            return;
+        }
+        CrashService.Round round = crashService.getRound();
+        if (round == null) {
+            phaseLabel.setText("Abriendo la mesa...");
+            return;
+        }
+
+        multiplierLabel.setText(String.format("x%.2f", round.getMultiplier() / 100.0));
+        roundLabel.setText("Ronda #" + round.getId() + " - Hash: " + round.getServerSeedHash());
+        playersLabel.setText(String.format("Apuestas: %d - Total: %.2f", round.getBetCount(), round.getTotalBet()));
+
+        switch (round.getPhase()) {
+            case BETTING:
+                phaseLabel.setText(String.format("Apuestas abiertas: %.1f s", round.getBettingMillisLeft() / 1000.0));
+                break;
+            case RUNNING:
+                phaseLabel.setText("¡Subiendo!");
+                break;
+            default:
+                phaseLabel.setText(String.format("Cayó en x%.2f", round.getCrashPoint() / 100.0));
+                if (round.getId() != lastCrashedRound) {
+                    lastCrashedRound = round.getId();
+                    recentCrashPoints.addFirst(String.format("x%.2f", round.getCrashPoint() / 100.0));
+                    if (recentCrashPoints.size() > RECENT_ROUNDS) {
+                        recentCrashPoints.removeLast();
+                    }
+                    recentLabel.setText(String.join("  ", recentCrashPoints));
+                }
+                break;
+        }
+
+        if (currentBet != null && currentBet.getRoundId() == round.getId() && round.getPhase() == CrashService.Phase.CRASHED) {
+            if (currentBet.isSettled()) {
+                finishBet();
+            } else if (round.isSettlementFailed()) {
+                gameInfoLabel.setText("No se pudo liquidar la ronda: la apuesta se devolverá automáticamente.");
+                currentBet = null;
+            }
+        }
+
+        boolean betting = round.getPhase() == CrashService.Phase.BETTING;
+        betButton.setDisable(currentBet != null || !betting);
+        cashoutButton.setDisable(currentBet == null || currentBet.getCashout() != 0
+                || round.getPhase() != CrashService.Phase.RUNNING);
+        if (currentBet != null && currentBet.getCashout() != 0 && round.getPhase() == CrashService.Phase.RUNNING) {
+            cashoutButton.setText(String.format("COBRADO x%.2f", currentBet.getCashout() / 100.0));
+        } else if (currentBet != null && round.getPhase() == CrashService.Phase.RUNNING) {
+            cashoutButton.setText(String.format("COBRAR %.2f", currentBet.getAmount() * round.getMultiplier() / 100.0));
+        } else {
+            cashoutButton.setText("COBRAR");
+        }
+    }
+
+    private void finishBet() {
+        CrashService.Bet bet = currentBet;
+        currentBet = null;
+        // La sesión liquidada lleva el saldo del usuario tras el premio
+        currentUser.setBalance(bet.getSession().getUser().getBalance());
+        updateBalanceLabel();
+        lastWinLabel.setText(String.format("%.2f", bet.getWinnings()));
+        if (bet.getCashout() > 0) {
+            gameInfoLabel.setText(String.format("Cobraste en x%.2f: ganas %.2f.", bet.getCashout() / 100.0, bet.getWinnings()));
+        } else {
+            gameInfoLabel.setText("La ronda cayó antes de cobrar. ¡Suerte en la siguiente!");
+        }
+    }
+
+    /**
+     * Actualiza la etiqueta de saldo con el valor actual.
+     */
+    private void updateBalanceLabel() {
+        if (currentUser != null && balanceLabel != null) {
+            balanceLabel.setText(String.format("%.2f", currentUser.getBalance()));
+        }
+    }
+
+    /**
+     * Navega de vuelta al dashboard principal.
+     */
+    private void navigateToDashboard() {
+        try {
+            // Cargar la vista principal
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main-view.fxml"));
+            Parent mainRoot = loader.load();
+
+            // Configurar el controlador con los datos del usuario y los servicios
+            MainController mainController = loader.getController();
+            if (currentUser != null) {
+                mainController.setCurrentUser(currentUser);
+            }
+            if (gameService != null) {
+                mainController.setGameService(gameService);
+            }
+
+            // Sustituir la vista en la ventana actual
+            Stage stage = (Stage) exitButton.getScene().getWindow();
+            if (stage != null && stage.getScene() != null) {
+                stage.getScene().setRoot(mainRoot);
+            } else {
+                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la vista principal: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo cargar la vista principal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra una alerta con el mensaje especificado.
+     */
+    private void showAlert(Alert.AlertType type, String header, String content) {
+        Platform.runLater(() -> {
+            try {
+                Alert alert = new Alert(type);
+                alert.setTitle("Crash");
+                alert.setHeaderText(header);
+                alert.setContentText(content);
+                alert.showAndWait();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al mostrar alerta: " + e.getMessage(), e);
+            }
+        });
+    }
+}
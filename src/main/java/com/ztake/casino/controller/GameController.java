@@ -0,0 +1,20 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.GameService;
+
+/**
+ * Controlador de la vista de un juego, configurado por {@link GameLauncher} al abrirlo.
+ */
+public interface GameController {
+
+    /**
+     * Configura el usuario que juega.
+     */
+    void setCurrentUser(User user);
+
+    /**
+     * Configura el servicio de juego.
+     */
+    void setGameService(GameService gameService);
+}
@@ -0,0 +1,59 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameRegistry;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.GameService;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.logging.Logger;
+
+/**
+ * Abre la vista de un juego del registro en la ventana actual.
+ *
+ * <p>Las tablas del juego y su FXML (con las imágenes que use) se cargan aquí, la primera vez
+ * que se abre, y no al arrancar la aplicación.</p>
+ */
+final class GameLauncher {
+    private static final Logger LOGGER = Logger.getLogger(GameLauncher.class.getName());
+
+    private GameLauncher() {
+    }
+
+    /**
+     * Carga la vista del juego y la muestra en la ventana de {@code source}.
+     */
+    static void open(Game game, Node source, User user, GameService gameService) throws IOException {
+        GameRegistry.getDefault().prepare(game);
+
+        URL view = GameLauncher.class.getResource(game.getViewResource());
+        if (view == null) {
+            throw new IOException("No se encontró la vista " + game.getViewResource());
+        }
+        FXMLLoader loader = new FXMLLoader(view);
+        Parent gameRoot = loader.load();
+
+        // Configurar el controlador con los datos necesarios
+        Object controller = loader.getController();
+        if (controller instanceof GameController) {
+            GameController gameController = (GameController) controller;
+            if (user != null) {
+                gameController.setCurrentUser(user);
+            }
+            if (gameService != null) {
+                gameController.setGameService(gameService);
+            }
+        }
+
+        // Sustituir la vista en la ventana actual
+        Stage stage = (Stage) source.getScene().getWindow();
+        stage.getScene().setRoot(gameRoot);
+
+        LOGGER.info("Usuario " + (user != null ? user.getUsername() : "-") + " abrió " + game.getTitle());
+    }
+}
@@ -1,18 +1,31 @@
 package com.ztake.casino.controller;
 
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameRegistry;
 import com.ztake.casino.model.User;
+import com.ztake.casino.repository.LeaderboardEntry;
 import com.ztake.casino.service.GameService;
+import com.ztake.casino.service.Leaderboard;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
+import javafx.scene.text.TextAlignment;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,24 +34,30 @@ import java.util.logging.Logger;
  */
 public class GamesMenuController {
     private static final Logger LOGGER = Logger.getLogger(GamesMenuController.class.getName());
+    private static final String ALL_GAMES_OPTION = "Todos";
+    private static final int GRID_COLUMNS = 3;
+    private static final double ICON_SIZE = 120.0;
 
     @FXML
     private GridPane gamesGrid;
 
     @FXML
-    private VBox minesCard;
+    private VBox gamesInfoBox;
 
     @FXML
-    private VBox slotsCard;
+    private Label balanceLabel;
 
     @FXML
-    private VBox rouletteCard;
+    private ComboBox<String> leaderboardGameTypeCombo;
 
     @FXML
-    private VBox blackjackCard;
+    private ListView<String> biggestWinsList;
 
     @FXML
-    private Label balanceLabel;
+    private ListView<String> highestMultipliersList;
+
+    @FXML
+    private ListView<String> bestDailyNetList;
 
     private User currentUser;
     private GameService gameService;
@@ -48,21 +67,34 @@ public class GamesMenuController {
      */
     @FXML
     public void initialize() {
-        // Configurar eventos de clic para las tarjetas de juegos
-        if (minesCard != null) {
-            minesCard.setOnMouseClicked(this::handleMinesGameAction);
-        }
-
-        if (slotsCard != null) {
-            slotsCard.setOnMouseClicked(this::handleComingSoonAction);
+        // Tarjetas e información de los juegos registrados, en el orden del menú
+        List<Game> games = GameRegistry.getDefault().getGames();
+        if (gamesGrid != null) {
+            for (int i = 0; i < games.size(); i++) {
+                if (i % GRID_COLUMNS == 0) {
+                    gamesGrid.getRowConstraints().add(new RowConstraints(200.0, 250.0, Region.USE_COMPUTED_SIZE,
+                            Priority.SOMETIMES, VPos.CENTER, true));
+                }
+                gamesGrid.add(createGameCard(games.get(i)), i % GRID_COLUMNS, i / GRID_COLUMNS);
+            }
         }
-
-        if (rouletteCard != null) {
-            rouletteCard.setOnMouseClicked(this::handleComingSoonAction);
+        if (gamesInfoBox != null) {
+            for (Game game : games) {
+                Label title = new Label(game.getTitle());
+                title.getStyleClass().add("game-title");
+                Label description = new Label(game.getDescription());
+                description.setWrapText(true);
+                description.setTextAlignment(TextAlignment.JUSTIFY);
+                gamesInfoBox.getChildren().addAll(title, description);
+            }
         }
 
-        if (blackjackCard != null) {
-            blackjackCard.setOnMouseClicked(this::handleComingSoonAction);
+        // Filtro de la clasificación por tipo de juego
+        if (leaderboardGameTypeCombo != null) {
+            leaderboardGameTypeCombo.getItems().add(ALL_GAMES_OPTION);
+            leaderboardGameTypeCombo.getItems().addAll(GameRegistry.getDefault().getGameTypes());
+            leaderboardGameTypeCombo.setValue(ALL_GAMES_OPTION);
+            leaderboardGameTypeCombo.setOnAction(e -> updateLeaderboard());
         }
     }
 
@@ -79,6 +111,37 @@ public class GamesMenuController {
      */
     public void setGameService(GameService gameService) {
         this.gameService = gameService;
+        updateLeaderboard();
+    }
+
+    /**
+     * Actualiza las listas de la clasificación con el tipo de juego seleccionado.
+     * Los datos se sirven desde memoria, sin consultar la base de datos.
+     */
+    private void updateLeaderboard() {
+        if (gameService == null || leaderboardGameTypeCombo == null) {
+            return;
+        }
+
+        String selected = leaderboardGameTypeCombo.getValue();
+        String gameType = selected == null || ALL_GAMES_OPTION.equals(selected) ? null : selected;
+
+        fillLeaderboardList(biggestWinsList, gameService.getLeaderboard(Leaderboard.Category.BIGGEST_WIN, gameType), "%.2f");
+        fillLeaderboardList(highestMultipliersList, gameService.getLeaderboard(Leaderboard.Category.HIGHEST_MULTIPLIER, gameType), "x%.2f");
+        fillLeaderboardList(bestDailyNetList, gameService.getLeaderboard(Leaderboard.Category.BEST_DAILY_NET, gameType), "+%.2f");
+    }
+
+    private void fillLeaderboardList(ListView<String> list, List<LeaderboardEntry> entries, String valueFormat) {
+        if (list == null) {
+            return;
+        }
+
+        list.getItems().clear();
+        int position = 1;
+        for (LeaderboardEntry entry : entries) {
+            list.getItems().add(position++ + ". " + entry.getUsername() + " - " + String.format(valueFormat, entry.getValue()));
+        }
+        list.setPlaceholder(new Label("Sin datos todavía"));
     }
 
     /**
@@ -91,45 +154,53 @@ public class GamesMenuController {
     }
 
     /**
-     * Maneja el evento de clic en la tarjeta del juego Mines.
+     * Crea la tarjeta de un juego: imagen (cargada en segundo plano) o texto de icono, nombre,
+     * descripción corta y disponibilidad.
      */
-    private void handleMinesGameAction(MouseEvent event) {
-        try {
-            // Cargar la vista del juego Mines
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/mines-game-view.fxml"));
-            Parent gameRoot = loader.load();
-
-            // Obtener el controlador
-            MinesGameController gameController = loader.getController();
-
-            // Configurar el controlador con los datos necesarios
-            if (currentUser != null) {
-                gameController.setCurrentUser(currentUser);
-            }
-            if (gameService != null) {
-                gameController.setGameService(gameService);
-            }
-
-            // Obtener la ventana actual
-            Stage stage = (Stage) minesCard.getScene().getWindow();
-
-            // Crear una nueva escena con la vista del juego
-            stage.getScene().setRoot(gameRoot);
+    private VBox createGameCard(Game game) {
+        VBox iconBox = new VBox();
+        iconBox.setAlignment(Pos.CENTER);
+        VBox.setVgrow(iconBox, Priority.ALWAYS);
+        URL iconUrl = game.getIconResource() != null ? getClass().getResource(game.getIconResource()) : null;
+        if (iconUrl != null) {
+            ImageView icon = new ImageView(new Image(iconUrl.toExternalForm(), ICON_SIZE, ICON_SIZE, true, true, true));
+            icon.setFitWidth(ICON_SIZE);
+            icon.setFitHeight(ICON_SIZE);
+            icon.setPreserveRatio(true);
+            iconBox.getChildren().add(icon);
+        } else {
+            Label icon = new Label(game.getIconText());
+            icon.getStyleClass().add(game.getIconStyleClass());
+            iconBox.getChildren().add(icon);
+        }
 
-            LOGGER.info("Usuario " + currentUser.getUsername() + " abrió el juego Mines");
+        VBox card = new VBox(iconBox,
+                createCardLabel(game.getTitle(), "game-title"),
+                createCardLabel(game.getSummary(), "text-label"),
+                createCardLabel("¡Disponible!", "balance-label"));
+        card.getStyleClass().add("game-card");
+        card.setOnMouseClicked(event -> openGame(game, card));
+        return card;
+    }
 
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error al cargar el juego Mines: " + e.getMessage(), e);
-            showAlert("Error", "Error de carga", "No se pudo cargar el juego Mines.");
-        }
+    private static Label createCardLabel(String text, String styleClass) {
+        Label label = new Label(text);
+        label.getStyleClass().add(styleClass);
+        label.setAlignment(Pos.CENTER);
+        label.setMaxWidth(Double.MAX_VALUE);
+        return label;
     }
 
     /**
-     * Maneja el evento de clic en juegos que aún no están disponibles.
+     * Maneja el evento de clic en la tarjeta de un juego.
      */
-    private void handleComingSoonAction(MouseEvent event) {
-        showAlert("Próximamente", "Esta función estará disponible pronto",
-                "Estamos trabajando en traerte nuevos y emocionantes juegos. ¡Vuelve pronto!");
+    private void openGame(Game game, Node card) {
+        try {
+            GameLauncher.open(game, card, currentUser, gameService);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar el juego " + game.getTitle() + ": " + e.getMessage(), e);
+            showAlert("Error", "Error de carga", "No se pudo cargar el juego " + game.getTitle() + ".");
+        }
     }
 
     /**
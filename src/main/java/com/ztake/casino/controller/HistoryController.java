@@ -1,12 +1,16 @@
 package com.ztake.casino.controller;
 
+import com.ztake.casino.game.GameRegistry;
 import com.ztake.casino.model.GameSession;
 import com.ztake.casino.model.User;
+import com.ztake.casino.repository.PnlPoint;
 import com.ztake.casino.service.GameService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
@@ -59,6 +63,15 @@ public class HistoryController {
     @FXML
     private TableColumn<GameRecord, String> dateColumn;
 
+    @FXML
+    private TableColumn<GameRecord, String> clientSeedColumn;
+
+    @FXML
+    private TableColumn<GameRecord, String> serverSeedColumn;
+
+    @FXML
+    private LineChart<String, Number> pnlChart;
+
     @FXML
     private Label totalBetLabel;
 
@@ -83,9 +96,8 @@ public class HistoryController {
     @FXML
     public void initialize() {
         // Configurar las opciones del ComboBox de filtro
-        gameFilterComboBox.setItems(FXCollections.observableArrayList(
-                "Todos los juegos", "Mines", "Slots", "Ruleta", "Blackjack"
-        ));
+        gameFilterComboBox.setItems(FXCollections.observableArrayList("Todos los juegos"));
+        gameFilterComboBox.getItems().addAll(GameRegistry.getDefault().getGameTypes());
         gameFilterComboBox.getSelectionModel().selectFirst();
 
         // Configurar las columnas de la tabla
@@ -95,6 +107,8 @@ public class HistoryController {
         winningsColumn.setCellValueFactory(new PropertyValueFactory<>("winnings"));
         resultColumn.setCellValueFactory(new PropertyValueFactory<>("result"));
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
+        clientSeedColumn.setCellValueFactory(new PropertyValueFactory<>("clientSeed"));
+        serverSeedColumn.setCellValueFactory(new PropertyValueFactory<>("serverSeed"));
 
         // Configurar DatePickers
         fromDatePicker.setValue(LocalDate.now().minusDays(30));
@@ -213,13 +227,18 @@ public class HistoryController {
                         session.getBetAmount(),
                         session.getWinningAmount(),
                         translateResult(session.getResult()),
-                        session.getSessionDate()
+                        session.getSessionDate(),
+                        formatClientSeed(session),
+                        formatServerSeed(session)
                 ));
             }
 
             // Mostrar en la tabla
             historyTable.setItems(data);
 
+            // Gráfica de pérdidas y ganancias con los mismos filtros
+            updatePnlChart(gameType, fromDateTime, toDateTime);
+
             // Calcular y mostrar estadísticas
             updateStatistics();
 
@@ -267,6 +286,32 @@ public class HistoryController {
         }
     }
 
+    /**
+     * Dibuja el balance neto acumulado del periodo. Solo lee los acumulados por intervalo
+     * (pnl_rollups), nunca las sesiones: un año de actividad son unos cientos de puntos.
+     */
+    private void updatePnlChart(String gameType, LocalDateTime fromDateTime, LocalDateTime toDateTime) {
+        if (pnlChart == null) {
+            return;
+        }
+
+        try {
+            List<PnlPoint> series = gameService.getPnlSeries(currentUser, gameType, fromDateTime, toDateTime);
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+            XYChart.Series<String, Number> cumulative = new XYChart.Series<>();
+            double net = 0;
+            for (PnlPoint point : series) {
+                net += point.getNet();
+                cumulative.getData().add(new XYChart.Data<>(point.getBucketStart().format(formatter), net));
+            }
+
+            pnlChart.getData().setAll(List.of(cumulative));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la gráfica de pérdidas y ganancias: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Calcula estadísticas básicas desde los datos de la tabla.
      */
@@ -330,6 +375,29 @@ public class HistoryController {
         alert.showAndWait();
     }
 
+    /**
+     * @return semilla del cliente y nonce de la ronda ("-" en rondas sin semillas)
+     */
+    private String formatClientSeed(GameSession session) {
+        if (session.getClientSeed() == null || session.getNonce() == null) {
+            return "-";
+        }
+        return session.getClientSeed() + ":" + session.getNonce();
+    }
+
+    /**
+     * @return semilla del servidor revelada, o su hash mientras siga sin revelar
+     */
+    private String formatServerSeed(GameSession session) {
+        if (session.getServerSeed() != null) {
+            return session.getServerSeed();
+        }
+        if (session.getServerSeedHash() != null) {
+            return "Sin revelar (hash " + session.getServerSeedHash() + ")";
+        }
+        return "-";
+    }
+
     /**
      * Clase interna para representar un registro de juego en la tabla.
      */
@@ -340,13 +408,18 @@ public class HistoryController {
         private final Double winnings;
         private final String result;
         private final String date;
+        private final String clientSeed;
+        private final String serverSeed;
 
-        public GameRecord(Integer id, String game, Double bet, Double winnings, String result, LocalDateTime dateTime) {
+        public GameRecord(Integer id, String game, Double bet, Double winnings, String result, LocalDateTime dateTime,
+                          String clientSeed, String serverSeed) {
             this.id = id;
             this.game = game;
             this.bet = bet;
             this.winnings = winnings;
             this.result = result;
+            this.clientSeed = clientSeed;
+            this.serverSeed = serverSeed;
 
             // Formatear fecha
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -376,5 +449,13 @@ public class HistoryController {
         public String getDate() {
             return date;
         }
+
+        public String getClientSeed() {
+            return clientSeed;
+        }
+
+        public String getServerSeed() {
+            return serverSeed;
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.ztake.casino.controller;
 
 import com.ztake.casino.ZtakeApplication;
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameRegistry;
 import com.ztake.casino.model.GameSession;
 import com.ztake.casino.model.User;
 import com.ztake.casino.service.GameService;
@@ -34,6 +36,7 @@ import java.util.logging.Logger;
  */
 public class MainController {
     private static final Logger LOGGER = Logger.getLogger(MainController.class.getName());
+    private static final String MINES_GAME_TYPE = "Mines";
 
     @FXML
     private Label usernameLabel;
@@ -366,37 +369,15 @@ public class MainController {
                 }
             }
 
-            // Cargar la vista del juego Mines
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/mines-game-view.fxml"));
-            Parent gameRoot = loader.load();
-
-            // Obtener el controlador
-            MinesGameController gameController = loader.getController();
-
-            // Configurar el controlador con los datos necesarios
-            if (currentUser != null) {
-                gameController.setCurrentUser(currentUser);
-                LOGGER.info("Usuario establecido para el controlador de Mines: " + currentUser.getUsername());
-            } else {
-                LOGGER.warning("No hay usuario actual para pasar al controlador del juego");
+            // Abrir Mines desde el registro de juegos
+            Game mines = GameRegistry.getDefault().find(MINES_GAME_TYPE);
+            if (mines == null) {
+                throw new IllegalStateException("El juego Mines no está registrado");
             }
-
-            // Establecer el servicio de juego - IMPORTANTE
-            gameController.setGameService(gameService);
-            LOGGER.info("Servicio de juego establecido para el controlador de Mines");
-
-            // Obtener la ventana actual
-            Stage stage = (Stage) homeButton.getScene().getWindow();
-
-            // Verificar que tenemos una ventana válida
-            if (stage != null && stage.getScene() != null) {
-                // Crear una nueva escena con la vista del juego
-                stage.getScene().setRoot(gameRoot);
-                LOGGER.info("Navegación exitosa a la vista de Mines");
-            } else {
-                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
-                throw new IllegalStateException("No se pudo acceder a la ventana actual");
+            if (currentUser == null) {
+                LOGGER.warning("No hay usuario actual para pasar al controlador del juego");
             }
+            GameLauncher.open(mines, homeButton, currentUser, gameService);
 
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error al cargar el juego Mines: " + e.getMessage(), e);
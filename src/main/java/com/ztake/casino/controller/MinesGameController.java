@@ -1,8 +1,16 @@
 package com.ztake.casino.controller;
 
+import com.ztake.casino.ZtakeApplication;
+import com.ztake.casino.game.mines.MinesEngine;
+import com.ztake.casino.game.mines.MinesPayoutTable;
 import com.ztake.casino.model.GameSession;
 import com.ztake.casino.model.User;
+import com.ztake.casino.service.FairnessService;
 import com.ztake.casino.service.GameService;
+import com.ztake.casino.service.MinesAutoBetService;
+import com.ztake.casino.service.RebetResult;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -13,6 +21,7 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -21,15 +30,16 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Controlador mejorado para el juego Mines con integración de base de datos.
  */
-public class MinesGameController {
+public class MinesGameController implements GameController {
     private static final Logger LOGGER = Logger.getLogger(MinesGameController.class.getName());
+    private static final int BOARD_SIZE = 4;
+    private static final int AUTO_REFRESH_MILLIS = 250;
 
     @FXML
     private Label balanceLabel;
@@ -55,6 +65,42 @@ public class MinesGameController {
     @FXML
     private Label gameInfoLabel;
 
+    @FXML
+    private Label serverSeedHashLabel;
+
+    @FXML
+    private Label nextServerSeedHashLabel;
+
+    @FXML
+    private TextField clientSeedField;
+
+    @FXML
+    private Label nonceLabel;
+
+    @FXML
+    private Button rotateSeedsButton;
+
+    @FXML
+    private CheckBox repeatBetCheck;
+
+    @FXML
+    private CheckBox patternModeCheck;
+
+    @FXML
+    private TextField autoRoundsField;
+
+    @FXML
+    private TextField stopOnProfitField;
+
+    @FXML
+    private TextField stopOnLossField;
+
+    @FXML
+    private Button autoButton;
+
+    @FXML
+    private Label autoStatsLabel;
+
     private User currentUser;
     private GameService gameService;
     private GameSession currentGameSession;
@@ -64,13 +110,19 @@ public class MinesGameController {
     private int minesCount = 5;
     private double currentMultiplier = 1.00;
     private boolean gameStarted = false;
-    private boolean firstCellClicked = false;
+    private int firstCell;
     private List<Button> cellButtons = new ArrayList<>();
-    private boolean[][] mineLocations = new boolean[4][4]; // true = mina, false = gema
 
-    // Coordenadas de la primera celda seleccionada
-    private int firstClickRow = -1;
-    private int firstClickCol = -1;
+    // Apuesta automática: casillas del patrón en orden y la apuesta en marcha
+    private final List<Integer> autoPattern = new ArrayList<>();
+    private MinesAutoBetService autoBetService;
+    private MinesAutoBetService.AutoBet autoBet;
+    private Timeline autoRefresh;
+
+    // Estado del tablero (minas y casillas reveladas)
+    private final MinesEngine engine = new MinesEngine(BOARD_SIZE, BOARD_SIZE);
+    // Multiplicadores de este tablero, indexados por minas y gemas reveladas
+    private final double[] payouts = MinesPayoutTable.getDefault().multipliers(engine.getCells());
 
     // Imágenes para las celdas
     private Image gemImage;
@@ -123,6 +175,32 @@ public class MinesGameController {
             }
         });
 
+        // Campos numéricos de la apuesta automática
+        if (autoRoundsField != null) {
+            autoRoundsField.textProperty().addListener((obs, oldVal, newVal) -> {
+                if (!newVal.matches("\\d{0,6}")) {
+                    autoRoundsField.setText(oldVal);
+                }
+            });
+            for (TextField field : new TextField[]{stopOnProfitField, stopOnLossField}) {
+                field.textProperty().addListener((obs, oldVal, newVal) -> {
+                    if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                        field.setText(oldVal);
+                    }
+                });
+            }
+            patternModeCheck.selectedProperty().addListener((obs, oldVal, newVal) -> showPattern());
+        }
+        if (repeatBetCheck != null) {
+            // Sin repetir, la ronda ya abierta y sin jugar se anula
+            repeatBetCheck.selectedProperty().addListener((obs, oldVal, newVal) -> {
+                if (!newVal) {
+                    cancelPendingRound();
+                }
+            });
+        }
+        autoBetService = ZtakeApplication.getMinesAutoBetService();
+
         // Cargar imágenes con manejo de errores mejorado
         loadImages();
 
@@ -170,16 +248,67 @@ public class MinesGameController {
     /**
      * Configura el usuario actual para mostrar su saldo.
      */
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
         updateBalanceLabel();
+        updateFairnessInfo();
     }
 
     /**
      * Configura el servicio de juego.
      */
+    @Override
     public void setGameService(GameService gameService) {
         this.gameService = gameService;
+        updateFairnessInfo();
+    }
+
+    /**
+     * Muestra las semillas del jugador: los hashes publicados, la semilla del cliente y el nonce.
+     */
+    private void updateFairnessInfo() {
+        if (gameService == null || currentUser == null || serverSeedHashLabel == null) {
+            return;
+        }
+        try {
+            showSeeds(gameService.getFairnessSeeds(currentUser));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudieron obtener las semillas: " + e.getMessage(), e);
+        }
+    }
+
+    private void showSeeds(FairnessService.Seeds seeds) {
+        serverSeedHashLabel.setText(seeds.getServerSeedHash());
+        nextServerSeedHashLabel.setText(seeds.getNextServerSeedHash());
+        clientSeedField.setText(seeds.getClientSeed());
+        nonceLabel.setText("Nonce: " + seeds.getNonce());
+    }
+
+    /**
+     * Rota las semillas con la semilla del cliente escrita (o una aleatoria si está vacía).
+     */
+    @FXML
+    public void handleRotateSeedsAction(ActionEvent event) {
+        if (gameService == null || currentUser == null) {
+            return;
+        }
+        if (gameStarted) {
+            showAlert(Alert.AlertType.WARNING, "Partida en curso", "Termina la partida antes de rotar las semillas.");
+            return;
+        }
+        try {
+            String clientSeed = clientSeedField.getText() == null || clientSeedField.getText().isBlank()
+                    ? null : clientSeedField.getText().trim();
+            showSeeds(gameService.rotateFairnessSeeds(currentUser, clientSeed));
+            showAlert(Alert.AlertType.INFORMATION, "Semillas rotadas",
+                    "La semilla del servidor anterior aparecerá en tu historial de partidas.");
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Semilla inválida", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al rotar las semillas: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron rotar las semillas: " + e.getMessage());
+        }
     }
 
     /**
@@ -190,9 +319,9 @@ public class MinesGameController {
         gameBoard.getChildren().clear();
         cellButtons.clear();
 
-        // Crear un tablero 4x4
-        for (int row = 0; row < 4; row++) {
-            for (int col = 0; col < 4; col++) {
+        // Crear el tablero (una casilla por bit del motor)
+        for (int row = 0; row < engine.getRows(); row++) {
+            for (int col = 0; col < engine.getColumns(); col++) {
                 Button cellButton = new Button();
                 cellButton.getStyleClass().add("game-cell");
 
@@ -204,48 +333,9 @@ public class MinesGameController {
                 // Agregar a la cuadrícula y a la lista
                 gameBoard.add(cellButton, col, row);
                 cellButtons.add(cellButton);
-
-                // Inicializar posición como segura (sin mina)
-                mineLocations[row][col] = false;
             }
         }
-    }
-
-    /**
-     * Prepara el tablero colocando minas aleatoriamente, asegurando que la primera celda
-     * seleccionada nunca tenga una mina.
-     */
-    private void setupMineLocations() {
-        // Reiniciar tablero
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                mineLocations[i][j] = false;
-            }
-        }
-
-        // Verificar que tenemos una posición válida para el primer clic
-        if (firstClickRow < 0 || firstClickCol < 0) {
-            LOGGER.severe("Error al configurar el tablero: coordenadas inválidas para el primer clic");
-            return;
-        }
-
-        // Colocar minas aleatoriamente, asegurando que la primera casilla seleccionada no tenga mina
-        Random random = new Random();
-        int minesPlaced = 0;
-
-        while (minesPlaced < minesCount) {
-            int row = random.nextInt(4);
-            int col = random.nextInt(4);
-
-            // No colocar mina en la posición del primer clic
-            if (!mineLocations[row][col] && (row != firstClickRow || col != firstClickCol)) {
-                mineLocations[row][col] = true;
-                minesPlaced++;
-            }
-        }
-
-        LOGGER.info("Tablero preparado con " + minesCount + " minas, asegurando que la posición (" +
-                firstClickRow + "," + firstClickCol + ") no tiene mina");
+        showPattern();
     }
 
     /**
@@ -257,15 +347,22 @@ public class MinesGameController {
             return;
         }
 
+        int cell = engine.cellIndex(row, col);
+        if (!gameStarted && patternModeCheck != null && patternModeCheck.isSelected()) {
+            // Elegir las casillas de la apuesta automática en lugar de jugar
+            togglePatternCell(cell);
+            return;
+        }
+
         updateInProgress = true;
 
         try {
             if (!gameStarted) {
                 // Iniciar un juego nuevo
-                startNewGame(button, row, col);
+                startNewGame(button, cell);
             } else {
                 // Continuar un juego en progreso
-                continueGame(button, row, col);
+                continueGame(button, cell);
             }
         } finally {
             updateInProgress = false;
@@ -275,40 +372,41 @@ public class MinesGameController {
     /**
      * Inicia un nuevo juego cuando se hace clic en una celda.
      */
-    private void startNewGame(Button button, int row, int col) {
-        updateInProgress = true;
-
+    private void startNewGame(Button button, int cell) {
         try {
-            // Guardar las coordenadas del primer clic
-            firstClickRow = row;
-            firstClickCol = col;
-
             // Iniciar juego con la primera celda
             gameStarted = true;
-            firstCellClicked = true;
+            firstCell = cell;
 
-            // Preparar el tablero asegurando que el primer clic sea siempre en una gema
-            setupMineLocations();
-
-            // Deshabilitar slider y campo de apuesta
+            // Deshabilitar slider, campo de apuesta y rotación de semillas
             if (minesSlider != null) {
                 minesSlider.setDisable(true);
             }
             betAmountField.setDisable(true);
+            if (rotateSeedsButton != null) {
+                rotateSeedsButton.setDisable(true);
+            }
 
             // Iniciar sesión de juego en la base de datos
             if (gameService != null && currentUser != null) {
-                // Verificar saldo suficiente
-                if (currentUser.getBalance() < currentBet) {
+                // Verificar saldo suficiente (la ronda repetida ya tiene la apuesta descontada)
+                if (currentGameSession == null && currentUser.getBalance() < currentBet) {
                     showAlert(Alert.AlertType.ERROR, "Error", "Saldo insuficiente para realizar esta apuesta.");
                     resetGame();
-                    updateInProgress = false;
                     return;
                 }
 
                 try {
-                    // Crear sesión de juego y actualizar saldo
-                    currentGameSession = gameService.startGame(currentUser, "Mines", currentBet);
+                    // Crear sesión de juego y actualizar saldo, salvo que ya esté abierta al repetir la apuesta
+                    if (currentGameSession == null) {
+                        currentGameSession = gameService.startGame(currentUser, "Mines", currentBet);
+                    }
+
+                    // Preparar el tablero con el generador justo de la ronda; el primer clic
+                    // siempre es una gema
+                    engine.start(minesCount, cell, gameService.getOutcomeRandom(currentGameSession));
+                    LOGGER.info("Tablero preparado con " + minesCount + " minas, asegurando que la casilla " +
+                            cell + " no tiene mina - Nonce: " + currentGameSession.getNonce());
 
                     // Actualizar la UI
                     updateBalanceLabel();
@@ -324,6 +422,7 @@ public class MinesGameController {
                     }
 
                     // Procesar el primer clic ahora que el juego está configurado
+                    engine.reveal(cell);
                     showGem(button);
 
                     // Actualizar las ganancias potenciales después del primer clic
@@ -333,42 +432,36 @@ public class MinesGameController {
                     LOGGER.log(Level.SEVERE, "Error al iniciar el juego: " + e.getMessage(), e);
                     showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al iniciar el juego: " + e.getMessage());
                     resetGame();
-                    updateInProgress = false;
                     return;
                 }
+            } else {
+                // Sin servicio no hay ronda registrada: tablero con el generador local
+                engine.start(minesCount, cell);
             }
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al iniciar juego: " + e.getMessage(), e);
             showAlert(Alert.AlertType.ERROR, "Error", "No se pudo iniciar el juego: " + e.getMessage());
             resetGame();
-        } finally {
-            updateInProgress = false;
         }
     }
 
     /**
      * Continúa un juego en progreso cuando se hace clic en una celda.
      */
-    private void continueGame(Button button, int row, int col) {
-        updateInProgress = true;
-
-        try {
-            // Verificar si la celda tiene una mina
-            boolean isGem = !mineLocations[row][col];
-
-            if (isGem) {
-                // Es una gema
-                showGem(button);
-            } else {
-                // Es una bomba
-                showBomb(button);
-
-                // Juego perdido
-                endGame(false);
-            }
-        } finally {
-            updateInProgress = false;
+    private void continueGame(Button button, int cell) {
+        // Revelar la casilla en el motor
+        MinesEngine.Reveal reveal = engine.reveal(cell);
+
+        if (reveal == MinesEngine.Reveal.GEM) {
+            // Es una gema
+            showGem(button);
+        } else if (reveal == MinesEngine.Reveal.MINE) {
+            // Es una bomba
+            showBomb(button);
+
+            // Juego perdido
+            endGame(false);
         }
     }
 
@@ -395,6 +488,11 @@ public class MinesGameController {
 
         LOGGER.info("Gema revelada. Nuevo multiplicador: " + currentMultiplier);
 
+        // Actualizar la exposición de la casa con lo que se pagaría al cobrar ahora
+        if (gameService != null && currentGameSession != null) {
+            gameService.updateExposure(currentGameSession, currentMultiplier);
+        }
+
         // Asegurar que la UI se actualice
         Platform.runLater(this::updatePotentialWinnings);
 
@@ -443,18 +541,129 @@ public class MinesGameController {
     }
 
     /**
-     * Calcula el multiplicador según el número de minas y celdas descubiertas.
+     * Obtiene el multiplicador según el número de minas y gemas descubiertas de la tabla
+     * precalculada (probabilidades exactas con el RTP configurado).
      */
     private double calculateMultiplier() {
-        // Calcular cuántas celdas han sido reveladas
-        int revealedCells = countRevealedCells();
+        return payouts[MinesPayoutTable.index(engine.getCells(), minesCount, engine.getRevealedGems())];
+    }
 
-        // Fórmula base para el multiplicador: mayor con más minas y más celdas descubiertas
-        double baseMult = 1.0 + (minesCount * 0.05) + (revealedCells * 0.1);
+    /**
+     * Añade una casilla al patrón de la apuesta automática, o la quita si ya estaba.
+     */
+    private void togglePatternCell(int cell) {
+        if (!autoPattern.remove(Integer.valueOf(cell))) {
+            autoPattern.add(cell);
+        }
+        showPattern();
+    }
 
-        // Redondear a 2 decimales para evitar errores de precisión
-        BigDecimal bd = new BigDecimal(baseMult).setScale(2, RoundingMode.HALF_UP);
-        return bd.doubleValue();
+    /**
+     * Marca en el tablero las casillas del patrón con su orden mientras se eligen.
+     */
+    private void showPattern() {
+        boolean visible = patternModeCheck != null && patternModeCheck.isSelected() && !gameStarted;
+        for (int cell = 0; cell < cellButtons.size(); cell++) {
+            Button button = cellButtons.get(cell);
+            int position = autoPattern.indexOf(cell);
+            button.getStyleClass().remove("game-cell-pattern");
+            if (visible && position >= 0) {
+                button.getStyleClass().add("game-cell-pattern");
+                button.setText(String.valueOf(position + 1));
+            } else if (button.getGraphic() == null && !button.isDisabled()) {
+                button.setText("");
+            }
+        }
+    }
+
+    /**
+     * Inicia la apuesta automática con el patrón elegido, o la detiene si está en marcha.
+     */
+    @FXML
+    public void handleAutoButtonAction(ActionEvent event) {
+        if (autoBet != null) {
+            autoBet.stop();
+            refreshAutoBet();
+            return;
+        }
+        if (gameStarted || autoBetService == null || currentUser == null) {
+            return;
+        }
+        cancelPendingRound();
+        if (autoPattern.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Sin casillas", "Marca 'Elegir casillas' y elige en el tablero las casillas a revelar.");
+            return;
+        }
+
+        try {
+            int rounds = Integer.parseInt(autoRoundsField.getText().isEmpty() ? "0" : autoRoundsField.getText());
+            double stopOnProfit = parseAmount(stopOnProfitField.getText());
+            double stopOnLoss = parseAmount(stopOnLossField.getText());
+            int[] pattern = autoPattern.stream().mapToInt(Integer::intValue).toArray();
+
+            autoBet = autoBetService.startAutoBet(currentUser, engine.getRows(), engine.getColumns(), minesCount,
+                    pattern, currentBet, rounds, stopOnProfit, stopOnLoss);
+
+            setAutoControlsDisabled(true);
+            autoButton.setText("DETENER");
+            gameInfoLabel.setText(String.format("Apuesta automática: %d rondas de %.2f a x%.2f.",
+                    rounds, currentBet, autoBet.getMultiplier()));
+            autoRefresh = new Timeline(new KeyFrame(Duration.millis(AUTO_REFRESH_MILLIS), e -> refreshAutoBet()));
+            autoRefresh.setCycleCount(Timeline.INDEFINITE);
+            autoRefresh.play();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            showAlert(Alert.AlertType.WARNING, "Apuesta automática inválida", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al iniciar la apuesta automática: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo iniciar la apuesta automática: " + e.getMessage());
+        }
+    }
+
+    private static double parseAmount(String text) {
+        return text == null || text.isEmpty() ? 0.0 : Double.parseDouble(text);
+    }
+
+    /**
+     * Muestra el progreso de la apuesta automática; las rondas se juegan en el servidor.
+     */
+    private void refreshAutoBet() {
+        if (autoBet == null) {
+            return;
+        }
+        if (autoBet.getPlayed() > 0) {
+            currentUser.setBalance(autoBet.getBalance());
+            updateBalanceLabel();
+        }
+        autoStatsLabel.setText(String.format("Rondas: %d/%d - Ganadas: %d - Apostado: %.2f - Ganado: %.2f - Neto: %+.2f",
+                autoBet.getPlayed(), autoBet.getRounds(), autoBet.getWins(), autoBet.getTotalBet(),
+                autoBet.getTotalWon(), autoBet.getTotalWon() - autoBet.getTotalBet()));
+
+        if (!autoBet.isRunning()) {
+            gameInfoLabel.setText("Apuesta automática detenida: " + autoBet.getStopReason());
+            autoBet = null;
+            if (autoRefresh != null) {
+                autoRefresh.stop();
+                autoRefresh = null;
+            }
+            autoButton.setText("AUTO");
+            setAutoControlsDisabled(false);
+            updateFairnessInfo();
+        }
+    }
+
+    private void setAutoControlsDisabled(boolean disabled) {
+        gameBoard.setDisable(disabled);
+        betAmountField.setDisable(disabled);
+        if (minesSlider != null) {
+            minesSlider.setDisable(disabled);
+        }
+        if (rotateSeedsButton != null) {
+            rotateSeedsButton.setDisable(disabled);
+        }
+        patternModeCheck.setDisable(disabled);
+        autoRoundsField.setDisable(disabled);
+        stopOnProfitField.setDisable(disabled);
+        stopOnLossField.setDisable(disabled);
     }
 
     /**
@@ -472,13 +681,19 @@ public class MinesGameController {
         updateInProgress = true;
 
         try {
-            if (gameStarted && firstCellClicked) {
+            if (gameStarted && engine.getState() == MinesEngine.State.IN_PROGRESS && engine.getRevealedGems() > 0) {
                 LOGGER.info("Finalizando juego con victoria (cashout)");
                 // Finalizar el juego con victoria
+                engine.cashout();
                 endGame(true);
             } else {
                 LOGGER.info("Juego no iniciado, navegando al dashboard");
-                // Si no ha comenzado, volver al dashboard
+                // Si no ha comenzado, volver al dashboard (la apuesta automática se detiene)
+                if (autoBet != null) {
+                    autoBet.stop();
+                    refreshAutoBet();
+                }
+                cancelPendingRound();
                 navigateToDashboard();
             }
         } catch (Exception e) {
@@ -490,17 +705,13 @@ public class MinesGameController {
     }
 
     /**
-     * Finaliza el juego actual.
+     * Finaliza el juego actual. Se llama desde los manejadores de clic, que ya marcan la
+     * operación en curso.
      *
      * @param isWin true si el jugador ganó, false si perdió
      */
     private void endGame(boolean isWin) {
-        if (updateInProgress) {
-            return;
-        }
-
-        updateInProgress = true;
-
+        GameSession nextGameSession = null;
         try {
             // Deshabilitar todas las celdas
             for (Button button : cellButtons) {
@@ -528,18 +739,37 @@ public class MinesGameController {
                     JSONObject gameData = new JSONObject();
                     gameData.put("minesCount", minesCount);
                     gameData.put("multiplier", currentMultiplier);
-                    gameData.put("revealedCells", countRevealedCells());
-
-                    // Finalizar la sesión en la base de datos
-                    gameService.endGame(
-                            currentGameSession,
-                            winnings,
-                            isWin ? "won" : "lost",
-                            gameData.toString()
-                    );
+                    gameData.put("revealedCells", engine.getRevealedGems());
+                    // Datos para repetir la colocación con las semillas de la sesión
+                    gameData.put("rows", engine.getRows());
+                    gameData.put("columns", engine.getColumns());
+                    gameData.put("firstCell", firstCell);
+                    gameData.put("mines", Long.toHexString(engine.getMines()));
+
+                    // Finalizar la sesión en la base de datos; al repetir, abrir la siguiente en la misma operación
+                    boolean insufficientFunds = false;
+                    if (repeatBetCheck != null && repeatBetCheck.isSelected()) {
+                        RebetResult rebet = gameService.settleAndRebet(
+                                currentGameSession,
+                                winnings,
+                                isWin ? "won" : "lost",
+                                gameData.toString()
+                        );
+                        nextGameSession = rebet.getNext();
+                        // La ronda quedó liquidada, pero no hay saldo para repetir
+                        insufficientFunds = !rebet.isRebet();
+                    } else {
+                        gameService.endGame(
+                                currentGameSession,
+                                winnings,
+                                isWin ? "won" : "lost",
+                                gameData.toString()
+                        );
+                    }
 
-                    // Actualizar el usuario y la UI
+                    // Actualizar el usuario y la UI con el saldo de la sesión liquidada
                     if (currentUser != null) {
+                        currentUser.setBalance(currentGameSession.getUser().getBalance());
                         updateBalanceLabel();
                     }
 
@@ -559,6 +789,10 @@ public class MinesGameController {
                             gameInfoLabel.setText("¡Has perdido! Puedes comenzar un nuevo juego.");
                         }
                     }
+                    if (insufficientFunds) {
+                        showAlert(Alert.AlertType.WARNING, "No se repite la apuesta",
+                                "Saldo insuficiente para realizar la apuesta");
+                    }
 
                 } catch (Exception e) {
                     LOGGER.log(Level.SEVERE, "Error al finalizar el juego: " + e.getMessage(), e);
@@ -568,57 +802,84 @@ public class MinesGameController {
 
             // Reiniciar juego
             resetGame();
-        } finally {
-            updateInProgress = false;
+            if (nextGameSession != null) {
+                startRepeatedRound(nextGameSession);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al cerrar la partida: " + e.getMessage(), e);
+            resetGame();
         }
     }
 
+    /**
+     * Deja preparada la ronda abierta al repetir la apuesta: la apuesta ya está descontada y el
+     * primer clic en el tablero la juega.
+     */
+    private void startRepeatedRound(GameSession gameSession) {
+        currentGameSession = gameSession;
+        betAmountField.setDisable(true);
+        if (rotateSeedsButton != null) {
+            rotateSeedsButton.setDisable(true);
+        }
+        if (gameInfoLabel != null) {
+            gameInfoLabel.setText(String.format("Apuesta de %.2f repetida: haz clic en una casilla para jugar.",
+                    gameSession.getBetAmount()));
+        }
+        updateFairnessInfo();
+    }
+
+    /**
+     * Anula la ronda abierta al repetir la apuesta si todavía no se ha jugado, devolviendo la apuesta.
+     */
+    private void cancelPendingRound() {
+        if (gameStarted || currentGameSession == null || gameService == null) {
+            return;
+        }
+        try {
+            gameService.cancelGame(currentGameSession);
+            if (currentUser != null) {
+                currentUser.setBalance(currentGameSession.getUser().getBalance());
+                updateBalanceLabel();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al anular la ronda repetida: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo anular la ronda repetida: " + e.getMessage());
+        }
+        resetGame();
+    }
+
     /**
      * Restablece el estado del juego.
      */
     private void resetGame() {
         gameStarted = false;
-        firstCellClicked = false;
-        firstClickRow = -1;
-        firstClickCol = -1;
+        engine.reset();
         currentMultiplier = 1.00;
 
         if (minesSlider != null) {
             minesSlider.setDisable(false);
         }
         betAmountField.setDisable(false);
+        if (rotateSeedsButton != null) {
+            rotateSeedsButton.setDisable(false);
+        }
         initializeGameBoard();
         currentGameSession = null;
         updatePotentialWinnings();
+        updateFairnessInfo();
     }
 
     /**
      * Revela todas las minas en el tablero.
      */
     private void revealAllMines() {
-        for (int row = 0; row < 4; row++) {
-            for (int col = 0; col < 4; col++) {
-                if (mineLocations[row][col]) {
-                    Button button = cellButtons.get(row * 4 + col);
-                    if (!button.isDisabled()) {  // Solo si aún no se ha revelado
-                        showBomb(button);
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Cuenta cuántas celdas se han revelado.
-     */
-    private int countRevealedCells() {
-        int count = 0;
-        for (Button button : cellButtons) {
-            if (button.isDisabled()) {
-                count++;
-            }
+        // Recorrer los bits de la máscara de minas que aún no se han revelado
+        long hidden = engine.getMines() & ~engine.getRevealed();
+        while (hidden != 0) {
+            int cell = Long.numberOfTrailingZeros(hidden);
+            showBomb(cellButtons.get(cell));
+            hidden &= hidden - 1;
         }
-        return count;
     }
 
     /**
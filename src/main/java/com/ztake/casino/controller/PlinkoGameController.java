@@ -0,0 +1,501 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.ZtakeApplication;
+import com.ztake.casino.game.plinko.PlinkoBoard;
+import com.ztake.casino.game.plinko.PlinkoPayoutTable;
+import com.ztake.casino.game.plinko.PlinkoRisk;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.GameService;
+import com.ztake.casino.service.PlinkoService;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador para el juego Plinko. Las rondas las juega {@link PlinkoService}: una bola con el
+ * botón SOLTAR, o muchas por segundo con la caída automática, que corre en el servidor. La vista
+ * solo anima en un {@link Canvas} los caminos ya decididos de las bolas.
+ *
+ * <p>Las bolas en pantalla se guardan en arrays paralelos (camino, instante de salida), sin un
+ * objeto por bola, y cada fotograma se dibujan de una pasada: cientos de bolas a la vez no
+ * cuestan más que unas operaciones de dibujo por bola.</p>
+ */
+public class PlinkoGameController implements GameController {
+    private static final Logger LOGGER = Logger.getLogger(PlinkoGameController.class.getName());
+    private static final int MAX_BALLS_ON_SCREEN = 1000;
+    private static final double ROW_NANOS = 70_000_000.0;
+    private static final double FLASH_NANOS = 400_000_000.0;
+    private static final int DEFAULT_ROWS = 12;
+    private static final int DEFAULT_BALLS_PER_SECOND = 50;
+
+    @FXML
+    private Label balanceLabel;
+
+    @FXML
+    private TextField betAmountField;
+
+    @FXML
+    private ComboBox<Integer> rowsCombo;
+
+    @FXML
+    private ComboBox<PlinkoRisk> riskCombo;
+
+    @FXML
+    private Canvas boardCanvas;
+
+    @FXML
+    private Button dropButton;
+
+    @FXML
+    private TextField ballsPerSecondField;
+
+    @FXML
+    private Button autoButton;
+
+    @FXML
+    private Button exitButton;
+
+    @FXML
+    private Label lastWinLabel;
+
+    @FXML
+    private Label gameInfoLabel;
+
+    @FXML
+    private Label autoStatsLabel;
+
+    private User currentUser;
+    private GameService gameService;
+    private PlinkoService plinkoService;
+    private PlinkoService.AutoDrop autoDrop;
+    private AnimationTimer animation;
+
+    private double betAmount = 1.0;
+    private PlinkoPayoutTable table = PlinkoPayoutTable.getDefault();
+    // Generador local para jugar sin servicio (no queda registrado)
+    private final SplittableRandom localRandom = new SplittableRandom();
+
+    // Bolas en pantalla: camino y instante de salida
+    private final int[] ballPaths = new int[MAX_BALLS_ON_SCREEN];
+    private final long[] ballStarts = new long[MAX_BALLS_ON_SCREEN];
+    private int ballCount;
+    // Último aterrizaje en cada casilla, para iluminarla
+    private final long[] slotFlashes = new long[PlinkoBoard.MAX_ROWS + 1];
+
+    /**
+     * Inicializa el controlador después de que el FXML ha sido cargado.
+     */
+    @FXML
+    public void initialize() {
+        betAmountField.setText(String.format("%.2f", betAmount));
+
+        // Validación de entrada para la apuesta y el ritmo de caída
+        betAmountField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                betAmountField.setText(oldVal);
+                return;
+            }
+
+            try {
+                double bet = Double.parseDouble(newVal);
+                if (bet > 0) {
+                    betAmount = bet;
+                }
+            } catch (NumberFormatException e) {
+                // Ignorar excepciones de conversión
+            }
+        });
+        ballsPerSecondField.setText(String.valueOf(DEFAULT_BALLS_PER_SECOND));
+        ballsPerSecondField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d{0,4}")) {
+                ballsPerSecondField.setText(oldVal);
+            }
+        });
+
+        Integer[] rows = new Integer[PlinkoBoard.MAX_ROWS - PlinkoBoard.MIN_ROWS + 1];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = PlinkoBoard.MIN_ROWS + i;
+        }
+        rowsCombo.setItems(FXCollections.observableArrayList(rows));
+        rowsCombo.setValue(DEFAULT_ROWS);
+        riskCombo.setItems(FXCollections.observableArrayList(PlinkoRisk.values()));
+        riskCombo.setValue(PlinkoRisk.MEDIUM);
+        // Cambiar el tablero vacía la pantalla: las bolas en vuelo son del anterior
+        rowsCombo.valueProperty().addListener((obs, oldVal, newVal) -> clearBoard());
+        riskCombo.valueProperty().addListener((obs, oldVal, newVal) -> clearBoard());
+
+        setPlinkoService(ZtakeApplication.getPlinkoService());
+
+        animation = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                pollAutoDrop(now);
+                draw(now);
+            }
+        };
+        animation.start();
+    }
+
+    /**
+     * Configura el usuario actual para mostrar su saldo.
+     */
+    @Override
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        updateBalanceLabel();
+    }
+
+    /**
+     * Configura el servicio de juego (para volver al dashboard).
+     */
+    @Override
+    public void setGameService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Configura el servicio de Plinko.
+     */
+    public void setPlinkoService(PlinkoService plinkoService) {
+        this.plinkoService = plinkoService;
+        if (plinkoService != null) {
+            table = plinkoService.getTable();
+        }
+        updateGameInfo();
+    }
+
+    /**
+     * Deja caer una bola: una ronda completa, liquidada en el acto.
+     */
+    @FXML
+    public void handleDropButtonAction(ActionEvent event) {
+        if (autoDrop != null) {
+            return;
+        }
+        int rows = rowsCombo.getValue();
+        PlinkoRisk risk = riskCombo.getValue();
+        try {
+            if (plinkoService != null && currentUser != null) {
+                if (currentUser.getBalance() < betAmount) {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Saldo insuficiente para realizar esta apuesta.");
+                    return;
+                }
+                PlinkoService.Drop drop = plinkoService.drop(currentUser, rows, risk, betAmount, 1);
+                updateBalanceLabel();
+                addBalls(drop, System.nanoTime());
+                lastWinLabel.setText(String.format("%.2f", drop.getWinnings()));
+                gameInfoLabel.setText(String.format("x%.2f: ganas %.2f.", drop.getMultiplier(0), drop.getWinnings()));
+            } else {
+                // Sin servicio no hay ronda registrada: caída con el generador local
+                int path = PlinkoBoard.drop(localRandom, rows);
+                addBall(path, System.nanoTime());
+                double multiplier = table.multiplier(rows, risk, path);
+                lastWinLabel.setText(String.format("%.2f", betAmount * multiplier));
+            }
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.WARNING, "Apuesta inválida", e.getMessage());
+        } catch (IllegalStateException e) {
+            showAlert(Alert.AlertType.WARNING, "No se pudo apostar", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al soltar la bola: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al soltar la bola: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia o detiene la caída automática en el servidor.
+     */
+    @FXML
+    public void handleAutoButtonAction(ActionEvent event) {
+        if (autoDrop != null) {
+            autoDrop.stop();
+            return;
+        }
+        if (plinkoService == null || currentUser == null) {
+            showAlert(Alert.AlertType.ERROR, "Servicio no disponible", "La caída automática necesita una sesión iniciada.");
+            return;
+        }
+
+        int ballsPerSecond;
+        try {
+            ballsPerSecond = Integer.parseInt(ballsPerSecondField.getText().trim());
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.WARNING, "Ritmo inválido", "Escribe cuántas bolas por segundo quieres soltar.");
+            return;
+        }
+
+        try {
+            autoDrop = plinkoService.startAutoDrop(currentUser, rowsCombo.getValue(), riskCombo.getValue(),
+                    betAmount, ballsPerSecond, 0);
+            setControlsDisabled(true);
+            autoButton.setText("DETENER");
+            gameInfoLabel.setText(String.format("Caída automática: %d bolas por segundo de %.2f.", ballsPerSecond, betAmount));
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.WARNING, "Caída automática inválida", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al iniciar la caída automática: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo iniciar la caída automática: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Detiene la caída automática y vuelve al dashboard.
+     */
+    @FXML
+    public void handleExitButtonAction(ActionEvent event) {
+        if (autoDrop != null) {
+            autoDrop.stop();
+            syncAutoDropBalance();
+            autoDrop = null;
+        }
+        animation.stop();
+        navigateToDashboard();
+    }
+
+    /**
+     * Recoge las rondas que la caída automática ha jugado desde el último fotograma y reparte la
+     * salida de sus bolas a lo largo del intervalo entre rondas.
+     */
+    private void pollAutoDrop(long now) {
+        if (autoDrop == null) {
+            return;
+        }
+        PlinkoService.Drop drop;
+        while ((drop = autoDrop.poll()) != null) {
+            addBalls(drop, now);
+            lastWinLabel.setText(String.format("%.2f", drop.getWinnings()));
+        }
+        syncAutoDropBalance();
+        autoStatsLabel.setText(String.format("Bolas: %d - Apostado: %.2f - Ganado: %.2f - Neto: %+.2f",
+                autoDrop.getDropped(), autoDrop.getTotalBet(), autoDrop.getTotalWon(),
+                autoDrop.getTotalWon() - autoDrop.getTotalBet()));
+
+        if (!autoDrop.isRunning()) {
+            gameInfoLabel.setText("Caída automática detenida: " + autoDrop.getStopReason());
+            autoDrop = null;
+            autoButton.setText("AUTO");
+            setControlsDisabled(false);
+        }
+    }
+
+    private void syncAutoDropBalance() {
+        if (autoDrop.getDropped() > 0) {
+            currentUser.setBalance(autoDrop.getBalance());
+            updateBalanceLabel();
+        }
+    }
+
+    private void addBalls(PlinkoService.Drop drop, long now) {
+        int balls = drop.getBallCount();
+        // Las bolas de una ronda salen escalonadas en lugar de todas a la vez
+        double spacing = balls > 1 ? 100_000_000.0 / balls : 0;
+        for (int i = 0; i < balls; i++) {
+            addBall(drop.getPath(i), now + (long) (i * spacing));
+        }
+    }
+
+    private void addBall(int path, long start) {
+        if (ballCount == MAX_BALLS_ON_SCREEN) {
+            // Pantalla llena: la bola cuenta igual, solo no se dibuja
+            return;
+        }
+        ballPaths[ballCount] = path;
+        ballStarts[ballCount] = start;
+        ballCount++;
+    }
+
+    private void clearBoard() {
+        ballCount = 0;
+        Arrays.fill(slotFlashes, 0);
+        updateGameInfo();
+    }
+
+    /**
+     * Dibuja los clavos, las casillas con sus multiplicadores y todas las bolas en vuelo. La bola
+     * pasa una fila cada {@code ROW_NANOS}: su columna es el número de pasos a la derecha de su
+     * camino hasta esa fila, con un pequeño bote entre filas.
+     */
+    private void draw(long now) {
+        GraphicsContext g = boardCanvas.getGraphicsContext2D();
+        double width = boardCanvas.getWidth();
+        double height = boardCanvas.getHeight();
+        int rows = rowsCombo.getValue();
+        double[] multipliers = table.multipliers(rows, riskCombo.getValue());
+
+        double dx = width / (rows + 2);
+        double top = dx * 0.6;
+        double dy = (height - top - dx * 1.2) / rows;
+        double centre = width / 2;
+        double pegRadius = Math.max(2, dx * 0.08);
+        double ballRadius = Math.max(3, dx * 0.18);
+
+        g.setFill(Color.web("#0F212E"));
+        g.fillRect(0, 0, width, height);
+
+        // Clavos: la fila r tiene r + 1 clavos, centrados
+        g.setFill(Color.web("#B1BAD3"));
+        for (int r = 0; r < rows; r++) {
+            double y = top + r * dy;
+            for (int j = 0; j <= r; j++) {
+                double x = centre + (j - r / 2.0) * dx;
+                g.fillOval(x - pegRadius, y - pegRadius, 2 * pegRadius, 2 * pegRadius);
+            }
+        }
+
+        // Casillas con su multiplicador; se iluminan al caer una bola
+        double slotTop = top + rows * dy;
+        g.setFont(Font.font(Math.max(8, Math.min(13, dx * 0.3))));
+        g.setTextAlign(TextAlignment.CENTER);
+        for (int slot = 0; slot <= rows; slot++) {
+            double x = centre + (slot - rows / 2.0) * dx;
+            boolean flash = now - slotFlashes[slot] < FLASH_NANOS;
+            g.setFill(flash ? Color.WHITE : slotColor(multipliers[slot]));
+            g.fillRoundRect(x - dx * 0.45, slotTop, dx * 0.9, dx * 0.8, 6, 6);
+            g.setFill(Color.web("#0F212E"));
+            g.fillText(formatMultiplier(multipliers[slot]), x, slotTop + dx * 0.5);
+        }
+
+        // Bolas: se avanzan y se quitan las que ya han caído (compactando los arrays)
+        g.setFill(Color.web("#FF3B6B"));
+        int kept = 0;
+        for (int i = 0; i < ballCount; i++) {
+            long elapsed = now - ballStarts[i];
+            int path = ballPaths[i];
+            if (elapsed < 0) {
+                ballPaths[kept] = path;
+                ballStarts[kept] = ballStarts[i];
+                kept++;
+                continue;
+            }
+            double progress = elapsed / ROW_NANOS;
+            if (progress >= rows) {
+                slotFlashes[PlinkoBoard.slot(path)] = now;
+                continue;
+            }
+            int row = (int) progress;
+            double fraction = progress - row;
+            // Columna al llegar a la fila actual y a la siguiente
+            int rights = Integer.bitCount(path & ((1 << row) - 1));
+            double from = centre + (rights - row / 2.0) * dx;
+            double to = from + (PlinkoBoard.goesRight(path, row) ? dx / 2 : -dx / 2);
+            double x = from + (to - from) * fraction;
+            double y = top + (row + fraction) * dy - Math.sin(Math.PI * fraction) * dy * 0.35 - ballRadius;
+            g.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
+            ballPaths[kept] = path;
+            ballStarts[kept] = ballStarts[i];
+            kept++;
+        }
+        ballCount = kept;
+    }
+
+    private static Color slotColor(double multiplier) {
+        if (multiplier >= 10) {
+            return Color.web("#FF003F");
+        }
+        if (multiplier >= 2) {
+            return Color.web("#FF6A00");
+        }
+        if (multiplier >= 1) {
+            return Color.web("#FFC000");
+        }
+        return Color.web("#B8D84A");
+    }
+
+    private static String formatMultiplier(double multiplier) {
+        return multiplier >= 100 ? String.format("%.0f", multiplier) : String.format("%.1f", multiplier);
+    }
+
+    private void setControlsDisabled(boolean disabled) {
+        dropButton.setDisable(disabled);
+        rowsCombo.setDisable(disabled);
+        riskCombo.setDisable(disabled);
+        betAmountField.setDisable(disabled);
+        ballsPerSecondField.setDisable(disabled);
+    }
+
+    private void updateGameInfo() {
+        if (gameInfoLabel != null && rowsCombo != null && rowsCombo.getValue() != null && riskCombo.getValue() != null) {
+            gameInfoLabel.setText(String.format("%d filas, riesgo %s - RTP %.2f%%", rowsCombo.getValue(),
+                    riskCombo.getValue().getDisplayName(), 100 * table.getRtp(rowsCombo.getValue(), riskCombo.getValue())));
+        }
+    }
+
+    /**
+     * Actualiza la etiqueta de saldo con el valor actual.
+     */
+    private void updateBalanceLabel() {
+        if (currentUser != null && balanceLabel != null) {
+            balanceLabel.setText(String.format("%.2f", currentUser.getBalance()));
+        }
+    }
+
+    /**
+     * Navega de vuelta al dashboard principal.
+     */
+    private void navigateToDashboard() {
+        try {
+            // Cargar la vista principal
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main-view.fxml"));
+            Parent mainRoot = loader.load();
+
+            // Configurar el controlador con los datos del usuario y los servicios
+            MainController mainController = loader.getController();
+            if (currentUser != null) {
+                mainController.setCurrentUser(currentUser);
+            }
+            if (gameService != null) {
+                mainController.setGameService(gameService);
+            }
+
+            // Sustituir la vista en la ventana actual
+            Stage stage = (Stage) exitButton.getScene().getWindow();
+            if (stage != null && stage.getScene() != null) {
+                stage.getScene().setRoot(mainRoot);
+            } else {
+                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la vista principal: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo cargar la vista principal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra una alerta con el mensaje especificado.
+     */
+    private void showAlert(Alert.AlertType type, String header, String content) {
+        Platform.runLater(() -> {
+            try {
+                Alert alert = new Alert(type);
+                alert.setTitle("Plinko");
+                alert.setHeaderText(header);
+                alert.setContentText(content);
+                alert.showAndWait();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al mostrar alerta: " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,444 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.game.roulette.RouletteBet;
+import com.ztake.casino.game.roulette.RouletteBetSlip;
+import com.ztake.casino.game.roulette.RouletteBetType;
+import com.ztake.casino.game.roulette.RouletteTable;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.Wager;
+import com.ztake.casino.service.GameService;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador para la ruleta europea. Las apuestas se apilan en un {@link RouletteBetSlip} y
+ * cada tirada es una sola sesión de juego: {@link GameService#startGame(User, String, List)}
+ * registra una transacción por apuesta y {@link GameService#endGame(GameSession, List, String, String)}
+ * una por cada apuesta ganadora.
+ */
+public class RouletteGameController implements GameController {
+    private static final Logger LOGGER = Logger.getLogger(RouletteGameController.class.getName());
+    private static final String GAME_TYPE = "Ruleta";
+    private static final int BOARD_ROWS = 3;
+
+    @FXML
+    private Label balanceLabel;
+
+    @FXML
+    private TextField chipAmountField;
+
+    @FXML
+    private GridPane boardGrid;
+
+    @FXML
+    private ComboBox<RouletteBetType> betTypeCombo;
+
+    @FXML
+    private ComboBox<RouletteBet> betCombo;
+
+    @FXML
+    private ListView<String> betsList;
+
+    @FXML
+    private Label totalBetLabel;
+
+    @FXML
+    private Label gameInfoLabel;
+
+    @FXML
+    private Button spinButton;
+
+    @FXML
+    private Button exitButton;
+
+    @FXML
+    private Label lastNumberLabel;
+
+    @FXML
+    private Label lastWinLabel;
+
+    private User currentUser;
+    private GameService gameService;
+    private boolean updateInProgress = false;
+
+    private long chipCents = 100;
+    private final RouletteBetSlip slip = new RouletteBetSlip();
+    // Generador local para jugar sin servicio (no queda registrado)
+    private final SplittableRandom localRandom = new SplittableRandom();
+
+    /**
+     * Inicializa el controlador después de que el FXML ha sido cargado.
+     */
+    @FXML
+    public void initialize() {
+        chipAmountField.setText(String.format("%.2f", chipCents / 100.0));
+
+        // Validación de entrada para la ficha
+        chipAmountField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d{0,2})?")) {
+                chipAmountField.setText(oldVal);
+                return;
+            }
+
+            try {
+                double chip = Double.parseDouble(newVal);
+                if (chip > 0) {
+                    chipCents = Math.round(chip * 100);
+                }
+            } catch (NumberFormatException e) {
+                // Ignorar excepciones de conversión
+            }
+        });
+
+        initializeBoard();
+        initializeBetSelectors();
+        updateBetsList();
+    }
+
+    /**
+     * Configura el usuario actual para mostrar su saldo.
+     */
+    @Override
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        updateBalanceLabel();
+    }
+
+    /**
+     * Configura el servicio de juego.
+     */
+    @Override
+    public void setGameService(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Dibuja el tapete: el cero, los números en tres filas, las columnas, las docenas y las
+     * suertes sencillas. Cada casilla añade una ficha a su apuesta.
+     */
+    private void initializeBoard() {
+        boardGrid.getChildren().clear();
+
+        Button zero = boardButton("0", "pleno:0", "roulette-green");
+        boardGrid.add(zero, 0, 0, 1, BOARD_ROWS);
+
+        for (int n = 1; n <= 36; n++) {
+            Button number = boardButton(String.valueOf(n), "pleno:" + n,
+                    RouletteTable.isRed(n) ? "roulette-red" : "roulette-black");
+            // Fila superior: 3, 6, 9...; fila inferior: 1, 4, 7...
+            boardGrid.add(number, (n - 1) / 3 + 1, BOARD_ROWS - 1 - (n - 1) % 3);
+        }
+        for (int column = 1; column <= 3; column++) {
+            boardGrid.add(boardButton("2:1", "columna:" + column, "roulette-outside"), 13, BOARD_ROWS - column);
+        }
+        for (int dozen = 1; dozen <= 3; dozen++) {
+            boardGrid.add(boardButton((dozen == 1 ? "1ª" : dozen == 2 ? "2ª" : "3ª") + " 12", "docena:" + dozen,
+                    "roulette-outside"), (dozen - 1) * 4 + 1, BOARD_ROWS, 4, 1);
+        }
+        String[][] outside = {
+                {"1-18", "falta", "roulette-outside"}, {"PAR", "par", "roulette-outside"},
+                {"ROJO", "rojo", "roulette-red"}, {"NEGRO", "negro", "roulette-black"},
+                {"IMPAR", "impar", "roulette-outside"}, {"19-36", "pasa", "roulette-outside"}
+        };
+        for (int i = 0; i < outside.length; i++) {
+            boardGrid.add(boardButton(outside[i][0], outside[i][1], outside[i][2]), i * 2 + 1, BOARD_ROWS + 1, 2, 1);
+        }
+    }
+
+    private Button boardButton(String text, String betKey, String colorClass) {
+        RouletteBet bet = RouletteTable.getBet(betKey);
+        Button button = new Button(text);
+        button.getStyleClass().addAll("roulette-cell", colorClass);
+        button.setMaxWidth(Double.MAX_VALUE);
+        button.setMaxHeight(Double.MAX_VALUE);
+        button.setTooltip(new Tooltip(bet.getName() + " - paga " + bet.getPayout() + " a 1"));
+        button.setOnAction(e -> placeBet(bet));
+        return button;
+    }
+
+    /**
+     * Listas para las apuestas interiores que no tienen casilla propia en el tapete.
+     */
+    private void initializeBetSelectors() {
+        betTypeCombo.getItems().addAll(RouletteBetType.SPLIT, RouletteBetType.STREET,
+                RouletteBetType.CORNER, RouletteBetType.SIX_LINE);
+        betTypeCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(RouletteBetType type) {
+                return type == null ? "" : type.getDisplayName() + " (" + type.getPayout() + " a 1)";
+            }
+
+            @Override
+            public RouletteBetType fromString(String text) {
+                return null;
+            }
+        });
+        betCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(RouletteBet bet) {
+                return bet == null ? "" : bet.getName();
+            }
+
+            @Override
+            public RouletteBet fromString(String text) {
+                return null;
+            }
+        });
+        betTypeCombo.setOnAction(e -> {
+            betCombo.getItems().setAll(RouletteTable.getBets(betTypeCombo.getValue()));
+            betCombo.getSelectionModel().selectFirst();
+        });
+        betTypeCombo.getSelectionModel().selectFirst();
+        betCombo.getItems().setAll(RouletteTable.getBets(betTypeCombo.getValue()));
+        betCombo.getSelectionModel().selectFirst();
+    }
+
+    /**
+     * Añade la apuesta interior seleccionada en las listas.
+     */
+    @FXML
+    public void handleAddBetAction(ActionEvent event) {
+        if (betCombo.getValue() != null) {
+            placeBet(betCombo.getValue());
+        }
+    }
+
+    /**
+     * Quita la apuesta seleccionada.
+     */
+    @FXML
+    public void handleRemoveBetAction(ActionEvent event) {
+        int index = betsList.getSelectionModel().getSelectedIndex();
+        if (!updateInProgress && index >= 0 && index < slip.size()) {
+            slip.remove(index);
+            updateBetsList();
+        }
+    }
+
+    /**
+     * Quita todas las apuestas.
+     */
+    @FXML
+    public void handleClearBetsAction(ActionEvent event) {
+        if (!updateInProgress) {
+            slip.clear();
+            updateBetsList();
+        }
+    }
+
+    private void placeBet(RouletteBet bet) {
+        if (updateInProgress) {
+            return;
+        }
+        try {
+            slip.add(bet, chipCents);
+            updateBetsList();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            showAlert(Alert.AlertType.WARNING, "Apuesta no válida", e.getMessage());
+        }
+    }
+
+    private void updateBetsList() {
+        betsList.getItems().clear();
+        for (int i = 0; i < slip.size(); i++) {
+            RouletteBet bet = slip.getBet(i);
+            betsList.getItems().add(String.format("%s - %.2f (paga %d a 1)", bet.getName(),
+                    slip.getAmountCents(i) / 100.0, bet.getPayout()));
+        }
+        betsList.setPlaceholder(new Label("Sin apuestas"));
+        totalBetLabel.setText(String.format("Total: %.2f", slip.getTotalCents() / 100.0));
+    }
+
+    /**
+     * Maneja el evento de clic en el botón GIRAR.
+     */
+    @FXML
+    public void handleSpinButtonAction(ActionEvent event) {
+        if (updateInProgress) {
+            LOGGER.info("Operación en progreso, ignorando clic en GIRAR");
+            return;
+        }
+        if (slip.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Sin apuestas", "Coloca al menos una ficha en el tapete antes de girar.");
+            return;
+        }
+
+        updateInProgress = true;
+        spinButton.setDisable(true);
+
+        try {
+            if (gameService != null && currentUser != null) {
+                // Verificar saldo suficiente
+                if (currentUser.getBalance() * 100 < slip.getTotalCents()) {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Saldo insuficiente para realizar estas apuestas.");
+                    return;
+                }
+                playRound();
+            } else {
+                // Sin servicio no hay ronda registrada: tirada con el generador local
+                int number = RouletteTable.spin(localRandom);
+                showResult(number, slip.settle(number));
+            }
+        } catch (IllegalStateException e) {
+            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al girar la ruleta: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al girar la ruleta: " + e.getMessage());
+        } finally {
+            spinButton.setDisable(false);
+            updateInProgress = false;
+        }
+    }
+
+    /**
+     * Juega una tirada registrada: una sesión con todas las apuestas, el número del generador
+     * justo de la ronda y una transacción de premio por cada apuesta ganadora.
+     */
+    private void playRound() {
+        List<Wager> wagers = new ArrayList<>(slip.size());
+        for (int i = 0; i < slip.size(); i++) {
+            wagers.add(new Wager(slip.getBet(i).getKey(), slip.getAmountCents(i) / 100.0));
+        }
+
+        GameSession gameSession = gameService.startGame(currentUser, GAME_TYPE, wagers);
+        updateBalanceLabel();
+
+        int number = RouletteTable.spin(gameService.getOutcomeRandom(gameSession));
+        long paidCents = slip.settle(number);
+        long winners = slip.winners(number);
+
+        // Premio de cada apuesta ganadora y detalle de la tirada
+        List<Wager> winnings = new ArrayList<>(Long.bitCount(winners));
+        JSONArray bets = new JSONArray();
+        for (int i = 0; i < slip.size(); i++) {
+            long returned = (winners >>> i & 1L) != 0 ? slip.getReturnCents(i) : 0;
+            if (returned > 0) {
+                winnings.add(new Wager(slip.getBet(i).getKey(), returned / 100.0));
+            }
+            bets.put(new JSONObject()
+                    .put("bet", slip.getBet(i).getKey())
+                    .put("amount", slip.getAmountCents(i) / 100.0)
+                    .put("paid", returned / 100.0));
+        }
+        JSONObject gameData = new JSONObject();
+        gameData.put("number", number);
+        gameData.put("bets", bets);
+        gameData.put("multiplier", (double) paidCents / slip.getTotalCents());
+
+        try {
+            GameSession settled = gameService.endGame(gameSession, winnings, paidCents > 0 ? "won" : "lost",
+                    gameData.toString());
+            // El premio se abona sobre el usuario de la sesión: sincronizar el saldo mostrado
+            if (settled.getUser() != null) {
+                currentUser.setBalance(settled.getUser().getBalance());
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al finalizar la tirada: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al finalizar la tirada: " + e.getMessage());
+        }
+
+        LOGGER.info("Tirada de ruleta - Nonce: " + gameSession.getNonce() + ", número: " + number
+                + ", apuestas: " + slip.size() + ", premio: " + paidCents / 100.0);
+        updateBalanceLabel();
+        showResult(number, paidCents);
+    }
+
+    private void showResult(int number, long paidCents) {
+        String color = number == 0 ? "verde" : RouletteTable.isRed(number) ? "rojo" : "negro";
+        lastNumberLabel.setText(number + " " + color);
+        lastWinLabel.setText(String.format("%.2f", paidCents / 100.0));
+        if (paidCents > 0) {
+            gameInfoLabel.setText(String.format("¡Ha salido el %d %s! Has ganado %.2f con %d de %d apuestas.",
+                    number, color, paidCents / 100.0, Long.bitCount(slip.winners(number)), slip.size()));
+        } else {
+            gameInfoLabel.setText(String.format("Ha salido el %d %s. Sin premio esta vez.", number, color));
+        }
+    }
+
+    /**
+     * Maneja el evento de clic en el botón SALIR.
+     */
+    @FXML
+    public void handleExitButtonAction(ActionEvent event) {
+        if (updateInProgress) {
+            LOGGER.info("Operación en progreso, ignorando clic en SALIR");
+            return;
+        }
+        navigateToDashboard();
+    }
+
+    /**
+     * Actualiza la etiqueta de saldo con el valor actual.
+     */
+    private void updateBalanceLabel() {
+        if (currentUser != null && balanceLabel != null) {
+            balanceLabel.setText(String.format("%.2f", currentUser.getBalance()));
+        }
+    }
+
+    /**
+     * Navega de vuelta al dashboard principal.
+     */
+    private void navigateToDashboard() {
+        try {
+            // Cargar la vista principal
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main-view.fxml"));
+            Parent mainRoot = loader.load();
+
+            // Configurar el controlador con los datos del usuario y los servicios
+            MainController mainController = loader.getController();
+            if (currentUser != null) {
+                mainController.setCurrentUser(currentUser);
+            }
+            if (gameService != null) {
+                mainController.setGameService(gameService);
+            }
+
+            // Sustituir la vista en la ventana actual
+            Stage stage = (Stage) exitButton.getScene().getWindow();
+            if (stage != null && stage.getScene() != null) {
+                stage.getScene().setRoot(mainRoot);
+            } else {
+                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la vista principal: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo cargar la vista principal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra una alerta con el mensaje especificado.
+     */
+    private void showAlert(Alert.AlertType type, String header, String content) {
+        Platform.runLater(() -> {
+            try {
+                Alert alert = new Alert(type);
+                alert.setTitle("Ruleta");
+                alert.setHeaderText(header);
+                alert.setContentText(content);
+                alert.showAndWait();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al mostrar alerta: " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,432 @@
+package com.ztake.casino.controller;
+
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.slots.SlotsConfig;
+import com.ztake.casino.game.slots.SlotsEngine;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.FairnessService;
+import com.ztake.casino.service.GameService;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador para el juego Slots. Cada tirada es una ronda completa: se abre con
+ * {@link GameService#startGame}, los rodillos giran con el generador justo de la sesión y se
+ * liquida en el acto con {@link GameService#endGame}.
+ */
+public class SlotsGameController implements GameController {
+    private static final Logger LOGGER = Logger.getLogger(SlotsGameController.class.getName());
+    private static final String GAME_TYPE = "Slots";
+    // Un emoji por símbolo de la configuración por defecto
+    private static final String[] SYMBOL_ICONS = {"🍒", "🍋", "🍊", "🍇", "🔔", "🍉", "BAR", "7️⃣", "⭐"};
+
+    @FXML
+    private Label balanceLabel;
+
+    @FXML
+    private TextField betAmountField;
+
+    @FXML
+    private Label lineBetLabel;
+
+    @FXML
+    private GridPane reelsGrid;
+
+    @FXML
+    private Button spinButton;
+
+    @FXML
+    private Button exitButton;
+
+    @FXML
+    private Label lastWinLabel;
+
+    @FXML
+    private Label gameInfoLabel;
+
+    @FXML
+    private VBox paytableBox;
+
+    @FXML
+    private Label serverSeedHashLabel;
+
+    @FXML
+    private Label nextServerSeedHashLabel;
+
+    @FXML
+    private TextField clientSeedField;
+
+    @FXML
+    private Label nonceLabel;
+
+    @FXML
+    private Button rotateSeedsButton;
+
+    private User currentUser;
+    private GameService gameService;
+    private boolean updateInProgress = false;
+
+    private double currentBet = 5.00;
+    private final SlotsEngine engine = new SlotsEngine();
+    private final SlotsConfig config = engine.getConfig();
+    // Generador local para jugar sin servicio (no queda registrado)
+    private final SplittableRandom localRandom = new SplittableRandom();
+    private final List<Label> cellLabels = new ArrayList<>();
+
+    /**
+     * Inicializa el controlador después de que el FXML ha sido cargado.
+     */
+    @FXML
+    public void initialize() {
+        betAmountField.setText(String.format("%.2f", currentBet));
+        updateLineBetLabel();
+
+        // Validación de entrada para apuesta
+        betAmountField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.matches("\\d*(\\.\\d*)?")) {
+                betAmountField.setText(oldVal);
+                return;
+            }
+
+            try {
+                double bet = Double.parseDouble(newVal);
+                if (bet > 0) {
+                    currentBet = bet;
+                    updateLineBetLabel();
+                }
+            } catch (NumberFormatException e) {
+                // Ignorar excepciones de conversión
+            }
+        });
+
+        initializeReels();
+        initializePaytable();
+
+        if (gameInfoLabel != null) {
+            gameInfoLabel.setText("¡Bienvenido a Slots! " + config.getLineCount()
+                    + " líneas de pago. Elige tu apuesta y pulsa GIRAR.");
+        }
+    }
+
+    /**
+     * Configura el usuario actual para mostrar su saldo.
+     */
+    @Override
+    public void setCurrentUser(User user) {
+        this.currentUser = user;
+        updateBalanceLabel();
+        updateFairnessInfo();
+    }
+
+    /**
+     * Configura el servicio de juego.
+     */
+    @Override
+    public void setGameService(GameService gameService) {
+        this.gameService = gameService;
+        updateFairnessInfo();
+    }
+
+    /**
+     * Crea una casilla por fila y rodillo.
+     */
+    private void initializeReels() {
+        reelsGrid.getChildren().clear();
+        cellLabels.clear();
+
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int reel = 0; reel < config.getReelCount(); reel++) {
+                Label cell = new Label(icon(config.getSymbol(reel, row)));
+                cell.getStyleClass().add("slot-cell");
+                reelsGrid.add(cell, reel, row);
+                cellLabels.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Rellena la tabla de pagos a partir de la configuración.
+     */
+    private void initializePaytable() {
+        if (paytableBox == null) {
+            return;
+        }
+
+        paytableBox.getChildren().clear();
+        for (int symbol = config.getSymbolCount() - 1; symbol >= 0; symbol--) {
+            StringBuilder text = new StringBuilder(icon(symbol)).append("  ").append(config.getSymbolName(symbol)).append(":");
+            for (int run = 1; run <= config.getReelCount(); run++) {
+                int pay = config.getPay(symbol, run);
+                if (pay > 0) {
+                    text.append("  ").append(run).append("x = ").append(pay);
+                }
+            }
+            paytableBox.getChildren().add(new Label(text.toString()));
+        }
+        Label note = new Label(String.format("Premios en apuestas de línea. El %s sustituye a cualquier símbolo. RTP teórico: %.2f %%",
+                config.getSymbolName(config.getWild()), config.getRtp() * 100));
+        note.setWrapText(true);
+        note.getStyleClass().add("text-label");
+        paytableBox.getChildren().add(note);
+    }
+
+    /**
+     * Maneja el evento de clic en el botón GIRAR.
+     */
+    @FXML
+    public void handleSpinButtonAction(ActionEvent event) {
+        if (updateInProgress) {
+            LOGGER.info("Operación en progreso, ignorando clic en GIRAR");
+            return;
+        }
+
+        updateInProgress = true;
+        spinButton.setDisable(true);
+
+        try {
+            double bet = currentBet;
+            if (gameService != null && currentUser != null) {
+                // Verificar saldo suficiente
+                if (currentUser.getBalance() < bet) {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Saldo insuficiente para realizar esta apuesta.");
+                    return;
+                }
+                playRound(bet);
+            } else {
+                // Sin servicio no hay ronda registrada: tirada con el generador local
+                engine.spin(localRandom);
+                showSpin(bet, calculateWinnings(bet));
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al girar: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al girar: " + e.getMessage());
+        } finally {
+            spinButton.setDisable(false);
+            updateInProgress = false;
+        }
+    }
+
+    /**
+     * Juega una ronda registrada: abre la sesión, gira con el generador de la ronda y la liquida.
+     */
+    private void playRound(double bet) {
+        GameSession gameSession = gameService.startGame(currentUser, GAME_TYPE, bet);
+        updateBalanceLabel();
+
+        engine.spin(gameService.getOutcomeRandom(gameSession));
+        double winnings = calculateWinnings(bet);
+
+        // Guardar datos de la tirada para análisis y para repetirla con las semillas de la sesión
+        JSONObject gameData = new JSONObject();
+        gameData.put("lines", engine.getLines());
+        gameData.put("win", engine.getTotalWin());
+        gameData.put("multiplier", (double) engine.getTotalWin() / engine.getLines());
+        gameData.put("stops", GameDataCodec.join(engine.getStops()));
+        gameData.put("reelLengths", GameDataCodec.join(engine.getReelLengths()));
+
+        try {
+            GameSession settled = gameService.endGame(gameSession, winnings, winnings > 0 ? "won" : "lost", gameData.toString());
+            // El premio se abona sobre el usuario de la sesión: sincronizar el saldo mostrado
+            if (settled.getUser() != null) {
+                currentUser.setBalance(settled.getUser().getBalance());
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al finalizar la tirada: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "Ocurrió un error al finalizar la tirada: " + e.getMessage());
+        }
+
+        LOGGER.info("Tirada de Slots - Nonce: " + gameSession.getNonce() + ", premio: " + winnings);
+        updateBalanceLabel();
+        showSpin(bet, winnings);
+        updateFairnessInfo();
+    }
+
+    /**
+     * Premio de la última tirada: la apuesta se reparte entre todas las líneas.
+     */
+    private double calculateWinnings(double bet) {
+        double winnings = bet * engine.getTotalWin() / engine.getLines();
+        // Redondear a 2 decimales para evitar errores de precisión
+        return new BigDecimal(winnings).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /**
+     * Muestra los rodillos de la última tirada y resalta las casillas de las líneas premiadas.
+     */
+    private void showSpin(double bet, double winnings) {
+        int reels = config.getReelCount();
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int reel = 0; reel < reels; reel++) {
+                Label cell = cellLabels.get(row * reels + reel);
+                cell.setText(icon(engine.getSymbol(reel, row)));
+                cell.getStyleClass().remove("slot-cell-win");
+            }
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (int line = 0; line < engine.getLines(); line++) {
+            int run = engine.getLineRun(line);
+            if (run == 0) {
+                continue;
+            }
+            for (int reel = 0; reel < run; reel++) {
+                Label cell = cellLabels.get(config.getPaylineRow(line, reel) * reels + reel);
+                if (!cell.getStyleClass().contains("slot-cell-win")) {
+                    cell.getStyleClass().add("slot-cell-win");
+                }
+            }
+            lines.append(lines.length() == 0 ? "" : " | ").append("Línea ").append(line + 1)
+                    .append(": ").append(run).append(" en línea x").append(engine.getLineWin(line));
+        }
+
+        lastWinLabel.setText(String.format("%.2f", winnings));
+        if (gameInfoLabel != null) {
+            if (winnings > 0) {
+                gameInfoLabel.setText(String.format("¡Has ganado %.2f (x%.2f)! %s", winnings, winnings / bet, lines));
+            } else {
+                gameInfoLabel.setText("Sin premio esta vez. ¡Vuelve a girar!");
+            }
+        }
+    }
+
+    /**
+     * Maneja el evento de clic en el botón SALIR.
+     */
+    @FXML
+    public void handleExitButtonAction(ActionEvent event) {
+        if (updateInProgress) {
+            LOGGER.info("Operación en progreso, ignorando clic en SALIR");
+            return;
+        }
+        navigateToDashboard();
+    }
+
+    /**
+     * Muestra las semillas del jugador: los hashes publicados, la semilla del cliente y el nonce.
+     */
+    private void updateFairnessInfo() {
+        if (gameService == null || currentUser == null || serverSeedHashLabel == null) {
+            return;
+        }
+        try {
+            showSeeds(gameService.getFairnessSeeds(currentUser));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudieron obtener las semillas: " + e.getMessage(), e);
+        }
+    }
+
+    private void showSeeds(FairnessService.Seeds seeds) {
+        serverSeedHashLabel.setText(seeds.getServerSeedHash());
+        nextServerSeedHashLabel.setText(seeds.getNextServerSeedHash());
+        clientSeedField.setText(seeds.getClientSeed());
+        nonceLabel.setText("Nonce: " + seeds.getNonce());
+    }
+
+    /**
+     * Rota las semillas con la semilla del cliente escrita (o una aleatoria si está vacía).
+     */
+    @FXML
+    public void handleRotateSeedsAction(ActionEvent event) {
+        if (gameService == null || currentUser == null || updateInProgress) {
+            return;
+        }
+        try {
+            String clientSeed = clientSeedField.getText() == null || clientSeedField.getText().isBlank()
+                    ? null : clientSeedField.getText().trim();
+            showSeeds(gameService.rotateFairnessSeeds(currentUser, clientSeed));
+            showAlert(Alert.AlertType.INFORMATION, "Semillas rotadas",
+                    "La semilla del servidor anterior aparecerá en tu historial de partidas.");
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Semilla inválida", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al rotar las semillas: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron rotar las semillas: " + e.getMessage());
+        }
+    }
+
+    private void updateLineBetLabel() {
+        if (lineBetLabel != null) {
+            lineBetLabel.setText(String.format("%.4f por línea", currentBet / config.getLineCount()));
+        }
+    }
+
+    /**
+     * Actualiza la etiqueta de saldo con el valor actual.
+     */
+    private void updateBalanceLabel() {
+        if (currentUser != null && balanceLabel != null) {
+            balanceLabel.setText(String.format("%.2f", currentUser.getBalance()));
+        }
+    }
+
+    private static String icon(int symbol) {
+        return symbol < SYMBOL_ICONS.length ? SYMBOL_ICONS[symbol] : String.valueOf(symbol);
+    }
+
+    /**
+     * Navega de vuelta al dashboard principal.
+     */
+    private void navigateToDashboard() {
+        try {
+            // Cargar la vista principal
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main-view.fxml"));
+            Parent mainRoot = loader.load();
+
+            // Configurar el controlador con los datos del usuario y los servicios
+            MainController mainController = loader.getController();
+            if (currentUser != null) {
+                mainController.setCurrentUser(currentUser);
+            }
+            if (gameService != null) {
+                mainController.setGameService(gameService);
+            }
+
+            // Sustituir la vista en la ventana actual
+            Stage stage = (Stage) exitButton.getScene().getWindow();
+            if (stage != null && stage.getScene() != null) {
+                stage.getScene().setRoot(mainRoot);
+            } else {
+                LOGGER.severe("Error: No se pudo acceder a la ventana o escena actual");
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la vista principal: " + e.getMessage(), e);
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudo cargar la vista principal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra una alerta con el mensaje especificado.
+     */
+    private void showAlert(Alert.AlertType type, String header, String content) {
+        Platform.runLater(() -> {
+            try {
+                Alert alert = new Alert(type);
+                alert.setTitle("Slots");
+                alert.setHeaderText(header);
+                alert.setContentText(content);
+                alert.showAndWait();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error al mostrar alerta: " + e.getMessage(), e);
+            }
+        });
+    }
+}
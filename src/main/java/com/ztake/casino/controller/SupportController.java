@@ -1,7 +1,9 @@
 package com.ztake.casino.controller;
 
+import com.ztake.casino.config.SqlStatementCounter;
 import com.ztake.casino.model.SupportTicket;
 import com.ztake.casino.model.User;
+import com.ztake.casino.repository.FetchPlan;
 import com.ztake.casino.repository.SupportTicketRepository;
 import com.ztake.casino.repository.SupportTicketRepositoryImpl;
 import javafx.collections.FXCollections;
@@ -190,7 +192,8 @@ public class SupportController {
     private void showTicketDetails(Long ticketId) {
         if (supportTicketRepository != null) {
             try {
-                supportTicketRepository.findById(ticketId).ifPresent(ticket -> {
+                SqlStatementCounter.measure("ticketDetail", 1,
+                        () -> supportTicketRepository.findById(ticketId, FetchPlan.TICKET_DETAIL)).ifPresent(ticket -> {
                     // Crear y mostrar diálogo con detalles
                     Dialog<ButtonType> dialog = new Dialog<>();
                     dialog.setTitle("Detalles del Ticket");
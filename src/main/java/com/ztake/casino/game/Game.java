@@ -0,0 +1,93 @@
+package com.ztake.casino.game;
+
+import java.util.List;
+
+/**
+ * Juego del casino, descubierto con {@link java.util.ServiceLoader} (ver {@link GameRegistry}).
+ *
+ * <p>Cada juego declara su tarjeta del menú, su vista, sus tablas de pagos, sus configuraciones
+ * para el simulador de RTP y cómo repetir una ronda a partir de su game_data. Las
+ * implementaciones deben ser ligeras: el registro las instancia todas al arrancar para montar el
+ * menú, y lo costoso (tablas, FXML, imágenes de la vista) solo se carga la primera vez que se
+ * abre el juego, con {@link #loadTables()} y {@link #getViewResource()}.</p>
+ *
+ * <p>Para añadir un juego basta con implementar esta interfaz y añadir la clase a
+ * {@code META-INF/services/com.ztake.casino.game.Game}.</p>
+ */
+public interface Game {
+
+    /**
+     * @return tipo de juego tal y como se guarda en game_sessions (por ejemplo, "Mines")
+     */
+    String getGameType();
+
+    /**
+     * @return nombre que se muestra en el menú
+     */
+    default String getTitle() {
+        return getGameType();
+    }
+
+    /**
+     * @return frase corta para la tarjeta del menú
+     */
+    String getSummary();
+
+    /**
+     * @return descripción de las reglas para la información de los juegos
+     */
+    String getDescription();
+
+    /**
+     * @return posición en el menú (de menor a mayor)
+     */
+    int getMenuOrder();
+
+    /**
+     * @return recurso de la imagen de la tarjeta, o null para mostrar {@link #getIconText()}
+     */
+    default String getIconResource() {
+        return null;
+    }
+
+    /**
+     * @return texto que hace de icono cuando el juego no tiene imagen
+     */
+    default String getIconText() {
+        return getTitle();
+    }
+
+    /**
+     * @return clase CSS del texto que hace de icono
+     */
+    default String getIconStyleClass() {
+        return "game-title";
+    }
+
+    /**
+     * @return recurso FXML de la vista del juego (se carga al abrirlo)
+     */
+    String getViewResource();
+
+    /**
+     * Precalcula las tablas de pagos o de estrategia del juego. El registro lo llama una sola vez,
+     * antes de abrir el juego por primera vez.
+     */
+    default void loadTables() {
+    }
+
+    /**
+     * @return configuraciones del juego para el simulador de RTP
+     */
+    default List<SimulatableGame> getSimulations() {
+        return List.of();
+    }
+
+    /**
+     * Decodifica el game_data de una ronda y comprueba que repetirla con sus semillas y su nonce
+     * da el resultado registrado.
+     *
+     * @return true si el resultado cuadra; false si no cuadra o los datos no permiten repetirla
+     */
+    boolean replays(String serverSeed, String clientSeed, long nonce, String gameData);
+}
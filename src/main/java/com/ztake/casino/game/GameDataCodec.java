@@ -0,0 +1,64 @@
+package com.ztake.casino.game;
+
+/**
+ * Lectura y escritura de los campos del game_data que usan los juegos para repetir sus rondas.
+ *
+ * <p>Los juegos escriben un JSON plano; verificar cientos de miles de rondas analizando cada
+ * documento completo costaría más que el HMAC de la ronda, así que los campos se leen
+ * directamente del texto con {@link #rawValue}. Si el formato no es el esperado devuelve null y
+ * el juego recurre a {@code org.json}.</p>
+ */
+public final class GameDataCodec {
+
+    private GameDataCodec() {
+    }
+
+    /**
+     * @return el valor sin interpretar de una clave de primer nivel ({@code "clave":valor}), o null
+     */
+    public static String rawValue(String json, String key) {
+        String token = "\"" + key + "\":";
+        int start = json.indexOf(token);
+        if (start < 0) {
+            return null;
+        }
+        start += token.length();
+        int end = start;
+        if (end < json.length() && json.charAt(end) == '"') {
+            // Cadena sin escapes: hasta la comilla de cierre, incluida
+            end = json.indexOf('"', start + 1);
+            return end < 0 || json.lastIndexOf('\\', end) > start ? null : json.substring(start, end + 1);
+        }
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+            end++;
+        }
+        return end < json.length() ? json.substring(start, end) : null;
+    }
+
+    /**
+     * @return los enteros de una lista separada por comas (admite las comillas del JSON)
+     */
+    public static int[] parseInts(String list) {
+        String values = list.length() >= 2 && list.charAt(0) == '"' ? list.substring(1, list.length() - 1) : list;
+        String[] parts = values.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return los enteros separados por comas, como los lee {@link #parseInts}
+     */
+    public static String join(int[] values) {
+        StringBuilder joined = new StringBuilder(values.length * 6);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                joined.append(',');
+            }
+            joined.append(values[i]);
+        }
+        return joined.toString();
+    }
+}
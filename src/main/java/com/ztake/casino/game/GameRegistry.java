@@ -0,0 +1,114 @@
+package com.ztake.casino.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro de los juegos disponibles, descubiertos con {@link ServiceLoader}.
+ *
+ * <p>Al crearse solo instancia los {@link Game} (clases ligeras con los datos de su tarjeta);
+ * las tablas de cada juego se cargan en {@link #prepare(Game)} la primera vez que se abre, de
+ * modo que el arranque no crece con el número de juegos.</p>
+ */
+public final class GameRegistry {
+    private static final Logger LOGGER = Logger.getLogger(GameRegistry.class.getName());
+
+    private static volatile GameRegistry defaultRegistry;
+
+    private final List<Game> games;
+    private final Map<String, Game> byType;
+    private final Set<String> prepared = ConcurrentHashMap.newKeySet();
+
+    public GameRegistry(Iterable<Game> games) {
+        List<Game> sorted = new ArrayList<>();
+        Map<String, Game> types = new LinkedHashMap<>();
+        for (Game game : games) {
+            if (types.putIfAbsent(game.getGameType(), game) != null) {
+                LOGGER.warning("Tipo de juego duplicado, se ignora: " + game.getGameType() + " ("
+                        + game.getClass().getName() + ")");
+                continue;
+            }
+            sorted.add(game);
+        }
+        sorted.sort(Comparator.comparingInt(Game::getMenuOrder));
+        this.games = Collections.unmodifiableList(sorted);
+        this.byType = types;
+    }
+
+    /**
+     * @return el registro con los juegos declarados en {@code META-INF/services/com.ztake.casino.game.Game}
+     */
+    public static GameRegistry getDefault() {
+        GameRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (GameRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = new GameRegistry(ServiceLoader.load(Game.class));
+                    defaultRegistry = registry;
+                    LOGGER.info("Juegos registrados: " + registry.getGameTypes());
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * @return los juegos en el orden del menú
+     */
+    public List<Game> getGames() {
+        return games;
+    }
+
+    /**
+     * @return los tipos de juego en el orden del menú
+     */
+    public List<String> getGameTypes() {
+        List<String> types = new ArrayList<>(games.size());
+        for (Game game : games) {
+            types.add(game.getGameType());
+        }
+        return types;
+    }
+
+    /**
+     * @return el juego de un tipo, o null si no está registrado
+     */
+    public Game find(String gameType) {
+        return gameType == null ? null : byType.get(gameType);
+    }
+
+    /**
+     * Carga las tablas de un juego si todavía no se han cargado. Si fallan, se vuelve a intentar
+     * la próxima vez.
+     */
+    public void prepare(Game game) {
+        if (prepared.contains(game.getGameType())) {
+            return;
+        }
+        synchronized (game) {
+            if (prepared.contains(game.getGameType())) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                game.loadTables();
+                prepared.add(game.getGameType());
+                LOGGER.info(String.format("Tablas de %s cargadas en %.1f ms", game.getGameType(),
+                        (System.nanoTime() - start) / 1e6));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error al cargar las tablas de " + game.getGameType() + ": " + e.getMessage(), e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ztake.casino.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Juego cuyas matemáticas se pueden verificar por simulación (Monte Carlo) sin interfaz
+ * ni base de datos.
+ *
+ * <p>Cada configuración (tamaño, apuestas, estrategia de cobro...) es una instancia. Como los
+ * motores no son seguros para hilos, el simulador pide un {@link Player} por tarea, cada uno
+ * con su propio generador aleatorio.</p>
+ */
+public interface SimulatableGame {
+
+    /**
+     * @return descripción de la configuración para el informe
+     */
+    String getName();
+
+    /**
+     * Crea un jugador para un único hilo.
+     *
+     * @param random generador propio del jugador
+     */
+    Player newPlayer(SplittableRandom random);
+
+    /**
+     * @return RTP teórico de la configuración, o NaN si no se conoce
+     */
+    default double getExpectedRtp() {
+        return Double.NaN;
+    }
+
+    /**
+     * @return margen que se admite además del error de muestreo cuando el RTP teórico es una
+     * aproximación (0 si es exacto)
+     */
+    default double getRtpTolerance() {
+        return 0;
+    }
+
+    /**
+     * Juega rondas con apuesta unitaria.
+     */
+    interface Player {
+
+        /**
+         * Juega una ronda completa.
+         *
+         * @return lo pagado por unidad apostada (0 si se pierde)
+         */
+        double playRound();
+    }
+}
@@ -0,0 +1,396 @@
+package com.ztake.casino.game.blackjack;
+
+/**
+ * Motor de una mesa de blackjack con un jugador.
+ *
+ * <p>Las manos se guardan en arrays planos (como mucho {@link BlackjackRules#getMaxHands()}
+ * manos tras dividir), así que jugar una ronda no reserva memoria: el mismo motor sirve a la
+ * vista y a las simulaciones de millones de rondas.</p>
+ *
+ * <p>Orden del reparto: jugador, crupier, jugador y, si el crupier mira la carta oculta,
+ * crupier; sin carta oculta, la segunda carta del crupier sale después de jugar el jugador.
+ * Tras dividir, la primera mano recibe su segunda carta enseguida y las demás al empezar a
+ * jugarse.</p>
+ *
+ * <p>Los resultados están en unidades de la apuesta inicial: +1 gana, -1 pierde, +1.5 blackjack
+ * 3 a 2, ±2 una mano doblada, etc. No es seguro para hilos.</p>
+ */
+public class BlackjackEngine {
+
+    /**
+     * Estado de la ronda.
+     */
+    public enum State {
+        /** Sin ronda en juego. */
+        IDLE,
+        /** El jugador decide sobre la mano actual. */
+        PLAYER_TURN,
+        /** Ronda terminada y liquidada. */
+        FINISHED
+    }
+
+    /** Máximo de cartas por mano: 21 ases como mucho y la carta que pasa de 21. */
+    private static final int MAX_CARDS = 22;
+
+    private final BlackjackRules rules;
+    private final Shoe shoe;
+    private final int maxHands;
+
+    private final int[][] cards;
+    private final int[] counts;
+    private final int[] sums;
+    private final boolean[] aces;
+    private final int[] stakes;
+    private final boolean[] fromSplitAces;
+    private final double[] results;
+    private int handCount;
+    private int current;
+
+    private final int[] dealerCards = new int[MAX_CARDS + 5];
+    private int dealerCount;
+    private int dealerSum;
+    private boolean dealerAce;
+
+    private State state = State.IDLE;
+    private double net;
+
+    public BlackjackEngine(BlackjackRules rules, Shoe shoe) {
+        this.rules = rules;
+        this.shoe = shoe;
+        this.maxHands = rules.getMaxHands();
+        this.cards = new int[maxHands][MAX_CARDS];
+        this.counts = new int[maxHands];
+        this.sums = new int[maxHands];
+        this.aces = new boolean[maxHands];
+        this.stakes = new int[maxHands];
+        this.fromSplitAces = new boolean[maxHands];
+        this.results = new double[maxHands];
+    }
+
+    /**
+     * Reparte una ronda nueva. Si el jugador o el crupier tienen blackjack, la ronda termina ya.
+     *
+     * @return el estado tras el reparto
+     */
+    public State deal() {
+        if (state == State.PLAYER_TURN) {
+            throw new IllegalStateException("La ronda anterior no ha terminado");
+        }
+        shoe.startRound();
+        handCount = 1;
+        current = 0;
+        counts[0] = 0;
+        sums[0] = 0;
+        aces[0] = false;
+        stakes[0] = 1;
+        fromSplitAces[0] = false;
+        dealerCount = 0;
+        dealerSum = 0;
+        dealerAce = false;
+        net = 0;
+
+        addCard(0, shoe.draw());
+        addDealerCard(shoe.draw());
+        addCard(0, shoe.draw());
+        if (rules.isDealerPeeks()) {
+            addDealerCard(shoe.draw());
+            if (isDealerBlackjack()) {
+                // El crupier mira y descubre: solo se pierde la apuesta inicial
+                results[0] = isNatural(0) ? 0 : -1;
+                return finish();
+            }
+        }
+        if (isNatural(0)) {
+            if (!rules.isDealerPeeks()) {
+                addDealerCard(shoe.draw());
+            }
+            results[0] = isDealerBlackjack() ? 0 : rules.getBlackjackPayout();
+            return finish();
+        }
+        state = State.PLAYER_TURN;
+        return state;
+    }
+
+    /**
+     * Pide carta. Con 21 o pasado, la mano termina.
+     */
+    public State hit() {
+        checkPlayerTurn();
+        if (!canHit()) {
+            throw new IllegalStateException("No se puede pedir con ases divididos");
+        }
+        addCard(current, shoe.draw());
+        if (value(current) >= 21) {
+            return advance();
+        }
+        return state;
+    }
+
+    public State stand() {
+        checkPlayerTurn();
+        return advance();
+    }
+
+    /**
+     * Dobla la apuesta de la mano actual, recibe una carta y se planta.
+     */
+    public State doubleDown() {
+        checkPlayerTurn();
+        if (!canDouble()) {
+            throw new IllegalStateException("No se puede doblar esta mano");
+        }
+        stakes[current] = 2;
+        addCard(current, shoe.draw());
+        return advance();
+    }
+
+    /**
+     * Divide la pareja de la mano actual en dos manos con la misma apuesta.
+     */
+    public State split() {
+        checkPlayerTurn();
+        if (!canSplit()) {
+            throw new IllegalStateException("No se puede dividir esta mano");
+        }
+        int rank = cards[current][0];
+        // La nueva mano va justo detrás de la actual
+        for (int h = handCount; h > current + 1; h--) {
+            copyHand(h - 1, h);
+        }
+        int next = current + 1;
+        handCount++;
+        boolean splitAces = rank == 1;
+        for (int h = current; h <= next; h++) {
+            cards[h][0] = rank;
+            counts[h] = 1;
+            sums[h] = rank;
+            aces[h] = splitAces;
+            stakes[h] = 1;
+            fromSplitAces[h] = splitAces;
+        }
+        addCard(current, shoe.draw());
+        if (value(current) == 21 || splitAces && !rules.isHitSplitAces() && !canSplit()) {
+            return advance();
+        }
+        return state;
+    }
+
+    /**
+     * @return true si se puede pedir carta (no se puede con ases divididos, salvo que las
+     * reglas lo permitan)
+     */
+    public boolean canHit() {
+        return state == State.PLAYER_TURN && !(fromSplitAces[current] && !rules.isHitSplitAces());
+    }
+
+    /**
+     * @return true si la mano actual tiene dos cartas y las reglas permiten doblarla
+     */
+    public boolean canDouble() {
+        if (state != State.PLAYER_TURN || counts[current] != 2) {
+            return false;
+        }
+        if (handCount > 1 && (!rules.isDoubleAfterSplit() || fromSplitAces[current] && !rules.isHitSplitAces())) {
+            return false;
+        }
+        return rules.canDouble(value(current), isSoft(current));
+    }
+
+    /**
+     * @return true si la mano actual es una pareja y quedan manos para dividir
+     */
+    public boolean canSplit() {
+        if (state != State.PLAYER_TURN || counts[current] != 2 || cards[current][0] != cards[current][1]
+                || handCount >= maxHands) {
+            return false;
+        }
+        return !fromSplitAces[current] || rules.isResplitAces();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public BlackjackRules getRules() {
+        return rules;
+    }
+
+    public Shoe getShoe() {
+        return shoe;
+    }
+
+    public int getHandCount() {
+        return handCount;
+    }
+
+    public int getCurrentHand() {
+        return current;
+    }
+
+    public int getCardCount(int hand) {
+        return counts[hand];
+    }
+
+    public int getCard(int hand, int index) {
+        return cards[hand][index];
+    }
+
+    /**
+     * @return valor de la mano (un as cuenta 11 si no se pasa)
+     */
+    public int getHandValue(int hand) {
+        return value(hand);
+    }
+
+    public boolean isSoft(int hand) {
+        return aces[hand] && sums[hand] + 10 <= 21;
+    }
+
+    /**
+     * @return apuesta de la mano en unidades de la apuesta inicial (2 si se dobló)
+     */
+    public int getStake(int hand) {
+        return stakes[hand];
+    }
+
+    /**
+     * @return apuesta total de la ronda en unidades de la apuesta inicial
+     */
+    public int getTotalStake() {
+        int total = 0;
+        for (int h = 0; h < handCount; h++) {
+            total += stakes[h];
+        }
+        return total;
+    }
+
+    /**
+     * @return resultado neto de una mano cuando la ronda ha terminado
+     */
+    public double getHandResult(int hand) {
+        return results[hand];
+    }
+
+    /**
+     * @return resultado neto de la ronda en unidades de la apuesta inicial
+     */
+    public double getNet() {
+        return net;
+    }
+
+    public int getUpcard() {
+        return dealerCards[0];
+    }
+
+    public int getDealerCardCount() {
+        return dealerCount;
+    }
+
+    public int getDealerCard(int index) {
+        return dealerCards[index];
+    }
+
+    public int getDealerValue() {
+        return dealerAce && dealerSum + 10 <= 21 ? dealerSum + 10 : dealerSum;
+    }
+
+    public boolean isNatural(int hand) {
+        return handCount == 1 && counts[hand] == 2 && value(hand) == 21;
+    }
+
+    public boolean isDealerBlackjack() {
+        return dealerCount == 2 && getDealerValue() == 21;
+    }
+
+    private State advance() {
+        current++;
+        while (current < handCount) {
+            if (counts[current] == 1) {
+                addCard(current, shoe.draw());
+            }
+            boolean locked = fromSplitAces[current] && !rules.isHitSplitAces() && !canSplit();
+            if (!locked && value(current) < 21) {
+                return state;
+            }
+            current++;
+        }
+        current = handCount - 1;
+        playDealer();
+        return finish();
+    }
+
+    private void playDealer() {
+        if (!rules.isDealerPeeks()) {
+            addDealerCard(shoe.draw());
+        }
+        boolean anyStanding = false;
+        for (int h = 0; h < handCount; h++) {
+            anyStanding |= value(h) <= 21;
+        }
+        if (anyStanding && !isDealerBlackjack()) {
+            while (true) {
+                int value = getDealerValue();
+                boolean soft = dealerAce && dealerSum + 10 <= 21;
+                if (value > 17 || value == 17 && !(soft && rules.isDealerHitsSoft17())) {
+                    break;
+                }
+                addDealerCard(shoe.draw());
+            }
+        }
+        int dealer = getDealerValue();
+        boolean dealerBlackjack = isDealerBlackjack();
+        for (int h = 0; h < handCount; h++) {
+            int player = value(h);
+            int stake = stakes[h];
+            if (player > 21 || dealerBlackjack) {
+                results[h] = -stake;
+            } else if (dealer > 21 || player > dealer) {
+                results[h] = stake;
+            } else {
+                results[h] = player == dealer ? 0 : -stake;
+            }
+        }
+    }
+
+    private State finish() {
+        double total = 0;
+        for (int h = 0; h < handCount; h++) {
+            total += results[h];
+        }
+        net = total;
+        state = State.FINISHED;
+        return state;
+    }
+
+    private void checkPlayerTurn() {
+        if (state != State.PLAYER_TURN) {
+            throw new IllegalStateException("No es el turno del jugador");
+        }
+    }
+
+    private int value(int hand) {
+        int sum = sums[hand];
+        return aces[hand] && sum + 10 <= 21 ? sum + 10 : sum;
+    }
+
+    private void addCard(int hand, int card) {
+        cards[hand][counts[hand]++] = card;
+        sums[hand] += card;
+        aces[hand] |= card == 1;
+    }
+
+    private void addDealerCard(int card) {
+        dealerCards[dealerCount++] = card;
+        dealerSum += card;
+        dealerAce |= card == 1;
+    }
+
+    private void copyHand(int from, int to) {
+        System.arraycopy(cards[from], 0, cards[to], 0, counts[from]);
+        counts[to] = counts[from];
+        sums[to] = sums[from];
+        aces[to] = aces[from];
+        stakes[to] = stakes[from];
+        fromSplitAces[to] = fromSplitAces[from];
+    }
+}
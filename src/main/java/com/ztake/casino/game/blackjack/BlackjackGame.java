@@ -0,0 +1,105 @@
+package com.ztake.casino.game.blackjack;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Blackjack contra el crupier con zapato de varias barajas.
+ */
+public class BlackjackGame implements Game {
+    private static final Logger LOGGER = Logger.getLogger(BlackjackGame.class.getName());
+    private static final int MAX_DECKS = 8;
+
+    @Override
+    public String getGameType() {
+        return "Blackjack";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Vence al crupier llegando a 21";
+    }
+
+    @Override
+    public String getDescription() {
+        return "El objetivo del Blackjack es obtener una mano cuyo valor se acerque a 21 sin pasarse. Juega contra "
+                + "el crupier con zapato de 6 barajas: pide, plántate, dobla o divide parejas. La mesa te sugiere la "
+                + "jugada de la estrategia básica; siguiéndola, el RTP ronda el 99.5%.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 40;
+    }
+
+    @Override
+    public String getIconResource() {
+        return "/images/blackjack-icon.png";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/blackjack-game-view.fxml";
+    }
+
+    /**
+     * Calcula la estrategia básica y el valor esperado de la mesa configurada.
+     */
+    @Override
+    public void loadTables() {
+        BlackjackStrategy strategy = BlackjackStrategy.of(BlackjackRules.getDefault());
+        LOGGER.info(String.format("Blackjack: %s - RTP con estrategia básica %.4f%%",
+                strategy.getRules(), 100 * strategy.getRtp()));
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        List<SimulatableGame> simulations = new ArrayList<>();
+        for (BlackjackRules rules : BlackjackRules.presets()) {
+            simulations.add(new BlackjackSimulation(rules));
+        }
+        return simulations;
+    }
+
+    /**
+     * Baraja de nuevo el zapato de la ronda desde el orden canónico y compara las cartas
+     * repartidas con las registradas en game_data, en el mismo orden.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            String decks = GameDataCodec.rawValue(gameData, "decks");
+            String cards = GameDataCodec.rawValue(gameData, "cards");
+            if (decks == null || cards == null) {
+                JSONObject data = new JSONObject(gameData);
+                decks = String.valueOf(data.getInt("decks"));
+                cards = data.getString("cards");
+            }
+            int deckCount = Integer.parseInt(decks);
+            if (deckCount < 1 || deckCount > MAX_DECKS) {
+                return false;
+            }
+            int[] recorded = GameDataCodec.parseInts(cards);
+            Shoe shoe = new Shoe(deckCount, 1.0, ProvablyFair.random(serverSeed, clientSeed, nonce));
+            if (recorded.length > shoe.getCardCount()) {
+                return false;
+            }
+            for (int card : recorded) {
+                if (shoe.draw() != card) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.ztake.casino.game.blackjack;
+
+import com.ztake.casino.config.AppConfig;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reglas de una mesa de blackjack. Inmutable: se crea con {@link #builder()} o con uno de los
+ * conjuntos de reglas habituales.
+ */
+public final class BlackjackRules {
+
+    /**
+     * Manos de dos cartas que se pueden doblar.
+     */
+    public enum DoubleRule {
+        /** Cualquier mano de dos cartas. */
+        ANY,
+        /** Solo totales duros de 9, 10 u 11. */
+        NINE_TO_ELEVEN,
+        /** Solo totales duros de 10 u 11. */
+        TEN_OR_ELEVEN
+    }
+
+    private static volatile BlackjackRules defaultRules;
+
+    private final String name;
+    private final int decks;
+    private final double penetration;
+    private final boolean dealerHitsSoft17;
+    private final boolean dealerPeeks;
+    private final double blackjackPayout;
+    private final DoubleRule doubleRule;
+    private final boolean doubleAfterSplit;
+    private final int maxHands;
+    private final boolean resplitAces;
+    private final boolean hitSplitAces;
+
+    private BlackjackRules(Builder builder) {
+        if (builder.decks < 1 || builder.decks > 8) {
+            throw new IllegalArgumentException("El número de barajas debe estar entre 1 y 8");
+        }
+        if (builder.penetration < 0.25 || builder.penetration > 0.95) {
+            throw new IllegalArgumentException("La penetración debe estar entre 0.25 y 0.95");
+        }
+        if (builder.blackjackPayout < 1.0 || builder.blackjackPayout > 2.0) {
+            throw new IllegalArgumentException("El pago del blackjack debe estar entre 1 y 2");
+        }
+        if (builder.maxHands < 1 || builder.maxHands > 4) {
+            throw new IllegalArgumentException("El máximo de manos tras dividir debe estar entre 1 y 4");
+        }
+        this.name = Objects.requireNonNull(builder.name);
+        this.decks = builder.decks;
+        this.penetration = builder.penetration;
+        this.dealerHitsSoft17 = builder.dealerHitsSoft17;
+        this.dealerPeeks = builder.dealerPeeks;
+        this.blackjackPayout = builder.blackjackPayout;
+        this.doubleRule = Objects.requireNonNull(builder.doubleRule);
+        this.doubleAfterSplit = builder.doubleAfterSplit;
+        this.maxHands = builder.maxHands;
+        this.resplitAces = builder.resplitAces;
+        this.hitSplitAces = builder.hitSplitAces;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Las Vegas Strip: 6 barajas, el crupier se planta con 17 blando, doblar tras dividir, hasta
+     * 4 manos y el crupier mira si tiene blackjack.
+     */
+    public static BlackjackRules vegasStrip() {
+        return builder().name("Strip 6D S17").build();
+    }
+
+    /**
+     * Centro de Las Vegas: 2 barajas y el crupier pide con 17 blando.
+     */
+    public static BlackjackRules downtown() {
+        return builder().name("Downtown 2D H17").decks(2).dealerHitsSoft17(true).build();
+    }
+
+    /**
+     * Europea: sin carta oculta (el crupier no mira; con blackjack gana también lo doblado y
+     * dividido), dobla solo con 9-11 y no se vuelve a dividir.
+     */
+    public static BlackjackRules european() {
+        return builder().name("Europea 6D ENHC").dealerPeeks(false).doubleRule(DoubleRule.NINE_TO_ELEVEN)
+                .maxHands(2).build();
+    }
+
+    /**
+     * Una baraja con el blackjack pagado 6 a 5.
+     */
+    public static BlackjackRules singleDeckSixToFive() {
+        return builder().name("1D 6:5 H17").decks(1).dealerHitsSoft17(true).blackjackPayout(1.2)
+                .doubleAfterSplit(false).penetration(0.6).build();
+    }
+
+    /**
+     * @return los conjuntos de reglas habituales
+     */
+    public static List<BlackjackRules> presets() {
+        return List.of(vegasStrip(), downtown(), european(), singleDeckSixToFive());
+    }
+
+    /**
+     * @return las reglas de la mesa configuradas con las propiedades {@code blackjack.*}
+     */
+    public static BlackjackRules getDefault() {
+        BlackjackRules rules = defaultRules;
+        if (rules == null) {
+            synchronized (BlackjackRules.class) {
+                rules = defaultRules;
+                if (rules == null) {
+                    rules = builder()
+                            .name("Mesa")
+                            .decks(AppConfig.getInt("blackjack.decks", 6))
+                            .penetration(AppConfig.getDouble("blackjack.penetration", 0.75))
+                            .dealerHitsSoft17(AppConfig.getBoolean("blackjack.dealerHitsSoft17", false))
+                            .dealerPeeks(AppConfig.getBoolean("blackjack.dealerPeeks", true))
+                            .blackjackPayout(AppConfig.getDouble("blackjack.blackjackPayout", 1.5))
+                            .doubleRule(DoubleRule.valueOf(AppConfig.getString("blackjack.doubleRule", "ANY")))
+                            .doubleAfterSplit(AppConfig.getBoolean("blackjack.doubleAfterSplit", true))
+                            .maxHands(AppConfig.getInt("blackjack.maxHands", 4))
+                            .resplitAces(AppConfig.getBoolean("blackjack.resplitAces", false))
+                            .hitSplitAces(AppConfig.getBoolean("blackjack.hitSplitAces", false))
+                            .build();
+                    defaultRules = rules;
+                }
+            }
+        }
+        return rules;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * @return fracción del zapato que se reparte antes de barajar de nuevo
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    public boolean isDealerHitsSoft17() {
+        return dealerHitsSoft17;
+    }
+
+    /**
+     * @return true si el crupier mira la carta oculta con un as o un diez descubierto (si tiene
+     * blackjack, el jugador solo pierde la apuesta inicial)
+     */
+    public boolean isDealerPeeks() {
+        return dealerPeeks;
+    }
+
+    /**
+     * @return pago del blackjack por unidad apostada (1.5 = 3 a 2)
+     */
+    public double getBlackjackPayout() {
+        return blackjackPayout;
+    }
+
+    public DoubleRule getDoubleRule() {
+        return doubleRule;
+    }
+
+    public boolean isDoubleAfterSplit() {
+        return doubleAfterSplit;
+    }
+
+    /**
+     * @return máximo de manos del jugador tras dividir (1 = no se puede dividir)
+     */
+    public int getMaxHands() {
+        return maxHands;
+    }
+
+    public boolean isResplitAces() {
+        return resplitAces;
+    }
+
+    public boolean isHitSplitAces() {
+        return hitSplitAces;
+    }
+
+    /**
+     * @return true si se puede doblar una mano de dos cartas con ese valor
+     */
+    public boolean canDouble(int value, boolean soft) {
+        switch (doubleRule) {
+            case NINE_TO_ELEVEN:
+                return !soft && value >= 9 && value <= 11;
+            case TEN_OR_ELEVEN:
+                return !soft && value >= 10 && value <= 11;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlackjackRules)) {
+            return false;
+        }
+        BlackjackRules other = (BlackjackRules) o;
+        // El nombre no cambia las matemáticas: dos mesas con las mismas reglas comparten tablas
+        return decks == other.decks && Double.compare(penetration, other.penetration) == 0
+                && dealerHitsSoft17 == other.dealerHitsSoft17 && dealerPeeks == other.dealerPeeks
+                && Double.compare(blackjackPayout, other.blackjackPayout) == 0 && doubleRule == other.doubleRule
+                && doubleAfterSplit == other.doubleAfterSplit && maxHands == other.maxHands
+                && resplitAces == other.resplitAces && hitSplitAces == other.hitSplitAces;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(decks, penetration, dealerHitsSoft17, dealerPeeks, blackjackPayout, doubleRule,
+                doubleAfterSplit, maxHands, resplitAces, hitSplitAces);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + decks + " barajas, " + (dealerHitsSoft17 ? "H17" : "S17")
+                + (dealerPeeks ? "" : ", sin carta oculta") + ", BJ " + blackjackPayout
+                + ", doblar " + doubleRule + (doubleAfterSplit ? " DAS" : "") + ", manos " + maxHands + ")";
+    }
+
+    /**
+     * Constructor de reglas; por defecto, las de {@link #vegasStrip()}.
+     */
+    public static final class Builder {
+        private String name = "Personalizada";
+        private int decks = 6;
+        private double penetration = 0.75;
+        private boolean dealerHitsSoft17 = false;
+        private boolean dealerPeeks = true;
+        private double blackjackPayout = 1.5;
+        private DoubleRule doubleRule = DoubleRule.ANY;
+        private boolean doubleAfterSplit = true;
+        private int maxHands = 4;
+        private boolean resplitAces = false;
+        private boolean hitSplitAces = false;
+
+        private Builder() {
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder decks(int decks) {
+            this.decks = decks;
+            return this;
+        }
+
+        public Builder penetration(double penetration) {
+            this.penetration = penetration;
+            return this;
+        }
+
+        public Builder dealerHitsSoft17(boolean dealerHitsSoft17) {
+            this.dealerHitsSoft17 = dealerHitsSoft17;
+            return this;
+        }
+
+        public Builder dealerPeeks(boolean dealerPeeks) {
+            this.dealerPeeks = dealerPeeks;
+            return this;
+        }
+
+        public Builder blackjackPayout(double blackjackPayout) {
+            this.blackjackPayout = blackjackPayout;
+            return this;
+        }
+
+        public Builder doubleRule(DoubleRule doubleRule) {
+            this.doubleRule = doubleRule;
+            return this;
+        }
+
+        public Builder doubleAfterSplit(boolean doubleAfterSplit) {
+            this.doubleAfterSplit = doubleAfterSplit;
+            return this;
+        }
+
+        public Builder maxHands(int maxHands) {
+            this.maxHands = maxHands;
+            return this;
+        }
+
+        public Builder resplitAces(boolean resplitAces) {
+            this.resplitAces = resplitAces;
+            return this;
+        }
+
+        public Builder hitSplitAces(boolean hitSplitAces) {
+            this.hitSplitAces = hitSplitAces;
+            return this;
+        }
+
+        public BlackjackRules build() {
+            return new BlackjackRules(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ztake.casino.game.blackjack;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mesa de blackjack para el simulador: cada ronda apuesta una unidad y se juega con
+ * estrategia básica sobre un zapato que se baraja al llegar a la carta de corte.
+ *
+ * <p>El RTP teórico es el de {@link BlackjackStrategy}, calculado con zapato infinito; el
+ * zapato real quita cartas a medida que salen (con pocas barajas el jugador gana unas
+ * décimas), así que se admite una tolerancia que crece al bajar el número de barajas.</p>
+ */
+public class BlackjackSimulation implements SimulatableGame {
+    private final BlackjackRules rules;
+    private final BlackjackStrategy strategy;
+
+    public BlackjackSimulation(BlackjackRules rules) {
+        this.rules = rules;
+        this.strategy = BlackjackStrategy.of(rules);
+    }
+
+    @Override
+    public String getName() {
+        return "Blackjack " + rules.getName();
+    }
+
+    @Override
+    public double getExpectedRtp() {
+        return strategy.getRtp();
+    }
+
+    @Override
+    public double getRtpTolerance() {
+        return 0.001 + 0.006 / rules.getDecks();
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        BlackjackEngine engine = new BlackjackEngine(rules, new Shoe(rules.getDecks(), rules.getPenetration(), random));
+        return () -> {
+            engine.deal();
+            while (engine.getState() == BlackjackEngine.State.PLAYER_TURN) {
+                switch (strategy.decide(engine)) {
+                    case HIT:
+                        engine.hit();
+                        break;
+                    case DOUBLE:
+                        engine.doubleDown();
+                        break;
+                    case SPLIT:
+                        engine.split();
+                        break;
+                    default:
+                        engine.stand();
+                        break;
+                }
+            }
+            return 1 + engine.getNet();
+        };
+    }
+}
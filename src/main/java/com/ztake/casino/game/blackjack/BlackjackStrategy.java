@@ -0,0 +1,379 @@
+package com.ztake.casino.game.blackjack;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estrategia básica y valor esperado de un conjunto de reglas, calculados por programación
+ * dinámica.
+ *
+ * <p>El cálculo supone un zapato infinito (cada carta sale con probabilidad fija: 1/13 cada
+ * rango y 4/13 el diez), que es la aproximación habitual de las tablas publicadas: con 6 u 8
+ * barajas difiere del valor exacto en milésimas de unidad y con una o dos barajas algo más.
+ * Para cada carta descubierta del crupier:</p>
+ * <ol>
+ *   <li>distribución del resultado final del crupier (17..21, pasado, blackjack), condicionada
+ *   a que no tenga blackjack si mira la carta oculta;</li>
+ *   <li>valor de plantarse con cada total y valor óptimo de pedir, de los totales altos a los
+ *   bajos (cada carta solo puede subir el total);</li>
+ *   <li>valor de doblar y de dividir cada pareja, con el número de manos limitado por las reglas
+ *   (recurrencia sobre manos pendientes y manos totales).</li>
+ * </ol>
+ *
+ * <p>Las tablas se calculan una vez por conjunto de reglas y se guardan en caché: el cálculo
+ * completo tarda milisegundos y se hace al arrancar con {@link #of(BlackjackRules)}.</p>
+ */
+public final class BlackjackStrategy {
+
+    /**
+     * Jugadas posibles.
+     */
+    public enum Action {
+        HIT("Pedir"),
+        STAND("Plantarse"),
+        DOUBLE("Doblar"),
+        SPLIT("Dividir");
+
+        private final String displayName;
+
+        Action(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /** Probabilidad de cada rango en un zapato infinito (índices 1..10). */
+    static final double[] P = new double[11];
+
+    private static final int OUTCOMES = 7;
+    private static final int BUST = 5;
+    private static final int DEALER_BLACKJACK = 6;
+
+    private static final Map<BlackjackRules, BlackjackStrategy> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        for (int rank = 1; rank <= 9; rank++) {
+            P[rank] = 1.0 / 13;
+        }
+        P[10] = 4.0 / 13;
+    }
+
+    private final BlackjackRules rules;
+    // Índices [carta descubierta 1..10][total 0..21]
+    private final double[][] standEv = new double[11][22];
+    private final double[][] hardEv = new double[11][22];
+    private final double[][] softEv = new double[11][22];
+    private final double[][] hardHitEv = new double[11][22];
+    private final double[][] softHitEv = new double[11][22];
+    private final double[][] hardDoubleEv = new double[11][22];
+    private final double[][] softDoubleEv = new double[11][22];
+    // Índices [carta descubierta 1..10][rango de la pareja 1..10]
+    private final double[][] splitEv = new double[11][11];
+    private final double[] dealerBlackjack = new double[11];
+    private final double[][] dealerOutcomes = new double[11][];
+    private final double expectedValue;
+
+    private BlackjackStrategy(BlackjackRules rules) {
+        this.rules = rules;
+        double[][][] dealer = dealerTable();
+        for (int up = 1; up <= 10; up++) {
+            computeUpcard(up, dealer);
+        }
+        this.expectedValue = computeExpectedValue();
+    }
+
+    /**
+     * @return las tablas de unas reglas (se calculan la primera vez)
+     */
+    public static BlackjackStrategy of(BlackjackRules rules) {
+        return CACHE.computeIfAbsent(rules, BlackjackStrategy::new);
+    }
+
+    public BlackjackRules getRules() {
+        return rules;
+    }
+
+    /**
+     * @return valor esperado de una ronda por unidad apostada con estrategia básica (negativo:
+     * ventaja de la casa)
+     */
+    public double getExpectedValue() {
+        return expectedValue;
+    }
+
+    /**
+     * @return RTP teórico: 1 + valor esperado
+     */
+    public double getRtp() {
+        return 1 + expectedValue;
+    }
+
+    /**
+     * Mejor jugada para la mano del jugador.
+     *
+     * @param value      valor de la mano
+     * @param soft       true si un as cuenta como 11
+     * @param upcard     carta descubierta del crupier (1..10)
+     * @param canDouble  true si las reglas permiten doblar esta mano ahora
+     * @param pairRank   rango de la pareja si la mano es una pareja que se puede dividir, o 0
+     */
+    public Action decide(int value, boolean soft, int upcard, boolean canDouble, int pairRank) {
+        if (pairRank > 0 && splitEv[upcard][pairRank] > bestWithoutSplit(value, soft, upcard, canDouble)) {
+            return Action.SPLIT;
+        }
+        double hit = soft ? softHitEv[upcard][value] : hardHitEv[upcard][value];
+        if (canDouble) {
+            double doubled = soft ? softDoubleEv[upcard][value] : hardDoubleEv[upcard][value];
+            if (doubled > hit && doubled > standEv[upcard][value]) {
+                return Action.DOUBLE;
+            }
+        }
+        return hit > standEv[upcard][value] ? Action.HIT : Action.STAND;
+    }
+
+    /**
+     * @return mejor jugada para la mano actual del motor
+     */
+    public Action decide(BlackjackEngine engine) {
+        int hand = engine.getCurrentHand();
+        if (!engine.canHit()) {
+            // Ases divididos que no admiten carta: solo queda volver a dividir o plantarse
+            boolean split = engine.canSplit() && splitEv[engine.getUpcard()][1] > standEv[engine.getUpcard()][12];
+            return split ? Action.SPLIT : Action.STAND;
+        }
+        return decide(engine.getHandValue(hand), engine.isSoft(hand), engine.getUpcard(), engine.canDouble(),
+                engine.canSplit() ? engine.getCard(hand, 0) : 0);
+    }
+
+    /**
+     * @return valor esperado de una jugada (en unidades de la apuesta de la mano, sin contar el
+     * blackjack del crupier cuando este mira la carta oculta)
+     */
+    public double getEv(Action action, int value, boolean soft, int upcard, int pairRank) {
+        switch (action) {
+            case STAND:
+                return standEv[upcard][value];
+            case DOUBLE:
+                return soft ? softDoubleEv[upcard][value] : hardDoubleEv[upcard][value];
+            case SPLIT:
+                return splitEv[upcard][pairRank];
+            default:
+                return soft ? softHitEv[upcard][value] : hardHitEv[upcard][value];
+        }
+    }
+
+    /**
+     * @return probabilidades del resultado final del crupier con una carta descubierta:
+     * 17, 18, 19, 20, 21, pasado y blackjack
+     */
+    public double[] getDealerOutcomes(int upcard) {
+        return dealerOutcomes[upcard].clone();
+    }
+
+    private double bestWithoutSplit(int value, boolean soft, int up, boolean canDouble) {
+        double best = Math.max(standEv[up][value], soft ? softHitEv[up][value] : hardHitEv[up][value]);
+        if (canDouble) {
+            best = Math.max(best, soft ? softDoubleEv[up][value] : hardDoubleEv[up][value]);
+        }
+        return best;
+    }
+
+    /**
+     * Distribución del resultado final del crupier desde cada suma dura (ases como 1) y con o
+     * sin as, de las sumas altas a las bajas.
+     */
+    private double[][][] dealerTable() {
+        double[][][] table = new double[27][2][];
+        for (int sum = 26; sum >= 2; sum--) {
+            for (int ace = 0; ace <= 1; ace++) {
+                double[] out = new double[OUTCOMES];
+                boolean soft = ace == 1 && sum + 10 <= 21;
+                int value = soft ? sum + 10 : sum;
+                if (value > 21) {
+                    out[BUST] = 1;
+                } else if (value > 17 || value == 17 && !(soft && rules.isDealerHitsSoft17())) {
+                    out[value - 17] = 1;
+                } else {
+                    for (int card = 1; card <= 10; card++) {
+                        double[] next = table[Math.min(sum + card, 26)][card == 1 ? 1 : ace];
+                        for (int k = 0; k < OUTCOMES; k++) {
+                            out[k] += P[card] * next[k];
+                        }
+                    }
+                }
+                table[sum][ace] = out;
+            }
+        }
+        return table;
+    }
+
+    private void computeUpcard(int up, double[][][] dealer) {
+        int blackjackHole = up == 1 ? 10 : up == 10 ? 1 : 0;
+        boolean conditioned = rules.isDealerPeeks() && blackjackHole != 0;
+        double norm = conditioned ? 1 - P[blackjackHole] : 1;
+        double[] out = new double[OUTCOMES];
+        for (int hole = 1; hole <= 10; hole++) {
+            if (hole == blackjackHole) {
+                if (!conditioned) {
+                    out[DEALER_BLACKJACK] += P[hole];
+                }
+                continue;
+            }
+            double[] next = dealer[up + hole][up == 1 || hole == 1 ? 1 : 0];
+            for (int k = 0; k < OUTCOMES; k++) {
+                out[k] += P[hole] / norm * next[k];
+            }
+        }
+        dealerOutcomes[up] = out;
+        dealerBlackjack[up] = blackjackHole == 0 ? 0 : P[blackjackHole];
+
+        // Plantarse: gana al pasado y a totales menores, empata con el mismo total
+        for (int value = 0; value <= 21; value++) {
+            double ev = out[BUST] - out[DEALER_BLACKJACK];
+            for (int k = 0; k < 5; k++) {
+                int dealerValue = 17 + k;
+                ev += value > dealerValue ? out[k] : value < dealerValue ? -out[k] : 0;
+            }
+            standEv[up][value] = ev;
+        }
+
+        // Pedir: los duros de 11 en adelante solo llevan a duros mayores; los blandos a blandos
+        // mayores o a duros de 12 en adelante; los duros de 10 o menos, además, a blandos
+        double[] stand = standEv[up];
+        for (int value = 21; value >= 11; value--) {
+            hardHitEv[up][value] = hitFromHard(up, value);
+            hardEv[up][value] = Math.max(stand[value], hardHitEv[up][value]);
+        }
+        for (int value = 21; value >= 12; value--) {
+            double ev = 0;
+            for (int card = 1; card <= 10; card++) {
+                int next = value + card;
+                ev += P[card] * (next <= 21 ? softEv[up][next] : hardEv[up][next - 10]);
+            }
+            softHitEv[up][value] = ev;
+            softEv[up][value] = Math.max(stand[value], ev);
+        }
+        for (int value = 10; value >= 2; value--) {
+            hardHitEv[up][value] = hitFromHard(up, value);
+            hardEv[up][value] = Math.max(stand[value], hardHitEv[up][value]);
+        }
+
+        // Doblar: una sola carta y el doble de apuesta
+        for (int value = 2; value <= 21; value++) {
+            double hard = 0;
+            for (int card = 1; card <= 10; card++) {
+                int next = card == 1 && value + 11 <= 21 ? value + 11 : value + card;
+                hard += P[card] * (next > 21 ? -1 : stand[next]);
+            }
+            hardDoubleEv[up][value] = 2 * hard;
+            if (value >= 12) {
+                double soft = 0;
+                for (int card = 1; card <= 10; card++) {
+                    int next = value + card <= 21 ? value + card : value + card - 10;
+                    soft += P[card] * stand[next];
+                }
+                softDoubleEv[up][value] = 2 * soft;
+            }
+        }
+
+        for (int rank = 1; rank <= 10; rank++) {
+            splitEv[up][rank] = computeSplit(up, rank);
+        }
+    }
+
+    private double hitFromHard(int up, int value) {
+        double ev = 0;
+        for (int card = 1; card <= 10; card++) {
+            if (card == 1 && value + 11 <= 21) {
+                ev += P[card] * softEv[up][value + 11];
+            } else {
+                int next = value + card;
+                ev += P[card] * (next > 21 ? -1 : hardEv[up][next]);
+            }
+        }
+        return ev;
+    }
+
+    /**
+     * Valor de dividir una pareja: cada mano empieza con una carta del rango y recibe otra; si
+     * vuelve a salir el mismo rango y quedan manos, se divide de nuevo. Con manos pendientes p
+     * y manos totales t, f(p, t) = q·f(p + 1, t + 1) + (1 - q)·(E_otra + f(p - 1, t)), y cuando
+     * ya no se puede dividir la pareja se juega como mano normal.
+     */
+    private double computeSplit(int up, int rank) {
+        boolean aces = rank == 1;
+        int maxHands = aces && !rules.isResplitAces() ? Math.min(2, rules.getMaxHands()) : rules.getMaxHands();
+        if (maxHands < 2) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double q = P[rank];
+        double pairEv = splitHandEv(up, rank, rank);
+        double otherEv = 0;
+        for (int card = 1; card <= 10; card++) {
+            if (card != rank) {
+                otherEv += P[card] * splitHandEv(up, rank, card);
+            }
+        }
+        otherEv /= 1 - q;
+
+        double[][] f = new double[maxHands + 2][maxHands + 1];
+        for (int total = maxHands; total >= 2; total--) {
+            for (int pending = 1; pending <= total; pending++) {
+                double resplit = total < maxHands ? f[pending + 1][total + 1] : pairEv + f[pending - 1][total];
+                f[pending][total] = q * resplit + (1 - q) * (otherEv + f[pending - 1][total]);
+            }
+        }
+        return f[2][2];
+    }
+
+    /**
+     * @return valor de una mano tras dividir con sus dos cartas (un 21 no es blackjack)
+     */
+    private double splitHandEv(int up, int rank, int card) {
+        boolean soft = rank == 1 || card == 1;
+        int value = rank + card + (soft ? 10 : 0);
+        if (rank == 1 && !rules.isHitSplitAces()) {
+            return standEv[up][value];
+        }
+        double best = soft ? softEv[up][value] : hardEv[up][value];
+        if (rules.isDoubleAfterSplit() && rules.canDouble(value, soft)) {
+            best = Math.max(best, soft ? softDoubleEv[up][value] : hardDoubleEv[up][value]);
+        }
+        return best;
+    }
+
+    private double computeExpectedValue() {
+        double total = 0;
+        double blackjack = rules.getBlackjackPayout();
+        for (int up = 1; up <= 10; up++) {
+            double peeked = rules.isDealerPeeks() ? dealerBlackjack[up] : 0;
+            double upEv = 0;
+            for (int first = 1; first <= 10; first++) {
+                for (int second = 1; second <= 10; second++) {
+                    double p = P[first] * P[second];
+                    boolean natural = first + second == 11 && (first == 1 || second == 1);
+                    double ev;
+                    if (natural) {
+                        ev = (1 - dealerBlackjack[up]) * blackjack;
+                    } else {
+                        boolean soft = first == 1 || second == 1;
+                        int value = first + second + (soft ? 10 : 0);
+                        boolean canDouble = rules.canDouble(value, soft);
+                        double best = bestWithoutSplit(value, soft, up, canDouble);
+                        if (first == second) {
+                            best = Math.max(best, splitEv[up][first]);
+                        }
+                        // Con carta oculta: el blackjack del crupier ya está en la distribución
+                        ev = rules.isDealerPeeks() ? -peeked + (1 - peeked) * best : best;
+                    }
+                    upEv += p * ev;
+                }
+            }
+            total += P[up] * upEv;
+        }
+        return total;
+    }
+}
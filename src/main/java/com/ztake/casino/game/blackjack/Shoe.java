@@ -0,0 +1,124 @@
+package com.ztake.casino.game.blackjack;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zapato de n barajas con carta de corte.
+ *
+ * <p>Las cartas son rangos de 1 (as) a 10 (diez y figuras) en un array de bytes. El barajado es
+ * un Fisher-Yates perezoso: cada {@link #draw()} elige una carta al azar entre las que quedan y
+ * la intercambia con la siguiente posición, así que barajar de nuevo solo cuesta volver la
+ * posición a cero y una ronda no toca más cartas que las que reparte.</p>
+ *
+ * <p>Partiendo del orden canónico ({@link #reset(RandomGenerator)}), la secuencia de cartas
+ * depende solo del generador: así se reproduce una mano con su {@code FairRandom}.</p>
+ *
+ * <p>No es seguro para hilos.</p>
+ */
+public class Shoe {
+    private static final int CARDS_PER_DECK = 52;
+
+    private final byte[] cards;
+    private final byte[] scratch;
+    private final int cutCard;
+    private RandomGenerator random;
+    private int position;
+    private int roundStart;
+
+    /**
+     * @param penetration fracción del zapato que se reparte antes de barajar
+     */
+    public Shoe(int decks, double penetration, RandomGenerator random) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("El zapato necesita al menos una baraja");
+        }
+        this.cards = new byte[decks * CARDS_PER_DECK];
+        this.scratch = new byte[cards.length];
+        this.cutCard = Math.max(1, Math.min(cards.length, (int) Math.round(cards.length * penetration)));
+        reset(random);
+    }
+
+    /**
+     * Vuelve al orden canónico (por baraja: palos de as a rey) con un generador nuevo.
+     */
+    public void reset(RandomGenerator random) {
+        this.random = random;
+        int i = 0;
+        while (i < cards.length) {
+            for (int rank = 1; rank <= 13; rank++) {
+                cards[i++] = (byte) Math.min(rank, 10);
+            }
+        }
+        position = 0;
+        roundStart = 0;
+    }
+
+    /**
+     * Empieza una ronda: si se ha pasado la carta de corte, recoge todas las cartas y baraja.
+     */
+    public void startRound() {
+        if (position >= cutCard) {
+            position = 0;
+        }
+        roundStart = position;
+    }
+
+    /**
+     * @return el rango de la siguiente carta (1 = as, 10 = diez o figura)
+     */
+    public int draw() {
+        if (position == cards.length) {
+            recycleDiscards();
+        }
+        int j = position + random.nextInt(cards.length - position);
+        byte card = cards[j];
+        cards[j] = cards[position];
+        cards[position++] = card;
+        return card;
+    }
+
+    /**
+     * @return cartas repartidas en la ronda actual
+     */
+    public int getRoundCardCount() {
+        return position - roundStart;
+    }
+
+    /**
+     * @return las cartas repartidas en la ronda actual, en orden
+     */
+    public int[] getRoundCards() {
+        int[] round = new int[position - roundStart];
+        for (int i = 0; i < round.length; i++) {
+            round[i] = cards[roundStart + i];
+        }
+        return round;
+    }
+
+    public int getCardCount() {
+        return cards.length;
+    }
+
+    /**
+     * @return cartas que quedan por repartir antes de barajar
+     */
+    public int getRemaining() {
+        return cards.length - position;
+    }
+
+    /**
+     * Se acabó el zapato a mitad de ronda (solo con penetraciones altas y pocas barajas): las
+     * cartas de la ronda pasan al principio y los descartes vuelven a repartirse.
+     */
+    private void recycleDiscards() {
+        int inRound = position - roundStart;
+        System.arraycopy(cards, 0, scratch, 0, roundStart);
+        System.arraycopy(cards, roundStart, cards, 0, inRound);
+        System.arraycopy(scratch, 0, cards, inRound, roundStart);
+        roundStart = 0;
+        position = inRound;
+        if (position == cards.length) {
+            throw new IllegalStateException("No quedan cartas en el zapato");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ztake.casino.game.crash;
+
+import com.ztake.casino.config.AppConfig;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Curva de una ronda de Crash: el multiplicador sube desde 1.00 como m(t) = e^(k·t) hasta el
+ * punto de caída, que se decide al abrir la ronda.
+ *
+ * <p>Los multiplicadores se manejan en centésimas (237 = x2.37). El punto de caída sale de
+ * 32 bits del generador de la ronda: con u = nextInt() sin signo / 2^32,
+ * caída = max(100, floor(100 · rtp / (1 - u))), limitado a {@link #MAX_POINT}. Así
+ * P(caída ≥ m) = rtp / m para cualquier m, y cobrar siempre en el mismo m devuelve exactamente
+ * rtp: la ventaja de la casa no depende de la estrategia de cobro. La regla forma parte del
+ * esquema publicado y se puede repetir con cualquier lenguaje.</p>
+ */
+public final class CrashCurve {
+
+    /** Multiplicador inicial (x1.00). */
+    public static final int MIN_POINT = 100;
+    /** Multiplicador máximo de una ronda (x10000.00). */
+    public static final int MAX_POINT = 1_000_000;
+
+    private static final double TWO_POW_32 = 4294967296.0;
+    private static volatile CrashCurve defaultCurve;
+
+    private final double rtp;
+    private final double growthPerSecond;
+
+    /**
+     * @param rtp             retorno al jugador (0.99 = 1% de ventaja de la casa)
+     * @param growthPerSecond k de la curva: el multiplicador se dobla cada ln(2)/k segundos
+     */
+    public CrashCurve(double rtp, double growthPerSecond) {
+        if (rtp <= 0 || rtp >= 1) {
+            throw new IllegalArgumentException("El RTP debe estar entre 0 y 1: " + rtp);
+        }
+        if (growthPerSecond <= 0) {
+            throw new IllegalArgumentException("El crecimiento debe ser positivo: " + growthPerSecond);
+        }
+        this.rtp = rtp;
+        this.growthPerSecond = growthPerSecond;
+    }
+
+    /**
+     * Curva configurada en {@code crash.rtp} y {@code crash.growthPerSecond}.
+     */
+    public static CrashCurve getDefault() {
+        CrashCurve curve = defaultCurve;
+        if (curve == null) {
+            synchronized (CrashCurve.class) {
+                curve = defaultCurve;
+                if (curve == null) {
+                    curve = new CrashCurve(AppConfig.getDouble("crash.rtp", 0.99),
+                            AppConfig.getDouble("crash.growthPerSecond", 0.06));
+                    defaultCurve = curve;
+                }
+            }
+        }
+        return curve;
+    }
+
+    /**
+     * Decide el punto de caída de una ronda.
+     *
+     * @param random generador de la ronda (consume 4 bytes)
+     * @return el punto de caída en centésimas, entre {@link #MIN_POINT} y {@link #MAX_POINT}
+     */
+    public int crashPoint(RandomGenerator random) {
+        double u = Integer.toUnsignedLong(random.nextInt()) / TWO_POW_32;
+        double point = Math.floor(100 * rtp / (1 - u));
+        return (int) Math.max(MIN_POINT, Math.min(MAX_POINT, point));
+    }
+
+    /**
+     * @param elapsedMillis tiempo desde que empezó a subir
+     * @return multiplicador en ese instante, en centésimas (sin tener en cuenta la caída)
+     */
+    public int multiplierAt(long elapsedMillis) {
+        if (elapsedMillis <= 0) {
+            return MIN_POINT;
+        }
+        double multiplier = Math.floor(100 * Math.exp(growthPerSecond * elapsedMillis / 1000.0));
+        return (int) Math.min(MAX_POINT, multiplier);
+    }
+
+    /**
+     * @param multiplier multiplicador en centésimas
+     * @return milisegundos que tarda la curva en llegar a él
+     */
+    public long elapsedFor(int multiplier) {
+        if (multiplier <= MIN_POINT) {
+            return 0;
+        }
+        return (long) Math.ceil(1000 * Math.log(multiplier / 100.0) / growthPerSecond);
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public double getGrowthPerSecond() {
+        return growthPerSecond;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ztake.casino.game.crash;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crash: mesa compartida en la que el multiplicador sube hasta caer.
+ */
+public class CrashGame implements Game {
+
+    @Override
+    public String getGameType() {
+        return "Crash";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Cobra antes de que caiga";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Todos los jugadores juegan la misma ronda: el multiplicador sube desde x1.00 y puede caer en "
+                + "cualquier momento. Cobra antes de que caiga para ganar tu apuesta por el multiplicador, o fija un "
+                + "cobro automático. El RTP es del 99%.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 50;
+    }
+
+    @Override
+    public String getIconText() {
+        return "x2.00";
+    }
+
+    @Override
+    public String getIconStyleClass() {
+        return "crash-multiplier";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/crash-game-view.fxml";
+    }
+
+    @Override
+    public void loadTables() {
+        CrashCurve.getDefault();
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        List<SimulatableGame> simulations = new ArrayList<>();
+        for (int target : new int[]{101, 150, 200, 1000, 10000}) {
+            simulations.add(new CrashSimulation(CrashCurve.getDefault(), target));
+        }
+        return simulations;
+    }
+
+    /**
+     * Repite el punto de caída de la ronda compartida y lo compara con el registrado en game_data.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            String crashPoint = GameDataCodec.rawValue(gameData, "crashPoint");
+            String rtp = GameDataCodec.rawValue(gameData, "rtp");
+            if (crashPoint == null || rtp == null) {
+                JSONObject data = new JSONObject(gameData);
+                crashPoint = String.valueOf(data.getDouble("crashPoint"));
+                rtp = String.valueOf(data.getDouble("rtp"));
+            }
+            // El RTP solo fija la escala del punto de caída; la curva no influye
+            CrashCurve curve = new CrashCurve(Double.parseDouble(rtp), 1.0);
+            long recorded = Math.round(Double.parseDouble(crashPoint) * 100);
+            return recorded == curve.crashPoint(ProvablyFair.random(serverSeed, clientSeed, nonce));
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ztake.casino.game.crash;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Ronda de Crash para el simulador: el jugador cobra automáticamente al llegar a un
+ * multiplicador fijo. Como P(caída ≥ m) = rtp / m, el RTP teórico es el de la curva sea cual
+ * sea el objetivo.
+ */
+public class CrashSimulation implements SimulatableGame {
+    private final CrashCurve curve;
+    private final int target;
+
+    /**
+     * @param target multiplicador de cobro en centésimas (mayor que x1.00)
+     */
+    public CrashSimulation(CrashCurve curve, int target) {
+        if (target <= CrashCurve.MIN_POINT || target > CrashCurve.MAX_POINT) {
+            throw new IllegalArgumentException("Multiplicador de cobro fuera de rango: " + target);
+        }
+        this.curve = curve;
+        this.target = target;
+    }
+
+    @Override
+    public String getName() {
+        return String.format("Crash cobro x%.2f", target / 100.0);
+    }
+
+    @Override
+    public double getExpectedRtp() {
+        return curve.getRtp();
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        double payout = target / 100.0;
+        return () -> curve.crashPoint(random) >= target ? payout : 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ztake.casino.game.fair;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador determinista de una ronda: la secuencia de bytes es la concatenación de
+ * HMAC-SHA256(clave = semilla del servidor, mensaje = "semillaCliente:nonce:bloque") para
+ * bloque = 0, 1, 2...
+ *
+ * <p>{@link #nextInt()} consume 4 bytes en big-endian y {@link #nextInt(int)} usa rechazo
+ * sobre 32 bits (se descartan los valores ≥ 2^32 - 2^32 mod n y se toma el resto), sin sesgo.
+ * Estas reglas forman parte del esquema publicado: no dependen de la implementación de la JDK,
+ * así que un jugador puede repetir la ronda con cualquier lenguaje.</p>
+ *
+ * <p>No es seguro para hilos.</p>
+ */
+public final class FairRandom implements RandomGenerator {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final long TWO_POW_32 = 1L << 32;
+
+    private final Mac mac;
+    private final String messagePrefix;
+    private final byte[] block = new byte[32];
+    private int position = block.length;
+    private long cursor;
+
+    FairRandom(String serverSeed, String clientSeed, long nonce) {
+        try {
+            mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(serverSeed.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no está disponible", e);
+        }
+        this.messagePrefix = clientSeed + ":" + nonce + ":";
+    }
+
+    @Override
+    public int nextInt() {
+        if (position == block.length) {
+            nextBlock();
+        }
+        int value = (block[position] & 0xFF) << 24 | (block[position + 1] & 0xFF) << 16
+                | (block[position + 2] & 0xFF) << 8 | (block[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo: " + bound);
+        }
+        long limit = TWO_POW_32 - TWO_POW_32 % bound;
+        long value;
+        do {
+            value = Integer.toUnsignedLong(nextInt());
+        } while (value >= limit);
+        return (int) (value % bound);
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        if (origin >= bound) {
+            throw new IllegalArgumentException("El origen debe ser menor que el límite");
+        }
+        return origin + nextInt(bound - origin);
+    }
+
+    @Override
+    public long nextLong() {
+        return (long) nextInt() << 32 | Integer.toUnsignedLong(nextInt());
+    }
+
+    private void nextBlock() {
+        try {
+            mac.update((messagePrefix + cursor++).getBytes(StandardCharsets.UTF_8));
+            mac.doFinal(block, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error al calcular el HMAC de la ronda", e);
+        }
+        position = 0;
+    }
+}
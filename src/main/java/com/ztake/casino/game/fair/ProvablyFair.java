@@ -0,0 +1,98 @@
+package com.ztake.casino.game.fair;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Esquema de juego demostrablemente justo (semilla del servidor, semilla del cliente y nonce).
+ *
+ * <ul>
+ *     <li>La semilla del servidor son 32 bytes aleatorios en hexadecimal. Antes de usarla se
+ *     publica su hash SHA-256, de modo que la casa ya no puede cambiarla.</li>
+ *     <li>La semilla del cliente la elige el jugador (o se genera al azar).</li>
+ *     <li>El nonce cuenta las rondas jugadas con el mismo par de semillas, desde 0.</li>
+ * </ul>
+ *
+ * <p>El resultado de cada ronda sale de {@link FairRandom}: bloques
+ * HMAC-SHA256(semilla del servidor, "semillaCliente:nonce:bloque"). Cuando se rota la semilla
+ * del servidor se revela y cualquiera puede comprobar el hash y repetir las rondas.</p>
+ */
+public final class ProvablyFair {
+
+    /** Bytes aleatorios de una semilla del servidor. */
+    public static final int SERVER_SEED_BYTES = 32;
+    /** Longitud máxima de una semilla del cliente. */
+    public static final int MAX_CLIENT_SEED_LENGTH = 64;
+
+    private static final int CLIENT_SEED_BYTES = 8;
+    private static final HexFormat HEX = HexFormat.of();
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    });
+
+    private ProvablyFair() {
+    }
+
+    /**
+     * @return una semilla del servidor nueva (64 caracteres hexadecimales)
+     */
+    public static String newServerSeed() {
+        return randomHex(SERVER_SEED_BYTES);
+    }
+
+    /**
+     * @return una semilla del cliente aleatoria (16 caracteres hexadecimales)
+     */
+    public static String newClientSeed() {
+        return randomHex(CLIENT_SEED_BYTES);
+    }
+
+    /**
+     * @return el hash SHA-256 en hexadecimal que se publica antes de usar la semilla
+     */
+    public static String hash(String serverSeed) {
+        return HEX.formatHex(SHA_256.get().digest(serverSeed.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return true si la semilla revelada corresponde al hash publicado
+     */
+    public static boolean matches(String serverSeed, String serverSeedHash) {
+        return serverSeed != null && serverSeedHash != null && hash(serverSeed).equalsIgnoreCase(serverSeedHash);
+    }
+
+    /**
+     * Comprueba que una semilla del cliente se puede usar: no vacía, como mucho
+     * {@link #MAX_CLIENT_SEED_LENGTH} caracteres y sin ':' (el separador del mensaje).
+     *
+     * @throws IllegalArgumentException si no es válida
+     */
+    public static void validateClientSeed(String clientSeed) {
+        if (clientSeed == null || clientSeed.isBlank() || clientSeed.length() > MAX_CLIENT_SEED_LENGTH
+                || clientSeed.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("La semilla del cliente debe tener entre 1 y "
+                    + MAX_CLIENT_SEED_LENGTH + " caracteres y no contener ':'");
+        }
+    }
+
+    /**
+     * @return el generador determinista de la ronda
+     */
+    public static FairRandom random(String serverSeed, String clientSeed, long nonce) {
+        return new FairRandom(serverSeed, clientSeed, nonce);
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] seed = new byte[bytes];
+        SECURE_RANDOM.nextBytes(seed);
+        return HEX.formatHex(seed);
+    }
+}
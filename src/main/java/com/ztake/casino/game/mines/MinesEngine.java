@@ -0,0 +1,287 @@
+package com.ztake.casino.game.mines;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor del juego Mines, independiente de la interfaz.
+ *
+ * <p>El tablero (hasta 8×8) se representa con dos máscaras de bits de tipo {@code long}:
+ * las minas y las casillas reveladas, donde el bit {@code fila * columnas + columna}
+ * corresponde a cada casilla. Las minas se colocan con un Fisher–Yates parcial sobre un
+ * array reutilizado, sin la primera casilla elegida, que así nunca es una mina. Revelar y
+ * cobrar no reservan memoria, de modo que el mismo motor sirve para la vista JavaFX y para
+ * partidas en el servidor.</p>
+ *
+ * <p>Con un generador de ronda ({@link com.ztake.casino.game.fair.FairRandom}) la colocación
+ * es reproducible: {@link #placeMines} repite la de cualquier ronda a partir de sus semillas.</p>
+ *
+ * <p>No es seguro para hilos: cada partida en curso usa su propia instancia.</p>
+ */
+public final class MinesEngine {
+
+    /** Número máximo de filas y columnas. */
+    public static final int MAX_SIDE = 8;
+
+    /**
+     * Estado de la partida.
+     */
+    public enum State {
+        /** Sin partida: se puede iniciar una. */
+        READY,
+        /** Minas colocadas, el jugador puede revelar o cobrar. */
+        IN_PROGRESS,
+        /** El jugador reveló una mina. */
+        BUSTED,
+        /** El jugador cobró. */
+        CASHED_OUT
+    }
+
+    /**
+     * Resultado de revelar una casilla.
+     */
+    public enum Reveal {
+        GEM,
+        MINE,
+        /** La casilla ya estaba revelada: no cambia nada. */
+        ALREADY_REVEALED
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int cells;
+    private final RandomGenerator random;
+    // Casillas candidatas a mina, reutilizado en cada partida
+    private final int[] candidates;
+
+    private State state = State.READY;
+    private long mines;
+    private long revealed;
+    private int mineCount;
+
+    /**
+     * Crea un motor con un generador aleatorio sembrado desde {@link SecureRandom}.
+     */
+    public MinesEngine(int rows, int columns) {
+        this(rows, columns, new SplittableRandom(new SecureRandom().nextLong()));
+    }
+
+    public MinesEngine(int rows, int columns, RandomGenerator random) {
+        checkBoard(rows, columns);
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = rows * columns;
+        this.random = random;
+        this.candidates = new int[cells];
+    }
+
+    /**
+     * Inicia una partida colocando las minas. La primera casilla elegida nunca tiene mina.
+     *
+     * @param mineCount número de minas (entre 1 y casillas - 1)
+     * @param firstCell casilla del primer clic
+     * @throws IllegalStateException si ya hay una partida en curso
+     */
+    public void start(int mineCount, int firstCell) {
+        start(mineCount, firstCell, random);
+    }
+
+    /**
+     * Inicia una partida colocando las minas con el generador de la ronda.
+     *
+     * @param mineCount   número de minas (entre 1 y casillas - 1)
+     * @param firstCell   casilla del primer clic
+     * @param roundRandom generador de esta ronda (por ejemplo, el demostrablemente justo)
+     * @throws IllegalStateException si ya hay una partida en curso
+     */
+    public void start(int mineCount, int firstCell, RandomGenerator roundRandom) {
+        if (state == State.IN_PROGRESS) {
+            throw new IllegalStateException("Ya hay una partida en curso");
+        }
+        checkMineCount(cells, mineCount);
+        checkCell(firstCell);
+
+        this.mines = place(cells, mineCount, firstCell, roundRandom, candidates);
+        this.revealed = 0L;
+        this.mineCount = mineCount;
+        this.state = State.IN_PROGRESS;
+    }
+
+    /**
+     * Repite la colocación de minas de una ronda sin crear un motor (verificación).
+     *
+     * @return máscara de minas que habría colocado {@link #start(int, int, RandomGenerator)}
+     */
+    public static long placeMines(int rows, int columns, int mineCount, int firstCell, RandomGenerator random) {
+        checkBoard(rows, columns);
+        int cells = rows * columns;
+        checkMineCount(cells, mineCount);
+        if (firstCell < 0 || firstCell >= cells) {
+            throw new IllegalArgumentException("Casilla fuera del tablero: " + firstCell);
+        }
+        return place(cells, mineCount, firstCell, random, new int[cells]);
+    }
+
+    /**
+     * Fisher–Yates parcial: solo se barajan las mineCount primeras posiciones.
+     */
+    private static long place(int cells, int mineCount, int firstCell, RandomGenerator random, int[] candidates) {
+        int available = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell != firstCell) {
+                candidates[available++] = cell;
+            }
+        }
+        long placed = 0L;
+        for (int i = 0; i < mineCount; i++) {
+            int j = i + random.nextInt(available - i);
+            int cell = candidates[j];
+            candidates[j] = candidates[i];
+            candidates[i] = cell;
+            placed |= 1L << cell;
+        }
+        return placed;
+    }
+
+    /**
+     * Revela una casilla. Si es una mina, la partida termina.
+     *
+     * @throws IllegalStateException si no hay partida en curso
+     */
+    public Reveal reveal(int cell) {
+        checkInProgress();
+        checkCell(cell);
+
+        long bit = 1L << cell;
+        if ((revealed & bit) != 0) {
+            return Reveal.ALREADY_REVEALED;
+        }
+        revealed |= bit;
+        if ((mines & bit) != 0) {
+            state = State.BUSTED;
+            return Reveal.MINE;
+        }
+        return Reveal.GEM;
+    }
+
+    /**
+     * Cobra la partida en curso.
+     *
+     * @return número de gemas reveladas
+     * @throws IllegalStateException si no hay partida en curso o no se reveló ninguna gema
+     */
+    public int cashout() {
+        checkInProgress();
+        int gems = getRevealedGems();
+        if (gems == 0) {
+            throw new IllegalStateException("Hay que revelar al menos una casilla antes de cobrar");
+        }
+        state = State.CASHED_OUT;
+        return gems;
+    }
+
+    /**
+     * Descarta la partida actual y deja el motor listo para otra.
+     */
+    public void reset() {
+        state = State.READY;
+        mines = 0L;
+        revealed = 0L;
+        mineCount = 0;
+    }
+
+    public int cellIndex(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IllegalArgumentException("Casilla fuera del tablero: (" + row + "," + column + ")");
+        }
+        return row * columns + column;
+    }
+
+    public int rowOf(int cell) {
+        return cell / columns;
+    }
+
+    public int columnOf(int cell) {
+        return cell % columns;
+    }
+
+    /**
+     * @return true si se revelaron todas las casillas sin mina
+     */
+    public boolean isCleared() {
+        return state == State.IN_PROGRESS && getRevealedGems() == cells - mineCount;
+    }
+
+    public boolean isRevealed(int cell) {
+        checkCell(cell);
+        return (revealed & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return máscara de minas; solo disponible cuando la partida ha terminado
+     * @throws IllegalStateException si la partida sigue en curso
+     */
+    public long getMines() {
+        if (state == State.IN_PROGRESS) {
+            throw new IllegalStateException("Las minas no se muestran con la partida en curso");
+        }
+        return mines;
+    }
+
+    public long getRevealed() {
+        return revealed;
+    }
+
+    /**
+     * @return número de gemas reveladas (sin contar una mina revelada)
+     */
+    public int getRevealedGems() {
+        return Long.bitCount(revealed & ~mines);
+    }
+
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    private static void checkBoard(int rows, int columns) {
+        if (rows < 1 || columns < 1 || rows > MAX_SIDE || columns > MAX_SIDE || rows * columns < 2) {
+            throw new IllegalArgumentException("Tamaño de tablero inválido: " + rows + "x" + columns
+                    + " (máximo " + MAX_SIDE + "x" + MAX_SIDE + ")");
+        }
+    }
+
+    private static void checkMineCount(int cells, int mineCount) {
+        if (mineCount < 1 || mineCount >= cells) {
+            throw new IllegalArgumentException("El número de minas debe estar entre 1 y " + (cells - 1));
+        }
+    }
+
+    private void checkInProgress() {
+        if (state != State.IN_PROGRESS) {
+            throw new IllegalStateException("No hay ninguna partida en curso");
+        }
+    }
+
+    private void checkCell(int cell) {
+        if (cell < 0 || cell >= cells) {
+            throw new IllegalArgumentException("Casilla fuera del tablero: " + cell);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ztake.casino.game.mines;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mines: tablero con minas ocultas en el que se revelan gemas hasta cobrar.
+ */
+public class MinesGame implements Game {
+
+    @Override
+    public String getGameType() {
+        return "Mines";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Encuentra gemas y evita minas";
+    }
+
+    @Override
+    public String getDescription() {
+        return "En Mines, tu objetivo es encontrar gemas evitando las minas ocultas. Cuantas más gemas descubras, "
+                + "mayor será tu multiplicador. Puedes retirarte en cualquier momento para asegurar tus ganancias, "
+                + "pero si encuentras una mina, perderás tu apuesta.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 10;
+    }
+
+    @Override
+    public String getIconResource() {
+        return "/images/mines-icon.png";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/mines-game-view.fxml";
+    }
+
+    @Override
+    public void loadTables() {
+        MinesPayoutTable.getDefault();
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        MinesPayoutTable table = MinesPayoutTable.getDefault();
+        List<SimulatableGame> simulations = new ArrayList<>();
+        int[][] configurations = {
+                // filas, columnas, minas, gemas antes de cobrar
+                {4, 4, 1, 1}, {4, 4, 1, 8}, {4, 4, 3, 3}, {4, 4, 5, 2}, {4, 4, 5, 5}, {4, 4, 10, 3},
+                {5, 5, 3, 5}, {5, 5, 10, 4}, {5, 5, 24, 1},
+                {8, 8, 10, 10}, {8, 8, 32, 4}
+        };
+        for (int[] c : configurations) {
+            simulations.add(new MinesSimulation(c[0], c[1], c[2], c[3], table));
+        }
+        return simulations;
+    }
+
+    /**
+     * Repite la colocación de minas y la compara con la registrada en game_data.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            long[] fields = readFields(gameData);
+            if (fields == null) {
+                JSONObject data = new JSONObject(gameData);
+                fields = new long[]{data.getInt("rows"), data.getInt("columns"), data.getInt("minesCount"),
+                        data.getInt("firstCell"), Long.parseUnsignedLong(data.getString("mines"), 16)};
+            }
+            long expected = MinesEngine.placeMines((int) fields[0], (int) fields[1], (int) fields[2], (int) fields[3],
+                    ProvablyFair.random(serverSeed, clientSeed, nonce));
+            return expected == fields[4];
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+
+    /**
+     * Lectura directa de los campos de Mines en el JSON plano que escribe el juego.
+     *
+     * @return filas, columnas, minas, primera casilla y máscara; o null si el formato no es el esperado
+     */
+    private static long[] readFields(String json) {
+        String rows = GameDataCodec.rawValue(json, "rows");
+        String columns = GameDataCodec.rawValue(json, "columns");
+        String mines = GameDataCodec.rawValue(json, "minesCount");
+        String firstCell = GameDataCodec.rawValue(json, "firstCell");
+        String mask = GameDataCodec.rawValue(json, "mines");
+        if (rows == null || columns == null || mines == null || firstCell == null || mask == null
+                || mask.length() < 3 || mask.charAt(0) != '"' || mask.charAt(mask.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return new long[]{Integer.parseInt(rows), Integer.parseInt(columns), Integer.parseInt(mines),
+                    Integer.parseInt(firstCell), Long.parseUnsignedLong(mask, 1, mask.length() - 1, 16)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ztake.casino.game.mines;
+
+import com.ztake.casino.config.AppConfig;
+
+/**
+ * Tablas de multiplicadores de Mines calculadas por combinatoria.
+ *
+ * <p>Con {@code n} casillas y {@code m} minas, la probabilidad de revelar {@code k} gemas
+ * seguidas es C(n-m, k) / C(n, k), y el multiplicador justo es su inversa. Como
+ * {@link MinesEngine} garantiza que la primera casilla no es una mina, esa primera revelación
+ * no tiene riesgo y el cálculo se hace sobre las {@code k-1} siguientes en {@code n-1}
+ * casillas. El multiplicador pagado es el justo por el RTP configurado
+ * ({@code mines.rtp}), truncado a dos decimales a favor de la casa para que el valor que se
+ * muestra sea el que se paga.</p>
+ *
+ * <p>Las tablas de todos los tamaños de tablero (2 a 64 casillas) se calculan una sola vez en
+ * arrays de {@code double}: obtener un multiplicador es una lectura de array.</p>
+ */
+public final class MinesPayoutTable {
+
+    private static final int MAX_CELLS = MinesEngine.MAX_SIDE * MinesEngine.MAX_SIDE;
+    private static volatile MinesPayoutTable defaultTable;
+
+    private final double rtp;
+    private final boolean firstRevealSafe;
+    // Una tabla por número de casillas, indexada por minas * (casillas + 1) + gemas reveladas
+    private final double[][] boards = new double[MAX_CELLS + 1][];
+
+    /**
+     * @param rtp             retorno al jugador (entre 0 y 1)
+     * @param firstRevealSafe true si la primera casilla revelada nunca es una mina
+     */
+    public MinesPayoutTable(double rtp, boolean firstRevealSafe) {
+        if (!(rtp > 0 && rtp <= 1)) {
+            throw new IllegalArgumentException("El RTP debe estar entre 0 y 1: " + rtp);
+        }
+        this.rtp = rtp;
+        this.firstRevealSafe = firstRevealSafe;
+        for (int cells = 2; cells <= MAX_CELLS; cells++) {
+            boards[cells] = buildBoard(cells);
+        }
+    }
+
+    /**
+     * @return la tabla del RTP configurado en {@code mines.rtp}, con la primera revelación segura
+     */
+    public static MinesPayoutTable getDefault() {
+        MinesPayoutTable table = defaultTable;
+        if (table == null) {
+            synchronized (MinesPayoutTable.class) {
+                table = defaultTable;
+                if (table == null) {
+                    table = new MinesPayoutTable(AppConfig.getDouble("mines.rtp", 0.97), true);
+                    defaultTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Devuelve la tabla de un tamaño de tablero, para consultarla con {@link #index}.
+     *
+     * @param cells número de casillas del tablero
+     * @return multiplicadores indexados por minas y gemas reveladas
+     */
+    public double[] multipliers(int cells) {
+        if (cells < 2 || cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Número de casillas inválido: " + cells);
+        }
+        return boards[cells];
+    }
+
+    /**
+     * @return posición en la tabla de {@link #multipliers(int)} para las minas y gemas dadas
+     */
+    public static int index(int cells, int mines, int revealedGems) {
+        return mines * (cells + 1) + revealedGems;
+    }
+
+    /**
+     * @return el multiplicador pagado al cobrar tras revelar {@code revealedGems} gemas
+     */
+    public double multiplier(int cells, int mines, int revealedGems) {
+        if (mines < 1 || mines >= cells || revealedGems < 0 || revealedGems > cells - mines) {
+            throw new IllegalArgumentException("Combinación inválida: " + cells + " casillas, " +
+                    mines + " minas, " + revealedGems + " gemas");
+        }
+        return multipliers(cells)[index(cells, mines, revealedGems)];
+    }
+
+    /**
+     * @return probabilidad de revelar {@code revealedGems} gemas seguidas sin encontrar una mina
+     */
+    public double survivalProbability(int cells, int mines, int revealedGems) {
+        double probability = 1.0;
+        int start = firstRevealSafe ? 1 : 0;
+        int total = cells - start;
+        for (int i = 0; i < revealedGems - start; i++) {
+            probability *= (double) (total - mines - i) / (total - i);
+        }
+        return probability;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public boolean isFirstRevealSafe() {
+        return firstRevealSafe;
+    }
+
+    private double[] buildBoard(int cells) {
+        double[] table = new double[cells * (cells + 1)];
+        for (int mines = 1; mines < cells; mines++) {
+            int base = index(cells, mines, 0);
+            table[base] = 1.0;
+
+            // Producto incremental de (n - i) / (n - m - i): la inversa de C(n-m, k) / C(n, k)
+            int start = firstRevealSafe ? 1 : 0;
+            int total = cells - start;
+            double fair = 1.0;
+            for (int gems = 1; gems <= cells - mines; gems++) {
+                int step = gems - 1 - start;
+                if (step >= 0) {
+                    fair *= (double) (total - step) / (total - mines - step);
+                }
+                table[base + gems] = Math.floor(fair * rtp * 100 + 1e-9) / 100;
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ztake.casino.game.mines;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Configuración de Mines para el simulador: tablero, minas y estrategia de cobrar tras un
+ * número fijo de gemas. Cada ronda se juega con {@link MinesEngine} y se paga con
+ * {@link MinesPayoutTable}.
+ */
+public class MinesSimulation implements SimulatableGame {
+    private final int rows;
+    private final int columns;
+    private final int mines;
+    private final int cashoutGems;
+    private final MinesPayoutTable payoutTable;
+
+    /**
+     * @param cashoutGems gemas a revelar antes de cobrar
+     */
+    public MinesSimulation(int rows, int columns, int mines, int cashoutGems, MinesPayoutTable payoutTable) {
+        int cells = rows * columns;
+        if (cashoutGems < 1 || cashoutGems > cells - mines) {
+            throw new IllegalArgumentException("No se pueden revelar " + cashoutGems + " gemas con " +
+                    mines + " minas en " + cells + " casillas");
+        }
+        if (!payoutTable.isFirstRevealSafe()) {
+            throw new IllegalArgumentException("MinesEngine siempre hace segura la primera casilla");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.mines = mines;
+        this.cashoutGems = cashoutGems;
+        this.payoutTable = payoutTable;
+    }
+
+    @Override
+    public String getName() {
+        return "Mines " + rows + "x" + columns + " minas=" + mines + " cobro=" + cashoutGems;
+    }
+
+    @Override
+    public double getExpectedRtp() {
+        int cells = rows * columns;
+        return payoutTable.survivalProbability(cells, mines, cashoutGems)
+                * payoutTable.multiplier(cells, mines, cashoutGems);
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        MinesEngine engine = new MinesEngine(rows, columns, random);
+        double[] payouts = payoutTable.multipliers(engine.getCells());
+        double win = payouts[MinesPayoutTable.index(engine.getCells(), mines, cashoutGems)];
+
+        return () -> {
+            engine.reset();
+            // Las minas son uniformes salvo la primera casilla: el orden de revelado no
+            // cambia las probabilidades, así que se revelan las casillas en orden
+            engine.start(mines, 0);
+            for (int cell = 0; cell < cashoutGems; cell++) {
+                if (engine.reveal(cell) == MinesEngine.Reveal.MINE) {
+                    return 0.0;
+                }
+            }
+            engine.cashout();
+            return win;
+        };
+    }
+}
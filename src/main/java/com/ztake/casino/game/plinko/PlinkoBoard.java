@@ -0,0 +1,67 @@
+package com.ztake.casino.game.plinko;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Caída de las bolas de Plinko.
+ *
+ * <p>En cada fila de clavos la bola va a la izquierda o a la derecha con probabilidad 1/2, así
+ * que el camino completo son {@code rows} bits independientes: se sacan todos de una sola vez de
+ * un entero aleatorio (el bit {@code i} es 1 si la bola va a la derecha en la fila {@code i}). La
+ * casilla final es el número de pasos a la derecha, es decir, {@link Integer#bitCount} del
+ * camino, que sigue exactamente la distribución binomial B(rows, 1/2). Sortear una bola es una
+ * llamada al generador y un popcount, sin bucle por filas.</p>
+ */
+public final class PlinkoBoard {
+
+    public static final int MIN_ROWS = 8;
+    public static final int MAX_ROWS = 16;
+
+    private PlinkoBoard() {
+    }
+
+    /**
+     * Deja caer una bola. Es la única fuente de azar de la bola, de modo que repetirla con el
+     * mismo generador da el mismo camino.
+     *
+     * @return camino de la bola: un bit por fila, 1 = derecha
+     */
+    public static int drop(RandomGenerator random, int rows) {
+        checkRows(rows);
+        return random.nextInt() >>> (Integer.SIZE - rows);
+    }
+
+    /**
+     * Deja caer varias bolas seguidas con el mismo generador.
+     *
+     * @param into caminos de las bolas (se llena entero)
+     */
+    public static void drop(RandomGenerator random, int rows, int[] into) {
+        checkRows(rows);
+        int shift = Integer.SIZE - rows;
+        for (int i = 0; i < into.length; i++) {
+            into[i] = random.nextInt() >>> shift;
+        }
+    }
+
+    /**
+     * @return casilla en la que cae un camino (0 = la de la izquierda, rows = la de la derecha)
+     */
+    public static int slot(int path) {
+        return Integer.bitCount(path);
+    }
+
+    /**
+     * @return true si la bola va a la derecha al pasar la fila indicada
+     */
+    public static boolean goesRight(int path, int row) {
+        return (path >>> row & 1) != 0;
+    }
+
+    static void checkRows(int rows) {
+        if (rows < MIN_ROWS || rows > MAX_ROWS) {
+            throw new IllegalArgumentException("El número de filas debe estar entre " + MIN_ROWS + " y " + MAX_ROWS
+                    + ": " + rows);
+        }
+    }
+}
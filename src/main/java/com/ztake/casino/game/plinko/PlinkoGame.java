@@ -0,0 +1,93 @@
+package com.ztake.casino.game.plinko;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plinko: bolas que rebotan entre filas de clavos hasta una casilla con multiplicador.
+ */
+public class PlinkoGame implements Game {
+
+    @Override
+    public String getGameType() {
+        return "Plinko";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Deja caer la bola y cruza los dedos";
+    }
+
+    @Override
+    public String getDescription() {
+        return "La bola rebota en cada fila de clavos a izquierda o derecha y cae en una casilla que multiplica tu "
+                + "apuesta: los bordes son los menos probables y los que más pagan. Elige de 8 a 16 filas y el nivel "
+                + "de riesgo, y suelta bolas una a una o cientos por segundo con la caída automática.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 60;
+    }
+
+    @Override
+    public String getIconText() {
+        return "● ● ●";
+    }
+
+    @Override
+    public String getIconStyleClass() {
+        return "plinko-card-icon";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/plinko-game-view.fxml";
+    }
+
+    @Override
+    public void loadTables() {
+        PlinkoPayoutTable.getDefault();
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        List<SimulatableGame> simulations = new ArrayList<>();
+        for (int rows : new int[]{8, 12, 16}) {
+            for (PlinkoRisk risk : PlinkoRisk.values()) {
+                simulations.add(new PlinkoSimulation(PlinkoPayoutTable.getDefault(), rows, risk));
+            }
+        }
+        return simulations;
+    }
+
+    /**
+     * Repite la caída de las bolas de la ronda y compara sus caminos con los registrados en game_data.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            String rows = GameDataCodec.rawValue(gameData, "rows");
+            String paths = GameDataCodec.rawValue(gameData, "paths");
+            if (rows == null || paths == null) {
+                JSONObject data = new JSONObject(gameData);
+                rows = String.valueOf(data.getInt("rows"));
+                paths = data.getString("paths");
+            }
+            int[] recorded = GameDataCodec.parseInts(paths);
+            int[] expected = new int[recorded.length];
+            PlinkoBoard.drop(ProvablyFair.random(serverSeed, clientSeed, nonce), Integer.parseInt(rows), expected);
+            return Arrays.equals(expected, recorded);
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+}
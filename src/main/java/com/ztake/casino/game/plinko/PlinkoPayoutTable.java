@@ -0,0 +1,162 @@
+package com.ztake.casino.game.plinko;
+
+import com.ztake.casino.config.AppConfig;
+
+/**
+ * Tablas de multiplicadores de Plinko calculadas a partir de la distribución binomial exacta.
+ *
+ * <p>Con {@code n} filas, la bola cae en la casilla {@code k} con probabilidad
+ * C(n, k) / 2^n. Cada nivel de riesgo da un peso a cada casilla que crece de forma exponencial
+ * con su distancia al centro, y los pesos se escalan para que la esperanza del multiplicador
+ * sea el RTP configurado ({@code plinko.rtp}). El multiplicador pagado se trunca a dos
+ * decimales a favor de la casa para que el valor que se muestra sea el que se paga; como truncar
+ * baja el RTP, la escala se ajusta por bisección a la mayor cuyo RTP truncado no supera el
+ * configurado. El RTP real de cada tabla se recalcula con los multiplicadores pagados.</p>
+ *
+ * <p>Las tablas de todas las filas ({@value PlinkoBoard#MIN_ROWS} a
+ * {@value PlinkoBoard#MAX_ROWS}) y niveles de riesgo se calculan una sola vez: el
+ * multiplicador de una bola es una lectura de array indexada por su casilla.</p>
+ */
+public final class PlinkoPayoutTable {
+
+    private static volatile PlinkoPayoutTable defaultTable;
+
+    private final double targetRtp;
+    // Por nivel de riesgo y número de filas
+    private final double[][][] multipliers = new double[PlinkoRisk.values().length][PlinkoBoard.MAX_ROWS + 1][];
+    private final double[][] rtps = new double[PlinkoRisk.values().length][PlinkoBoard.MAX_ROWS + 1];
+    private final double[][] probabilities = new double[PlinkoBoard.MAX_ROWS + 1][];
+
+    /**
+     * @param rtp retorno al jugador (entre 0 y 1)
+     */
+    public PlinkoPayoutTable(double rtp) {
+        if (!(rtp > 0 && rtp <= 1)) {
+            throw new IllegalArgumentException("El RTP debe estar entre 0 y 1: " + rtp);
+        }
+        this.targetRtp = rtp;
+        for (int rows = PlinkoBoard.MIN_ROWS; rows <= PlinkoBoard.MAX_ROWS; rows++) {
+            probabilities[rows] = binomial(rows);
+            for (PlinkoRisk risk : PlinkoRisk.values()) {
+                double[] table = buildTable(probabilities[rows], risk.getGrowth());
+                multipliers[risk.ordinal()][rows] = table;
+                double expected = 0;
+                for (int slot = 0; slot <= rows; slot++) {
+                    expected += probabilities[rows][slot] * table[slot];
+                }
+                rtps[risk.ordinal()][rows] = expected;
+            }
+        }
+    }
+
+    /**
+     * @return la tabla del RTP configurado en {@code plinko.rtp}
+     */
+    public static PlinkoPayoutTable getDefault() {
+        PlinkoPayoutTable table = defaultTable;
+        if (table == null) {
+            synchronized (PlinkoPayoutTable.class) {
+                table = defaultTable;
+                if (table == null) {
+                    table = new PlinkoPayoutTable(AppConfig.getDouble("plinko.rtp", 0.99));
+                    defaultTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Devuelve los multiplicadores de un tablero, para consultarlos con {@link PlinkoBoard#slot}.
+     *
+     * @return multiplicador de cada casilla, de izquierda a derecha (no modificar)
+     */
+    public double[] multipliers(int rows, PlinkoRisk risk) {
+        PlinkoBoard.checkRows(rows);
+        return multipliers[risk.ordinal()][rows];
+    }
+
+    /**
+     * @return multiplicador pagado a una bola con el camino dado
+     */
+    public double multiplier(int rows, PlinkoRisk risk, int path) {
+        return multipliers(rows, risk)[PlinkoBoard.slot(path)];
+    }
+
+    /**
+     * @return probabilidad exacta de cada casilla con el número de filas dado (no modificar)
+     */
+    public double[] probabilities(int rows) {
+        PlinkoBoard.checkRows(rows);
+        return probabilities[rows];
+    }
+
+    /**
+     * @return RTP exacto de un tablero, con los multiplicadores ya truncados
+     */
+    public double getRtp(int rows, PlinkoRisk risk) {
+        PlinkoBoard.checkRows(rows);
+        return rtps[risk.ordinal()][rows];
+    }
+
+    /**
+     * @return RTP configurado, antes de truncar los multiplicadores
+     */
+    public double getTargetRtp() {
+        return targetRtp;
+    }
+
+    private double[] buildTable(double[] probability, double growth) {
+        int rows = probability.length - 1;
+        double[] weights = new double[rows + 1];
+        double expectedWeight = 0;
+        for (int slot = 0; slot <= rows; slot++) {
+            weights[slot] = Math.exp(growth * Math.abs(2 * slot - rows));
+            expectedWeight += probability[slot] * weights[slot];
+        }
+        // Escala exacta; truncar solo puede bajar el RTP, así que la buena está entre ella y el doble
+        double low = targetRtp / expectedWeight;
+        double high = 2 * low;
+        for (int i = 0; i < 60; i++) {
+            double scale = (low + high) / 2;
+            if (expected(probability, weights, scale) <= targetRtp) {
+                low = scale;
+            } else {
+                high = scale;
+            }
+        }
+        double[] table = new double[rows + 1];
+        for (int slot = 0; slot <= rows; slot++) {
+            table[slot] = truncate(low * weights[slot]);
+        }
+        return table;
+    }
+
+    private static double expected(double[] probability, double[] weights, double scale) {
+        double expected = 0;
+        for (int slot = 0; slot < probability.length; slot++) {
+            expected += probability[slot] * truncate(scale * weights[slot]);
+        }
+        return expected;
+    }
+
+    /**
+     * @return el multiplicador truncado a dos decimales (nunca por encima del exacto)
+     */
+    private static double truncate(double multiplier) {
+        return Math.floor(multiplier * 100 + 1e-9) / 100;
+    }
+
+    /**
+     * @return C(n, k) / 2^n para k = 0..n, calculado por recurrencia (exacto en double hasta n = 16)
+     */
+    private static double[] binomial(int rows) {
+        double[] probability = new double[rows + 1];
+        long coefficient = 1;
+        for (int k = 0; k <= rows; k++) {
+            probability[k] = (double) coefficient / (1L << rows);
+            coefficient = coefficient * (rows - k) / (k + 1);
+        }
+        return probability;
+    }
+}
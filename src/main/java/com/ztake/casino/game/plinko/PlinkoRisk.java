@@ -0,0 +1,35 @@
+package com.ztake.casino.game.plinko;
+
+/**
+ * Nivel de riesgo de Plinko: cuánto crecen los multiplicadores desde el centro hacia los bordes.
+ * Con más riesgo, las casillas centrales (las más probables) pagan menos y los bordes mucho más.
+ */
+public enum PlinkoRisk {
+    LOW("Bajo", 0.25),
+    MEDIUM("Medio", 0.42),
+    HIGH("Alto", 0.62);
+
+    private final String displayName;
+    private final double growth;
+
+    PlinkoRisk(String displayName, double growth) {
+        this.displayName = displayName;
+        this.growth = growth;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return crecimiento exponencial del peso de una casilla por cada paso de distancia al centro
+     */
+    double getGrowth() {
+        return growth;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ztake.casino.game.plinko;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tablero de Plinko para el simulador: cada ronda deja caer una bola con {@link PlinkoBoard} y
+ * paga el multiplicador de su casilla.
+ */
+public class PlinkoSimulation implements SimulatableGame {
+    private final PlinkoPayoutTable table;
+    private final int rows;
+    private final PlinkoRisk risk;
+
+    public PlinkoSimulation(PlinkoPayoutTable table, int rows, PlinkoRisk risk) {
+        PlinkoBoard.checkRows(rows);
+        this.table = table;
+        this.rows = rows;
+        this.risk = risk;
+    }
+
+    @Override
+    public String getName() {
+        return "Plinko " + rows + " filas riesgo " + risk.getDisplayName();
+    }
+
+    @Override
+    public double getExpectedRtp() {
+        return table.getRtp(rows, risk);
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        double[] multipliers = table.multipliers(rows, risk);
+        return () -> multipliers[PlinkoBoard.slot(PlinkoBoard.drop(random, rows))];
+    }
+}
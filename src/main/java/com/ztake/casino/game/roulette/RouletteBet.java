@@ -0,0 +1,71 @@
+package com.ztake.casino.game.roulette;
+
+/**
+ * Apuesta del tapete: los números que cubre se guardan como una máscara de 64 bits (bit n =
+ * número n), de modo que comprobar si gana con un número es una sola operación de bits.
+ *
+ * <p>Las instancias son únicas: se obtienen de {@link RouletteTable}.</p>
+ */
+public final class RouletteBet {
+    private final RouletteBetType type;
+    private final String key;
+    private final String name;
+    private final long mask;
+
+    RouletteBet(RouletteBetType type, String key, String name, long mask) {
+        this.type = type;
+        this.key = key;
+        this.name = name;
+        this.mask = mask;
+    }
+
+    public RouletteBetType getType() {
+        return type;
+    }
+
+    /**
+     * @return identificador corto y estable (por ejemplo, "pleno:17" o "cuadro:1-5")
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return nombre para mostrar
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return máscara de los números cubiertos
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    public int getPayout() {
+        return type.getPayout();
+    }
+
+    public boolean covers(int number) {
+        return (mask >>> number & 1L) != 0;
+    }
+
+    /**
+     * @return los números cubiertos, en orden
+     */
+    public int[] getNumbers() {
+        int[] numbers = new int[Long.bitCount(mask)];
+        long bits = mask;
+        for (int i = 0; bits != 0; i++, bits &= bits - 1) {
+            numbers[i] = Long.numberOfTrailingZeros(bits);
+        }
+        return numbers;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
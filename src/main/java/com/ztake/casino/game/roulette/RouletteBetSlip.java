@@ -0,0 +1,150 @@
+package com.ztake.casino.game.roulette;
+
+import java.util.Arrays;
+
+/**
+ * Apuestas apiladas de una tirada, en céntimos.
+ *
+ * <p>Cada apuesta se guarda en arrays paralelos (máscara, pago y cantidad), así que liquidar
+ * una tirada contra decenas de apuestas es un bucle de comprobaciones de bits sin ramas ni
+ * reservas de memoria. Apostar otra vez a la misma casilla acumula la cantidad.</p>
+ *
+ * <p>No es seguro para hilos.</p>
+ */
+public class RouletteBetSlip {
+    /** Máximo de apuestas distintas por tirada (las ganadoras se devuelven como máscara de 64 bits). */
+    public static final int MAX_BETS = 64;
+
+    private final RouletteBet[] bets = new RouletteBet[MAX_BETS];
+    private final long[] masks = new long[MAX_BETS];
+    private final long[] returns = new long[MAX_BETS];
+    private final long[] amounts = new long[MAX_BETS];
+    private int size;
+    private long totalCents;
+
+    /**
+     * Añade una apuesta o aumenta la existente en la misma casilla.
+     *
+     * @param amountCents cantidad en céntimos
+     * @throws IllegalStateException si ya hay {@link #MAX_BETS} apuestas distintas
+     */
+    public void add(RouletteBet bet, long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("La apuesta debe ser mayor que cero");
+        }
+        int index = indexOf(bet);
+        if (index < 0) {
+            if (size == MAX_BETS) {
+                throw new IllegalStateException("No se pueden apilar más de " + MAX_BETS + " apuestas");
+            }
+            index = size++;
+            bets[index] = bet;
+            masks[index] = bet.getMask();
+            returns[index] = bet.getPayout() + 1L;
+        }
+        amounts[index] += amountCents;
+        totalCents += amountCents;
+    }
+
+    /**
+     * Quita una apuesta (las siguientes se desplazan).
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        totalCents -= amounts[index];
+        int moved = size - index - 1;
+        System.arraycopy(bets, index + 1, bets, index, moved);
+        System.arraycopy(masks, index + 1, masks, index, moved);
+        System.arraycopy(returns, index + 1, returns, index, moved);
+        System.arraycopy(amounts, index + 1, amounts, index, moved);
+        size--;
+        bets[size] = null;
+    }
+
+    public void clear() {
+        Arrays.fill(bets, 0, size, null);
+        size = 0;
+        totalCents = 0;
+    }
+
+    /**
+     * @return lo que se paga con un número, en céntimos: cada apuesta ganadora devuelve su
+     * cantidad por (pago + 1)
+     */
+    public long settle(int number) {
+        long paid = 0;
+        for (int i = 0; i < size; i++) {
+            paid += (masks[i] >>> number & 1L) * amounts[i] * returns[i];
+        }
+        return paid;
+    }
+
+    /**
+     * @return máscara de las posiciones de las apuestas que ganan con un número
+     */
+    public long winners(int number) {
+        long winners = 0;
+        for (int i = 0; i < size; i++) {
+            winners |= (masks[i] >>> number & 1L) << i;
+        }
+        return winners;
+    }
+
+    /**
+     * @return lo máximo que puede pagar la tirada, en céntimos (para la exposición de la casa)
+     */
+    public long getMaxPayoutCents() {
+        long max = 0;
+        for (int number = 0; number < RouletteTable.NUMBERS; number++) {
+            max = Math.max(max, settle(number));
+        }
+        return max;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public RouletteBet getBet(int index) {
+        checkIndex(index);
+        return bets[index];
+    }
+
+    public long getAmountCents(int index) {
+        checkIndex(index);
+        return amounts[index];
+    }
+
+    /**
+     * @return lo que paga una apuesta si gana, en céntimos (incluida la cantidad apostada)
+     */
+    public long getReturnCents(int index) {
+        checkIndex(index);
+        return amounts[index] * returns[index];
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    private int indexOf(RouletteBet bet) {
+        for (int i = 0; i < size; i++) {
+            if (bets[i] == bet) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
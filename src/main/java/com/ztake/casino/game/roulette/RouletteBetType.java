@@ -0,0 +1,44 @@
+package com.ztake.casino.game.roulette;
+
+/**
+ * Tipos de apuesta de la ruleta europea, con el pago de cada uno (por unidad apostada, sin
+ * contar la apuesta devuelta).
+ */
+public enum RouletteBetType {
+    STRAIGHT("Pleno", "pleno", 35),
+    SPLIT("Semipleno", "semipleno", 17),
+    /** Fila de tres números; incluye los tríos 0-1-2 y 0-2-3. */
+    STREET("Transversal", "transversal", 11),
+    /** Cuatro números; incluye los cuatro primeros 0-1-2-3. */
+    CORNER("Cuadro", "cuadro", 8),
+    SIX_LINE("Seisena", "seisena", 5),
+    DOZEN("Docena", "docena", 2),
+    COLUMN("Columna", "columna", 2),
+    /** Suertes sencillas: rojo/negro, par/impar, falta/pasa. */
+    EVEN_MONEY("Suerte sencilla", "sencilla", 1);
+
+    private final String displayName;
+    private final String keyPrefix;
+    private final int payout;
+
+    RouletteBetType(String displayName, String keyPrefix, int payout) {
+        this.displayName = displayName;
+        this.keyPrefix = keyPrefix;
+        this.payout = payout;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * @return pago por unidad apostada (35 a 1 en un pleno)
+     */
+    public int getPayout() {
+        return payout;
+    }
+}
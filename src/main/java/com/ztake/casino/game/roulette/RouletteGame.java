@@ -0,0 +1,71 @@
+package com.ztake.casino.game.roulette;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * Ruleta europea con apuestas múltiples por tirada.
+ */
+public class RouletteGame implements Game {
+
+    @Override
+    public String getGameType() {
+        return "Ruleta";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Ruleta europea virtual";
+    }
+
+    @Override
+    public String getDescription() {
+        return "La ruleta europea te permite realizar diferentes tipos de apuestas. Apuesta a números específicos, "
+                + "colores, pares o impares y más. Con un RTP del 97.3%, nuestra ruleta ofrece excelentes "
+                + "posibilidades de ganar.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 30;
+    }
+
+    @Override
+    public String getIconResource() {
+        return "/images/roulette-icon.png";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/roulette-game-view.fxml";
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        return List.of(
+                new RouletteSimulation("pleno", new String[]{"pleno:17"}, new long[]{100}),
+                new RouletteSimulation("mixta", new String[]{"pleno:0", "semipleno:17-20", "cuadro:1-5",
+                        "seisena:31-36", "docena:2", "columna:3", "rojo", "impar"},
+                        new long[]{50, 100, 100, 200, 500, 300, 1000, 1000}));
+    }
+
+    /**
+     * Repite la tirada de la ruleta y la compara con el número registrado en game_data.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            String number = GameDataCodec.rawValue(gameData, "number");
+            int recorded = number != null ? Integer.parseInt(number) : new JSONObject(gameData).getInt("number");
+            return recorded == RouletteTable.spin(ProvablyFair.random(serverSeed, clientSeed, nonce));
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+}
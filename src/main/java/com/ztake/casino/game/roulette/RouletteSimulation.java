@@ -0,0 +1,62 @@
+package com.ztake.casino.game.roulette;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tirada de ruleta con un conjunto fijo de apuestas apiladas para el simulador. Paga por
+ * unidad apostada en total, de modo que el RTP es el de la combinación.
+ */
+public class RouletteSimulation implements SimulatableGame {
+    private final String name;
+    private final String[] betKeys;
+    private final long[] amountsCents;
+
+    /**
+     * @param betKeys      claves de {@link RouletteTable}
+     * @param amountsCents cantidad de cada apuesta, en céntimos
+     */
+    public RouletteSimulation(String name, String[] betKeys, long[] amountsCents) {
+        if (betKeys.length == 0 || betKeys.length != amountsCents.length) {
+            throw new IllegalArgumentException("Se necesita una cantidad por apuesta");
+        }
+        this.name = name;
+        this.betKeys = betKeys.clone();
+        this.amountsCents = amountsCents.clone();
+        newSlip(); // valida las claves
+    }
+
+    @Override
+    public String getName() {
+        return "Ruleta " + name + " apuestas=" + betKeys.length;
+    }
+
+    /**
+     * @return RTP exacto: media de lo pagado con cada uno de los 37 números
+     */
+    @Override
+    public double getExpectedRtp() {
+        RouletteBetSlip slip = newSlip();
+        long paid = 0;
+        for (int number = 0; number < RouletteTable.NUMBERS; number++) {
+            paid += slip.settle(number);
+        }
+        return (double) paid / RouletteTable.NUMBERS / slip.getTotalCents();
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        RouletteBetSlip slip = newSlip();
+        double total = slip.getTotalCents();
+        return () -> slip.settle(RouletteTable.spin(random)) / total;
+    }
+
+    private RouletteBetSlip newSlip() {
+        RouletteBetSlip slip = new RouletteBetSlip();
+        for (int i = 0; i < betKeys.length; i++) {
+            slip.add(RouletteTable.getBet(betKeys[i]), amountsCents[i]);
+        }
+        return slip;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ztake.casino.game.roulette;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tapete de la ruleta europea (un solo cero): catálogo precalculado de todas las apuestas
+ * posibles con la máscara de números de cada una.
+ *
+ * <p>En el tapete el número n (1..36) está en la columna (n - 1) % 3 y la fila (n - 1) / 3. Las
+ * claves de las apuestas interiores usan el menor y el mayor número cubierto
+ * ("semipleno:1-2", "transversal:1-3", "cuadro:1-5", "seisena:1-6").</p>
+ */
+public final class RouletteTable {
+    /** Casillas de la rueda: 0..36. */
+    public static final int NUMBERS = 37;
+    private static final int COLUMNS = 3;
+    private static final int ROWS = 12;
+
+    private static final long RED_MASK = maskOf(1, 3, 5, 7, 9, 12, 14, 16, 18, 19, 21, 23, 25, 27, 30, 32, 34, 36);
+    private static final long ALL_NUMBERS_MASK = (1L << NUMBERS) - 2; // 1..36, sin el cero
+
+    private static final Map<String, RouletteBet> BETS_BY_KEY = new HashMap<>();
+    private static final Map<RouletteBetType, List<RouletteBet>> BETS_BY_TYPE = new EnumMap<>(RouletteBetType.class);
+    private static final List<RouletteBet> ALL_BETS;
+
+    static {
+        List<RouletteBet> all = new ArrayList<>();
+        for (RouletteBetType type : RouletteBetType.values()) {
+            BETS_BY_TYPE.put(type, new ArrayList<>());
+        }
+
+        // Plenos
+        for (int n = 0; n < NUMBERS; n++) {
+            addInside(all, RouletteBetType.STRAIGHT, maskOf(n));
+        }
+        // Semiplenos: horizontales, verticales y con el cero
+        for (int n = 1; n <= 36; n++) {
+            if (column(n) < COLUMNS - 1) {
+                addInside(all, RouletteBetType.SPLIT, maskOf(n, n + 1));
+            }
+            if (row(n) < ROWS - 1) {
+                addInside(all, RouletteBetType.SPLIT, maskOf(n, n + COLUMNS));
+            }
+        }
+        for (int n = 1; n <= 3; n++) {
+            addInside(all, RouletteBetType.SPLIT, maskOf(0, n));
+        }
+        // Transversales y tríos con el cero
+        for (int row = 0; row < ROWS; row++) {
+            int first = row * COLUMNS + 1;
+            addInside(all, RouletteBetType.STREET, maskOf(first, first + 1, first + 2));
+        }
+        addInside(all, RouletteBetType.STREET, maskOf(0, 1, 2));
+        addInside(all, RouletteBetType.STREET, maskOf(0, 2, 3));
+        // Cuadros y los cuatro primeros
+        for (int n = 1; n <= 36; n++) {
+            if (column(n) < COLUMNS - 1 && row(n) < ROWS - 1) {
+                addInside(all, RouletteBetType.CORNER, maskOf(n, n + 1, n + COLUMNS, n + COLUMNS + 1));
+            }
+        }
+        addInside(all, RouletteBetType.CORNER, maskOf(0, 1, 2, 3));
+        // Seisenas: dos filas consecutivas
+        for (int row = 0; row < ROWS - 1; row++) {
+            int first = row * COLUMNS + 1;
+            addInside(all, RouletteBetType.SIX_LINE, maskOf(first, first + 1, first + 2, first + 3, first + 4, first + 5));
+        }
+        // Docenas y columnas
+        for (int i = 0; i < 3; i++) {
+            long dozen = 0;
+            long column = 0;
+            for (int n = 1; n <= 36; n++) {
+                if ((n - 1) / 12 == i) {
+                    dozen |= 1L << n;
+                }
+                if (column(n) == i) {
+                    column |= 1L << n;
+                }
+            }
+            add(all, RouletteBetType.DOZEN, "docena:" + (i + 1), (i + 1) + "ª docena (" + (12 * i + 1) + "-" + (12 * i + 12) + ")", dozen);
+            add(all, RouletteBetType.COLUMN, "columna:" + (i + 1), (i + 1) + "ª columna", column);
+        }
+        // Suertes sencillas
+        long even = 0;
+        long low = 0;
+        for (int n = 1; n <= 36; n++) {
+            if (n % 2 == 0) {
+                even |= 1L << n;
+            }
+            if (n <= 18) {
+                low |= 1L << n;
+            }
+        }
+        add(all, RouletteBetType.EVEN_MONEY, "rojo", "Rojo", RED_MASK);
+        add(all, RouletteBetType.EVEN_MONEY, "negro", "Negro", ALL_NUMBERS_MASK & ~RED_MASK);
+        add(all, RouletteBetType.EVEN_MONEY, "par", "Par", even);
+        add(all, RouletteBetType.EVEN_MONEY, "impar", "Impar", ALL_NUMBERS_MASK & ~even);
+        add(all, RouletteBetType.EVEN_MONEY, "falta", "Falta (1-18)", low);
+        add(all, RouletteBetType.EVEN_MONEY, "pasa", "Pasa (19-36)", ALL_NUMBERS_MASK & ~low);
+
+        for (Map.Entry<RouletteBetType, List<RouletteBet>> entry : BETS_BY_TYPE.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        ALL_BETS = Collections.unmodifiableList(all);
+    }
+
+    private RouletteTable() {
+    }
+
+    /**
+     * @return el número ganador de una tirada: uniforme en 0..36
+     */
+    public static int spin(RandomGenerator random) {
+        return random.nextInt(NUMBERS);
+    }
+
+    /**
+     * @return la apuesta con esa clave
+     * @throws IllegalArgumentException si no existe
+     */
+    public static RouletteBet getBet(String key) {
+        RouletteBet bet = BETS_BY_KEY.get(key);
+        if (bet == null) {
+            throw new IllegalArgumentException("Apuesta de ruleta desconocida: " + key);
+        }
+        return bet;
+    }
+
+    /**
+     * @return las apuestas de un tipo, en orden del tapete
+     */
+    public static List<RouletteBet> getBets(RouletteBetType type) {
+        return BETS_BY_TYPE.get(type);
+    }
+
+    /**
+     * @return todas las apuestas del tapete
+     */
+    public static List<RouletteBet> getAllBets() {
+        return ALL_BETS;
+    }
+
+    public static boolean isRed(int number) {
+        return (RED_MASK >>> number & 1L) != 0;
+    }
+
+    private static int column(int number) {
+        return (number - 1) % COLUMNS;
+    }
+
+    private static int row(int number) {
+        return (number - 1) / COLUMNS;
+    }
+
+    private static void addInside(List<RouletteBet> all, RouletteBetType type, long mask) {
+        int low = Long.numberOfTrailingZeros(mask);
+        int high = 63 - Long.numberOfLeadingZeros(mask);
+        String numbers = low == high ? String.valueOf(low) : low + "-" + high;
+        StringBuilder name = new StringBuilder(type.getDisplayName()).append(' ');
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            name.append(Long.numberOfTrailingZeros(bits)).append((bits & (bits - 1)) != 0 ? "-" : "");
+        }
+        add(all, type, type.getKeyPrefix() + ":" + numbers, name.toString(), mask);
+    }
+
+    private static void add(List<RouletteBet> all, RouletteBetType type, String key, String name, long mask) {
+        RouletteBet bet = new RouletteBet(type, key, name, mask);
+        if (BETS_BY_KEY.put(key, bet) != null) {
+            throw new IllegalStateException("Clave de apuesta duplicada: " + key);
+        }
+        BETS_BY_TYPE.get(type).add(bet);
+        all.add(bet);
+    }
+
+    private static long maskOf(int... numbers) {
+        long mask = 0;
+        for (int n : numbers) {
+            mask |= 1L << n;
+        }
+        return mask;
+    }
+}
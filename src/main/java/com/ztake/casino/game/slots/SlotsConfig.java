@@ -0,0 +1,287 @@
+package com.ztake.casino.game.slots;
+
+import java.util.Arrays;
+
+/**
+ * Configuración inmutable de una tragamonedas: símbolos, tiras de los rodillos, líneas de pago y
+ * tabla de pagos.
+ *
+ * <p>Una línea paga por el símbolo que aparece en los primeros rodillos seguidos, de izquierda a
+ * derecha; el comodín (opcional) sustituye a cualquier símbolo y, si la línea empieza solo con
+ * comodines, paga como comodín. Si varios símbolos encajan, se paga el mayor premio.</p>
+ *
+ * <p>Al construirse precalcula las tablas que usa {@link SlotsEngine}: para cada símbolo, la
+ * máscara de bits de los símbolos con los que encaja, y para cada longitud de racha y cada
+ * conjunto de símbolos posible, el mejor premio ({@code runPays}). Por eso el número de
+ * símbolos está limitado a {@link #MAX_SYMBOLS}.</p>
+ */
+public final class SlotsConfig {
+
+    /** Número máximo de símbolos (las tablas tienen 2^símbolos entradas por longitud de racha). */
+    public static final int MAX_SYMBOLS = 12;
+    /** Sin comodín. */
+    public static final int NO_WILD = -1;
+
+    private static volatile SlotsConfig defaultConfig;
+
+    private final String[] symbols;
+    private final int wild;
+    private final int[][] reels;
+    private final int rows;
+    private final int[][] paylines;
+    private final int[][] pays;
+
+    // Tablas precalculadas
+    private final int[] symbolMasks;
+    private final int[] runPays;
+    private final double rtp;
+
+    /**
+     * @param symbols  nombres de los símbolos
+     * @param wild     índice del comodín, o {@link #NO_WILD}
+     * @param reels    tira de cada rodillo (índices de símbolo)
+     * @param rows     filas visibles
+     * @param paylines fila de cada rodillo en cada línea de pago
+     * @param pays     premio de cada símbolo por longitud de racha (índice 0..rodillos), en apuestas de línea
+     */
+    public SlotsConfig(String[] symbols, int wild, int[][] reels, int rows, int[][] paylines, int[][] pays) {
+        validate(symbols, wild, reels, rows, paylines, pays);
+        this.symbols = symbols.clone();
+        this.wild = wild;
+        this.reels = deepCopy(reels);
+        this.rows = rows;
+        this.paylines = deepCopy(paylines);
+        this.pays = deepCopy(pays);
+
+        int symbolCount = symbols.length;
+        int all = (1 << symbolCount) - 1;
+        this.symbolMasks = new int[symbolCount];
+        for (int s = 0; s < symbolCount; s++) {
+            symbolMasks[s] = s == wild ? all : 1 << s;
+        }
+
+        // Mejor premio de cada conjunto de símbolos para cada longitud de racha
+        this.runPays = new int[(reels.length + 1) << symbolCount];
+        for (int run = 1; run <= reels.length; run++) {
+            for (int mask = 1; mask <= all; mask++) {
+                int best = 0;
+                for (int bits = mask; bits != 0; bits &= bits - 1) {
+                    best = Math.max(best, pays[Integer.numberOfTrailingZeros(bits)][run]);
+                }
+                runPays[run << symbolCount | mask] = best;
+            }
+        }
+        this.rtp = computeRtp();
+    }
+
+    /**
+     * Configuración por defecto: 5 rodillos de 32 posiciones, 3 filas, 10 líneas y comodín.
+     */
+    public static SlotsConfig getDefault() {
+        SlotsConfig config = defaultConfig;
+        if (config == null) {
+            synchronized (SlotsConfig.class) {
+                config = defaultConfig;
+                if (config == null) {
+                    config = createDefault();
+                    defaultConfig = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    private static SlotsConfig createDefault() {
+        String[] symbols = {"Cereza", "Limón", "Naranja", "Uvas", "Campana", "Sandía", "BAR", "Siete", "Comodín"};
+        // Un dígito por posición: el índice del símbolo (8 = comodín)
+        String[] strips = {
+                "01230410523016240130527102341068",
+                "02140312650413201724015302610348",
+                "03120401562013421507230164012038",
+                "01420315024106320154730214062018",
+                "04130251036120473105240136021508"
+        };
+        int[][] reels = new int[strips.length][];
+        for (int r = 0; r < strips.length; r++) {
+            reels[r] = strips[r].chars().map(c -> c - '0').toArray();
+        }
+        int[][] paylines = {
+                {1, 1, 1, 1, 1}, {0, 0, 0, 0, 0}, {2, 2, 2, 2, 2}, {0, 1, 2, 1, 0}, {2, 1, 0, 1, 2},
+                {0, 0, 1, 2, 2}, {2, 2, 1, 0, 0}, {1, 0, 0, 0, 1}, {1, 2, 2, 2, 1}, {1, 2, 1, 0, 1}
+        };
+        int[][] pays = {
+                // racha: 0, 1, 2, 3, 4, 5
+                {0, 0, 2, 4, 15, 40},           // Cereza
+                {0, 0, 0, 8, 25, 80},           // Limón
+                {0, 0, 0, 12, 40, 150},         // Naranja
+                {0, 0, 0, 20, 60, 250},         // Uvas
+                {0, 0, 0, 30, 120, 500},        // Campana
+                {0, 0, 0, 40, 160, 800},        // Sandía
+                {0, 0, 0, 60, 300, 1500},       // BAR
+                {0, 0, 0, 120, 600, 4000},      // Siete
+                {0, 0, 0, 200, 2000, 10000}     // Comodín
+        };
+        return new SlotsConfig(symbols, 8, reels, 3, paylines, pays);
+    }
+
+    /**
+     * @return RTP exacto: esperanza del premio de una línea en apuestas de línea. Como cada
+     * rodillo para en una posición uniforme, el símbolo de cualquier fila sigue la frecuencia de
+     * la tira y todas las líneas tienen la misma esperanza.
+     */
+    public double getRtp() {
+        return rtp;
+    }
+
+    public int getReelCount() {
+        return reels.length;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getLineCount() {
+        return paylines.length;
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public String getSymbolName(int symbol) {
+        return symbols[symbol];
+    }
+
+    public int getWild() {
+        return wild;
+    }
+
+    public int getReelLength(int reel) {
+        return reels[reel].length;
+    }
+
+    /**
+     * @return símbolo de una posición de la tira
+     */
+    public int getSymbol(int reel, int position) {
+        return reels[reel][position];
+    }
+
+    /**
+     * @return fila del rodillo en una línea de pago
+     */
+    public int getPaylineRow(int line, int reel) {
+        return paylines[line][reel];
+    }
+
+    /**
+     * @return premio de un símbolo con una racha dada, en apuestas de línea
+     */
+    public int getPay(int symbol, int run) {
+        return pays[symbol][run];
+    }
+
+    // Tablas para el motor (de solo lectura)
+
+    int[] symbolMasks() {
+        return symbolMasks;
+    }
+
+    int[] runPays() {
+        return runPays;
+    }
+
+    /**
+     * Recorre todas las combinaciones de símbolos de una línea, rodillo a rodillo, con la
+     * probabilidad de cada símbolo en su tira. Las ramas sin símbolos en común se cierran en
+     * cuanto la racha se corta.
+     */
+    private double computeRtp() {
+        double[][] frequencies = new double[reels.length][symbols.length];
+        for (int r = 0; r < reels.length; r++) {
+            for (int symbol : reels[r]) {
+                frequencies[r][symbol] += 1.0 / reels[r].length;
+            }
+        }
+        return expectedWin(frequencies, 0, (1 << symbols.length) - 1, 0);
+    }
+
+    private double expectedWin(double[][] frequencies, int reel, int mask, int win) {
+        if (reel == reels.length) {
+            return win;
+        }
+        double expected = 0;
+        for (int s = 0; s < symbols.length; s++) {
+            double probability = frequencies[reel][s];
+            if (probability == 0) {
+                continue;
+            }
+            int next = mask & symbolMasks[s];
+            if (next == 0) {
+                expected += probability * win;
+            } else {
+                int run = reel + 1;
+                expected += probability * expectedWin(frequencies, run, next,
+                        Math.max(win, runPays[run << symbols.length | next]));
+            }
+        }
+        return expected;
+    }
+
+    private static void validate(String[] symbols, int wild, int[][] reels, int rows, int[][] paylines, int[][] pays) {
+        if (symbols.length < 2 || symbols.length > MAX_SYMBOLS) {
+            throw new IllegalArgumentException("El número de símbolos debe estar entre 2 y " + MAX_SYMBOLS);
+        }
+        if (wild != NO_WILD && (wild < 0 || wild >= symbols.length)) {
+            throw new IllegalArgumentException("Comodín inválido: " + wild);
+        }
+        if (reels.length < 2 || rows < 1 || paylines.length == 0) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 rodillos, 1 fila y 1 línea");
+        }
+        for (int[] strip : reels) {
+            if (strip.length < rows) {
+                throw new IllegalArgumentException("Cada tira necesita al menos " + rows + " posiciones");
+            }
+            for (int symbol : strip) {
+                if (symbol < 0 || symbol >= symbols.length) {
+                    throw new IllegalArgumentException("Símbolo inválido en una tira: " + symbol);
+                }
+            }
+        }
+        for (int[] line : paylines) {
+            if (line.length != reels.length) {
+                throw new IllegalArgumentException("Cada línea debe indicar una fila por rodillo");
+            }
+            for (int row : line) {
+                if (row < 0 || row >= rows) {
+                    throw new IllegalArgumentException("Fila inválida en una línea: " + row);
+                }
+            }
+        }
+        if (pays.length != symbols.length) {
+            throw new IllegalArgumentException("La tabla de pagos debe tener una fila por símbolo");
+        }
+        for (int[] symbolPays : pays) {
+            if (symbolPays.length != reels.length + 1) {
+                throw new IllegalArgumentException("Cada símbolo debe tener un premio por longitud de racha (0.."
+                        + reels.length + ")");
+            }
+            // Una racha más larga nunca paga menos: así el mejor premio es el de la racha completa
+            for (int run = 1; run < symbolPays.length; run++) {
+                if (symbolPays[run] < symbolPays[run - 1] || symbolPays[run] < 0) {
+                    throw new IllegalArgumentException("Los premios deben crecer con la longitud de la racha: "
+                            + Arrays.toString(symbolPays));
+                }
+            }
+        }
+    }
+
+    private static int[][] deepCopy(int[][] source) {
+        int[][] copy = new int[source.length][];
+        for (int i = 0; i < source.length; i++) {
+            copy[i] = source[i].clone();
+        }
+        return copy;
+    }
+}
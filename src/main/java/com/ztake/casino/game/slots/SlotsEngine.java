@@ -0,0 +1,200 @@
+package com.ztake.casino.game.slots;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de una tragamonedas de líneas.
+ *
+ * <p>Toda la geometría se resuelve al construir el motor: para cada rodillo y cada posición de
+ * parada se guarda, en un array plano, la máscara de símbolos de cada fila visible (la ventana da
+ * la vuelta a la tira), y las líneas de pago se guardan como desplazamientos de fila. Evaluar una
+ * tirada es un bucle sobre arrays primitivos: por cada línea se hace el AND de las máscaras de
+ * las casillas mientras quede algún símbolo en común y se consulta el premio de la racha en
+ * {@code runPays}. No se reserva memoria durante la tirada.</p>
+ *
+ * <p>No es seguro para hilos: cada hilo (o cada controlador) usa su propio motor.</p>
+ */
+public class SlotsEngine {
+    private final SlotsConfig config;
+    private final int reels;
+    private final int rows;
+    private final int lines;
+    private final int symbolBits;
+    private final int[] reelLengths;
+    private final int[] runPays;
+    // Máscara de la casilla (rodillo, parada, fila) en cellMasks[reelOffsets[r] + parada * filas + fila]
+    private final int[] reelOffsets;
+    private final int[] cellMasks;
+    // Fila de cada rodillo en cada línea, en lineRows[línea * rodillos + rodillo]
+    private final int[] lineRows;
+
+    // Estado de la última tirada
+    private final int[] stops;
+    private final int[] base;
+    private final int[] lineWins;
+    private final int[] lineRuns;
+    private int totalWin;
+
+    public SlotsEngine() {
+        this(SlotsConfig.getDefault());
+    }
+
+    public SlotsEngine(SlotsConfig config) {
+        this.config = config;
+        this.reels = config.getReelCount();
+        this.rows = config.getRows();
+        this.lines = config.getLineCount();
+        this.symbolBits = config.getSymbolCount();
+        this.runPays = config.runPays();
+
+        int[] symbolMasks = config.symbolMasks();
+        this.reelLengths = new int[reels];
+        this.reelOffsets = new int[reels];
+        int cells = 0;
+        for (int r = 0; r < reels; r++) {
+            reelLengths[r] = config.getReelLength(r);
+            reelOffsets[r] = cells;
+            cells += reelLengths[r] * rows;
+        }
+        this.cellMasks = new int[cells];
+        for (int r = 0; r < reels; r++) {
+            int length = reelLengths[r];
+            for (int stop = 0; stop < length; stop++) {
+                for (int row = 0; row < rows; row++) {
+                    cellMasks[reelOffsets[r] + stop * rows + row] = symbolMasks[config.getSymbol(r, (stop + row) % length)];
+                }
+            }
+        }
+        this.lineRows = new int[lines * reels];
+        for (int line = 0; line < lines; line++) {
+            for (int r = 0; r < reels; r++) {
+                lineRows[line * reels + r] = config.getPaylineRow(line, r);
+            }
+        }
+
+        this.stops = new int[reels];
+        this.base = new int[reels];
+        this.lineWins = new int[lines];
+        this.lineRuns = new int[lines];
+    }
+
+    /**
+     * Gira los rodillos y evalúa todas las líneas.
+     *
+     * @return premio total en apuestas de línea
+     */
+    public int spin(RandomGenerator random) {
+        drawStops(reelLengths, random, stops);
+        return evaluate();
+    }
+
+    /**
+     * Evalúa unas paradas concretas (por ejemplo, las registradas en una ronda).
+     *
+     * @return premio total en apuestas de línea
+     */
+    public int evaluate(int[] reelStops) {
+        if (reelStops.length != reels) {
+            throw new IllegalArgumentException("Se esperaban " + reels + " paradas");
+        }
+        for (int r = 0; r < reels; r++) {
+            if (reelStops[r] < 0 || reelStops[r] >= reelLengths[r]) {
+                throw new IllegalArgumentException("Parada fuera de la tira en el rodillo " + r + ": " + reelStops[r]);
+            }
+            stops[r] = reelStops[r];
+        }
+        return evaluate();
+    }
+
+    /**
+     * Sortea una parada uniforme por rodillo, en orden. Es la única fuente de azar de la tirada,
+     * de modo que repetirla con el mismo generador da el mismo resultado.
+     */
+    public static void drawStops(int[] reelLengths, RandomGenerator random, int[] into) {
+        for (int r = 0; r < reelLengths.length; r++) {
+            into[r] = random.nextInt(reelLengths[r]);
+        }
+    }
+
+    private int evaluate() {
+        for (int r = 0; r < reels; r++) {
+            base[r] = reelOffsets[r] + stops[r] * rows;
+        }
+        int total = 0;
+        for (int line = 0, offset = 0; line < lines; line++, offset += reels) {
+            int mask = cellMasks[base[0] + lineRows[offset]];
+            int win = runPays[1 << symbolBits | mask];
+            int run = 1;
+            for (int r = 1; r < reels; r++) {
+                mask &= cellMasks[base[r] + lineRows[offset + r]];
+                if (mask == 0) {
+                    break;
+                }
+                int pay = runPays[(r + 1) << symbolBits | mask];
+                if (pay > win) {
+                    win = pay;
+                    run = r + 1;
+                }
+            }
+            lineWins[line] = win;
+            lineRuns[line] = win > 0 ? run : 0;
+            total += win;
+        }
+        totalWin = total;
+        return total;
+    }
+
+    public SlotsConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return símbolo visible en una casilla de la última tirada
+     */
+    public int getSymbol(int reel, int row) {
+        return config.getSymbol(reel, (stops[reel] + row) % reelLengths[reel]);
+    }
+
+    public int getStop(int reel) {
+        return stops[reel];
+    }
+
+    /**
+     * @return copia de las paradas de la última tirada
+     */
+    public int[] getStops() {
+        return stops.clone();
+    }
+
+    /**
+     * @return copia de la longitud de cada tira
+     */
+    public int[] getReelLengths() {
+        return reelLengths.clone();
+    }
+
+    /**
+     * @return premio de una línea en la última tirada, en apuestas de línea
+     */
+    public int getLineWin(int line) {
+        return lineWins[line];
+    }
+
+    /**
+     * @return rodillos que cubre el premio de una línea (0 si no paga)
+     */
+    public int getLineRun(int line) {
+        return lineRuns[line];
+    }
+
+    /**
+     * @return premio total de la última tirada, en apuestas de línea
+     */
+    public int getTotalWin() {
+        return totalWin;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+}
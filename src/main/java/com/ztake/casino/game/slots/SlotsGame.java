@@ -0,0 +1,84 @@
+package com.ztake.casino.game.slots;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.SimulatableGame;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Slots: tragamonedas de líneas con la configuración por defecto.
+ */
+public class SlotsGame implements Game {
+
+    @Override
+    public String getGameType() {
+        return "Slots";
+    }
+
+    @Override
+    public String getSummary() {
+        return "Máquinas tragamonedas virtuales";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Nuestra tragamonedas de 5 rodillos y 10 líneas de pago reparte tu apuesta entre todas las líneas. "
+                + "Alinea símbolos iguales desde la izquierda y aprovecha el comodín, que sustituye a cualquier símbolo.";
+    }
+
+    @Override
+    public int getMenuOrder() {
+        return 20;
+    }
+
+    @Override
+    public String getIconResource() {
+        return "/images/slots-icon.png";
+    }
+
+    @Override
+    public String getViewResource() {
+        return "/fxml/slots-game-view.fxml";
+    }
+
+    @Override
+    public void loadTables() {
+        SlotsConfig.getDefault();
+    }
+
+    @Override
+    public List<SimulatableGame> getSimulations() {
+        return List.of(new SlotsSimulation("por defecto", SlotsConfig.getDefault()));
+    }
+
+    /**
+     * Repite el sorteo de las paradas de los rodillos y lo compara con el registrado en game_data.
+     */
+    @Override
+    public boolean replays(String serverSeed, String clientSeed, long nonce, String gameData) {
+        try {
+            String stops = GameDataCodec.rawValue(gameData, "stops");
+            String reelLengths = GameDataCodec.rawValue(gameData, "reelLengths");
+            if (stops == null || reelLengths == null) {
+                JSONObject data = new JSONObject(gameData);
+                stops = data.getString("stops");
+                reelLengths = data.getString("reelLengths");
+            }
+            int[] recorded = GameDataCodec.parseInts(stops);
+            int[] lengths = GameDataCodec.parseInts(reelLengths);
+            if (recorded.length != lengths.length) {
+                return false;
+            }
+            int[] expected = new int[lengths.length];
+            SlotsEngine.drawStops(lengths, ProvablyFair.random(serverSeed, clientSeed, nonce), expected);
+            return Arrays.equals(expected, recorded);
+        } catch (RuntimeException e) {
+            // Datos de la ronda incompletos o inválidos: no se puede reproducir
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ztake.casino.game.slots;
+
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Configuración de tragamonedas para el simulador: cada ronda apuesta una unidad repartida entre
+ * todas las líneas y se juega con {@link SlotsEngine}.
+ */
+public class SlotsSimulation implements SimulatableGame {
+    private final String name;
+    private final SlotsConfig config;
+
+    public SlotsSimulation(String name, SlotsConfig config) {
+        this.name = name;
+        this.config = config;
+    }
+
+    @Override
+    public String getName() {
+        return "Slots " + name + " " + config.getReelCount() + "x" + config.getRows()
+                + " líneas=" + config.getLineCount();
+    }
+
+    @Override
+    public double getExpectedRtp() {
+        return config.getRtp();
+    }
+
+    @Override
+    public Player newPlayer(SplittableRandom random) {
+        SlotsEngine engine = new SlotsEngine(config);
+        double lineBet = 1.0 / config.getLineCount();
+        return () -> engine.spin(random) * lineBet;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ztake.casino.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Semilla del servidor generada y todavía sin revelar, guardada por su hash para que un
+ * cierre inesperado no la pierda: al arrancar se revelan en sus sesiones las que quedaron
+ * pendientes. La fila se borra al revelar la semilla.
+ */
+@Entity
+@Table(name = "server_seeds")
+public class CommittedSeed {
+
+    @Id
+    @Column(name = "server_seed_hash", length = 64)
+    private String serverSeedHash;
+
+    @Column(name = "server_seed", nullable = false, length = 64)
+    private String serverSeed;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructor por defecto requerido por JPA
+    public CommittedSeed() {
+    }
+
+    public CommittedSeed(String serverSeedHash, String serverSeed, LocalDateTime createdAt) {
+        this.serverSeedHash = serverSeedHash;
+        this.serverSeed = serverSeed;
+        this.createdAt = createdAt;
+    }
+
+    // Getters y Setters
+    public String getServerSeedHash() {
+        return serverSeedHash;
+    }
+
+    public void setServerSeedHash(String serverSeedHash) {
+        this.serverSeedHash = serverSeedHash;
+    }
+
+    public String getServerSeed() {
+        return serverSeed;
+    }
+
+    public void setServerSeed(String serverSeed) {
+        this.serverSeed = serverSeed;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -5,9 +5,19 @@ import java.time.LocalDateTime;
 
 /**
  * Clase que representa una sesión de juego.
+ * Grafos de carga: "settlement" incluye el usuario (liquidación y saldo) y "historyRow"
+ * solo las columnas propias (filas de historial y estadísticas).
+ * Las columnas de semillas permiten verificar la ronda (juego demostrablemente justo): el hash
+ * de la semilla del servidor, la semilla del cliente y el nonce se guardan al empezar, y la
+ * semilla del servidor cuando se revela al rotarla.
  */
 @Entity
-@Table(name = "game_sessions")
+@NamedEntityGraph(name = "GameSession.settlement", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "GameSession.historyRow")
+@Table(name = "game_sessions", indexes = {
+        @Index(name = "idx_game_sessions_result_date", columnList = "result, session_date"),
+        @Index(name = "idx_game_sessions_server_seed_hash", columnList = "server_seed_hash")
+})
 public class GameSession {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +45,18 @@ public class GameSession {
     @Column(name = "game_data", columnDefinition = "TEXT")
     private String gameData;
 
+    @Column(name = "server_seed_hash", length = 64)
+    private String serverSeedHash;
+
+    @Column(name = "server_seed", length = 64)
+    private String serverSeed;
+
+    @Column(name = "client_seed", length = 64)
+    private String clientSeed;
+
+    @Column(name = "nonce")
+    private Long nonce;
+
     // Constructor por defecto requerido por JPA
     public GameSession() {
         this.sessionDate = LocalDateTime.now();
@@ -114,6 +136,38 @@ public class GameSession {
         this.gameData = gameData;
     }
 
+    public String getServerSeedHash() {
+        return serverSeedHash;
+    }
+
+    public void setServerSeedHash(String serverSeedHash) {
+        this.serverSeedHash = serverSeedHash;
+    }
+
+    public String getServerSeed() {
+        return serverSeed;
+    }
+
+    public void setServerSeed(String serverSeed) {
+        this.serverSeed = serverSeed;
+    }
+
+    public String getClientSeed() {
+        return clientSeed;
+    }
+
+    public void setClientSeed(String clientSeed) {
+        this.clientSeed = clientSeed;
+    }
+
+    public Long getNonce() {
+        return nonce;
+    }
+
+    public void setNonce(Long nonce) {
+        this.nonce = nonce;
+    }
+
     @Override
     public String toString() {
         return "GameSession{" +
@@ -0,0 +1,157 @@
+package com.ztake.casino.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Acumulado de apuestas, ganancias y rondas de un usuario por tipo de juego
+ * en un intervalo de tiempo. Se mantiene de forma incremental al liquidar cada sesión, de modo
+ * que las gráficas de pérdidas y ganancias no necesitan recorrer game_sessions.
+ */
+@Entity
+@Table(name = "pnl_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pnl_rollups_bucket",
+                columnNames = {"user_id", "granularity", "bucket_start", "game_type"}),
+        // Serie de la casa: suma de todos los usuarios por intervalo
+        indexes = @Index(name = "idx_pnl_rollups_bucket", columnList = "granularity, bucket_start"))
+public class PnlRollup {
+
+    /** ID de usuario reservado para la serie de toda la casa (suma de todos los usuarios al leer). */
+    public static final long HOUSE_USER_ID = 0L;
+
+    /**
+     * Granularidad del intervalo de tiempo.
+     */
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * @return el inicio del intervalo que contiene la fecha indicada
+         */
+        public LocalDateTime bucketStart(LocalDateTime dateTime) {
+            return dateTime.truncatedTo(unit);
+        }
+
+        public ChronoUnit getUnit() {
+            return unit;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sin clave foránea: las filas del usuario 0 (la casa) de versiones anteriores se ignoran al leer
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "game_type", nullable = false, length = 50)
+    private String gameType;
+
+    @Column(name = "bet_sum", nullable = false, columnDefinition = "DECIMAL(16,2)")
+    private double betSum;
+
+    @Column(name = "win_sum", nullable = false, columnDefinition = "DECIMAL(16,2)")
+    private double winSum;
+
+    @Column(nullable = false)
+    private long rounds;
+
+    // Constructor por defecto requerido por JPA
+    public PnlRollup() {
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getGameType() {
+        return gameType;
+    }
+
+    public void setGameType(String gameType) {
+        this.gameType = gameType;
+    }
+
+    public double getBetSum() {
+        return betSum;
+    }
+
+    public void setBetSum(double betSum) {
+        this.betSum = betSum;
+    }
+
+    public double getWinSum() {
+        return winSum;
+    }
+
+    public void setWinSum(double winSum) {
+        this.winSum = winSum;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(long rounds) {
+        this.rounds = rounds;
+    }
+
+    @Override
+    public String toString() {
+        return "PnlRollup{" +
+                "userId=" + userId +
+                ", granularity=" + granularity +
+                ", bucketStart=" + bucketStart +
+                ", gameType='" + gameType + '\'' +
+                ", betSum=" + betSum +
+                ", winSum=" + winSum +
+                ", rounds=" + rounds +
+                '}';
+    }
+}
@@ -5,8 +5,11 @@ import java.time.LocalDateTime;
 
 /**
  * Clase que representa un ticket de soporte.
+ * Grafos de carga: "ticketDetail" incluye el usuario y "historyRow" solo las columnas propias.
  */
 @Entity
+@NamedEntityGraph(name = "SupportTicket.ticketDetail", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "SupportTicket.historyRow")
 @Table(name = "support_tickets")
 public class SupportTicket {
     @Id
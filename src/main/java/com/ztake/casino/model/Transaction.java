@@ -5,9 +5,14 @@ import java.time.LocalDateTime;
 
 /**
  * Clase que representa una transacción financiera.
+ * Grafos de carga: "settlement" incluye el usuario y "historyRow" solo las columnas propias.
  */
 @Entity
-@Table(name = "transactions")
+@NamedEntityGraph(name = "Transaction.settlement", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "Transaction.historyRow")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_status", columnList = "status")
+})
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -133,6 +138,7 @@ public class Transaction {
                     }
                     break;
                 case "win":
+                case "refund":
                     user.setBalance(currentBalance + amount);
                     break;
                 default:
@@ -24,7 +24,9 @@ public class User {
     @Column(nullable = false)
     private String password;
 
-    @Column(nullable = false, columnDefinition = "DECIMAL(10,2)")
+    // Solo se escribe al crear el usuario: los cambios de saldo son actualizaciones relativas de
+    // WalletRepository, que guardar el usuario (inicio de sesión, contraseña) no debe pisar
+    @Column(nullable = false, updatable = false, columnDefinition = "DECIMAL(10,2)")
     private double balance;
 
     @Column(name = "registration_date", nullable = false)
@@ -0,0 +1,69 @@
+package com.ztake.casino.repository;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen agregado de sesiones archivadas (totales globales y por tipo de juego).
+ * Los importes se acumulan en céntimos para evitar errores de redondeo.
+ */
+public class ArchiveSummary {
+    private long rounds;
+    private long gamesWon;
+    private long totalBetCents;
+    private long totalWonCents;
+    private final Map<String, long[]> byGameType = new TreeMap<>();
+
+    void add(String gameType, long betCents, long winCents, boolean won) {
+        rounds++;
+        totalBetCents += betCents;
+        totalWonCents += winCents;
+        if (won) {
+            gamesWon++;
+        }
+
+        // [partidas, apostado, ganado]
+        long[] totals = byGameType.computeIfAbsent(gameType, k -> new long[3]);
+        totals[0]++;
+        totals[1] += betCents;
+        totals[2] += winCents;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getGamesWon() {
+        return gamesWon;
+    }
+
+    public double getTotalBet() {
+        return totalBetCents / 100.0;
+    }
+
+    public double getTotalWon() {
+        return totalWonCents / 100.0;
+    }
+
+    public double getNetBalance() {
+        return (totalWonCents - totalBetCents) / 100.0;
+    }
+
+    /**
+     * Totales por tipo de juego como arreglo [partidas, apostado en céntimos, ganado en céntimos].
+     */
+    public Map<String, long[]> getByGameType() {
+        return Collections.unmodifiableMap(byGameType);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveSummary{" +
+                "rounds=" + rounds +
+                ", gamesWon=" + gamesWon +
+                ", totalBet=" + getTotalBet() +
+                ", totalWon=" + getTotalWon() +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.ztake.casino.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interfaz para las semillas de las rondas demostrablemente justas.
+ */
+public interface FairnessRepository {
+
+    /**
+     * Guarda semillas del servidor recién generadas, antes de que se publique su hash, para
+     * poder revelarlas aunque la aplicación se cierre sin detenerse.
+     *
+     * @param seedsByHash semillas indexadas por su hash
+     */
+    void saveServerSeeds(Map<String, String> seedsByHash);
+
+    /**
+     * Revela una semilla del servidor en todas las rondas que se jugaron con ella y la borra de
+     * las semillas pendientes, en una sola transacción.
+     *
+     * @param serverSeedHash hash publicado de la semilla
+     * @param serverSeed     semilla del servidor
+     * @return número de rondas actualizadas
+     */
+    int revealServerSeed(String serverSeedHash, String serverSeed);
+
+    /**
+     * Revela las semillas pendientes que quedaron de una ejecución anterior (las que no llegaron
+     * a revelarse porque la aplicación no se detuvo de forma ordenada) y las borra. Las que no
+     * se usaron en ninguna ronda solo se borran.
+     *
+     * @return número de semillas reveladas en alguna ronda
+     */
+    int revealOrphanedServerSeeds();
+
+    /**
+     * @param gameType tipo de juego
+     * @return el mayor nonce guardado en las sesiones del tipo de juego, o 0 si no hay ninguna
+     */
+    long findLastNonce(String gameType);
+
+    /**
+     * Obtiene una página de rondas con semillas, en orden de ID, para el verificador.
+     *
+     * @param afterId devolver solo rondas con ID mayor que este
+     * @param limit   número máximo de rondas
+     * @return rondas liquidadas (ganadas o perdidas), con o sin semilla revelada
+     */
+    List<VerifiableRound> findVerifiableRounds(long afterId, int limit);
+}
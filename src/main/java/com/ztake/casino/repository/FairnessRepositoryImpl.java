@@ -0,0 +1,158 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.CommittedSeed;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementación sobre una {@link StatelessSession}: la revelación es un UPDATE masivo por
+ * hash (con índice) y el verificador lee proyecciones paginadas por ID, sin entidades. Las
+ * semillas pendientes de revelar se guardan en server_seeds, indexadas por hash.
+ */
+public class FairnessRepositoryImpl implements FairnessRepository {
+    private static final Logger LOGGER = Logger.getLogger(FairnessRepositoryImpl.class.getName());
+    private static final int ORPHAN_CHUNK_SIZE = 500;
+
+    @Override
+    public void saveServerSeeds(Map<String, String> seedsByHash) {
+        Transaction transaction = null;
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            transaction = session.beginTransaction();
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, String> seed : seedsByHash.entrySet()) {
+                session.insert(new CommittedSeed(seed.getKey(), seed.getValue(), now));
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al guardar " + seedsByHash.size() + " semillas del servidor", e);
+            throw new RuntimeException("No se pudieron guardar las semillas del servidor", e);
+        }
+    }
+
+    @Override
+    public int revealServerSeed(String serverSeedHash, String serverSeed) {
+        Transaction transaction = null;
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            transaction = session.beginTransaction();
+            int updated = session.createMutationQuery(
+                            "UPDATE GameSession g SET g.serverSeed = :serverSeed " +
+                                    "WHERE g.serverSeedHash = :serverSeedHash AND g.serverSeed IS NULL")
+                    .setParameter("serverSeed", serverSeed)
+                    .setParameter("serverSeedHash", serverSeedHash)
+                    .executeUpdate();
+            session.createMutationQuery("DELETE FROM CommittedSeed s WHERE s.serverSeedHash = :serverSeedHash")
+                    .setParameter("serverSeedHash", serverSeedHash)
+                    .executeUpdate();
+            transaction.commit();
+            return updated;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al revelar la semilla del servidor " + serverSeedHash, e);
+            throw new RuntimeException("No se pudo revelar la semilla del servidor", e);
+        }
+    }
+
+    @Override
+    public int revealOrphanedServerSeeds() {
+        Transaction transaction = null;
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            transaction = session.beginTransaction();
+            List<CommittedSeed> seeds = session.createSelectionQuery("FROM CommittedSeed s", CommittedSeed.class)
+                    .getResultList();
+
+            int revealed = 0;
+            for (int start = 0; start < seeds.size(); start += ORPHAN_CHUNK_SIZE) {
+                List<CommittedSeed> chunk = seeds.subList(start, Math.min(start + ORPHAN_CHUNK_SIZE, seeds.size()));
+                List<String> hashes = chunk.stream().map(CommittedSeed::getServerSeedHash).toList();
+
+                // La mayoría son semillas de la reserva que nunca se usaron: solo se revelan las de alguna ronda
+                Set<String> used = new HashSet<>(session.createSelectionQuery(
+                                "SELECT DISTINCT g.serverSeedHash FROM GameSession g " +
+                                        "WHERE g.serverSeedHash IN :hashes AND g.serverSeed IS NULL", String.class)
+                        .setParameter("hashes", hashes)
+                        .getResultList());
+                for (CommittedSeed seed : chunk) {
+                    if (used.contains(seed.getServerSeedHash())) {
+                        session.createMutationQuery(
+                                        "UPDATE GameSession g SET g.serverSeed = :serverSeed " +
+                                                "WHERE g.serverSeedHash = :serverSeedHash AND g.serverSeed IS NULL")
+                                .setParameter("serverSeed", seed.getServerSeed())
+                                .setParameter("serverSeedHash", seed.getServerSeedHash())
+                                .executeUpdate();
+                        revealed++;
+                    }
+                }
+
+                session.createMutationQuery("DELETE FROM CommittedSeed s WHERE s.serverSeedHash IN :hashes")
+                        .setParameter("hashes", hashes)
+                        .executeUpdate();
+            }
+            transaction.commit();
+
+            if (!seeds.isEmpty()) {
+                LOGGER.info("Semillas del servidor pendientes de una ejecución anterior: " + seeds.size()
+                        + " - Reveladas en sus rondas: " + revealed);
+            }
+            return revealed;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al revelar las semillas del servidor pendientes", e);
+            throw new RuntimeException("No se pudieron revelar las semillas del servidor pendientes", e);
+        }
+    }
+
+    @Override
+    public long findLastNonce(String gameType) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            Long nonce = session.createSelectionQuery(
+                            "SELECT MAX(g.nonce) FROM GameSession g WHERE g.gameType = :gameType", Long.class)
+                    .setParameter("gameType", gameType)
+                    .getSingleResult();
+            return nonce != null ? nonce : 0;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener el último nonce de " + gameType, e);
+            throw new RuntimeException("No se pudo obtener el último nonce de " + gameType, e);
+        }
+    }
+
+    @Override
+    public List<VerifiableRound> findVerifiableRounds(long afterId, int limit) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            List<Object[]> rows = session.createSelectionQuery(
+                            "SELECT g.id, g.gameType, g.serverSeedHash, g.serverSeed, g.clientSeed, g.nonce, g.gameData " +
+                                    "FROM GameSession g WHERE g.id > :afterId AND g.serverSeedHash IS NOT NULL " +
+                                    "AND g.result IN ('won', 'lost') ORDER BY g.id",
+                            Object[].class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+
+            List<VerifiableRound> rounds = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                rounds.add(new VerifiableRound(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4], ((Number) row[5]).longValue(), (String) row[6]));
+            }
+            return rounds;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener rondas para verificar", e);
+            return List.of();
+        }
+    }
+}
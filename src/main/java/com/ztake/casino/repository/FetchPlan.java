@@ -0,0 +1,56 @@
+package com.ztake.casino.repository;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+
+import java.util.Map;
+
+/**
+ * Plan de carga por caso de uso. Cada plan corresponde a un grafo de entidad con nombre
+ * declarado en el modelo ({@code <Entidad>.<plan>}) y se aplica como fetch graph: se cargan
+ * en la misma consulta exactamente las asociaciones del grafo y ninguna otra.
+ */
+public enum FetchPlan {
+    /** Liquidación de una sesión: la entidad junto con su usuario. */
+    SETTLEMENT("settlement"),
+    /** Filas de historial y estadísticas: solo las columnas propias, sin asociaciones. */
+    HISTORY_ROW("historyRow"),
+    /** Detalle de un ticket de soporte: el ticket junto con su usuario. */
+    TICKET_DETAIL("ticketDetail");
+
+    /** Pista JPA que aplica un grafo como fetch graph. */
+    public static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private final String graphSuffix;
+
+    FetchPlan(String graphSuffix) {
+        this.graphSuffix = graphSuffix;
+    }
+
+    /**
+     * @param entityType clase de la entidad
+     * @return nombre del grafo de esta entidad para el plan
+     */
+    public String graphName(Class<?> entityType) {
+        return entityType.getSimpleName() + "." + graphSuffix;
+    }
+
+    /**
+     * Obtiene el grafo del plan para una entidad.
+     *
+     * @param em EntityManager abierto
+     * @param entityType clase de la entidad
+     * @return el grafo de entidad con nombre
+     * @throws IllegalArgumentException si la entidad no declara un grafo para este plan
+     */
+    public EntityGraph<?> graph(EntityManager em, Class<?> entityType) {
+        return em.getEntityGraph(graphName(entityType));
+    }
+
+    /**
+     * @return las pistas de consulta que aplican el plan a {@code em.find}
+     */
+    public Map<String, Object> hints(EntityManager em, Class<?> entityType) {
+        return Map.of(FETCH_GRAPH_HINT, graph(em, entityType));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Retenciones de saldo de las rondas en curso abiertas sin descontar la apuesta.
+ *
+ * <p>Una retención aparta la apuesta del saldo disponible (saldo − retenciones) sin escribir
+ * en la fila del usuario; al liquidar la ronda se convierte en un único cambio neto de saldo
+ * (premio − apuesta). Se guardan en memoria, indexadas por sesión y con el total por usuario,
+ * y en la base de datos como la transacción de apuesta de la sesión con estado
+ * {@code held}: al arrancar se reconstruyen a partir de esas filas, de modo que las rondas que
+ * quedaron abiertas se liquidan igual que antes del reinicio.</p>
+ */
+final class FundsHolds {
+    private static final Logger LOGGER = Logger.getLogger(FundsHolds.class.getName());
+
+    static final String TRANSACTION_STATUS_HELD = "held";
+
+    private static volatile FundsHolds defaultHolds;
+
+    private final Map<Long, Hold> bySession = new ConcurrentHashMap<>();
+    private final Map<Long, BigDecimal> heldByUser = new ConcurrentHashMap<>();
+
+    /**
+     * @return las retenciones de la base de datos configurada, cargadas la primera vez
+     */
+    static FundsHolds getDefault() {
+        FundsHolds holds = defaultHolds;
+        if (holds == null) {
+            synchronized (FundsHolds.class) {
+                holds = defaultHolds;
+                if (holds == null) {
+                    holds = load();
+                    defaultHolds = holds;
+                }
+            }
+        }
+        return holds;
+    }
+
+    /**
+     * Descarta las retenciones cargadas: la próxima llamada a {@link #getDefault()} las vuelve a
+     * reconstruir desde la base de datos, como al arrancar (por ejemplo, tras cambiar de base de
+     * datos en las pruebas).
+     */
+    static void reset() {
+        synchronized (FundsHolds.class) {
+            defaultHolds = null;
+        }
+    }
+
+    private static FundsHolds load() {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            List<Object[]> rows = em.createQuery(
+                            "SELECT t.id, t.user.id, t.amount, t.referenceId FROM Transaction t WHERE t.status = :held",
+                            Object[].class)
+                    .setParameter("held", TRANSACTION_STATUS_HELD)
+                    .getResultList();
+
+            FundsHolds holds = new FundsHolds();
+            for (Object[] row : rows) {
+                // reference_id de la apuesta de una sesión: "session:ID"
+                long sessionId = Long.parseLong(((String) row[3]).substring("session:".length()));
+                Hold hold = holds.reserve(((Number) row[1]).longValue(), toAmount(((Number) row[2]).doubleValue()));
+                holds.attach(hold, sessionId, ((Number) row[0]).longValue());
+            }
+            if (!rows.isEmpty()) {
+                LOGGER.info("Retenciones de rondas en curso recuperadas: " + rows.size());
+            }
+            return holds;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al cargar las retenciones de saldo", e);
+            throw new RuntimeException("No se pudieron cargar las retenciones de saldo", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Aparta una cantidad del saldo disponible del usuario. Se hace antes de leer el saldo: un
+     * cargo que se compruebe después ya la tiene en cuenta.
+     *
+     * @return la retención, que debe asociarse a su sesión o cancelarse
+     */
+    Hold reserve(long userId, BigDecimal amount) {
+        heldByUser.merge(userId, amount, BigDecimal::add);
+        return new Hold(userId, amount);
+    }
+
+    /**
+     * Asocia una retención a su sesión y a la transacción de apuesta que la registra.
+     */
+    void attach(Hold hold, long sessionId, long transactionId) {
+        hold.sessionId = sessionId;
+        hold.transactionId = transactionId;
+        bySession.put(sessionId, hold);
+    }
+
+    /**
+     * Deshace una retención cuya sesión no llegó a guardarse.
+     */
+    void cancel(Hold hold) {
+        remove(hold);
+    }
+
+    /**
+     * @return la retención de una sesión en curso, o null si la sesión descontó su apuesta
+     */
+    Hold find(long sessionId) {
+        return bySession.get(sessionId);
+    }
+
+    /**
+     * Libera la retención de una sesión ya liquidada (después de confirmar la liquidación).
+     */
+    void release(long sessionId) {
+        Hold hold = bySession.get(sessionId);
+        if (hold != null) {
+            remove(hold);
+        }
+    }
+
+    /**
+     * Libera todas las retenciones de un usuario cuya cuenta se ha eliminado (sus sesiones ya no
+     * existen y no se van a liquidar).
+     *
+     * @return número de retenciones liberadas
+     */
+    int releaseUser(long userId) {
+        int released = 0;
+        for (Hold hold : bySession.values()) {
+            if (hold.userId == userId) {
+                remove(hold);
+                released++;
+            }
+        }
+        // Reservas todavía sin sesión: su alta fallará sin el usuario y las cancelará
+        heldByUser.remove(userId);
+        return released;
+    }
+
+    /**
+     * @return el total retenido por las rondas en curso del usuario
+     */
+    BigDecimal getHeld(long userId) {
+        return heldByUser.getOrDefault(userId, BigDecimal.ZERO);
+    }
+
+    private void remove(Hold hold) {
+        synchronized (hold) {
+            if (hold.removed) {
+                return;
+            }
+            hold.removed = true;
+        }
+        if (hold.sessionId != 0) {
+            bySession.remove(hold.sessionId, hold);
+        }
+        heldByUser.computeIfPresent(hold.userId, (userId, held) -> {
+            BigDecimal remaining = held.subtract(hold.amount);
+            return remaining.signum() > 0 ? remaining : null;
+        });
+    }
+
+    private static BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Retención de la apuesta de una sesión.
+     */
+    static final class Hold {
+        final long userId;
+        final BigDecimal amount;
+        volatile long sessionId;
+        volatile long transactionId;
+        // Saldo disponible que quedó al colocarla (para reflejarlo en memoria tras confirmar)
+        BigDecimal available;
+        private boolean removed;
+
+        private Hold(long userId, BigDecimal amount) {
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+}
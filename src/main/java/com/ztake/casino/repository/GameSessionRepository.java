@@ -27,6 +27,15 @@ public interface GameSessionRepository {
      */
     Optional<GameSession> findById(Long id);
 
+    /**
+     * Busca una sesión de juego por su ID cargando las asociaciones del plan indicado.
+     *
+     * @param id ID de la sesión de juego
+     * @param plan plan de carga del caso de uso
+     * @return Optional con la sesión de juego si existe
+     */
+    Optional<GameSession> findById(Long id, FetchPlan plan);
+
     /**
      * Obtiene todas las sesiones de juego de un usuario.
      *
@@ -35,6 +44,15 @@ public interface GameSessionRepository {
      */
     List<GameSession> findByUser(User user);
 
+    /**
+     * Obtiene todas las sesiones de juego de un usuario cargando las asociaciones del plan indicado.
+     *
+     * @param user el usuario
+     * @param plan plan de carga del caso de uso
+     * @return lista de sesiones de juego
+     */
+    List<GameSession> findByUser(User user, FetchPlan plan);
+
     /**
      * Obtiene todas las sesiones de juego de un usuario en un rango de fechas.
      *
@@ -61,6 +61,19 @@ public class GameSessionRepositoryImpl implements GameSessionRepository {
         }
     }
 
+    @Override
+    public Optional<GameSession> findById(Long id, FetchPlan plan) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return Optional.ofNullable(em.find(GameSession.class, id, plan.hints(em, GameSession.class)));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesión de juego por ID", e);
+            return Optional.empty();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<GameSession> findByUser(User user) {
         EntityManager em = DatabaseConfig.getEntityManager();
@@ -78,6 +91,24 @@ public class GameSessionRepositoryImpl implements GameSessionRepository {
         }
     }
 
+    @Override
+    public List<GameSession> findByUser(User user, FetchPlan plan) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            TypedQuery<GameSession> query = em.createQuery(
+                    "SELECT g FROM GameSession g WHERE g.user = :user ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("user", user);
+            query.setHint(FetchPlan.FETCH_GRAPH_HINT, plan.graph(em, GameSession.class));
+            return query.getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario", e);
+            return List.of();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<GameSession> findByUserAndDateRange(User user, LocalDateTime fromDate, LocalDateTime toDate) {
         EntityManager em = DatabaseConfig.getEntityManager();
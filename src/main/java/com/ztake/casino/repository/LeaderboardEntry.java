@@ -0,0 +1,64 @@
+package com.ztake.casino.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada de una clasificación: un jugador, el tipo de juego y el valor por el que se ordena
+ * (premio, multiplicador o neto del día).
+ */
+public class LeaderboardEntry {
+    private final long sessionId;
+    private final long userId;
+    private final String username;
+    private final String gameType;
+    private final double value;
+    private final LocalDateTime date;
+
+    public LeaderboardEntry(long sessionId, long userId, String username, String gameType, double value,
+                            LocalDateTime date) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.username = username;
+        this.gameType = gameType;
+        this.value = value;
+        this.date = date;
+    }
+
+    /**
+     * @return ID de la sesión (en el neto del día, la última sesión que lo modificó)
+     */
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getGameType() {
+        return gameType;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaderboardEntry{" +
+                "sessionId=" + sessionId +
+                ", username='" + username + '\'' +
+                ", gameType='" + gameType + '\'' +
+                ", value=" + value +
+                ", date=" + date +
+                '}';
+    }
+}
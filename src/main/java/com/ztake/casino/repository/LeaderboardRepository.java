@@ -0,0 +1,42 @@
+package com.ztake.casino.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaz para las consultas con las que se reconstruyen las clasificaciones al arrancar.
+ * Solo cuentan las sesiones liquidadas como ganadas o perdidas (no las reembolsadas).
+ */
+public interface LeaderboardRepository {
+
+    /**
+     * @return los tipos de juego con sesiones liquidadas
+     */
+    List<String> findGameTypes();
+
+    /**
+     * Obtiene los mayores premios.
+     *
+     * @param gameType tipo de juego (null para todos)
+     * @param limit número máximo de entradas
+     * @return entradas con el premio como valor, de mayor a menor
+     */
+    List<LeaderboardEntry> findBiggestWins(String gameType, int limit);
+
+    /**
+     * Obtiene los mayores multiplicadores (premio / apuesta).
+     *
+     * @param gameType tipo de juego (null para todos)
+     * @param limit número máximo de entradas
+     * @return entradas con el multiplicador como valor, de mayor a menor
+     */
+    List<LeaderboardEntry> findHighestMultipliers(String gameType, int limit);
+
+    /**
+     * Obtiene el neto (ganado - apostado) de cada jugador y tipo de juego desde una fecha.
+     *
+     * @param fromDate fecha de inicio
+     * @return una entrada por jugador y tipo de juego, con la última sesión y su fecha
+     */
+    List<LeaderboardEntry> findNetByUserAndGameTypeSince(LocalDateTime fromDate);
+}
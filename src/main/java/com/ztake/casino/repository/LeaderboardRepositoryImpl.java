@@ -0,0 +1,88 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementación de las consultas de clasificación sobre una {@link StatelessSession}:
+ * son proyecciones de solo lectura y no necesitan contexto de persistencia.
+ */
+public class LeaderboardRepositoryImpl implements LeaderboardRepository {
+    private static final Logger LOGGER = Logger.getLogger(LeaderboardRepositoryImpl.class.getName());
+
+    private static final String SETTLED = "g.result IN ('won', 'lost')";
+    private static final String ENTRY_COLUMNS = "SELECT g.id, g.user.id, g.user.username, g.gameType, ";
+
+    @Override
+    public List<String> findGameTypes() {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            return session.createSelectionQuery(
+                    "SELECT DISTINCT g.gameType FROM GameSession g WHERE " + SETTLED, String.class)
+                    .getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener los tipos de juego", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> findBiggestWins(String gameType, int limit) {
+        return findTop("g.winningAmount", gameType, limit);
+    }
+
+    @Override
+    public List<LeaderboardEntry> findHighestMultipliers(String gameType, int limit) {
+        return findTop("g.winningAmount / g.betAmount", gameType, limit);
+    }
+
+    private List<LeaderboardEntry> findTop(String valueExpression, String gameType, int limit) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Object[]> query = session.createSelectionQuery(
+                    ENTRY_COLUMNS + valueExpression + ", g.sessionDate FROM GameSession g " +
+                            "WHERE g.result = 'won' AND g.winningAmount > 0 AND g.betAmount > 0" +
+                            (gameType != null ? " AND g.gameType = :gameType" : "") +
+                            " ORDER BY " + valueExpression + " DESC, g.id",
+                    Object[].class);
+            if (gameType != null) {
+                query.setParameter("gameType", gameType);
+            }
+            return toEntries(query.setMaxResults(limit).getResultList());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener la clasificación de sesiones", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> findNetByUserAndGameTypeSince(LocalDateTime fromDate) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            return toEntries(session.createSelectionQuery(
+                            "SELECT MAX(g.id), g.user.id, g.user.username, g.gameType, " +
+                                    "SUM(g.winningAmount - g.betAmount), MAX(g.sessionDate) FROM GameSession g " +
+                                    "WHERE " + SETTLED + " AND g.sessionDate >= :fromDate " +
+                                    "GROUP BY g.user.id, g.user.username, g.gameType",
+                            Object[].class)
+                    .setParameter("fromDate", fromDate)
+                    .getResultList());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener el neto diario por jugador", e);
+            return List.of();
+        }
+    }
+
+    private static List<LeaderboardEntry> toEntries(List<Object[]> rows) {
+        List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new LeaderboardEntry(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    (String) row[2], (String) row[3], ((Number) row[4]).doubleValue(), (LocalDateTime) row[5]));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ztake.casino.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Punto de una serie de pérdidas y ganancias: totales de un intervalo de tiempo.
+ */
+public class PnlPoint {
+    private final LocalDateTime bucketStart;
+    private final double betSum;
+    private final double winSum;
+    private final long rounds;
+
+    public PnlPoint(LocalDateTime bucketStart, double betSum, double winSum, long rounds) {
+        this.bucketStart = bucketStart;
+        this.betSum = betSum;
+        this.winSum = winSum;
+        this.rounds = rounds;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public double getBetSum() {
+        return betSum;
+    }
+
+    public double getWinSum() {
+        return winSum;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return resultado neto del intervalo para el jugador (ganado - apostado)
+     */
+    public double getNet() {
+        return winSum - betSum;
+    }
+}
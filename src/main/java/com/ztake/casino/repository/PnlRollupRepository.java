@@ -0,0 +1,26 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.PnlRollup.Granularity;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaz para la lectura de los acumulados de pérdidas y ganancias (pnl_rollups).
+ * La escritura se realiza al liquidar las sesiones, dentro de {@link WalletRepository}.
+ */
+public interface PnlRollupRepository {
+
+    /**
+     * Obtiene la serie temporal de un usuario (o de la casa, con ID 0) en un rango de fechas.
+     * La serie de la casa se calcula sumando las de todos los usuarios.
+     *
+     * @param userId ID del usuario, o {@link com.ztake.casino.model.PnlRollup#HOUSE_USER_ID}
+     * @param granularity granularidad de los intervalos
+     * @param gameType tipo de juego (null para sumar todos)
+     * @param fromDate fecha de inicio
+     * @param toDate fecha de fin
+     * @return un punto por intervalo con actividad, en orden cronológico
+     */
+    List<PnlPoint> findSeries(long userId, Granularity granularity, String gameType,
+                              LocalDateTime fromDate, LocalDateTime toDate);
+}
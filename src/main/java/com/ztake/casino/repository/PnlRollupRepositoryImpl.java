@@ -0,0 +1,58 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.PnlRollup;
+import com.ztake.casino.model.PnlRollup.Granularity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementación de la lectura de acumulados de pérdidas y ganancias utilizando JPA.
+ */
+public class PnlRollupRepositoryImpl implements PnlRollupRepository {
+    private static final Logger LOGGER = Logger.getLogger(PnlRollupRepositoryImpl.class.getName());
+
+    @Override
+    public List<PnlPoint> findSeries(long userId, Granularity granularity, String gameType,
+                                     LocalDateTime fromDate, LocalDateTime toDate) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            // Con todos los juegos se suman en la base de datos los intervalos de cada tipo; la casa
+            // no tiene filas propias (las de ID 0 de versiones anteriores se excluyen) y suma a todos
+            boolean house = userId == PnlRollup.HOUSE_USER_ID;
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT r.bucketStart, SUM(r.betSum), SUM(r.winSum), SUM(r.rounds) FROM PnlRollup r " +
+                            "WHERE r.userId " + (house ? "<>" : "=") + " :userId AND r.granularity = :granularity " +
+                            "AND r.bucketStart BETWEEN :fromDate AND :toDate" +
+                            (gameType != null ? " AND r.gameType = :gameType" : "") +
+                            " GROUP BY r.bucketStart ORDER BY r.bucketStart",
+                    Object[].class);
+            query.setParameter("userId", userId);
+            query.setParameter("granularity", granularity);
+            query.setParameter("fromDate", granularity.bucketStart(fromDate));
+            query.setParameter("toDate", toDate);
+            if (gameType != null) {
+                query.setParameter("gameType", gameType);
+            }
+
+            List<Object[]> rows = query.getResultList();
+            List<PnlPoint> series = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                series.add(new PnlPoint((LocalDateTime) row[0], ((Number) row[1]).doubleValue(),
+                        ((Number) row[2]).doubleValue(), ((Number) row[3]).longValue()));
+            }
+            return series;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al obtener la serie de pérdidas y ganancias", e);
+            return List.of();
+        } finally {
+            em.close();
+        }
+    }
+}
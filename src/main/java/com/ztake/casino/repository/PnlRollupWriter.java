@@ -0,0 +1,126 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.PnlRollup.Granularity;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acumula las rondas liquidadas en una transacción y las aplica a pnl_rollups con un
+ * upsert por intervalo ({@code ON DUPLICATE KEY UPDATE} en MySQL, {@code MERGE} estándar
+ * en el resto). Cada ronda suma en las filas de su usuario, en las tres granularidades. Los
+ * totales de la casa no se escriben: se suman al leer (una fila común a todas las
+ * liquidaciones serializaría las transacciones concurrentes). Las filas se escriben ordenadas por clave para que transacciones concurrentes bloqueen
+ * los intervalos en el mismo orden.
+ */
+class PnlRollupWriter {
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String MYSQL_UPSERT_SQL =
+            "INSERT INTO pnl_rollups (user_id, granularity, bucket_start, game_type, bet_sum, win_sum, rounds) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE bet_sum = bet_sum + VALUES(bet_sum), " +
+                    "win_sum = win_sum + VALUES(win_sum), rounds = rounds + VALUES(rounds)";
+    private static final String STANDARD_UPSERT_SQL =
+            "MERGE INTO pnl_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(10)), CAST(? AS TIMESTAMP), " +
+                    "CAST(? AS VARCHAR(50)), CAST(? AS DECIMAL(16,2)), CAST(? AS DECIMAL(16,2)), CAST(? AS BIGINT))) " +
+                    "AS s (user_id, granularity, bucket_start, game_type, bet_sum, win_sum, rounds) " +
+                    "ON r.user_id = s.user_id AND r.granularity = s.granularity " +
+                    "AND r.bucket_start = s.bucket_start AND r.game_type = s.game_type " +
+                    "WHEN MATCHED THEN UPDATE SET bet_sum = r.bet_sum + s.bet_sum, " +
+                    "win_sum = r.win_sum + s.win_sum, rounds = r.rounds + s.rounds " +
+                    "WHEN NOT MATCHED THEN INSERT (user_id, granularity, bucket_start, game_type, bet_sum, win_sum, rounds) " +
+                    "VALUES (s.user_id, s.granularity, s.bucket_start, s.game_type, s.bet_sum, s.win_sum, s.rounds)";
+
+    private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparingLong((Key k) -> k.userId)
+            .thenComparing(k -> k.granularity)
+            .thenComparing(k -> k.bucketStart)
+            .thenComparing(k -> k.gameType);
+
+    private final Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+    /**
+     * Registra una ronda liquidada.
+     */
+    void add(long userId, String gameType, LocalDateTime sessionDate, BigDecimal bet, BigDecimal winnings) {
+        for (Granularity granularity : Granularity.values()) {
+            LocalDateTime bucketStart = granularity.bucketStart(sessionDate);
+            accumulate(new Key(userId, granularity, bucketStart, gameType), bet, winnings);
+        }
+    }
+
+    private void accumulate(Key key, BigDecimal bet, BigDecimal winnings) {
+        Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+        delta.betSum = delta.betSum.add(bet);
+        delta.winSum = delta.winSum.add(winnings);
+        delta.rounds++;
+    }
+
+    /**
+     * Aplica los acumulados sobre la conexión de la transacción activa.
+     */
+    void flush(Connection connection) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        try (PreparedStatement statement = connection.prepareStatement(mysql ? MYSQL_UPSERT_SQL : STANDARD_UPSERT_SQL)) {
+            int pending = 0;
+            for (Map.Entry<Key, Delta> entry : deltas.entrySet()) {
+                Key key = entry.getKey();
+                Delta delta = entry.getValue();
+                statement.setLong(1, key.userId);
+                statement.setString(2, key.granularity.name());
+                statement.setTimestamp(3, Timestamp.valueOf(key.bucketStart));
+                statement.setString(4, key.gameType);
+                statement.setBigDecimal(5, delta.betSum);
+                statement.setBigDecimal(6, delta.winSum);
+                statement.setLong(7, delta.rounds);
+                statement.addBatch();
+                if (++pending == JDBC_BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+        deltas.clear();
+    }
+
+    /**
+     * Incremento pendiente de un intervalo.
+     */
+    private static final class Delta {
+        BigDecimal betSum = BigDecimal.ZERO;
+        BigDecimal winSum = BigDecimal.ZERO;
+        long rounds;
+    }
+
+    /**
+     * Intervalo de pnl_rollups: usuario, granularidad, inicio y tipo de juego.
+     */
+    private static final class Key {
+        final long userId;
+        final Granularity granularity;
+        final LocalDateTime bucketStart;
+        final String gameType;
+
+        Key(long userId, Granularity granularity, LocalDateTime bucketStart, String gameType) {
+            this.userId = userId;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.gameType = gameType;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repositorio de sesiones de juego con las lecturas sobre una {@link StatelessSession}.
+ *
+ * <p>El historial, la exportación y las estadísticas solo leen, pero con un EntityManager
+ * cada fila se registra en el contexto de persistencia junto con una instantánea para la
+ * comprobación de cambios. Aquí las consultas se ejecutan sin contexto, de modo que una
+ * lista de 100.000 sesiones no duplica su coste en memoria. Las escrituras se heredan
+ * sin cambios de {@link GameSessionRepositoryImpl}.</p>
+ */
+public class ReadOnlyGameSessionRepositoryImpl extends GameSessionRepositoryImpl {
+    private static final Logger LOGGER = Logger.getLogger(ReadOnlyGameSessionRepositoryImpl.class.getName());
+    private static final int FETCH_SIZE = 1000;
+
+    @Override
+    public Optional<GameSession> findById(Long id) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            return Optional.ofNullable(session.get(GameSession.class, id));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesión de juego por ID", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUser(User user) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<GameSession> query = session.createSelectionQuery(
+                    "SELECT g FROM GameSession g WHERE g.user.id = :userId ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("userId", user.getId());
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUser(User user, FetchPlan plan) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<GameSession> query = session.createSelectionQuery(
+                    "SELECT g FROM GameSession g WHERE g.user.id = :userId ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("userId", user.getId());
+            query.setHint(FetchPlan.FETCH_GRAPH_HINT, session.getEntityGraph(plan.graphName(GameSession.class)));
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUserAndDateRange(User user, LocalDateTime fromDate, LocalDateTime toDate) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<GameSession> query = session.createSelectionQuery(
+                    "SELECT g FROM GameSession g WHERE g.user.id = :userId AND g.sessionDate BETWEEN :fromDate AND :toDate ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("userId", user.getId());
+            query.setParameter("fromDate", fromDate);
+            query.setParameter("toDate", toDate);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario y rango de fechas", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUserAndGameType(User user, String gameType) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<GameSession> query = session.createSelectionQuery(
+                    "SELECT g FROM GameSession g WHERE g.user.id = :userId AND g.gameType = :gameType ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("userId", user.getId());
+            query.setParameter("gameType", gameType);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario y tipo de juego", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUserAndGameTypeAndDateRange(User user, String gameType, LocalDateTime fromDate, LocalDateTime toDate) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<GameSession> query = session.createSelectionQuery(
+                    "SELECT g FROM GameSession g WHERE g.user.id = :userId AND g.gameType = :gameType AND g.sessionDate BETWEEN :fromDate AND :toDate ORDER BY g.sessionDate DESC",
+                    GameSession.class);
+            query.setParameter("userId", user.getId());
+            query.setParameter("gameType", gameType);
+            query.setParameter("fromDate", fromDate);
+            query.setParameter("toDate", toDate);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones de juego por usuario, tipo de juego y rango de fechas", e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.Transaction;
+import com.ztake.casino.model.User;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repositorio de transacciones con las lecturas sobre una {@link StatelessSession}.
+ * Las consultas no registran las filas en un contexto de persistencia; las escrituras
+ * se heredan sin cambios de {@link TransactionRepositoryImpl}.
+ */
+public class ReadOnlyTransactionRepositoryImpl extends TransactionRepositoryImpl {
+    private static final Logger LOGGER = Logger.getLogger(ReadOnlyTransactionRepositoryImpl.class.getName());
+    private static final int FETCH_SIZE = 1000;
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            return Optional.ofNullable(session.get(Transaction.class, id));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacción por ID", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByUser(User user) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Transaction> query = session.createSelectionQuery(
+                    "SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.transactionDate DESC",
+                    Transaction.class);
+            query.setParameter("userId", user.getId());
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones por usuario", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByUser(User user, FetchPlan plan) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Transaction> query = session.createSelectionQuery(
+                    "SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.transactionDate DESC",
+                    Transaction.class);
+            query.setParameter("userId", user.getId());
+            query.setHint(FetchPlan.FETCH_GRAPH_HINT, session.getEntityGraph(plan.graphName(Transaction.class)));
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones por usuario", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByUserAndDateRange(User user, LocalDateTime fromDate, LocalDateTime toDate) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Transaction> query = session.createSelectionQuery(
+                    "SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :fromDate AND :toDate ORDER BY t.transactionDate DESC",
+                    Transaction.class);
+            query.setParameter("userId", user.getId());
+            query.setParameter("fromDate", fromDate);
+            query.setParameter("toDate", toDate);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones por usuario y rango de fechas", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByUserAndType(User user, String transactionType) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Transaction> query = session.createSelectionQuery(
+                    "SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = :type ORDER BY t.transactionDate DESC",
+                    Transaction.class);
+            query.setParameter("userId", user.getId());
+            query.setParameter("type", transactionType);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones por usuario y tipo", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Transaction> findPendingTransactions() {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            SelectionQuery<Transaction> query = session.createSelectionQuery(
+                    "SELECT t FROM Transaction t WHERE t.status = 'pending' ORDER BY t.transactionDate ASC",
+                    Transaction.class);
+            return query.setFetchSize(FETCH_SIZE).getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones pendientes", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public double sumByUserAndType(User user, String transactionType) {
+        try (StatelessSession session = DatabaseConfig.openStatelessSession()) {
+            Double result = session.createSelectionQuery(
+                            "SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = :type AND t.status = 'completed'",
+                            Double.class)
+                    .setParameter("userId", user.getId())
+                    .setParameter("type", transactionType)
+                    .getSingleResult();
+            return result != null ? result : 0.0;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al calcular suma de transacciones por usuario y tipo", e);
+            return 0.0;
+        }
+    }
+}
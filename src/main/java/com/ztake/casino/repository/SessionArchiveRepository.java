@@ -0,0 +1,70 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.GameSession;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Interfaz para el archivo histórico (almacenamiento en frío) de sesiones de juego.
+ * Los meses cerrados de game_sessions se guardan en ficheros columnares que se leen
+ * mediante memoria mapeada, sin pasar por la base de datos.
+ */
+public interface SessionArchiveRepository {
+
+    /**
+     * Exporta un mes cerrado de game_sessions a su fichero columnar.
+     * Si el fichero ya existe se reemplaza de forma atómica.
+     *
+     * @param month mes a archivar (debe ser anterior al mes actual)
+     * @return número de sesiones archivadas
+     * @throws IllegalArgumentException si el mes todavía no ha terminado
+     */
+    int archiveMonth(YearMonth month);
+
+    /**
+     * Indica si existe un fichero de archivo para el mes indicado.
+     *
+     * @param month el mes
+     * @return true si el mes está archivado
+     */
+    boolean isArchived(YearMonth month);
+
+    /**
+     * Indica si un mes archivado ha quedado desactualizado: al archivarlo tenía sesiones en
+     * curso (que no se guardan en el fichero) y alguna se ha liquidado después.
+     *
+     * @param month el mes
+     * @return true si el mes debe volver a archivarse
+     */
+    boolean isStale(YearMonth month);
+
+    /**
+     * Obtiene el mes de la sesión más antigua de game_sessions, a partir del cual hay
+     * meses que archivar.
+     *
+     * @return el mes, o null si no hay sesiones
+     */
+    YearMonth findFirstMonth();
+
+    /**
+     * Obtiene las sesiones archivadas de un usuario en un rango de fechas, ordenadas
+     * por fecha descendente. Las sesiones devueltas no tienen usuario asociado ni gameData.
+     *
+     * @param userId ID del usuario
+     * @param fromDate fecha de inicio (incluida)
+     * @param toDate fecha de fin (incluida)
+     * @return lista de sesiones archivadas
+     */
+    List<GameSession> findByUserAndDateRange(Long userId, LocalDateTime fromDate, LocalDateTime toDate);
+
+    /**
+     * Calcula los agregados de las sesiones archivadas de un usuario en un rango de fechas.
+     *
+     * @param userId ID del usuario
+     * @param fromDate fecha de inicio (incluida)
+     * @param toDate fecha de fin (incluida)
+     * @return resumen con totales globales y por tipo de juego
+     */
+    ArchiveSummary summarizeByUserAndDateRange(Long userId, LocalDateTime fromDate, LocalDateTime toDate);
+}
@@ -0,0 +1,520 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementación del archivo histórico de sesiones de juego en ficheros columnares.
+ *
+ * <p>Cada mes cerrado se guarda en un fichero {@code game_sessions-AAAA-MM.zcol} con una
+ * columna de tipos primitivos por campo (ID de sesión, ID de usuario, fecha en milisegundos
+ * UTC, apuesta y ganancia en céntimos, código de tipo de juego y de resultado) y un índice
+ * por usuario con el desplazamiento de su primera fila. Las filas se ordenan por usuario y
+ * fecha, de modo que la consulta de un usuario es una búsqueda binaria en el índice y otra
+ * dentro de su tramo de filas. Los ficheros se leen con {@link MappedByteBuffer}.</p>
+ *
+ * <p>Las sesiones que siguen en curso al archivar el mes no se guardan; la cabecera recoge
+ * cuántas eran, de modo que {@link #isStale(YearMonth)} detecta cuándo se han liquidado y el mes
+ * debe volver a archivarse.</p>
+ */
+public class SessionArchiveRepositoryImpl implements SessionArchiveRepository {
+    private static final Logger LOGGER = Logger.getLogger(SessionArchiveRepositoryImpl.class.getName());
+
+    private static final int MAGIC = 0x5A434F4C; // "ZCOL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 112;
+    private static final String FILE_PREFIX = "game_sessions-";
+    private static final String FILE_SUFFIX = ".zcol";
+    private static final String GAME_RESULT_IN_PROGRESS = "in_progress";
+    private static final String GAME_RESULT_WON = "won";
+
+    private final Path archiveDir;
+    private final Map<YearMonth, Segment> segments = new ConcurrentHashMap<>();
+
+    public SessionArchiveRepositoryImpl() {
+        this(Paths.get(AppConfig.getString("archive.dir", "./data/archive")));
+    }
+
+    public SessionArchiveRepositoryImpl(Path archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    @Override
+    public int archiveMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Solo se pueden archivar meses cerrados: " + month);
+        }
+
+        ColumnBuilder columns = loadMonth(month);
+        Path target = fileFor(month);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(archiveDir);
+            writeSegment(temp, month, columns);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segments.remove(month);
+
+            LOGGER.info("Mes " + month + " archivado: " + columns.size + " sesiones en " + target
+                    + (columns.pending > 0 ? " (" + columns.pending + " en curso sin archivar)" : ""));
+            return columns.size;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al escribir el archivo del mes " + month, e);
+            throw new RuntimeException("No se pudo archivar el mes " + month, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "No se pudo eliminar el fichero temporal " + temp, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isArchived(YearMonth month) {
+        return Files.isRegularFile(fileFor(month));
+    }
+
+    @Override
+    public boolean isStale(YearMonth month) {
+        Segment segment = segmentFor(month);
+        if (segment == null || segment.pendingCount == 0) {
+            return false;
+        }
+        return countInProgress(month) < segment.pendingCount;
+    }
+
+    @Override
+    public YearMonth findFirstMonth() {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            LocalDateTime first = em.createQuery("SELECT MIN(g.sessionDate) FROM GameSession g", LocalDateTime.class)
+                    .getSingleResult();
+            return first != null ? YearMonth.from(first) : null;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar la sesión más antigua", e);
+            throw new RuntimeException("No se pudo buscar la sesión más antigua", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<GameSession> findByUserAndDateRange(Long userId, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<GameSession> result = new ArrayList<>();
+        long fromMillis = toMillis(fromDate);
+        long toMillis = toMillis(toDate);
+
+        // Recorrer los meses del más reciente al más antiguo para devolver orden descendente
+        for (YearMonth month = YearMonth.from(toDate); !month.isBefore(YearMonth.from(fromDate)); month = month.minusMonths(1)) {
+            Segment segment = segmentFor(month);
+            if (segment == null) {
+                continue;
+            }
+
+            int[] range = segment.rowRange(userId, fromMillis, toMillis);
+            for (int row = range[1] - 1; row >= range[0]; row--) {
+                GameSession session = new GameSession();
+                session.setId(segment.sessionIds.get(row));
+                session.setSessionDate(toDateTime(segment.times.get(row)));
+                session.setBetAmount(segment.bets.get(row) / 100.0);
+                session.setWinningAmount(segment.wins.get(row) / 100.0);
+                session.setGameType(segment.gameTypes[segment.typeCodes.get(row)]);
+                session.setResult(segment.results[segment.resultCodes.get(row)]);
+                result.add(session);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ArchiveSummary summarizeByUserAndDateRange(Long userId, LocalDateTime fromDate, LocalDateTime toDate) {
+        ArchiveSummary summary = new ArchiveSummary();
+        long fromMillis = toMillis(fromDate);
+        long toMillis = toMillis(toDate);
+
+        for (YearMonth month = YearMonth.from(fromDate); !month.isAfter(YearMonth.from(toDate)); month = month.plusMonths(1)) {
+            Segment segment = segmentFor(month);
+            if (segment == null) {
+                continue;
+            }
+
+            int[] range = segment.rowRange(userId, fromMillis, toMillis);
+            for (int row = range[0]; row < range[1]; row++) {
+                String result = segment.results[segment.resultCodes.get(row)];
+                summary.add(segment.gameTypes[segment.typeCodes.get(row)],
+                        segment.bets.get(row), segment.wins.get(row), GAME_RESULT_WON.equals(result));
+            }
+        }
+        return summary;
+    }
+
+    // --- Escritura ---
+
+    /**
+     * Lee de la base de datos las sesiones terminadas del mes, ordenadas por usuario y fecha.
+     */
+    private ColumnBuilder loadMonth(YearMonth month) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT g.id, g.user.id, g.sessionDate, g.betAmount, g.winningAmount, g.gameType, g.result " +
+                            "FROM GameSession g WHERE g.sessionDate >= :fromDate AND g.sessionDate < :toDate " +
+                            "AND g.result <> :inProgress ORDER BY g.user.id, g.sessionDate, g.id",
+                    Object[].class);
+            query.setParameter("fromDate", month.atDay(1).atStartOfDay());
+            query.setParameter("toDate", month.plusMonths(1).atDay(1).atStartOfDay());
+            query.setParameter("inProgress", GAME_RESULT_IN_PROGRESS);
+            query.setHint("org.hibernate.fetchSize", 10_000);
+            query.setHint("org.hibernate.readOnly", true);
+
+            ColumnBuilder columns = new ColumnBuilder();
+            query.getResultStream().forEach(columns::add);
+            columns.pending = countInProgress(em, month);
+            return columns;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al leer las sesiones del mes " + month, e);
+            throw new RuntimeException("No se pudieron leer las sesiones del mes " + month, e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private int countInProgress(YearMonth month) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return countInProgress(em, month);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al contar las sesiones en curso del mes " + month, e);
+            throw new RuntimeException("No se pudieron contar las sesiones en curso del mes " + month, e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static int countInProgress(EntityManager em, YearMonth month) {
+        return em.createQuery(
+                        "SELECT COUNT(g) FROM GameSession g WHERE g.sessionDate >= :fromDate AND g.sessionDate < :toDate " +
+                                "AND g.result = :inProgress", Long.class)
+                .setParameter("fromDate", month.atDay(1).atStartOfDay())
+                .setParameter("toDate", month.plusMonths(1).atDay(1).atStartOfDay())
+                .setParameter("inProgress", GAME_RESULT_IN_PROGRESS)
+                .getSingleResult()
+                .intValue();
+    }
+
+    private void writeSegment(Path file, YearMonth month, ColumnBuilder columns) throws IOException {
+        int rows = columns.size;
+        int users = columns.userCount();
+        byte[] dictionary = columns.encodeDictionary();
+
+        long offSessionIds = HEADER_SIZE;
+        long offUserIds = offSessionIds + 8L * rows;
+        long offTimes = offUserIds + 8L * rows;
+        long offBets = offTimes + 8L * rows;
+        long offWins = offBets + 8L * rows;
+        long offIndexUsers = offWins + 8L * rows;
+        long offIndexStarts = offIndexUsers + 8L * users;
+        long offTypeCodes = offIndexStarts + 4L * (users + 1);
+        long offResultCodes = offTypeCodes + rows;
+        long offDictionary = offResultCodes + rows;
+        long totalSize = offDictionary + dictionary.length;
+
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IOException("El mes " + month + " excede el tamaño máximo de un segmento mapeado");
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(totalSize);
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalSize);
+
+            out.putInt(MAGIC).putInt(VERSION).putInt(month.getYear() * 100 + month.getMonthValue())
+                    .putInt(rows).putInt(users).putInt(columns.gameTypes.size()).putInt(columns.results.size())
+                    .putInt(columns.pending);
+            out.putLong(offSessionIds).putLong(offUserIds).putLong(offTimes).putLong(offBets).putLong(offWins)
+                    .putLong(offIndexUsers).putLong(offIndexStarts).putLong(offTypeCodes).putLong(offResultCodes)
+                    .putLong(offDictionary);
+
+            out.position((int) offSessionIds);
+            out.asLongBuffer().put(columns.sessionIds, 0, rows);
+            out.position((int) offUserIds);
+            out.asLongBuffer().put(columns.userIds, 0, rows);
+            out.position((int) offTimes);
+            out.asLongBuffer().put(columns.times, 0, rows);
+            out.position((int) offBets);
+            out.asLongBuffer().put(columns.bets, 0, rows);
+            out.position((int) offWins);
+            out.asLongBuffer().put(columns.wins, 0, rows);
+
+            // Índice por usuario: IDs ordenados y fila inicial de cada uno (más un centinela final)
+            LongBuffer indexUsers = out.position((int) offIndexUsers).asLongBuffer();
+            IntBuffer indexStarts = out.position((int) offIndexStarts).asIntBuffer();
+            for (int row = 0; row < rows; row++) {
+                if (row == 0 || columns.userIds[row] != columns.userIds[row - 1]) {
+                    indexUsers.put(columns.userIds[row]);
+                    indexStarts.put(row);
+                }
+            }
+            indexStarts.put(rows);
+
+            out.position((int) offTypeCodes);
+            out.put(columns.typeCodes, 0, rows);
+            out.position((int) offResultCodes);
+            out.put(columns.resultCodes, 0, rows);
+            out.position((int) offDictionary);
+            out.put(dictionary);
+
+            out.force();
+        }
+    }
+
+    // --- Lectura ---
+
+    private Segment segmentFor(YearMonth month) {
+        Segment segment = segments.get(month);
+        if (segment != null) {
+            return segment;
+        }
+
+        Path file = fileFor(month);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            segment = Segment.open(file);
+            Segment previous = segments.putIfAbsent(month, segment);
+            return previous != null ? previous : segment;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error al abrir el archivo del mes " + month, e);
+            throw new RuntimeException("No se pudo leer el archivo del mes " + month, e);
+        }
+    }
+
+    private Path fileFor(YearMonth month) {
+        return archiveDir.resolve(FILE_PREFIX + month + FILE_SUFFIX);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Vista de solo lectura sobre un fichero mensual mapeado en memoria.
+     */
+    private static final class Segment {
+        final int rowCount;
+        final int userCount;
+        // Sesiones del mes que seguían en curso al archivarlo
+        final int pendingCount;
+        final LongBuffer sessionIds;
+        final LongBuffer userIds;
+        final LongBuffer times;
+        final LongBuffer bets;
+        final LongBuffer wins;
+        final LongBuffer indexUsers;
+        final IntBuffer indexStarts;
+        final ByteBuffer typeCodes;
+        final ByteBuffer resultCodes;
+        final String[] gameTypes;
+        final String[] results;
+
+        private Segment(MappedByteBuffer buffer) throws IOException {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Formato de archivo no reconocido");
+            }
+            rowCount = buffer.getInt(12);
+            userCount = buffer.getInt(16);
+            int typeCount = buffer.getInt(20);
+            int resultCount = buffer.getInt(24);
+            pendingCount = buffer.getInt(28);
+
+            sessionIds = buffer.slice((int) buffer.getLong(32), 8 * rowCount).asLongBuffer();
+            userIds = buffer.slice((int) buffer.getLong(40), 8 * rowCount).asLongBuffer();
+            times = buffer.slice((int) buffer.getLong(48), 8 * rowCount).asLongBuffer();
+            bets = buffer.slice((int) buffer.getLong(56), 8 * rowCount).asLongBuffer();
+            wins = buffer.slice((int) buffer.getLong(64), 8 * rowCount).asLongBuffer();
+            indexUsers = buffer.slice((int) buffer.getLong(72), 8 * userCount).asLongBuffer();
+            indexStarts = buffer.slice((int) buffer.getLong(80), 4 * (userCount + 1)).asIntBuffer();
+            typeCodes = buffer.slice((int) buffer.getLong(88), rowCount);
+            resultCodes = buffer.slice((int) buffer.getLong(96), rowCount);
+
+            ByteBuffer dictionary = buffer.slice((int) buffer.getLong(104), buffer.capacity() - (int) buffer.getLong(104));
+            gameTypes = readStrings(dictionary, typeCount);
+            results = readStrings(dictionary, resultCount);
+        }
+
+        static Segment open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // El mapeo sigue siendo válido después de cerrar el canal
+                return new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        private static String[] readStrings(ByteBuffer in, int count) {
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[in.getShort()];
+                in.get(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return values;
+        }
+
+        /**
+         * Devuelve el tramo de filas [desde, hasta) del usuario dentro del rango de fechas.
+         */
+        int[] rowRange(long userId, long fromMillis, long toMillis) {
+            int lo = 0;
+            int hi = userCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long value = indexUsers.get(mid);
+                if (value < userId) {
+                    lo = mid + 1;
+                } else if (value > userId) {
+                    hi = mid - 1;
+                } else {
+                    int start = indexStarts.get(mid);
+                    int end = indexStarts.get(mid + 1);
+                    return new int[]{lowerBound(start, end, fromMillis), lowerBound(start, end, toMillis + 1)};
+                }
+            }
+            return new int[]{0, 0};
+        }
+
+        /**
+         * Primera fila del tramo cuya fecha es mayor o igual que la indicada.
+         */
+        private int lowerBound(int start, int end, long millis) {
+            int lo = start;
+            int hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times.get(mid) < millis) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Acumula las columnas de un mes en arreglos primitivos antes de escribirlas.
+     */
+    private static final class ColumnBuilder {
+        int size;
+        int pending;
+        long[] sessionIds = new long[1024];
+        long[] userIds = new long[1024];
+        long[] times = new long[1024];
+        long[] bets = new long[1024];
+        long[] wins = new long[1024];
+        byte[] typeCodes = new byte[1024];
+        byte[] resultCodes = new byte[1024];
+        final Map<String, Integer> gameTypes = new LinkedHashMap<>();
+        final Map<String, Integer> results = new LinkedHashMap<>();
+
+        void add(Object[] row) {
+            if (size == sessionIds.length) {
+                int capacity = size * 2;
+                sessionIds = Arrays.copyOf(sessionIds, capacity);
+                userIds = Arrays.copyOf(userIds, capacity);
+                times = Arrays.copyOf(times, capacity);
+                bets = Arrays.copyOf(bets, capacity);
+                wins = Arrays.copyOf(wins, capacity);
+                typeCodes = Arrays.copyOf(typeCodes, capacity);
+                resultCodes = Arrays.copyOf(resultCodes, capacity);
+            }
+
+            sessionIds[size] = ((Number) row[0]).longValue();
+            userIds[size] = ((Number) row[1]).longValue();
+            times[size] = toMillis((LocalDateTime) row[2]);
+            bets[size] = Math.round(((Number) row[3]).doubleValue() * 100);
+            wins[size] = Math.round(((Number) row[4]).doubleValue() * 100);
+            typeCodes[size] = code(gameTypes, (String) row[5]);
+            resultCodes[size] = code(results, (String) row[6]);
+            size++;
+        }
+
+        private static byte code(Map<String, Integer> dictionary, String value) {
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                if (dictionary.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Demasiados valores distintos para el diccionario: " + value);
+                }
+                code = dictionary.size();
+                dictionary.put(value, code);
+            }
+            return code.byteValue();
+        }
+
+        int userCount() {
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                if (row == 0 || userIds[row] != userIds[row - 1]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        byte[] encodeDictionary() {
+            List<byte[]> encoded = new ArrayList<>();
+            int length = 0;
+            for (String value : gameTypes.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                length += 2 + bytes.length;
+            }
+            for (String value : results.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                length += 2 + bytes.length;
+            }
+
+            ByteBuffer out = ByteBuffer.allocate(length);
+            for (byte[] bytes : encoded) {
+                out.putShort((short) bytes.length);
+                out.put(bytes);
+            }
+            return out.array();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.GameSession;
+
+import java.util.List;
+
+/**
+ * Liquidación de una sesión en curso para hacerla junto con otras en un único lote (por
+ * ejemplo, todas las apuestas de una ronda de Crash o las sesiones abandonadas que liquida el
+ * barrido). Si la sesión trae la semilla del servidor, se revela en la misma actualización.
+ */
+public class Settlement {
+    /** Resultado de una sesión anulada: se devuelve la apuesta. */
+    public static final String RESULT_REFUNDED = "refunded";
+
+    private final GameSession session;
+    private final double winnings;
+    private final String result;
+    private final String gameData;
+    private final List<Wager> credits;
+
+    /**
+     * @param session  sesión en curso, con su usuario
+     * @param winnings cantidad pagada (0 si perdió)
+     * @param result   resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     */
+    public Settlement(GameSession session, double winnings, String result, String gameData) {
+        this(session, winnings, null, result, gameData);
+    }
+
+    /**
+     * Liquidación de una ronda con varias apuestas: se registra una transacción de premio por
+     * cada apuesta ganadora.
+     *
+     * @param session  sesión en curso, con su usuario
+     * @param winnings lo pagado por cada apuesta ganadora (vacía si no ganó ninguna)
+     * @param result   resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     */
+    public Settlement(GameSession session, List<Wager> winnings, String result, String gameData) {
+        this(session, total(winnings), winnings, result, gameData);
+    }
+
+    private Settlement(GameSession session, double winnings, List<Wager> credits, String result, String gameData) {
+        if (session == null || session.getId() == null || session.getUser() == null) {
+            throw new IllegalArgumentException("La sesión debe estar guardada y tener usuario");
+        }
+        this.session = session;
+        this.winnings = winnings;
+        this.credits = credits;
+        this.result = result;
+        this.gameData = gameData;
+    }
+
+    /**
+     * @return la anulación de una sesión en curso, que devuelve su apuesta
+     */
+    public static Settlement refund(GameSession session) {
+        return new Settlement(session, session.getBetAmount(), RESULT_REFUNDED, null);
+    }
+
+    private static double total(List<Wager> winnings) {
+        if (winnings == null) {
+            throw new IllegalArgumentException("Los premios no pueden ser nulos");
+        }
+        double total = 0;
+        for (Wager wager : winnings) {
+            total += wager.getAmount();
+        }
+        return total;
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public double getWinnings() {
+        return winnings;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public String getGameData() {
+        return gameData;
+    }
+
+    /**
+     * @return abonos por apuesta, o null si se registra una sola transacción con el total
+     */
+    public List<Wager> getCredits() {
+        return credits;
+    }
+
+    public boolean isRefund() {
+        return RESULT_REFUNDED.equals(result);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ztake.casino.repository;
+
+/**
+ * Resultado de una liquidación dentro de un lote: cada sesión se acepta o se rechaza por
+ * separado, de modo que una liquidación incorrecta no hace fallar a las demás.
+ */
+public class SettlementResult {
+
+    /**
+     * Estado de la liquidación.
+     */
+    public enum Status {
+        /** Sesión liquidada y saldo actualizado. */
+        SETTLED,
+        /** La sesión ya no estaba en curso: no se ha tocado. */
+        ALREADY_SETTLED,
+        /** Datos inválidos (resultado, premio o sesión repetida): no se ha intentado. */
+        REJECTED,
+        /** Error de base de datos: la sesión sigue en curso. */
+        FAILED
+    }
+
+    private final Settlement settlement;
+    private final Status status;
+    private final String message;
+
+    public SettlementResult(Settlement settlement, Status status, String message) {
+        this.settlement = settlement;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Settlement getSettlement() {
+        return settlement;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return motivo si no se liquidó, o null
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSettled() {
+        return status == Status.SETTLED;
+    }
+
+    @Override
+    public String toString() {
+        return status + (message != null ? " (" + message + ")" : "");
+    }
+}
@@ -26,6 +26,15 @@ public interface SupportTicketRepository {
      */
     Optional<SupportTicket> findById(Long id);
 
+    /**
+     * Busca un ticket por su ID cargando las asociaciones del plan indicado.
+     *
+     * @param id ID del ticket
+     * @param plan plan de carga del caso de uso
+     * @return Optional con el ticket si existe
+     */
+    Optional<SupportTicket> findById(Long id, FetchPlan plan);
+
     /**
      * Obtiene todos los tickets de un usuario.
      *
@@ -34,6 +43,15 @@ public interface SupportTicketRepository {
      */
     List<SupportTicket> findByUser(User user);
 
+    /**
+     * Obtiene todos los tickets de un usuario cargando las asociaciones del plan indicado.
+     *
+     * @param user el usuario
+     * @param plan plan de carga del caso de uso
+     * @return lista de tickets
+     */
+    List<SupportTicket> findByUser(User user, FetchPlan plan);
+
     /**
      * Obtiene todos los tickets con un estado específico.
      *
@@ -68,6 +68,19 @@ public class SupportTicketRepositoryImpl implements SupportTicketRepository {
         }
     }
 
+    @Override
+    public Optional<SupportTicket> findById(Long id, FetchPlan plan) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return Optional.ofNullable(em.find(SupportTicket.class, id, plan.hints(em, SupportTicket.class)));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar ticket de soporte por ID", e);
+            return Optional.empty();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<SupportTicket> findByUser(User user) {
         EntityManager em = DatabaseConfig.getEntityManager();
@@ -85,6 +98,24 @@ public class SupportTicketRepositoryImpl implements SupportTicketRepository {
         }
     }
 
+    @Override
+    public List<SupportTicket> findByUser(User user, FetchPlan plan) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            TypedQuery<SupportTicket> query = em.createQuery(
+                    "SELECT t FROM SupportTicket t WHERE t.user = :user ORDER BY t.lastUpdatedDate DESC",
+                    SupportTicket.class);
+            query.setParameter("user", user);
+            query.setHint(FetchPlan.FETCH_GRAPH_HINT, plan.graph(em, SupportTicket.class));
+            return query.getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar tickets de soporte por usuario", e);
+            return List.of();
+        } finally {
+            em.close();
+        }
+    }
+
 
 
 
@@ -35,6 +35,15 @@ public interface TransactionRepository {
      */
     List<Transaction> findByUser(User user);
 
+    /**
+     * Obtiene todas las transacciones de un usuario cargando las asociaciones del plan indicado.
+     *
+     * @param user el usuario
+     * @param plan plan de carga del caso de uso
+     * @return lista de transacciones
+     */
+    List<Transaction> findByUser(User user, FetchPlan plan);
+
     /**
      * Obtiene todas las transacciones de un usuario en un rango de fechas.
      *
@@ -81,6 +81,24 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         }
     }
 
+    @Override
+    public List<Transaction> findByUser(User user, FetchPlan plan) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            TypedQuery<Transaction> query = em.createQuery(
+                    "SELECT t FROM Transaction t WHERE t.user = :user ORDER BY t.transactionDate DESC",
+                    Transaction.class);
+            query.setParameter("user", user);
+            query.setHint(FetchPlan.FETCH_GRAPH_HINT, plan.graph(em, Transaction.class));
+            return query.getResultList();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar transacciones por usuario", e);
+            return List.of();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<Transaction> findByUserAndDateRange(User user, LocalDateTime fromDate, LocalDateTime toDate) {
         EntityManager em = DatabaseConfig.getEntityManager();
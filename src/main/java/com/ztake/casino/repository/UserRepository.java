@@ -42,9 +42,25 @@ public interface UserRepository {
     Optional<User> findById(Long id);
 
     /**
-     * Elimina un usuario por su ID.
+     * Elimina un usuario por su ID junto con todo su historial.
      *
      * @param id ID del usuario a eliminar
      */
     void deleteById(Long id);
+
+    /**
+     * Borra una cuenta y todo su historial (sesiones, transacciones, tickets y acumulados
+     * de pérdidas y ganancias) por lotes; los acumulados de la casa se conservan.
+     * Primero marca al usuario como eliminado para que no pueda volver a entrar; después
+     * borra sus filas en bloques de tamaño fijo, cada uno en su propia transacción corta,
+     * junto con las semillas del servidor pendientes de sus rondas, y por último elimina el
+     * usuario si ya no le queda historial; si le han llegado filas nuevas mientras tanto, repite
+     * el borrado. Al terminar libera sus retenciones de saldo. Si se interrumpe, puede volver a
+     * ejecutarse. Las rondas en curso no se liquidan: para eso está
+     * {@code GameService.eraseAccount}.
+     *
+     * @param id ID del usuario a eliminar
+     * @return número total de filas eliminadas (incluido el usuario)
+     */
+    long eraseAccount(Long id);
 }
\ No newline at end of file
@@ -1,16 +1,20 @@
 package com.ztake.casino.repository;
 
 import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.ztake.casino.config.AppConfig;
 import com.ztake.casino.config.DatabaseConfig;
 import com.ztake.casino.model.User;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,6 +23,15 @@ import java.util.logging.Logger;
  */
 public class UserRepositoryImpl implements UserRepository {
     private static final Logger LOGGER = Logger.getLogger(UserRepositoryImpl.class.getName());
+    private static final String USER_STATUS_DELETED = "deleted";
+    // Entidades con historial por usuario y su ruta al ID del usuario, en el orden en que se borran
+    private static final List<Map.Entry<String, String>> USER_HISTORY_ENTITIES = List.of(
+            Map.entry("GameSession", "user.id"),
+            Map.entry("Transaction", "user.id"),
+            Map.entry("SupportTicket", "user.id"),
+            Map.entry("PnlRollup", "userId"));
+    // Pasadas de borrado antes de rendirse si siguen apareciendo filas del usuario
+    private static final int ERASURE_MAX_PASSES = 5;
 
     @Override
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
@@ -100,23 +113,125 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public void deleteById(Long id) {
+        // em.remove cargaría en memoria todo el historial por orphanRemoval y lo borraría fila a fila
+        eraseAccount(id);
+    }
+
+    @Override
+    public long eraseAccount(Long id) {
+        int chunkSize = AppConfig.getInt("erasure.chunkSize", 2000);
+
+        try {
+            if (executeInTransaction(em -> em.createQuery("UPDATE User u SET u.status = :status WHERE u.id = :id")
+                    .setParameter("status", USER_STATUS_DELETED)
+                    .setParameter("id", id)
+                    .executeUpdate()) == 0) {
+                return 0;
+            }
+
+            long deleted = 0;
+            for (int pass = 1; ; pass++) {
+                // Semillas del servidor pendientes de revelar de sus rondas: sin las sesiones no se revelarían nunca
+                deleted += executeInTransaction(em -> em.createQuery(
+                                "DELETE FROM CommittedSeed s WHERE s.serverSeedHash IN (SELECT g.serverSeedHash " +
+                                        "FROM GameSession g WHERE g.user.id = :userId AND g.serverSeed IS NULL)")
+                        .setParameter("userId", id)
+                        .executeUpdate());
+                for (Map.Entry<String, String> entity : USER_HISTORY_ENTITIES) {
+                    int chunk;
+                    do {
+                        chunk = executeInTransaction(em -> deleteHistoryChunk(em, entity.getKey(), entity.getValue(), id, chunkSize));
+                        deleted += chunk;
+                    } while (chunk == chunkSize);
+                }
+
+                // Una ronda o un depósito que llegó durante el borrado deja filas nuevas: se
+                // comprueba antes de borrar el usuario y, si las hay, se hace otra pasada
+                int removed;
+                try {
+                    removed = executeInTransaction(em -> hasHistory(em, id) ? -1
+                            : em.createQuery("DELETE FROM User u WHERE u.id = :id")
+                                    .setParameter("id", id)
+                                    .executeUpdate());
+                } catch (PersistenceException e) {
+                    // Fila insertada entre la comprobación y el borrado: la clave ajena lo impide
+                    if (pass == ERASURE_MAX_PASSES) {
+                        throw e;
+                    }
+                    removed = -1;
+                }
+                if (removed >= 0) {
+                    deleted += removed;
+                    break;
+                }
+                if (pass == ERASURE_MAX_PASSES) {
+                    throw new IllegalStateException("El usuario " + id + " sigue generando historial tras "
+                            + pass + " pasadas de borrado");
+                }
+                LOGGER.log(Level.INFO, "Quedan filas del usuario {0} tras la pasada {1}, se repite el borrado",
+                        new Object[]{id, pass});
+            }
+            FundsHolds.getDefault().releaseUser(id);
+
+            LOGGER.log(Level.INFO, "Cuenta eliminada - ID: {0} - Filas borradas: {1}", new Object[]{id, deleted});
+            return deleted;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al eliminar usuario con ID: " + id, e);
+            throw new RuntimeException("No se pudo eliminar el usuario", e);
+        }
+    }
+
+    /**
+     * Borra un bloque de filas de historial del usuario: selecciona como máximo
+     * {@code chunkSize} IDs y los elimina con un DELETE masivo, sin cargar entidades.
+     */
+    private int deleteHistoryChunk(EntityManager em, String entity, String userIdPath, Long userId, int chunkSize) {
+        List<Long> ids = em.createQuery("SELECT e.id FROM " + entity + " e WHERE e." + userIdPath + " = :userId ORDER BY e.id", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(chunkSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return em.createQuery("DELETE FROM " + entity + " e WHERE e.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * @return true si queda alguna fila de historial del usuario
+     */
+    private boolean hasHistory(EntityManager em, Long userId) {
+        for (Map.Entry<String, String> entity : USER_HISTORY_ENTITIES) {
+            if (!em.createQuery("SELECT e.id FROM " + entity.getKey() + " e WHERE e." + entity.getValue() + " = :userId", Long.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta una operación en una transacción propia y corta, devolviendo la conexión al pool al terminar.
+     */
+    private int executeInTransaction(ToIntFunction<EntityManager> work) {
         EntityManager em = DatabaseConfig.getEntityManager();
         EntityTransaction transaction = null;
 
         try {
             transaction = em.getTransaction();
             transaction.begin();
-            User user = em.find(User.class, id);
-            if (user != null) {
-                em.remove(user);
-            }
+            int result = work.applyAsInt(em);
             transaction.commit();
-        } catch (Exception e) {
+            return result;
+        } catch (RuntimeException e) {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            LOGGER.log(Level.SEVERE, "Error al eliminar usuario con ID: " + id, e);
-            throw new RuntimeException("No se pudo eliminar el usuario", e);
+            throw e;
         } finally {
             em.close();
         }
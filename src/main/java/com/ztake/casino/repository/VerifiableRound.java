@@ -0,0 +1,56 @@
+package com.ztake.casino.repository;
+
+/**
+ * Datos de una ronda necesarios para verificarla: semillas, nonce y el resultado registrado.
+ */
+public class VerifiableRound {
+    private final long sessionId;
+    private final String gameType;
+    private final String serverSeedHash;
+    private final String serverSeed;
+    private final String clientSeed;
+    private final long nonce;
+    private final String gameData;
+
+    public VerifiableRound(long sessionId, String gameType, String serverSeedHash, String serverSeed,
+                           String clientSeed, long nonce, String gameData) {
+        this.sessionId = sessionId;
+        this.gameType = gameType;
+        this.serverSeedHash = serverSeedHash;
+        this.serverSeed = serverSeed;
+        this.clientSeed = clientSeed;
+        this.nonce = nonce;
+        this.gameData = gameData;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public String getGameType() {
+        return gameType;
+    }
+
+    public String getServerSeedHash() {
+        return serverSeedHash;
+    }
+
+    /**
+     * @return la semilla del servidor, o null si todavía no se ha revelado
+     */
+    public String getServerSeed() {
+        return serverSeed;
+    }
+
+    public String getClientSeed() {
+        return clientSeed;
+    }
+
+    public long getNonce() {
+        return nonce;
+    }
+
+    public String getGameData() {
+        return gameData;
+    }
+}
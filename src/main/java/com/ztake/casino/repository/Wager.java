@@ -0,0 +1,39 @@
+package com.ztake.casino.repository;
+
+/**
+ * Apuesta individual dentro de una ronda con varias apuestas (por ejemplo, cada ficha de una
+ * tirada de ruleta). Cada una se registra como una fila de transactions con su referencia.
+ */
+public class Wager {
+    /** Longitud máxima de la referencia: cabe en reference_id junto al ID de la sesión. */
+    public static final int MAX_REFERENCE_LENGTH = 20;
+
+    private final String reference;
+    private final double amount;
+
+    /**
+     * @param reference identificador de la apuesta dentro de la ronda (por ejemplo, "pleno:17")
+     * @param amount    cantidad apostada o pagada
+     */
+    public Wager(String reference, double amount) {
+        if (reference == null || reference.isEmpty() || reference.length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("La referencia de la apuesta debe tener entre 1 y "
+                    + MAX_REFERENCE_LENGTH + " caracteres");
+        }
+        this.reference = reference;
+        this.amount = amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return reference + "=" + amount;
+    }
+}
@@ -0,0 +1,325 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Commit en grupo de las escrituras de la cartera: las aperturas y liquidaciones de rondas que
+ * llegan a la vez desde varios hilos se encolan y se aplican juntas en una única transacción de
+ * base de datos, de modo que pagan un solo commit (y un solo fsync) entre todas.
+ *
+ * <p>Un único hilo vacía la cola: espera como mucho {@code wallet.groupCommit.maxDelayMillis}
+ * desde la primera operación pendiente o hasta reunir {@code wallet.groupCommit.maxOperations},
+ * aplica las operaciones en el orden en que se encolaron y confirma. Cada operación se aísla
+ * con un punto de guardado: si falla (por ejemplo, por saldo insuficiente) se deshace solo ella
+ * y su futuro termina con el error, sin afectar a las demás del lote. Los futuros de las
+ * operaciones aplicadas se completan cuando el lote se ha confirmado.</p>
+ *
+ * <p>Como hay un solo hilo y la cola es FIFO, las operaciones de un mismo usuario se aplican en
+ * el orden en que se encolaron, y cada una ve el saldo que dejaron las anteriores del lote.</p>
+ */
+public class WalletCommitPipeline {
+    private static final Logger LOGGER = Logger.getLogger(WalletCommitPipeline.class.getName());
+    // Cada cuánto comprueba el hilo si debe detenerse cuando la cola está vacía
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final WalletRepositoryImpl walletRepository;
+    private final int maxOperations;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Operation<?>> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+    private volatile Thread committer;
+
+    public WalletCommitPipeline(WalletRepositoryImpl walletRepository) {
+        this(walletRepository,
+                AppConfig.getInt("wallet.groupCommit.maxOperations", 256),
+                AppConfig.getInt("wallet.groupCommit.maxDelayMillis", 2));
+    }
+
+    public WalletCommitPipeline(WalletRepositoryImpl walletRepository, int maxOperations, long maxDelayMillis) {
+        if (maxOperations < 1 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("El lote debe admitir al menos una operación y la espera no puede ser negativa");
+        }
+        this.walletRepository = walletRepository;
+        this.maxOperations = maxOperations;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    /**
+     * Inicia el hilo que confirma los lotes.
+     */
+    public synchronized void start() {
+        if (committer != null) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "wallet-group-commit");
+        thread.setDaemon(true);
+        committer = thread;
+        thread.start();
+        LOGGER.info("Commit en grupo de la cartera iniciado - Lote máximo: " + maxOperations
+                + " - Espera máxima: " + TimeUnit.NANOSECONDS.toMillis(maxDelayNanos) + " ms");
+    }
+
+    /**
+     * Detiene el hilo después de confirmar lo que ya estaba encolado.
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            thread = committer;
+            committer = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        // Sin interrumpir el hilo: un commit interrumpido puede cerrar los ficheros de la base de datos
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que llegó después del último lote no se aplicará
+        Operation<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("El commit en grupo de la cartera está detenido"));
+        }
+    }
+
+    public boolean isRunning() {
+        return committer != null;
+    }
+
+    /**
+     * Encola la apertura de una ronda con una sola apuesta: descuento condicional, sesión y
+     * transacción de apuesta.
+     *
+     * @param gameSession sesión nueva, con su usuario, tipo de juego, apuesta y semillas
+     * @return la sesión guardada (con el saldo de su usuario actualizado) cuando el lote se confirma;
+     *         termina con IllegalStateException si el saldo no alcanza
+     */
+    public CompletableFuture<GameSession> openSession(GameSession gameSession) {
+        return submit(new Operation<>() {
+            @Override
+            GameSession apply(EntityManager em) {
+                walletRepository.openSession(em, gameSession, null);
+                return gameSession;
+            }
+
+            @Override
+            void committed(GameSession session) {
+                WalletRepositoryImpl.debited(session);
+            }
+        });
+    }
+
+    /**
+     * Encola la apertura de una ronda con retención, como
+     * {@link WalletRepository#holdSession(GameSession)}: no escribe en la fila del usuario.
+     *
+     * @param gameSession sesión nueva, con su usuario, tipo de juego, apuesta y semillas
+     * @return la sesión guardada (con el saldo disponible de su usuario) cuando el lote se
+     *         confirma; termina con IllegalStateException si el saldo disponible no alcanza
+     */
+    public CompletableFuture<GameSession> holdSession(GameSession gameSession) {
+        return submit(new Operation<>() {
+            FundsHolds.Hold hold;
+
+            @Override
+            GameSession apply(EntityManager em) {
+                hold = walletRepository.holdSession(em, gameSession);
+                return gameSession;
+            }
+
+            @Override
+            void committed(GameSession session) {
+                session.getUser().setBalance(hold.available.doubleValue());
+            }
+
+            @Override
+            void discarded() {
+                // El lote no se confirmó: la sesión no existe
+                if (hold != null) {
+                    FundsHolds.getDefault().cancel(hold);
+                }
+            }
+        });
+    }
+
+    /**
+     * Encola la liquidación de una sesión en curso, como
+     * {@link WalletRepository#settleSession(Long, double, String, String)}.
+     *
+     * @return la sesión liquidada, con su usuario, cuando el lote se confirma; termina con
+     *         IllegalStateException si la sesión no existe o ya está finalizada
+     */
+    public CompletableFuture<GameSession> settleSession(Long sessionId, double winnings, String result, String gameData) {
+        return submit(new Operation<>() {
+            @Override
+            GameSession apply(EntityManager em) {
+                return walletRepository.settleSession(em, sessionId, winnings, null, result, gameData);
+            }
+
+            @Override
+            void committed(GameSession session) {
+                walletRepository.settled(session);
+            }
+        });
+    }
+
+    /**
+     * @return número de lotes confirmados
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * @return número de operaciones aplicadas en lotes confirmados
+     */
+    public long getOperations() {
+        return operations.get();
+    }
+
+    private <T> CompletableFuture<T> submit(Operation<T> operation) {
+        if (committer == null) {
+            operation.future.completeExceptionally(new IllegalStateException("El commit en grupo de la cartera no está iniciado"));
+        } else {
+            queue.add(operation);
+        }
+        return operation.future;
+    }
+
+    private void run() {
+        Thread current = Thread.currentThread();
+        List<Operation<?>> batch = new ArrayList<>(maxOperations);
+        try {
+            while (true) {
+                Operation<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Al detenerse se sale solo con la cola vacía: lo ya encolado se confirma
+                    if (committer != current) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                // Reunir lo que llegue hasta completar el lote o agotar la espera desde la primera
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxOperations) {
+                    long remaining = deadline - System.nanoTime();
+                    Operation<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Operation<?> operation : batch) {
+                operation.future.completeExceptionally(new IllegalStateException("El commit en grupo de la cartera está detenido"));
+            }
+        }
+    }
+
+    private void commit(List<Operation<?>> batch) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            Session session = em.unwrap(Session.class);
+            int applied = 0;
+            for (Operation<?> operation : batch) {
+                Savepoint savepoint = session.doReturningWork(connection -> connection.setSavepoint());
+                try {
+                    operation.run(em);
+                    session.doWork(connection -> connection.releaseSavepoint(savepoint));
+                    applied++;
+                } catch (RuntimeException e) {
+                    session.doWork(connection -> connection.rollback(savepoint));
+                    operation.error = e;
+                }
+                // Las escrituras van por SQL directo: no reutilizar entidades leídas por otra operación
+                em.clear();
+            }
+            em.getTransaction().commit();
+            commits.incrementAndGet();
+            operations.addAndGet(applied);
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al confirmar un lote de " + batch.size() + " operaciones de la cartera", e);
+            RuntimeException failure = new RuntimeException("No se pudo confirmar el lote de la cartera", e);
+            for (Operation<?> operation : batch) {
+                if (operation.error == null) {
+                    operation.error = failure;
+                }
+            }
+        } finally {
+            em.close();
+        }
+
+        for (Operation<?> operation : batch) {
+            operation.complete();
+        }
+    }
+
+    /**
+     * Operación encolada: se aplica dentro de la transacción del lote y su futuro se completa
+     * cuando el lote se confirma.
+     */
+    private abstract static class Operation<T> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T value;
+        RuntimeException error;
+
+        abstract T apply(EntityManager em);
+
+        /**
+         * Refleja en memoria el resultado una vez confirmado.
+         */
+        void committed(T value) {
+        }
+
+        /**
+         * Deshace en memoria lo anotado por {@link #apply} cuando la operación no se confirma.
+         */
+        void discarded() {
+        }
+
+        void run(EntityManager em) {
+            value = apply(em);
+        }
+
+        void complete() {
+            if (error != null) {
+                discarded();
+                future.completeExceptionally(error);
+                return;
+            }
+            try {
+                committed(value);
+                future.complete(value);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaz para las operaciones atómicas sobre el saldo de los usuarios.
+ * Cada método se ejecuta en una única transacción de base de datos que bloquea las filas
+ * afectadas, actualiza el saldo, registra las transacciones y cierra las sesiones de juego.
+ */
+public interface WalletRepository {
+
+    /**
+     * Liquida una sesión de juego en curso: guarda el resultado y, si hay ganancias,
+     * las acredita al usuario registrando la transacción correspondiente.
+     *
+     * @param sessionId ID de la sesión de juego
+     * @param winnings cantidad ganada (0 si perdió)
+     * @param result resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     * @return la sesión liquidada, con su usuario actualizado
+     * @throws IllegalStateException si la sesión no existe o ya está finalizada
+     */
+    GameSession settleSession(Long sessionId, double winnings, String result, String gameData);
+
+    /**
+     * Liquida una sesión en curso y abre la siguiente con la apuesta indicada en una sola
+     * transacción: el premio y la nueva apuesta se aplican al saldo con una única actualización,
+     * condicionada a que el saldo más el premio cubran la apuesta. La sesión en curso ya está en
+     * memoria, así que no se vuelve a leer.
+     *
+     * <p>Si el saldo no alcanza para la nueva apuesta, la sesión se liquida igualmente (con su
+     * abono) y no se abre ninguna.</p>
+     *
+     * @param gameSession sesión en curso, con su usuario, tipo de juego, apuesta y fecha
+     * @param winnings cantidad ganada (0 si perdió)
+     * @param result resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     * @param next sesión nueva, con su usuario, tipo de juego, apuesta y semillas
+     * @return la sesión nueva guardada, o null si el saldo no alcanzaba para abrirla
+     * @throws IllegalStateException si la sesión ya está finalizada (no se guarda nada)
+     */
+    GameSession settleAndOpen(GameSession gameSession, double winnings, String result, String gameData,
+                              GameSession next);
+
+    /**
+     * Como {@link #settleAndOpen}, pero la sesión nueva retiene su apuesta en lugar de
+     * descontarla (como {@link #holdSession}): la fila del usuario solo recibe el cambio neto de
+     * la sesión liquidada y la apuesta nueva se comprueba contra el saldo disponible.
+     *
+     * <p>Si el saldo disponible no alcanza para la nueva apuesta, la sesión se liquida igualmente
+     * y no se abre ninguna.</p>
+     *
+     * @param gameSession sesión en curso, con su usuario, tipo de juego, apuesta y fecha
+     * @param winnings cantidad ganada (0 si perdió)
+     * @param result resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     * @param next sesión nueva, con su usuario, tipo de juego, apuesta y semillas
+     * @return la sesión nueva guardada, o null si el saldo disponible no alcanzaba para abrirla
+     * @throws IllegalStateException si la sesión ya está finalizada (no se guarda nada)
+     */
+    GameSession settleAndHold(GameSession gameSession, double winnings, String result, String gameData,
+                              GameSession next);
+
+    /**
+     * Abre una ronda con varias apuestas: descuenta el total del saldo solo si alcanza, guarda
+     * la sesión y registra una transacción de apuesta por cada una, enviadas en lote.
+     *
+     * @param gameSession sesión nueva, con su usuario, tipo de juego, apuesta total y semillas
+     * @param wagers apuestas de la ronda (su suma debe ser la apuesta de la sesión), o null para
+     *               una sola apuesta con el importe de la sesión
+     * @return la sesión guardada
+     * @throws IllegalStateException si el usuario no tiene saldo suficiente
+     */
+    GameSession openSession(GameSession gameSession, List<Wager> wagers);
+
+    /**
+     * Abre una ronda reteniendo la apuesta en lugar de descontarla: comprueba que el saldo
+     * disponible (saldo − retenciones de las rondas en curso) la cubre, guarda la sesión y
+     * registra la transacción de apuesta como retenida, sin escribir en la fila del usuario.
+     * Al liquidarla, la retención se convierte en un único cambio neto de saldo.
+     *
+     * @param gameSession sesión nueva, con su usuario, tipo de juego, apuesta y semillas
+     * @return la sesión guardada; su usuario queda con el saldo disponible
+     * @throws IllegalStateException si el usuario no tiene saldo disponible suficiente
+     */
+    GameSession holdSession(GameSession gameSession);
+
+    /**
+     * Abona un depósito con una actualización relativa del saldo ({@code balance = balance + ?})
+     * y registra su transacción, en una única transacción. Al no leer y reescribir el saldo, no
+     * pisa los cargos y abonos de las rondas que se confirman a la vez.
+     *
+     * @param userId ID del usuario
+     * @param amount cantidad depositada (positiva, con dos decimales)
+     * @return el usuario con su saldo disponible (saldo − retenciones)
+     * @throws IllegalArgumentException si el usuario no existe
+     */
+    User deposit(Long userId, double amount);
+
+    /**
+     * @param userId ID del usuario
+     * @return el total retenido por las rondas en curso del usuario, que no está disponible
+     */
+    double getHeldFunds(Long userId);
+
+    /**
+     * Guarda en una sola transacción rondas ya terminadas de un mismo usuario (por ejemplo, un
+     * lote de apuestas automáticas): inserta las sesiones con su resultado, aplica el cambio neto
+     * de saldo con una única actualización y registra las transacciones de apuesta y de premio
+     * en lote. El saldo debe cubrir el peor momento de la serie, como si las rondas se hubieran
+     * jugado una a una.
+     *
+     * @param gameSessions sesiones nuevas y ya liquidadas, en orden de juego, con su usuario
+     * @return las sesiones guardadas
+     * @throws IllegalStateException si el usuario no tiene saldo suficiente (no se guarda nada)
+     */
+    List<GameSession> recordRounds(List<GameSession> gameSessions);
+
+    /**
+     * Añade una apuesta a una ronda en curso (por ejemplo, al doblar o dividir en blackjack):
+     * descuenta la cantidad solo si el saldo alcanza, la suma a la apuesta de la sesión y
+     * registra su transacción de apuesta, en una única transacción.
+     *
+     * @param gameSession sesión en curso, con su usuario
+     * @param wager apuesta añadida
+     * @return la sesión con la apuesta total actualizada
+     * @throws IllegalStateException si el usuario no tiene saldo suficiente o la sesión ya está finalizada
+     */
+    GameSession addWager(GameSession gameSession, Wager wager);
+
+    /**
+     * Liquida una ronda con varias apuestas: como {@link #settleSession(Long, double, String, String)},
+     * pero registra una transacción de premio por cada apuesta ganadora, enviadas en lote.
+     *
+     * @param sessionId ID de la sesión de juego
+     * @param winnings lo pagado por cada apuesta ganadora (vacía si no ganó ninguna)
+     * @param result resultado del juego
+     * @param gameData datos específicos del juego (opcional)
+     * @return la sesión liquidada, con su usuario actualizado
+     * @throws IllegalStateException si la sesión no existe o ya está finalizada
+     */
+    GameSession settleSession(Long sessionId, List<Wager> winnings, String result, String gameData);
+
+    /**
+     * Liquida en bloque, en una sola transacción, sesiones en curso cuyo resultado ya se
+     * conoce (por ejemplo, todas las apuestas de una ronda compartida): sin leerlas antes, con
+     * un único abono por usuario y las escrituras enviadas en lotes. Si la sesión trae la
+     * semilla del servidor, se revela en la misma actualización; las devoluciones
+     * ({@link Settlement#refund}) se registran como transacciones de devolución. Las sesiones
+     * abiertas con {@link #holdSession} aplican premio − apuesta y liberan su retención.
+     *
+     * @param settlements liquidación de cada sesión (sesiones distintas)
+     * @return las liquidaciones aplicadas (se omiten las sesiones que ya no estaban en curso)
+     * @throws RuntimeException si falla la base de datos (no se aplica ninguna)
+     */
+    List<Settlement> settleBatch(List<Settlement> settlements);
+
+    /**
+     * Busca, usando el índice (result, session_date), las sesiones más antiguas que siguen en
+     * curso desde antes de la fecha indicada, para liquidarlas con {@link #settleBatch(List)}.
+     *
+     * @param startedBefore solo se devuelven sesiones iniciadas antes de esta fecha
+     * @param limit número máximo de sesiones
+     * @return las sesiones, con el ID y el nombre de su usuario
+     */
+    List<GameSession> findAbandoned(LocalDateTime startedBefore, int limit);
+
+    /**
+     * Busca las sesiones en curso de un usuario, para liquidarlas con {@link #settleBatch(List)}
+     * (por ejemplo, antes de eliminar su cuenta).
+     *
+     * @param userId ID del usuario
+     * @param limit número máximo de sesiones
+     * @return las sesiones, con el ID y el nombre de su usuario
+     */
+    List<GameSession> findInProgress(Long userId, int limit);
+}
@@ -0,0 +1,1084 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementación de las operaciones atómicas de saldo utilizando JPA y lotes JDBC.
+ *
+ * <p>Todas las liquidaciones pasan por {@link #applySettlements}: dentro de una misma
+ * transacción se cierran las sesiones con una actualización condicional
+ * ({@code WHERE result = 'in_progress'}), de modo que una sesión nunca se liquida dos veces;
+ * después se aplica un único cambio relativo de saldo por usuario (en orden de ID para evitar
+ * interbloqueos), se insertan las transacciones y se actualizan los acumulados de pnl_rollups.
+ * Todo se envía en lotes JDBC, por lo que liquidar miles de sesiones cuesta unos pocos viajes
+ * a la base de datos.</p>
+ *
+ * <p>Las rondas abiertas con {@link #holdSession} no descuentan la apuesta: la retienen en
+ * {@link FundsHolds} y al liquidarse aplican un único cambio neto (premio − apuesta), de modo
+ * que la fila del usuario se escribe una vez por ronda en lugar de dos. Para que el saldo siga
+ * cubriendo las retenciones, la retención se anota antes de leer el saldo con bloqueo
+ * ({@code FOR UPDATE}) y los cargos directos comprueban las retenciones después de aplicarse.</p>
+ */
+public class WalletRepositoryImpl implements WalletRepository {
+    private static final Logger LOGGER = Logger.getLogger(WalletRepositoryImpl.class.getName());
+
+    private static final String GAME_RESULT_IN_PROGRESS = "in_progress";
+    private static final String TRANSACTION_TYPE_BET = "bet";
+    private static final String TRANSACTION_TYPE_WIN = "win";
+    private static final String TRANSACTION_TYPE_REFUND = "refund";
+    private static final String TRANSACTION_TYPE_DEPOSIT = "deposit";
+    private static final String TRANSACTION_STATUS_COMPLETED = "completed";
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String SETTLE_SESSION_SQL =
+            "UPDATE game_sessions SET winning_amount = ?, result = ?, game_data = COALESCE(?, game_data), " +
+                    "server_seed = COALESCE(?, server_seed) WHERE id = ? AND result = ?";
+    private static final String CREDIT_BALANCE_SQL =
+            "UPDATE users SET balance = balance + ? WHERE id = ?";
+    private static final String DEBIT_BALANCE_SQL =
+            "UPDATE users SET balance = balance - ? WHERE id = ? AND balance >= ?";
+    // Cambio neto de un lote de rondas: el saldo debe cubrir el peor momento de la serie
+    private static final String ADJUST_BALANCE_SQL =
+            "UPDATE users SET balance = balance + ? WHERE id = ? AND balance >= ?";
+    private static final String SELECT_BALANCE_SQL =
+            "SELECT balance FROM users WHERE id = ?";
+    // Espera a los cargos sin confirmar del usuario antes de comprobar una retención
+    private static final String LOCK_BALANCE_SQL =
+            "SELECT balance FROM users WHERE id = ? FOR UPDATE";
+    private static final String COMPLETE_HELD_BET_SQL =
+            "UPDATE transactions SET status = ? WHERE id = ? AND status = ?";
+    private static final String RAISE_BET_SQL =
+            "UPDATE game_sessions SET bet_amount = bet_amount + ? WHERE id = ? AND result = ?";
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (user_id, amount, transaction_type, status, transaction_date, reference_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    public WalletRepositoryImpl() {
+        // Las retenciones se reconstruyen antes de la primera transacción: si se cargaran dentro
+        // de una, cada hilo que espera a la carga retendría una conexión y el pool se agotaría
+        FundsHolds.getDefault();
+    }
+
+    @Override
+    public GameSession settleSession(Long sessionId, double winnings, String result, String gameData) {
+        return settleSession(sessionId, winnings, null, result, gameData);
+    }
+
+    @Override
+    public GameSession settleSession(Long sessionId, List<Wager> winnings, String result, String gameData) {
+        double total = 0;
+        for (Wager wager : winnings) {
+            total += wager.getAmount();
+        }
+        return settleSession(sessionId, total, winnings, result, gameData);
+    }
+
+    @Override
+    public GameSession settleAndOpen(GameSession gameSession, double winnings, String result, String gameData,
+                                     GameSession next) {
+        return settleAndOpen(gameSession, winnings, result, gameData, next, false);
+    }
+
+    @Override
+    public GameSession settleAndHold(GameSession gameSession, double winnings, String result, String gameData,
+                                     GameSession next) {
+        return settleAndOpen(gameSession, winnings, result, gameData, next, true);
+    }
+
+    /**
+     * Liquida la sesión y abre la siguiente descontando su apuesta o, con {@code holdNext},
+     * reteniéndola (la fila del usuario solo recibe el cambio neto de la sesión liquidada).
+     */
+    private GameSession settleAndOpen(GameSession gameSession, double winnings, String result, String gameData,
+                                      GameSession next, boolean holdNext) {
+        long sessionId = gameSession.getId();
+        long userId = gameSession.getUser().getId();
+        BigDecimal win = toAmount(winnings);
+        BigDecimal bet = toAmount(next.getBetAmount());
+        // Si la sesión retenía su apuesta, se descuenta ahora junto con el premio
+        FundsHolds.Hold hold = holds().find(sessionId);
+        BigDecimal held = hold != null ? hold.amount : BigDecimal.ZERO;
+        BigDecimal credit = win.subtract(held);
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        FundsHolds.Hold nextHold = null;
+        try {
+            em.getTransaction().begin();
+
+            boolean opened = em.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(SETTLE_SESSION_SQL)) {
+                    statement.setBigDecimal(1, win);
+                    statement.setString(2, result);
+                    statement.setString(3, gameData);
+                    statement.setString(4, null);
+                    statement.setLong(5, sessionId);
+                    statement.setString(6, GAME_RESULT_IN_PROGRESS);
+                    if (statement.executeUpdate() == 0) {
+                        throw new IllegalStateException("La sesión de juego ya está finalizada");
+                    }
+                }
+
+                if (!holdNext) {
+                    // Premio y nueva apuesta en una única actualización: el saldo más el premio deben
+                    // cubrir la apuesta y las demás retenciones del usuario
+                    BigDecimal otherHolds = holds().getHeld(userId).subtract(held);
+                    try (PreparedStatement statement = connection.prepareStatement(ADJUST_BALANCE_SQL)) {
+                        statement.setBigDecimal(1, credit.subtract(bet));
+                        statement.setLong(2, userId);
+                        statement.setBigDecimal(3, bet.subtract(credit).add(otherHolds));
+                        if (statement.executeUpdate() > 0) {
+                            checkHolds(connection, userId, held);
+                            return true;
+                        }
+                    }
+                }
+                // Sin saldo para repetir, o con la siguiente apuesta retenida: solo se abona el premio
+                // (o se descuenta la apuesta retenida)
+                if (credit.signum() != 0) {
+                    try (PreparedStatement statement = connection.prepareStatement(CREDIT_BALANCE_SQL)) {
+                        statement.setBigDecimal(1, credit);
+                        statement.setLong(2, userId);
+                        statement.executeUpdate();
+                    }
+                }
+                return false;
+            });
+
+            if (holdNext) {
+                try {
+                    // La retención de la sesión liquidada sigue anotada hasta confirmar, pero ya está en el saldo
+                    nextHold = holdSession(em, next, held);
+                    opened = true;
+                } catch (IllegalStateException e) {
+                    // Sin saldo disponible para repetir: la sesión se liquida igualmente
+                }
+            } else if (opened) {
+                if (next.getSessionDate() == null) {
+                    next.setSessionDate(LocalDateTime.now());
+                }
+                em.persist(next);
+                em.flush();
+            }
+
+            boolean debitedNext = opened && !holdNext;
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    boolean pending = false;
+                    if (win.signum() > 0) {
+                        addTransaction(statement, userId, win, TRANSACTION_TYPE_WIN, now, "session:" + sessionId);
+                        pending = true;
+                    }
+                    if (debitedNext) {
+                        addTransaction(statement, userId, bet, TRANSACTION_TYPE_BET, now, "session:" + next.getId());
+                        pending = true;
+                    }
+                    if (pending) {
+                        statement.executeBatch();
+                    }
+                }
+                if (hold != null) {
+                    completeHeldBets(connection, List.of(hold));
+                }
+
+                PnlRollupWriter rollups = new PnlRollupWriter();
+                rollups.add(userId, gameSession.getGameType(), gameSession.getSessionDate(),
+                        toAmount(gameSession.getBetAmount()), win);
+                rollups.flush(connection);
+            });
+
+            em.getTransaction().commit();
+            holds().release(sessionId);
+
+            // El saldo en memoria es el disponible: la apuesta retenida ya estaba descontada
+            User user = gameSession.getUser();
+            BigDecimal balance = toAmount(user.getBalance()).add(win);
+            user.setBalance((opened ? balance.subtract(bet) : balance).doubleValue());
+            return opened ? next : null;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            if (nextHold != null) {
+                holds().cancel(nextHold);
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            if (nextHold != null) {
+                holds().cancel(nextHold);
+            }
+            LOGGER.log(Level.SEVERE, "Error al liquidar la sesión de juego " + sessionId + " y abrir la siguiente", e);
+            throw new RuntimeException("No se pudo liquidar la sesión de juego y repetir la apuesta", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public GameSession openSession(GameSession gameSession, List<Wager> wagers) {
+        if (wagers != null && wagers.isEmpty()) {
+            throw new IllegalArgumentException("La ronda necesita al menos una apuesta");
+        }
+        long userId = gameSession.getUser().getId();
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            openSession(em, gameSession, wagers);
+            em.getTransaction().commit();
+            debited(gameSession);
+            return gameSession;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al abrir la ronda del usuario " + userId, e);
+            throw new RuntimeException("No se pudo abrir la ronda", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Abre una ronda dentro de la transacción activa: descuento condicional, sesión y
+     * transacciones de apuesta. Sin apuestas sueltas ({@code wagers} null) registra una sola
+     * transacción con la apuesta de la sesión.
+     */
+    void openSession(EntityManager em, GameSession gameSession, List<Wager> wagers) {
+        long userId = gameSession.getUser().getId();
+        BigDecimal debit;
+        if (wagers == null) {
+            debit = toAmount(gameSession.getBetAmount());
+        } else {
+            BigDecimal total = BigDecimal.ZERO;
+            for (Wager wager : wagers) {
+                total = total.add(toAmount(wager.getAmount()));
+            }
+            debit = total;
+        }
+
+        // Descuento condicional: no hace falta bloquear ni leer antes el saldo
+        em.unwrap(Session.class).doWork(connection -> debit(connection, userId, debit));
+
+        if (gameSession.getSessionDate() == null) {
+            gameSession.setSessionDate(LocalDateTime.now());
+        }
+        em.persist(gameSession);
+        em.flush();
+
+        // Una transacción de apuesta por cada una, en un solo lote
+        long sessionId = gameSession.getId();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                if (wagers == null) {
+                    addTransaction(statement, userId, debit, TRANSACTION_TYPE_BET, now, "session:" + sessionId);
+                    statement.executeBatch();
+                    return;
+                }
+                int pending = 0;
+                for (Wager wager : wagers) {
+                    addTransaction(statement, userId, toAmount(wager.getAmount()), TRANSACTION_TYPE_BET, now,
+                            reference(sessionId, wager));
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    /**
+     * Refleja en memoria el descuento de una ronda ya confirmada.
+     */
+    static void debited(GameSession gameSession) {
+        User user = gameSession.getUser();
+        user.setBalance(toAmount(user.getBalance()).subtract(toAmount(gameSession.getBetAmount())).doubleValue());
+    }
+
+    @Override
+    public GameSession holdSession(GameSession gameSession) {
+        long userId = gameSession.getUser().getId();
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        FundsHolds.Hold hold = null;
+        try {
+            em.getTransaction().begin();
+            hold = holdSession(em, gameSession);
+            em.getTransaction().commit();
+            gameSession.getUser().setBalance(hold.available.doubleValue());
+            return gameSession;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            if (hold != null) {
+                holds().cancel(hold);
+            }
+            LOGGER.log(Level.SEVERE, "Error al abrir con retención la ronda del usuario " + userId, e);
+            throw new RuntimeException("No se pudo abrir la ronda", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Abre una ronda con retención dentro de la transacción activa: retención en memoria,
+     * lectura del saldo con bloqueo, sesión y transacción de apuesta retenida. Si falla, la
+     * retención se deshace; si falla después la transacción, la debe cancelar quien la confirma.
+     *
+     * @return la retención, ya asociada a la sesión
+     */
+    FundsHolds.Hold holdSession(EntityManager em, GameSession gameSession) {
+        return holdSession(em, gameSession, BigDecimal.ZERO);
+    }
+
+    /**
+     * @param releasing retención que se libera al confirmar la transacción activa pero que ya se
+     *                  ha aplicado al saldo (no cuenta contra el saldo disponible)
+     */
+    private FundsHolds.Hold holdSession(EntityManager em, GameSession gameSession, BigDecimal releasing) {
+        long userId = gameSession.getUser().getId();
+        BigDecimal amount = toAmount(gameSession.getBetAmount());
+        FundsHolds holds = holds();
+
+        // Primero la retención: un cargo que se compruebe después ya la descuenta
+        FundsHolds.Hold hold = holds.reserve(userId, amount);
+        try {
+            BigDecimal balance = em.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(LOCK_BALANCE_SQL)) {
+                    statement.setLong(1, userId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next() ? resultSet.getBigDecimal(1) : null;
+                    }
+                }
+            });
+            if (balance == null) {
+                throw new IllegalStateException("Usuario no encontrado: " + userId);
+            }
+            // Las retenciones se leen después del saldo: una liberada antes ya está descontada de él
+            BigDecimal available = balance.subtract(holds.getHeld(userId).subtract(releasing));
+            if (available.signum() < 0) {
+                throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+            }
+
+            if (gameSession.getSessionDate() == null) {
+                gameSession.setSessionDate(LocalDateTime.now());
+            }
+            em.persist(gameSession);
+            em.flush();
+
+            long sessionId = gameSession.getId();
+            long transactionId = em.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    statement.setLong(1, userId);
+                    statement.setBigDecimal(2, amount);
+                    statement.setString(3, TRANSACTION_TYPE_BET);
+                    statement.setString(4, FundsHolds.TRANSACTION_STATUS_HELD);
+                    statement.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                    statement.setString(6, "session:" + sessionId);
+                    statement.executeUpdate();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        keys.next();
+                        return keys.getLong(1);
+                    }
+                }
+            });
+            holds.attach(hold, sessionId, transactionId);
+            hold.available = available;
+            return hold;
+        } catch (RuntimeException e) {
+            holds.cancel(hold);
+            throw e;
+        }
+    }
+
+    @Override
+    public User deposit(Long userId, double amount) {
+        BigDecimal credit = toAmount(amount);
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(CREDIT_BALANCE_SQL)) {
+                    statement.setBigDecimal(1, credit);
+                    statement.setLong(2, userId);
+                    if (statement.executeUpdate() == 0) {
+                        throw new IllegalArgumentException("Usuario no encontrado con ID: " + userId);
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                    addTransaction(statement, userId, credit, TRANSACTION_TYPE_DEPOSIT,
+                            new Timestamp(System.currentTimeMillis()), null);
+                    statement.executeBatch();
+                }
+            });
+            // Lee la fila ya abonada (incluye lo que otras transacciones hayan confirmado antes)
+            User user = em.find(User.class, userId);
+
+            em.getTransaction().commit();
+            em.detach(user);
+            user.setBalance(toAmount(user.getBalance()).subtract(holds().getHeld(userId)).doubleValue());
+            return user;
+        } catch (IllegalArgumentException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al abonar un depósito al usuario " + userId, e);
+            throw new RuntimeException("No se pudo abonar el depósito", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public double getHeldFunds(Long userId) {
+        return holds().getHeld(userId).doubleValue();
+    }
+
+    /**
+     * Tras confirmar la liquidación de una sesión: libera su retención y deja en su usuario el
+     * saldo disponible.
+     */
+    void settled(GameSession gameSession) {
+        FundsHolds holds = holds();
+        holds.release(gameSession.getId());
+        User user = gameSession.getUser();
+        user.setBalance(toAmount(user.getBalance()).subtract(holds.getHeld(user.getId())).doubleValue());
+    }
+
+    /**
+     * Descuento condicional: el saldo debe cubrir el cargo y las retenciones del usuario.
+     */
+    private static void debit(Connection connection, long userId, BigDecimal amount) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DEBIT_BALANCE_SQL)) {
+            statement.setBigDecimal(1, amount);
+            statement.setLong(2, userId);
+            statement.setBigDecimal(3, amount.add(holds().getHeld(userId)));
+            if (statement.executeUpdate() == 0) {
+                throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+            }
+        }
+        checkHolds(connection, userId, BigDecimal.ZERO);
+    }
+
+    /**
+     * Comprueba, ya aplicado un cargo, que el saldo sigue cubriendo las retenciones del usuario
+     * (sin la que libera la propia operación). Una retención anotada antes del cargo se ve aquí;
+     * una posterior leerá el saldo con bloqueo y esperará a que el cargo se confirme.
+     */
+    private static void checkHolds(Connection connection, long userId, BigDecimal releasing) throws SQLException {
+        BigDecimal held = holds().getHeld(userId).subtract(releasing);
+        if (held.signum() <= 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BALANCE_SQL)) {
+            statement.setLong(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getBigDecimal(1).compareTo(held) < 0) {
+                    throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca como completadas las transacciones de apuesta retenidas de las sesiones liquidadas.
+     */
+    private static void completeHeldBets(Connection connection, List<FundsHolds.Hold> heldBets) throws SQLException {
+        if (heldBets.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(COMPLETE_HELD_BET_SQL)) {
+            int pending = 0;
+            for (FundsHolds.Hold hold : heldBets) {
+                statement.setString(1, TRANSACTION_STATUS_COMPLETED);
+                statement.setLong(2, hold.transactionId);
+                statement.setString(3, FundsHolds.TRANSACTION_STATUS_HELD);
+                statement.addBatch();
+                if (++pending == JDBC_BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static FundsHolds holds() {
+        return FundsHolds.getDefault();
+    }
+
+    @Override
+    public List<GameSession> recordRounds(List<GameSession> gameSessions) {
+        if (gameSessions.isEmpty()) {
+            return gameSessions;
+        }
+        long userId = gameSessions.get(0).getUser().getId();
+
+        // Cambio neto y peor momento de la serie (lo más que llega a bajar el saldo)
+        BigDecimal net = BigDecimal.ZERO;
+        BigDecimal required = BigDecimal.ZERO;
+        for (GameSession gameSession : gameSessions) {
+            if (gameSession.getUser().getId() != userId) {
+                throw new IllegalArgumentException("Todas las rondas del lote deben ser del mismo usuario");
+            }
+            net = net.subtract(toAmount(gameSession.getBetAmount()));
+            if (net.negate().compareTo(required) > 0) {
+                required = net.negate();
+            }
+            net = net.add(toAmount(gameSession.getWinningAmount()));
+        }
+        BigDecimal change = net;
+        BigDecimal minimum = required;
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(ADJUST_BALANCE_SQL)) {
+                    statement.setBigDecimal(1, change);
+                    statement.setLong(2, userId);
+                    statement.setBigDecimal(3, minimum.add(holds().getHeld(userId)));
+                    if (statement.executeUpdate() == 0) {
+                        throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+                    }
+                }
+                checkHolds(connection, userId, BigDecimal.ZERO);
+            });
+
+            for (GameSession gameSession : gameSessions) {
+                if (gameSession.getSessionDate() == null) {
+                    gameSession.setSessionDate(LocalDateTime.now());
+                }
+                em.persist(gameSession);
+            }
+            em.flush();
+
+            // Apuestas y premios de todas las rondas en un solo lote, y sus acumulados
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    int pending = 0;
+                    for (GameSession gameSession : gameSessions) {
+                        String reference = "session:" + gameSession.getId();
+                        addTransaction(statement, userId, toAmount(gameSession.getBetAmount()), TRANSACTION_TYPE_BET,
+                                now, reference);
+                        pending++;
+                        if (gameSession.getWinningAmount() > 0) {
+                            addTransaction(statement, userId, toAmount(gameSession.getWinningAmount()),
+                                    TRANSACTION_TYPE_WIN, now, reference);
+                            pending++;
+                        }
+                        if (pending >= JDBC_BATCH_SIZE) {
+                            statement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        statement.executeBatch();
+                    }
+                }
+
+                PnlRollupWriter rollups = new PnlRollupWriter();
+                for (GameSession gameSession : gameSessions) {
+                    rollups.add(userId, gameSession.getGameType(), gameSession.getSessionDate(),
+                            toAmount(gameSession.getBetAmount()), toAmount(gameSession.getWinningAmount()));
+                }
+                rollups.flush(connection);
+            });
+
+            em.getTransaction().commit();
+            GameSession last = gameSessions.get(gameSessions.size() - 1);
+            last.getUser().setBalance(toAmount(last.getUser().getBalance()).add(change).doubleValue());
+            return gameSessions;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al guardar un lote de " + gameSessions.size() + " rondas del usuario " + userId, e);
+            throw new RuntimeException("No se pudo guardar el lote de rondas", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public GameSession addWager(GameSession gameSession, Wager wager) {
+        long sessionId = gameSession.getId();
+        long userId = gameSession.getUser().getId();
+        BigDecimal amount = toAmount(wager.getAmount());
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(RAISE_BET_SQL)) {
+                    statement.setBigDecimal(1, amount);
+                    statement.setLong(2, sessionId);
+                    statement.setString(3, GAME_RESULT_IN_PROGRESS);
+                    if (statement.executeUpdate() == 0) {
+                        throw new IllegalStateException("La sesión de juego ya está finalizada");
+                    }
+                }
+                debit(connection, userId, amount);
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                    addTransaction(statement, userId, amount, TRANSACTION_TYPE_BET,
+                            new Timestamp(System.currentTimeMillis()), reference(sessionId, wager));
+                    statement.executeBatch();
+                }
+            });
+
+            em.getTransaction().commit();
+            gameSession.setBetAmount(toAmount(gameSession.getBetAmount()).add(amount).doubleValue());
+            gameSession.getUser().setBalance(toAmount(gameSession.getUser().getBalance()).subtract(amount).doubleValue());
+            return gameSession;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al añadir una apuesta a la sesión de juego " + sessionId, e);
+            throw new RuntimeException("No se pudo añadir la apuesta", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private GameSession settleSession(Long sessionId, double winnings, List<Wager> credits, String result, String gameData) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            GameSession session = settleSession(em, sessionId, winnings, credits, result, gameData);
+            em.getTransaction().commit();
+            settled(session);
+            return session;
+        } catch (IllegalStateException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al liquidar la sesión de juego " + sessionId, e);
+            throw new RuntimeException("No se pudo liquidar la sesión de juego", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Liquida una sesión dentro de la transacción activa.
+     *
+     * @return el estado ya liquidado, con su usuario
+     */
+    GameSession settleSession(EntityManager em, Long sessionId, double winnings, List<Wager> credits,
+                              String result, String gameData) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT g.id, g.user.id, g.betAmount, g.result, g.gameType, g.sessionDate FROM GameSession g WHERE g.id = :id",
+                        Object[].class)
+                .setParameter("id", sessionId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Sesión de juego no encontrada: " + sessionId);
+        }
+
+        PendingSettlement settlement = new PendingSettlement(rows.get(0), winnings, result, gameData, credits);
+        if (applySettlements(em, List.of(settlement)).isEmpty()) {
+            throw new IllegalStateException("La sesión de juego ya está finalizada");
+        }
+
+        // Cargar el estado ya liquidado junto con el usuario en una sola consulta
+        // (el contexto de persistencia no tenía copias previas)
+        return em.find(GameSession.class, sessionId, FetchPlan.SETTLEMENT.hints(em, GameSession.class));
+    }
+
+    @Override
+    public List<GameSession> findAbandoned(LocalDateTime startedBefore, int limit) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            // Recorre el índice (result, session_date) desde la sesión en curso más antigua
+            List<Object[]> rows = em.createQuery(
+                            "SELECT g.id, g.user.id, g.betAmount, g.gameType, g.sessionDate, g.serverSeedHash, " +
+                                    "g.user.username FROM GameSession g " +
+                                    "WHERE g.result = :inProgress AND g.sessionDate < :startedBefore ORDER BY g.sessionDate",
+                            Object[].class)
+                    .setParameter("inProgress", GAME_RESULT_IN_PROGRESS)
+                    .setParameter("startedBefore", startedBefore)
+                    .setMaxResults(limit)
+                    .getResultList();
+            return toDetachedSessions(rows);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar sesiones abandonadas", e);
+            throw new RuntimeException("No se pudieron buscar las sesiones abandonadas", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<GameSession> findInProgress(Long userId, int limit) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            List<Object[]> rows = em.createQuery(
+                            "SELECT g.id, g.user.id, g.betAmount, g.gameType, g.sessionDate, g.serverSeedHash, " +
+                                    "g.user.username FROM GameSession g " +
+                                    "WHERE g.user.id = :userId AND g.result = :inProgress ORDER BY g.id",
+                            Object[].class)
+                    .setParameter("userId", userId)
+                    .setParameter("inProgress", GAME_RESULT_IN_PROGRESS)
+                    .setMaxResults(limit)
+                    .getResultList();
+            return toDetachedSessions(rows);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al buscar las sesiones en curso del usuario " + userId, e);
+            throw new RuntimeException("No se pudieron buscar las sesiones en curso", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Sesiones sueltas con lo necesario para liquidarlas, sin cargar las entidades. Cada fila trae
+     * ID, ID del usuario, apuesta, tipo de juego, fecha, hash de la semilla y nombre del usuario.
+     */
+    private static List<GameSession> toDetachedSessions(List<Object[]> rows) {
+        List<GameSession> sessions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            User user = new User();
+            user.setId(((Number) row[1]).longValue());
+            user.setUsername((String) row[6]);
+            GameSession session = new GameSession();
+            session.setId(((Number) row[0]).longValue());
+            session.setUser(user);
+            session.setBetAmount(((Number) row[2]).doubleValue());
+            session.setWinningAmount(0.0);
+            session.setResult(GAME_RESULT_IN_PROGRESS);
+            session.setGameType((String) row[3]);
+            session.setSessionDate((LocalDateTime) row[4]);
+            session.setServerSeedHash((String) row[5]);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    @Override
+    public List<Settlement> settleBatch(List<Settlement> settlements) {
+        List<Settlement> settled = new ArrayList<>(settlements.size());
+        if (settlements.isEmpty()) {
+            return settled;
+        }
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+
+            // Las sesiones ya están en memoria: no hace falta leerlas, la actualización condicional
+            // descarta las que ya no estén en curso
+            List<PendingSettlement> pending = new ArrayList<>(settlements.size());
+            for (Settlement settlement : settlements) {
+                pending.add(new PendingSettlement(settlement));
+            }
+
+            List<PendingSettlement> applied = applySettlements(em, pending);
+            em.getTransaction().commit();
+            for (PendingSettlement settlement : applied) {
+                if (settlement.hold != null) {
+                    holds().release(settlement.sessionId);
+                }
+                settled.add(settlement.source);
+            }
+            return settled;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.SEVERE, "Error al liquidar un lote de " + settlements.size() + " sesiones", e);
+            throw new RuntimeException("No se pudo liquidar el lote de sesiones", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Aplica un conjunto de liquidaciones sobre la conexión de la transacción activa.
+     *
+     * @return las liquidaciones aplicadas (se omiten las sesiones que ya no estaban en curso)
+     */
+    private List<PendingSettlement> applySettlements(EntityManager em, List<PendingSettlement> settlements) {
+        List<PendingSettlement> applied = new ArrayList<>(settlements.size());
+        if (settlements.isEmpty()) {
+            return applied;
+        }
+
+        List<PendingSettlement> ordered = new ArrayList<>(settlements);
+        ordered.sort(Comparator.comparingLong(s -> s.sessionId));
+        FundsHolds holds = holds();
+        for (PendingSettlement settlement : ordered) {
+            settlement.hold = holds.find(settlement.sessionId);
+        }
+
+        em.unwrap(Session.class).doWork(connection -> {
+            // 1. Cerrar las sesiones que siguen en curso
+            try (PreparedStatement statement = connection.prepareStatement(SETTLE_SESSION_SQL)) {
+                boolean batchCounts = true;
+                for (int start = 0; start < ordered.size(); start += JDBC_BATCH_SIZE) {
+                    List<PendingSettlement> chunk = ordered.subList(start, Math.min(start + JDBC_BATCH_SIZE, ordered.size()));
+                    if (batchCounts) {
+                        Savepoint savepoint = connection.setSavepoint();
+                        for (PendingSettlement settlement : chunk) {
+                            bindSettlement(statement, settlement);
+                            statement.addBatch();
+                        }
+
+                        int[] counts = statement.executeBatch();
+                        if (Arrays.stream(counts).noneMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+                            connection.releaseSavepoint(savepoint);
+                            for (int i = 0; i < counts.length; i++) {
+                                if (counts[i] > 0) {
+                                    applied.add(chunk.get(i));
+                                }
+                            }
+                            continue;
+                        }
+
+                        // SUCCESS_NO_INFO: el driver no informa de las filas de cada sentencia y no se
+                        // sabe qué sesiones seguían en curso; se deshace el lote y se repite fila a fila
+                        connection.rollback(savepoint);
+                        batchCounts = false;
+                    }
+
+                    for (PendingSettlement settlement : chunk) {
+                        bindSettlement(statement, settlement);
+                        if (statement.executeUpdate() > 0) {
+                            applied.add(settlement);
+                        }
+                    }
+                }
+            }
+
+            // 2. Un único cambio relativo por usuario: el premio, menos la apuesta si estaba retenida
+            Map<Long, BigDecimal> creditsByUser = new TreeMap<>();
+            List<FundsHolds.Hold> heldBets = new ArrayList<>();
+            for (PendingSettlement settlement : applied) {
+                BigDecimal credit = settlement.winnings;
+                if (settlement.hold != null) {
+                    credit = credit.subtract(settlement.hold.amount);
+                    heldBets.add(settlement.hold);
+                }
+                if (credit.signum() != 0) {
+                    creditsByUser.merge(settlement.userId, credit, BigDecimal::add);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(CREDIT_BALANCE_SQL)) {
+                int pending = 0;
+                for (Map.Entry<Long, BigDecimal> credit : creditsByUser.entrySet()) {
+                    if (credit.getValue().signum() == 0) {
+                        continue;
+                    }
+                    statement.setBigDecimal(1, credit.getValue());
+                    statement.setLong(2, credit.getKey());
+                    statement.addBatch();
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+
+            // 3. Registrar una transacción completada por cada abono (o por cada apuesta ganadora)
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                int pending = 0;
+                for (PendingSettlement settlement : applied) {
+                    if (settlement.winnings.signum() <= 0) {
+                        continue;
+                    }
+                    if (settlement.credits == null) {
+                        addTransaction(statement, settlement.userId, settlement.winnings, settlement.creditType,
+                                now, "session:" + settlement.sessionId);
+                        pending++;
+                    } else {
+                        for (Wager credit : settlement.credits) {
+                            addTransaction(statement, settlement.userId, toAmount(credit.getAmount()),
+                                    settlement.creditType, now, reference(settlement.sessionId, credit));
+                            pending++;
+                        }
+                    }
+                    if (pending >= JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+
+            // 4. Las apuestas retenidas pasan a completadas
+            completeHeldBets(connection, heldBets);
+
+            // 5. Sumar las rondas a los acumulados de pérdidas y ganancias
+            PnlRollupWriter rollups = new PnlRollupWriter();
+            for (PendingSettlement settlement : applied) {
+                rollups.add(settlement.userId, settlement.gameType, settlement.sessionDate,
+                        settlement.bet, settlement.winnings);
+            }
+            rollups.flush(connection);
+        });
+
+        return applied;
+    }
+
+    private static void bindSettlement(PreparedStatement statement, PendingSettlement settlement) throws SQLException {
+        statement.setBigDecimal(1, settlement.winnings);
+        statement.setString(2, settlement.result);
+        statement.setString(3, settlement.gameData);
+        statement.setString(4, settlement.serverSeed);
+        statement.setLong(5, settlement.sessionId);
+        statement.setString(6, GAME_RESULT_IN_PROGRESS);
+    }
+
+    private static void addTransaction(PreparedStatement statement, long userId, BigDecimal amount, String type,
+                                       Timestamp date, String referenceId) throws SQLException {
+        statement.setLong(1, userId);
+        statement.setBigDecimal(2, amount);
+        statement.setString(3, type);
+        statement.setString(4, TRANSACTION_STATUS_COMPLETED);
+        statement.setTimestamp(5, date);
+        statement.setString(6, referenceId);
+        statement.addBatch();
+    }
+
+    /**
+     * @return reference_id de una apuesta dentro de una ronda: "session:ID:referencia"
+     */
+    private static String reference(long sessionId, Wager wager) {
+        return "session:" + sessionId + ":" + wager.getReference();
+    }
+
+    private static BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Liquidación pendiente de una sesión: a partir de la fila
+     * (id, user_id, bet_amount, result, game_type, session_date) o de una {@link Settlement}.
+     */
+    private static final class PendingSettlement {
+        final long sessionId;
+        final long userId;
+        final BigDecimal bet;
+        final String gameType;
+        final LocalDateTime sessionDate;
+        final BigDecimal winnings;
+        final String result;
+        final String gameData;
+        // Semilla del servidor a revelar al cerrar la sesión (null: se revela aparte)
+        final String serverSeed;
+        final String creditType;
+        // Abonos por apuesta (null: una sola transacción con el total)
+        final List<Wager> credits;
+        // Liquidación de origen cuando viene de settleBatch
+        final Settlement source;
+        // Retención de la apuesta, si la sesión se abrió sin descontarla
+        FundsHolds.Hold hold;
+
+        PendingSettlement(Object[] row, double winnings, String result, String gameData, List<Wager> credits) {
+            this.sessionId = ((Number) row[0]).longValue();
+            this.userId = ((Number) row[1]).longValue();
+            this.bet = toAmount(((Number) row[2]).doubleValue());
+            this.gameType = (String) row[4];
+            this.sessionDate = (LocalDateTime) row[5];
+            this.winnings = toAmount(winnings);
+            this.result = result;
+            this.gameData = gameData;
+            this.serverSeed = null;
+            this.creditType = TRANSACTION_TYPE_WIN;
+            this.credits = credits;
+            this.source = null;
+        }
+
+        PendingSettlement(Settlement settlement) {
+            GameSession session = settlement.getSession();
+            this.sessionId = session.getId();
+            this.userId = session.getUser().getId();
+            this.bet = toAmount(session.getBetAmount());
+            this.gameType = session.getGameType();
+            this.sessionDate = session.getSessionDate();
+            this.winnings = toAmount(settlement.getWinnings());
+            this.result = settlement.getResult();
+            this.gameData = settlement.getGameData();
+            this.serverSeed = session.getServerSeed();
+            this.creditType = settlement.isRefund() ? TRANSACTION_TYPE_REFUND : TRANSACTION_TYPE_WIN;
+            this.credits = settlement.getCredits();
+            this.source = settlement;
+        }
+    }
+}
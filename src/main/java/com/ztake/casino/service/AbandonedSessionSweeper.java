@@ -0,0 +1,160 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.repository.Settlement;
+import com.ztake.casino.repository.SettlementResult;
+import com.ztake.casino.repository.WalletRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tarea en segundo plano que liquida las sesiones de juego abandonadas.
+ *
+ * <p>Si la aplicación se cierra o falla a mitad de una partida, la sesión queda en
+ * "in_progress" con la apuesta descontada o retenida. El barrido busca, por lotes y usando el
+ * índice (result, session_date), las sesiones en curso más antiguas que el umbral
+ * configurado y las liquida en bloque con {@link GameService#settleBatch(List)}: como perdidas o
+ * devolviendo la apuesta. Así también se liberan su exposición y sus semillas, y una sesión que
+ * no se pueda liquidar no impide liquidar las demás.</p>
+ *
+ * <p>La cartera distingue las sesiones con la apuesta retenida (también tras un reinicio, por su
+ * transacción de apuesta en estado {@code held}): perderlas descuenta la apuesta y devolverlas
+ * solo libera la retención, sin tocar el saldo.</p>
+ */
+public class AbandonedSessionSweeper {
+    private static final Logger LOGGER = Logger.getLogger(AbandonedSessionSweeper.class.getName());
+
+    /**
+     * Política de liquidación de las sesiones abandonadas.
+     */
+    public enum Policy {
+        /** La apuesta se da por perdida. */
+        LOST,
+        /** Se devuelve la apuesta al usuario. */
+        REFUND
+    }
+
+    private final WalletRepository walletRepository;
+    private final GameService gameService;
+    private final Policy policy;
+    private final int staleMinutes;
+    private final int batchSize;
+    private final int intervalSeconds;
+    private ExposureTracker exposureTracker;
+    private ScheduledExecutorService scheduler;
+
+    public AbandonedSessionSweeper(WalletRepository walletRepository, GameService gameService) {
+        this(walletRepository, gameService,
+                Policy.valueOf(AppConfig.getString("sweeper.policy", "REFUND").toUpperCase()),
+                AppConfig.getInt("sweeper.staleMinutes", 60),
+                AppConfig.getInt("sweeper.batchSize", 5000),
+                AppConfig.getInt("sweeper.intervalSeconds", 300));
+    }
+
+    public AbandonedSessionSweeper(WalletRepository walletRepository, GameService gameService, Policy policy,
+                                   int staleMinutes, int batchSize, int intervalSeconds) {
+        this.walletRepository = walletRepository;
+        this.gameService = gameService;
+        this.policy = policy;
+        this.staleMinutes = staleMinutes;
+        this.batchSize = batchSize;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Exposición de la casa a liberar para las rondas que el barrido liquida.
+     *
+     * @param exposureTracker la exposición compartida con el servicio de juegos
+     */
+    public void setExposureTracker(ExposureTracker exposureTracker) {
+        this.exposureTracker = exposureTracker;
+    }
+
+    /**
+     * Inicia el barrido periódico en un hilo daemon.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "abandoned-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, 10, intervalSeconds, TimeUnit.SECONDS);
+
+        LOGGER.info("Barrido de sesiones abandonadas iniciado - Política: " + policy +
+                " - Umbral: " + staleMinutes + " min - Lote: " + batchSize);
+    }
+
+    /**
+     * Detiene el barrido periódico.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Ejecuta un barrido completo, lote a lote, hasta que no quedan sesiones abandonadas.
+     *
+     * @return número total de sesiones liquidadas
+     */
+    public int sweepOnce() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(staleMinutes);
+        int total = 0;
+
+        int failed = 0;
+        List<GameSession> abandoned;
+        do {
+            // Cada lote es una transacción independiente; un lote incompleto es el último
+            abandoned = walletRepository.findAbandoned(cutoff, batchSize);
+            List<Settlement> settlements = new ArrayList<>(abandoned.size());
+            for (GameSession session : abandoned) {
+                settlements.add(policy == Policy.REFUND
+                        ? Settlement.refund(session)
+                        : new Settlement(session, 0.0, "lost", null));
+            }
+            for (SettlementResult result : gameService.settleBatch(settlements)) {
+                if (result.isSettled()) {
+                    total++;
+                } else if (result.getStatus() != SettlementResult.Status.ALREADY_SETTLED) {
+                    failed++;
+                }
+            }
+            // Las sesiones que no se han podido liquidar volverían a salir: se reintentan en el siguiente barrido
+        } while (abandoned.size() == batchSize && failed == 0);
+
+        if (exposureTracker != null) {
+            // Las rondas de antes del umbral ya no están en curso
+            exposureTracker.closeOpenedBefore(cutoff);
+        }
+
+        if (total > 0 || failed > 0) {
+            LOGGER.log(Level.INFO, "Sesiones abandonadas liquidadas: {0} - Sin liquidar: {1} - Política: {2}",
+                    new Object[]{total, failed, policy});
+        }
+        return total;
+    }
+
+    private void sweepSafely() {
+        try {
+            sweepOnce();
+        } catch (Exception e) {
+            // No propagar: una excepción cancelaría las ejecuciones siguientes
+            LOGGER.log(Level.SEVERE, "Error en el barrido de sesiones abandonadas: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,735 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.game.crash.CrashCurve;
+import com.ztake.casino.game.fair.ProvablyFair;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.FairnessRepository;
+import com.ztake.casino.repository.Settlement;
+import com.ztake.casino.repository.SettlementResult;
+import com.ztake.casino.repository.WalletRepository;
+import com.ztake.casino.repository.Wager;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mesa de Crash compartida: todos los jugadores apuestan en la misma ronda y cobran mientras
+ * el multiplicador sube.
+ *
+ * <p>Cada ronda pasa por tres fases en un hilo propio: {@link Phase#BETTING} (se aceptan
+ * apuestas), {@link Phase#RUNNING} (sube el multiplicador y se puede cobrar) y
+ * {@link Phase#CRASHED}. El punto de caída sale de {@link CrashCurve} con una semilla del
+ * servidor nueva por ronda, cuyo hash se publica al abrirla; la semilla del cliente es fija
+ * ({@value #CLIENT_SEED}) y el nonce es el número de ronda, que continúa tras el mayor nonce de
+ * Crash guardado para no repetirse entre ejecuciones.</p>
+ *
+ * <p>Como las semillas de los jugadores ({@link FairnessService}), la semilla de cada ronda se
+ * guarda en server_seeds antes de publicar su hash y se borra al revelarla tras la liquidación.
+ * Si la aplicación se cierra a mitad de ronda, {@link FairnessService#start()} la revela al
+ * arrancar en las sesiones que la usaron, así que debe iniciarse antes que la mesa.</p>
+ *
+ * <p>Cada apuesta es una sesión de juego abierta con
+ * {@link WalletRepository#openSession(GameSession, List)} fuera del cerrojo de la ronda, de modo
+ * que las apuestas se abren en paralelo; la que termina de abrirse cuando la ronda ya ha empezado
+ * se anula y se devuelve. Los cobros solo se anotan en memoria
+ * y, al caer, todas las apuestas de la ronda se liquidan con una única llamada a
+ * {@link GameService#settleBatch(List)}: una transacción con las sesiones, los abonos
+ * (uno por usuario) y las transacciones enviadas en lotes, en lugar de un
+ * {@link GameService#endGame} por jugador. La semilla de la ronda se revela en la misma
+ * actualización que cierra cada sesión.</p>
+ *
+ * <p>Si la aplicación se cierra a mitad de ronda, sus sesiones quedan en curso y las liquida
+ * el {@link AbandonedSessionSweeper}.</p>
+ */
+public class CrashService {
+    private static final Logger LOGGER = Logger.getLogger(CrashService.class.getName());
+
+    public static final String GAME_TYPE = "Crash";
+    /** Semilla del cliente de todas las rondas: la ronda es compartida. */
+    public static final String CLIENT_SEED = "crash";
+
+    private static final String GAME_RESULT_WON = "won";
+    private static final String GAME_RESULT_LOST = "lost";
+    private static final String GAME_RESULT_IN_PROGRESS = "in_progress";
+    private static final double MIN_BET = 0.01;
+    private static final double MAX_BET = 10000.00;
+
+    /**
+     * Fase de la ronda.
+     */
+    public enum Phase {
+        /** Se aceptan apuestas. */
+        BETTING,
+        /** Sube el multiplicador: se puede cobrar. */
+        RUNNING,
+        /** La ronda ha caído y se ha liquidado (o se está liquidando). */
+        CRASHED
+    }
+
+    private final WalletRepository walletRepository;
+    private final GameService gameService;
+    private final FairnessRepository fairnessRepository;
+    private final CrashCurve curve;
+    private final long bettingMillis;
+    private final long pauseMillis;
+    private final long tickMillis;
+    private GameHistoryCache historyCache;
+    private ExposureTracker exposureTracker;
+
+    private final Object lock = new Object();
+    private ScheduledExecutorService scheduler;
+    private volatile Round round;
+    private long roundSequence;
+    // Solo lo usa el hilo de la ronda
+    private boolean roundSequenceLoaded;
+
+    public CrashService(WalletRepository walletRepository, GameService gameService,
+                        FairnessRepository fairnessRepository) {
+        this(walletRepository, gameService, fairnessRepository, CrashCurve.getDefault(),
+                AppConfig.getInt("crash.bettingSeconds", 8) * 1000L,
+                AppConfig.getInt("crash.pauseSeconds", 4) * 1000L,
+                AppConfig.getInt("crash.tickMillis", 50));
+    }
+
+    public CrashService(WalletRepository walletRepository, GameService gameService,
+                        FairnessRepository fairnessRepository, CrashCurve curve,
+                        long bettingMillis, long pauseMillis, long tickMillis) {
+        this.walletRepository = walletRepository;
+        this.gameService = gameService;
+        this.fairnessRepository = fairnessRepository;
+        this.curve = curve;
+        this.bettingMillis = bettingMillis;
+        this.pauseMillis = pauseMillis;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Caché de historial a invalidar para los jugadores de cada ronda liquidada.
+     */
+    public void setHistoryCache(GameHistoryCache historyCache) {
+        this.historyCache = historyCache;
+    }
+
+    /**
+     * Exposición de la casa: cada apuesta se reserva al hacerla por lo máximo que puede pagar
+     * (apuesta × cobro automático, o × {@link CrashCurve#MAX_POINT} si no lo tiene) y se libera
+     * al liquidar la ronda.
+     */
+    public void setExposureTracker(ExposureTracker exposureTracker) {
+        this.exposureTracker = exposureTracker;
+    }
+
+    /**
+     * Abre la primera ronda e inicia el ciclo de rondas en un hilo daemon.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crash-rounds");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::openRoundSafely);
+
+        LOGGER.info("Mesa de Crash iniciada - RTP: " + curve.getRtp() + " - Apuestas: " + bettingMillis + " ms");
+    }
+
+    /**
+     * Detiene el ciclo de rondas. Las apuestas de la ronda en curso quedan abiertas.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return la ronda actual (null antes de abrir la primera)
+     */
+    public Round getRound() {
+        return round;
+    }
+
+    public CrashCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * Apuesta en la ronda actual: descuenta la apuesta y abre su sesión de juego.
+     *
+     * @param user        usuario que apuesta (su saldo se actualiza con el descuento)
+     * @param amount      cantidad apostada
+     * @param autoCashout multiplicador de cobro automático en centésimas (0 para cobrar a mano)
+     * @return la apuesta
+     * @throws IllegalArgumentException si la apuesta o el cobro automático no son válidos
+     * @throws IllegalStateException    si la ronda no acepta apuestas, el usuario ya ha apostado
+     *                                  en ella o no tiene saldo suficiente, o si la ronda empezó
+     *                                  mientras se abría la sesión (la apuesta se devuelve)
+     */
+    public Bet placeBet(User user, double amount, int autoCashout) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("El usuario no puede ser nulo");
+        }
+        validateBetAmount(amount);
+        if (autoCashout != 0 && (autoCashout <= CrashCurve.MIN_POINT || autoCashout > CrashCurve.MAX_POINT)) {
+            throw new IllegalArgumentException(String.format("El cobro automático debe estar entre x%.2f y x%.2f",
+                    (CrashCurve.MIN_POINT + 1) / 100.0, CrashCurve.MAX_POINT / 100.0));
+        }
+
+        // Bajo el cerrojo solo se comprueba la fase y se aparta el sitio del jugador: la
+        // transacción se hace fuera, para que las apuestas de la ronda se abran en paralelo y el
+        // hilo de la ronda (y los cobros) no esperen a la base de datos
+        Round current;
+        synchronized (lock) {
+            current = round;
+            if (current == null || current.phase != Phase.BETTING) {
+                throw new IllegalStateException("La ronda ya ha empezado: espera a la siguiente");
+            }
+            if (!current.bettors.add(user.getId())) {
+                throw new IllegalStateException("Ya tienes una apuesta en esta ronda");
+            }
+        }
+
+        ExposureTracker.Round exposure = null;
+        GameSession session;
+        try {
+            // Se reserva lo máximo que puede pagar: el cobro automático o, sin él, el tope de la curva
+            exposure = exposureTracker != null ? exposureTracker.reserve(GAME_TYPE, maxPayout(amount, autoCashout)) : null;
+
+            // Copia propia del usuario: la liquidación actualiza su saldo desde el hilo de la ronda
+            User bettor = new User();
+            bettor.setId(user.getId());
+            bettor.setUsername(user.getUsername());
+            bettor.setBalance(user.getBalance());
+
+            session = new GameSession();
+            session.setUser(bettor);
+            session.setGameType(GAME_TYPE);
+            session.setBetAmount(amount);
+            session.setWinningAmount(0.0);
+            session.setResult(GAME_RESULT_IN_PROGRESS);
+            session.setSessionDate(LocalDateTime.now());
+            session.setServerSeedHash(current.serverSeedHash);
+            session.setClientSeed(CLIENT_SEED);
+            session.setNonce(current.id);
+
+            // Descuento condicional, sesión y transacción de apuesta en una única transacción
+            walletRepository.openSession(session, List.of(new Wager("ronda:" + current.id, amount)));
+            if (exposure != null) {
+                exposureTracker.attach(exposure, session.getId());
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                current.bettors.remove(user.getId());
+            }
+            if (exposure != null) {
+                exposureTracker.cancel(exposure);
+            }
+            if (e instanceof IllegalStateException) {
+                throw e;
+            }
+            LOGGER.log(Level.SEVERE, "Error al apostar en la ronda " + current.id + " de Crash: " + e.getMessage(), e);
+            throw new RuntimeException("Error al realizar la apuesta: " + e.getMessage(), e);
+        } finally {
+            if (historyCache != null) {
+                historyCache.invalidate(user.getId());
+            }
+        }
+
+        Bet bet = new Bet(current.id, session, amount, autoCashout);
+        synchronized (lock) {
+            if (current.phase == Phase.BETTING) {
+                current.bets.add(bet);
+                current.totalBet += amount;
+                user.setBalance(session.getUser().getBalance());
+                return bet;
+            }
+        }
+
+        // La ronda empezó mientras se abría la sesión: la apuesta no entra en ella y se devuelve
+        refundLateBet(current, bet);
+        user.setBalance(session.getUser().getBalance());
+        throw new IllegalStateException("La ronda ya ha empezado: se ha devuelto la apuesta");
+    }
+
+    /**
+     * Anula la sesión de una apuesta que llegó cuando la ronda ya había empezado. Si la
+     * devolución falla, la sesión queda en curso y la devuelve el barrido de sesiones abandonadas.
+     */
+    private void refundLateBet(Round current, Bet bet) {
+        if (current.phase == Phase.CRASHED) {
+            // La semilla ya es pública y la revelación de la ronda puede haber pasado sin esta sesión
+            bet.session.setServerSeed(current.serverSeed);
+        }
+        try {
+            gameService.cancelGame(bet.session);
+            LOGGER.log(Level.FINE, "Apuesta tardía devuelta en la ronda {0} de Crash - Sesión: {1}",
+                    new Object[]{current.id, bet.session.getId()});
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al devolver la apuesta tardía " + bet.session.getId()
+                    + " de la ronda " + current.id + " de Crash: " + e.getMessage(), e);
+        } finally {
+            if (exposureTracker != null) {
+                exposureTracker.close(bet.session.getId());
+            }
+            if (historyCache != null) {
+                historyCache.invalidate(bet.session.getUser().getId());
+            }
+        }
+    }
+
+    /**
+     * Cobra una apuesta al multiplicador actual. El cobro se anota en memoria y se paga al
+     * liquidar la ronda.
+     *
+     * @return true si se cobró; false si la ronda ya había caído o la apuesta ya estaba cobrada
+     */
+    public boolean cashOut(Bet bet) {
+        synchronized (lock) {
+            Round current = round;
+            if (current == null || current.id != bet.roundId || current.phase != Phase.RUNNING || bet.cashout != 0) {
+                return false;
+            }
+            int multiplier = current.currentMultiplier();
+            if (multiplier >= current.crashPoint) {
+                // Ya ha caído aunque el hilo de la ronda todavía no lo haya procesado
+                return false;
+            }
+            bet.cashout = bet.autoCashout != 0 && bet.autoCashout <= multiplier ? bet.autoCashout : multiplier;
+            return true;
+        }
+    }
+
+    private void openRoundSafely() {
+        try {
+            openRound();
+        } catch (Exception e) {
+            // Reintentar: una excepción no debe parar la mesa
+            LOGGER.log(Level.SEVERE, "Error al abrir una ronda de Crash: " + e.getMessage(), e);
+            schedule(this::openRoundSafely, pauseMillis);
+        }
+    }
+
+    private void openRound() {
+        if (!roundSequenceLoaded) {
+            // Las rondas continúan tras las de ejecuciones anteriores: nonces y apuestas no se repiten
+            long last = fairnessRepository.findLastNonce(GAME_TYPE);
+            synchronized (lock) {
+                roundSequence = Math.max(roundSequence, last);
+            }
+            roundSequenceLoaded = true;
+        }
+
+        String serverSeed = ProvablyFair.newServerSeed();
+        String serverSeedHash = ProvablyFair.hash(serverSeed);
+        // Se guarda antes de publicar su hash, para poder revelarla aunque la aplicación se cierre
+        fairnessRepository.saveServerSeeds(Map.of(serverSeedHash, serverSeed));
+
+        long id;
+        synchronized (lock) {
+            id = ++roundSequence;
+        }
+        int crashPoint = curve.crashPoint(ProvablyFair.random(serverSeed, CLIENT_SEED, id));
+        Round next = new Round(id, serverSeed, serverSeedHash, crashPoint,
+                System.currentTimeMillis() + bettingMillis);
+        synchronized (lock) {
+            round = next;
+        }
+        schedule(this::startRunning, bettingMillis);
+    }
+
+    private void startRunning() {
+        Round current = round;
+        synchronized (lock) {
+            current.runningSince = System.nanoTime();
+            current.phase = Phase.RUNNING;
+        }
+        LOGGER.log(Level.FINE, "Ronda {0} de Crash en marcha - Apuestas: {1}", new Object[]{current.id, current.bets.size()});
+        schedule(this::tickSafely, 0);
+    }
+
+    private void tickSafely() {
+        try {
+            if (!tick()) {
+                schedule(this::tickSafely, tickMillis);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error en la ronda de Crash: " + e.getMessage(), e);
+            schedule(this::openRoundSafely, pauseMillis);
+        }
+    }
+
+    /**
+     * Aplica los cobros automáticos alcanzados y, si la curva ha llegado al punto de caída,
+     * cierra la ronda y la liquida.
+     *
+     * @return true si la ronda ha caído
+     */
+    private boolean tick() {
+        Round current = round;
+        synchronized (lock) {
+            int multiplier = current.currentMultiplier();
+            if (multiplier < current.crashPoint) {
+                current.applyAutoCashouts(multiplier);
+                return false;
+            }
+            // Los cobros automáticos en el mismo punto de caída se pagan: P(caída ≥ m) = rtp / m
+            current.applyAutoCashouts(current.crashPoint);
+            current.phase = Phase.CRASHED;
+        }
+
+        // Ya no se aceptan apuestas ni cobros: la lista de apuestas no cambia
+        settle(current);
+        schedule(this::openRoundSafely, pauseMillis);
+        return true;
+    }
+
+    /**
+     * Liquida todas las apuestas de la ronda en un único lote y revela su semilla.
+     */
+    private void settle(Round current) {
+        try {
+            settleBets(current);
+        } finally {
+            revealSeed(current);
+        }
+    }
+
+    /**
+     * Revela la semilla en las sesiones de la ronda que no la recibieron al liquidarse (las que
+     * no se pudieron liquidar o las apuestas tardías devueltas) y la borra de server_seeds. Si
+     * falla, se revela al volver a arrancar.
+     */
+    private void revealSeed(Round current) {
+        try {
+            fairnessRepository.revealServerSeed(current.serverSeedHash, current.serverSeed);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudo revelar la semilla de la ronda " + current.id + " de Crash", e);
+        }
+    }
+
+    private void settleBets(Round current) {
+        if (current.bets.isEmpty()) {
+            current.settled = true;
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Settlement> settlements = new ArrayList<>(current.bets.size());
+        for (Bet bet : current.bets) {
+            bet.winnings = bet.cashout > 0
+                    ? BigDecimal.valueOf(bet.amount).multiply(BigDecimal.valueOf(bet.cashout, 2))
+                    .setScale(2, RoundingMode.HALF_UP).doubleValue()
+                    : 0.0;
+            // La semilla se revela en la misma actualización que cierra la sesión
+            bet.session.setServerSeed(current.serverSeed);
+            settlements.add(new Settlement(bet.session, bet.winnings,
+                    bet.cashout > 0 ? GAME_RESULT_WON : GAME_RESULT_LOST, gameData(current, bet)));
+        }
+
+        // El servicio actualiza las sesiones y el saldo de cada jugador, las clasificaciones, la
+        // exposición y la caché de historial de las apuestas liquidadas
+        List<SettlementResult> results = null;
+        try {
+            results = gameService.settleBatch(settlements);
+            current.settlementMillis = (System.nanoTime() - start) / 1_000_000;
+
+            int settled = 0;
+            for (SettlementResult result : results) {
+                if (result.isSettled()) {
+                    settled++;
+                } else {
+                    // La sesión sigue en curso (o ya estaba cerrada): la liquidará el barrido
+                    current.settlementFailed = true;
+                    LOGGER.log(Level.WARNING, "Apuesta {0} de la ronda {1} de Crash sin liquidar: {2}",
+                            new Object[]{result.getSettlement().getSession().getId(), current.id, result});
+                }
+            }
+
+            LOGGER.log(Level.INFO, "Ronda {0} de Crash liquidada - Caída: x{1} - Apuestas: {2} - {3} ms",
+                    new Object[]{current.id, String.format("%.2f", current.crashPoint / 100.0), settled,
+                            current.settlementMillis});
+        } catch (Exception e) {
+            // Las sesiones siguen en curso: las liquidará el barrido de sesiones abandonadas
+            current.settlementFailed = true;
+            LOGGER.log(Level.SEVERE, "Error al liquidar la ronda " + current.id + " de Crash: " + e.getMessage(), e);
+        } finally {
+            if (exposureTracker != null) {
+                // Las liquidadas ya están cerradas; las demás tampoco se cobrarán en esta ronda
+                for (Bet bet : current.bets) {
+                    exposureTracker.close(bet.session.getId());
+                }
+            }
+            // Publica el resultado a los hilos que consultan la ronda y las apuestas
+            for (int i = 0; i < current.bets.size(); i++) {
+                current.bets.get(i).settled = results != null && results.get(i).isSettled();
+            }
+            current.settled = results != null;
+        }
+    }
+
+    private String gameData(Round current, Bet bet) {
+        JSONObject data = new JSONObject();
+        data.put("round", current.id);
+        data.put("crashPoint", current.crashPoint / 100.0);
+        data.put("rtp", curve.getRtp());
+        data.put("autoCashout", bet.autoCashout / 100.0);
+        data.put("cashout", bet.cashout / 100.0);
+        data.put("multiplier", bet.cashout / 100.0);
+        return data.toString();
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = scheduler;
+        }
+        if (executor != null && !executor.isShutdown()) {
+            executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return lo que puede llegar a pagar una apuesta: la apuesta por su cobro automático o, si
+     * no lo tiene, por {@link CrashCurve#MAX_POINT}
+     */
+    static double maxPayout(double amount, int autoCashout) {
+        int multiplier = autoCashout != 0 ? autoCashout : CrashCurve.MAX_POINT;
+        return BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(multiplier, 2))
+                .setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static void validateBetAmount(double amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("La apuesta debe ser mayor que cero");
+        }
+        if (BigDecimal.valueOf(amount).compareTo(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP)) != 0) {
+            throw new IllegalArgumentException("La apuesta no puede tener más de 2 decimales");
+        }
+        if (amount < MIN_BET) {
+            throw new IllegalArgumentException("La apuesta mínima es 0.01");
+        }
+        if (amount > MAX_BET) {
+            throw new IllegalArgumentException("La apuesta máxima es 10000.00");
+        }
+    }
+
+    /**
+     * Una ronda de la mesa. El punto de caída y la semilla solo se exponen cuando ha caído.
+     */
+    public final class Round {
+        private final long id;
+        private final String serverSeed;
+        private final String serverSeedHash;
+        private final int crashPoint;
+        private final long bettingEndsAt;
+        // Protegidos por el cerrojo del servicio
+        private final List<Bet> bets = new ArrayList<>();
+        private final Set<Long> bettors = new HashSet<>();
+        private double totalBet;
+        private int autoCashoutCursor;
+        private volatile Phase phase = Phase.BETTING;
+        private volatile long runningSince;
+        private volatile boolean settled;
+        private volatile boolean settlementFailed;
+        private volatile long settlementMillis;
+
+        Round(long id, String serverSeed, String serverSeedHash, int crashPoint, long bettingEndsAt) {
+            this.id = id;
+            this.serverSeed = serverSeed;
+            this.serverSeedHash = serverSeedHash;
+            this.crashPoint = crashPoint;
+            this.bettingEndsAt = bettingEndsAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return hash de la semilla del servidor, publicado al abrir la ronda
+         */
+        public String getServerSeedHash() {
+            return serverSeedHash;
+        }
+
+        /**
+         * @return la semilla del servidor, o null mientras la ronda no ha caído
+         */
+        public String getServerSeed() {
+            return phase == Phase.CRASHED ? serverSeed : null;
+        }
+
+        /**
+         * @return el punto de caída en centésimas, o 0 mientras la ronda no ha caído
+         */
+        public int getCrashPoint() {
+            return phase == Phase.CRASHED ? crashPoint : 0;
+        }
+
+        /**
+         * @return el multiplicador que se muestra ahora, en centésimas
+         */
+        public int getMultiplier() {
+            switch (phase) {
+                case BETTING:
+                    return CrashCurve.MIN_POINT;
+                case RUNNING:
+                    return Math.min(currentMultiplier(), crashPoint);
+                default:
+                    return crashPoint;
+            }
+        }
+
+        /**
+         * @return milisegundos que quedan para cerrar las apuestas (0 si ya están cerradas)
+         */
+        public long getBettingMillisLeft() {
+            return phase == Phase.BETTING ? Math.max(0, bettingEndsAt - System.currentTimeMillis()) : 0;
+        }
+
+        public int getBetCount() {
+            synchronized (lock) {
+                return bets.size();
+            }
+        }
+
+        public double getTotalBet() {
+            synchronized (lock) {
+                return totalBet;
+            }
+        }
+
+        /**
+         * @return true cuando las apuestas de la ronda están liquidadas
+         */
+        public boolean isSettled() {
+            return settled;
+        }
+
+        /**
+         * @return true si la liquidación falló (las sesiones quedan para el barrido)
+         */
+        public boolean isSettlementFailed() {
+            return settlementFailed;
+        }
+
+        /**
+         * @return milisegundos que tardó la liquidación en lote (incluida la revelación de la semilla)
+         */
+        public long getSettlementMillis() {
+            return settlementMillis;
+        }
+
+        private int currentMultiplier() {
+            return curve.multiplierAt((System.nanoTime() - runningSince) / 1_000_000);
+        }
+
+        /**
+         * Anota los cobros automáticos con objetivo hasta el multiplicador indicado. Las apuestas
+         * ya no cambian al subir, así que se ordenan una vez por objetivo y se avanza un cursor.
+         */
+        private void applyAutoCashouts(int multiplier) {
+            if (autoCashoutCursor == 0) {
+                bets.sort((a, b) -> Integer.compare(autoTarget(a), autoTarget(b)));
+            }
+            while (autoCashoutCursor < bets.size()) {
+                Bet bet = bets.get(autoCashoutCursor);
+                if (autoTarget(bet) > multiplier) {
+                    break;
+                }
+                if (bet.cashout == 0) {
+                    bet.cashout = bet.autoCashout;
+                }
+                autoCashoutCursor++;
+            }
+        }
+
+        private int autoTarget(Bet bet) {
+            return bet.autoCashout == 0 ? Integer.MAX_VALUE : bet.autoCashout;
+        }
+    }
+
+    /**
+     * Apuesta de un jugador en una ronda.
+     */
+    public static final class Bet {
+        private final long roundId;
+        private final GameSession session;
+        private final double amount;
+        private final int autoCashout;
+        private volatile int cashout;
+        private volatile double winnings;
+        private volatile boolean settled;
+
+        Bet(long roundId, GameSession session, double amount, int autoCashout) {
+            this.roundId = roundId;
+            this.session = session;
+            this.amount = amount;
+            this.autoCashout = autoCashout;
+        }
+
+        public long getRoundId() {
+            return roundId;
+        }
+
+        /**
+         * @return la sesión de juego; su usuario lleva el saldo tras la apuesta y, una vez
+         * liquidada, tras el premio
+         */
+        public GameSession getSession() {
+            return session;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * @return multiplicador de cobro automático en centésimas (0 si no hay)
+         */
+        public int getAutoCashout() {
+            return autoCashout;
+        }
+
+        /**
+         * @return multiplicador al que se cobró en centésimas (0 si no se ha cobrado)
+         */
+        public int getCashout() {
+            return cashout;
+        }
+
+        public double getWinnings() {
+            return winnings;
+        }
+
+        /**
+         * @return true cuando la apuesta está liquidada y su saldo actualizado
+         */
+        public boolean isSettled() {
+            return settled;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exposición de la casa en tiempo real: lo que habría que pagar si todas las rondas abiertas
+ * se cobraran ahora (apuesta × multiplicador actual).
+ *
+ * <p>Se mantiene de forma incremental, sin bloqueos: un acumulador atómico por tipo de juego
+ * y otro total, en céntimos, que se actualizan con CAS al abrir una ronda, en cada revelado y
+ * al liquidarla. Las lecturas son O(1). Con {@code exposure.maxTotal} o
+ * {@code exposure.maxPerGameType} mayores que cero, las apuestas que superarían el límite se
+ * rechazan; los revelados de rondas ya abiertas siempre se aplican.</p>
+ */
+public class ExposureTracker {
+    private static final Logger LOGGER = Logger.getLogger(ExposureTracker.class.getName());
+    // Marca de ronda liberada: un revelado tardío no vuelve a sumar exposición
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final long maxTotalCents;
+    private final long maxPerGameTypeCents;
+
+    private final AtomicLong totalCents = new AtomicLong();
+    private final Map<String, AtomicLong> gameTypeCents = new ConcurrentHashMap<>();
+    private final Map<Long, Round> openRounds = new ConcurrentHashMap<>();
+
+    public ExposureTracker() {
+        this(AppConfig.getDouble("exposure.maxTotal", 0), AppConfig.getDouble("exposure.maxPerGameType", 0));
+    }
+
+    /**
+     * @param maxTotal       límite de exposición total (0 para sin límite)
+     * @param maxPerGameType límite de exposición por tipo de juego (0 para sin límite)
+     */
+    public ExposureTracker(double maxTotal, double maxPerGameType) {
+        this.maxTotalCents = toCents(maxTotal);
+        this.maxPerGameTypeCents = toCents(maxPerGameType);
+    }
+
+    /**
+     * Reserva la exposición inicial de una apuesta: la propia apuesta (multiplicador 1) en los
+     * juegos que la actualizan en cada revelado, o lo máximo que puede pagar en los que no.
+     *
+     * @param gameType tipo de juego
+     * @param amount   importe a reservar
+     * @return la ronda reservada, que debe asociarse a su sesión o cancelarse
+     * @throws IllegalStateException si la apuesta superaría el límite de exposición
+     */
+    public Round reserve(String gameType, double amount) {
+        long cents = toCents(amount);
+        AtomicLong gameTypeAccumulator = accumulator(gameType);
+
+        if (!tryAdd(gameTypeAccumulator, cents, maxPerGameTypeCents)) {
+            LOGGER.log(Level.WARNING, "Apuesta rechazada por exposición de {0}: {1} + {2}",
+                    new Object[]{gameType, gameTypeAccumulator.get() / 100.0, amount});
+            throw new IllegalStateException("La casa no acepta más apuestas en " + gameType + " en este momento");
+        }
+        if (!tryAdd(totalCents, cents, maxTotalCents)) {
+            gameTypeAccumulator.addAndGet(-cents);
+            LOGGER.log(Level.WARNING, "Apuesta rechazada por exposición total: {0} + {1}",
+                    new Object[]{totalCents.get() / 100.0, amount});
+            throw new IllegalStateException("La casa no acepta más apuestas en este momento");
+        }
+        return new Round(gameType, gameTypeAccumulator, cents);
+    }
+
+    /**
+     * Asocia una ronda reservada a su sesión de juego.
+     */
+    public void attach(Round round, long sessionId) {
+        openRounds.put(sessionId, round);
+    }
+
+    /**
+     * Libera una reserva cuya sesión no llegó a crearse.
+     */
+    public void cancel(Round round) {
+        release(round);
+    }
+
+    /**
+     * Actualiza la exposición de una ronda abierta tras un revelado.
+     *
+     * @param sessionId  ID de la sesión
+     * @param betAmount  importe apostado
+     * @param multiplier multiplicador actual
+     */
+    public void update(long sessionId, double betAmount, double multiplier) {
+        Round round = openRounds.get(sessionId);
+        if (round == null) {
+            return;
+        }
+        long cents = toCents(betAmount * multiplier);
+        long previous;
+        do {
+            previous = round.cents.get();
+            if (previous == CLOSED) {
+                return;
+            }
+        } while (!round.cents.compareAndSet(previous, cents));
+
+        long delta = cents - previous;
+        if (delta != 0) {
+            round.gameTypeAccumulator.addAndGet(delta);
+            totalCents.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Libera la exposición de una ronda liquidada.
+     */
+    public void close(long sessionId) {
+        Round round = openRounds.remove(sessionId);
+        if (round != null) {
+            release(round);
+        }
+    }
+
+    /**
+     * Libera las rondas abiertas antes de la fecha indicada, que el barrido de sesiones
+     * abandonadas ya ha liquidado.
+     *
+     * @return número de rondas liberadas
+     */
+    public int closeOpenedBefore(LocalDateTime cutoff) {
+        int closed = 0;
+        for (Map.Entry<Long, Round> entry : openRounds.entrySet()) {
+            if (entry.getValue().openedAt.isBefore(cutoff) && openRounds.remove(entry.getKey(), entry.getValue())) {
+                release(entry.getValue());
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * @return exposición total de la casa
+     */
+    public double getTotalExposure() {
+        return totalCents.get() / 100.0;
+    }
+
+    /**
+     * @return exposición de un tipo de juego (0 si no tiene rondas abiertas)
+     */
+    public double getExposure(String gameType) {
+        AtomicLong accumulator = gameTypeCents.get(gameType);
+        return accumulator != null ? accumulator.get() / 100.0 : 0.0;
+    }
+
+    /**
+     * @return exposición por tipo de juego
+     */
+    public Map<String, Double> getExposureByGameType() {
+        Map<String, Double> exposure = new LinkedHashMap<>();
+        gameTypeCents.forEach((gameType, cents) -> exposure.put(gameType, cents.get() / 100.0));
+        return exposure;
+    }
+
+    public int getOpenRounds() {
+        return openRounds.size();
+    }
+
+    private AtomicLong accumulator(String gameType) {
+        AtomicLong accumulator = gameTypeCents.get(gameType);
+        return accumulator != null ? accumulator : gameTypeCents.computeIfAbsent(gameType, type -> new AtomicLong());
+    }
+
+    private void release(Round round) {
+        long cents = round.cents.getAndSet(CLOSED);
+        if (cents == CLOSED) {
+            return;
+        }
+        round.gameTypeAccumulator.addAndGet(-cents);
+        totalCents.addAndGet(-cents);
+    }
+
+    /**
+     * Suma con CAS si el resultado no supera el límite (0 para sin límite).
+     */
+    private static boolean tryAdd(AtomicLong accumulator, long cents, long limit) {
+        if (limit <= 0) {
+            accumulator.addAndGet(cents);
+            return true;
+        }
+        long current;
+        do {
+            current = accumulator.get();
+            if (current + cents > limit) {
+                return false;
+            }
+        } while (!accumulator.compareAndSet(current, current + cents));
+        return true;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Ronda abierta: su exposición actual y el acumulador de su tipo de juego.
+     */
+    public static final class Round {
+        private final String gameType;
+        private final AtomicLong gameTypeAccumulator;
+        private final AtomicLong cents;
+        private final LocalDateTime openedAt = LocalDateTime.now();
+
+        private Round(String gameType, AtomicLong gameTypeAccumulator, long cents) {
+            this.gameType = gameType;
+            this.gameTypeAccumulator = gameTypeAccumulator;
+            this.cents = new AtomicLong(cents);
+        }
+
+        public String getGameType() {
+            return gameType;
+        }
+
+        public double getExposure() {
+            long current = cents.get();
+            return current == CLOSED ? 0.0 : current / 100.0;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.game.fair.FairRandom;
+import com.ztake.casino.game.fair.ProvablyFair;
+import com.ztake.casino.repository.FairnessRepository;
+import com.ztake.casino.repository.FairnessRepositoryImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Semillas de las rondas demostrablemente justas ({@link ProvablyFair}).
+ *
+ * <p>Cada jugador tiene un par de semillas activo (la del servidor, secreta pero con su hash
+ * ya publicado, y la del cliente) y un nonce que avanza en cada ronda. La siguiente semilla del
+ * servidor también queda comprometida de antemano: el jugador ve su hash antes de rotar. Al
+ * rotar (a petición del jugador o cada {@code fairness.roundsPerSeed} rondas) la semilla
+ * anterior se revela en sus sesiones en cuanto terminan las rondas en curso que la usan.</p>
+ *
+ * <p>Las semillas se generan por adelantado en un hilo de fondo, en una reserva de
+ * {@code fairness.poolSize}, y las revelaciones se escriben en ese mismo hilo: empezar una
+ * ronda no hace E/S ni espera a {@link java.security.SecureRandom}. Si la casa se detiene con
+ * rondas abiertas, {@link #stop()} revela igualmente sus semillas (esas rondas se reembolsan).</p>
+ *
+ * <p>Las semillas de los jugadores solo viven en memoria, pero cada una se guarda en
+ * server_seeds (por su hash) al generarse, antes de que se publique su hash, y se borra al
+ * revelarla. Si la aplicación se cierra sin pasar por {@link #stop()}, {@link #start()} revela
+ * en sus sesiones las semillas que quedaron pendientes. Las rondas que seguían en curso ya no se
+ * pueden terminar ({@link #random} falla porque su semilla ya no está activa) y el barrido de
+ * sesiones abandonadas las liquida como cualquier otra ronda interrumpida.</p>
+ */
+public class FairnessService {
+    private static final Logger LOGGER = Logger.getLogger(FairnessService.class.getName());
+
+    private final FairnessRepository repository;
+    private final int poolSize;
+    private final int roundsPerSeed;
+    private final BlockingQueue<ServerSeed> pool;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+    private final Map<Long, PlayerSeeds> players = new ConcurrentHashMap<>();
+
+    private final Object lifecycleLock = new Object();
+    private ExecutorService executor;
+    private volatile GameHistoryCache historyCache;
+
+    public FairnessService() {
+        this(new FairnessRepositoryImpl(), AppConfig.getInt("fairness.poolSize", 1024),
+                AppConfig.getInt("fairness.roundsPerSeed", 1000));
+    }
+
+    public FairnessService(FairnessRepository repository, int poolSize, int roundsPerSeed) {
+        if (poolSize <= 0 || roundsPerSeed <= 0) {
+            throw new IllegalArgumentException("La reserva de semillas y las rondas por semilla deben ser mayores que cero");
+        }
+        this.repository = repository;
+        this.poolSize = poolSize;
+        this.roundsPerSeed = roundsPerSeed;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Configura la caché de historial que se invalida al revelar una semilla, para que el
+     * jugador vea la semilla en su historial.
+     *
+     * @param historyCache la caché compartida con el servicio de juegos
+     */
+    public void setHistoryCache(GameHistoryCache historyCache) {
+        this.historyCache = historyCache;
+    }
+
+    /**
+     * Revela las semillas pendientes de una ejecución anterior e inicia el hilo daemon que llena
+     * la reserva de semillas y escribe las revelaciones.
+     */
+    public void start() {
+        synchronized (lifecycleLock) {
+            if (executor != null) {
+                return;
+            }
+            try {
+                // Antes de entregar semillas nuevas: solo quedan las de una ejecución que no se detuvo
+                repository.revealOrphanedServerSeeds();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "No se pudieron revelar las semillas pendientes, se reintentará al arrancar", e);
+            }
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fairness-seeds");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduleRefill();
+        LOGGER.info("Semillas demostrablemente justas iniciadas - Reserva: " + poolSize
+                + " - Rondas por semilla: " + roundsPerSeed);
+    }
+
+    /**
+     * Detiene el hilo (tras escribir las revelaciones pendientes) y revela las semillas
+     * activas y retiradas de todos los jugadores.
+     */
+    public void stop() {
+        ExecutorService stopped;
+        synchronized (lifecycleLock) {
+            stopped = executor;
+            executor = null;
+        }
+        if (stopped != null) {
+            stopped.shutdown();
+            try {
+                stopped.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int revealed = 0;
+        for (Map.Entry<Long, PlayerSeeds> entry : players.entrySet()) {
+            PlayerSeeds player = entry.getValue();
+            List<ServerSeed> seeds;
+            synchronized (player) {
+                seeds = new ArrayList<>(player.retired);
+                if (player.nonce > 0) {
+                    seeds.add(player.active);
+                }
+                player.retired.clear();
+            }
+            for (ServerSeed seed : seeds) {
+                revealNow(entry.getKey(), seed);
+                revealed++;
+            }
+        }
+        players.clear();
+        // Sus filas de server_seeds se borran al volver a arrancar: no se pueden reutilizar
+        pool.clear();
+        LOGGER.info("Semillas del servidor reveladas al detener: " + revealed);
+    }
+
+    /**
+     * Empieza una ronda con las semillas activas del jugador y avanza su nonce. Si se agotaron
+     * las rondas por semilla, antes rota a la siguiente semilla comprometida.
+     *
+     * @return semillas y nonce de la ronda (la semilla del servidor no sale del servicio)
+     */
+    public Round nextRound(long userId) {
+        PlayerSeeds player = player(userId);
+        ServerSeed revealable = null;
+        Round round;
+        synchronized (player) {
+            if (player.nonce >= roundsPerSeed) {
+                revealable = rotateLocked(player, player.clientSeed);
+            }
+            player.active.openRounds++;
+            round = new Round(player.active.hash, player.clientSeed, player.nonce++);
+        }
+        if (revealable != null) {
+            reveal(userId, revealable);
+        }
+        return round;
+    }
+
+    /**
+     * Marca como terminada una ronda (liquidada o fallida al empezar). Si su semilla ya estaba
+     * rotada y era la última ronda abierta, se revela.
+     */
+    public void finishRound(long userId, String serverSeedHash) {
+        PlayerSeeds player = players.get(userId);
+        if (player == null || serverSeedHash == null) {
+            return;
+        }
+        ServerSeed revealable = null;
+        synchronized (player) {
+            ServerSeed seed = player.find(serverSeedHash);
+            if (seed == null) {
+                return;
+            }
+            if (seed.openRounds > 0) {
+                seed.openRounds--;
+            }
+            if (seed != player.active && seed.openRounds == 0) {
+                player.retired.remove(seed);
+                revealable = seed;
+            }
+        }
+        if (revealable != null) {
+            reveal(userId, revealable);
+        }
+    }
+
+    /**
+     * Obtiene el generador de una ronda ya empezada, para que el juego saque su resultado.
+     *
+     * @throws IllegalStateException si la semilla ya se reveló o la ronda no ha empezado
+     */
+    public FairRandom random(long userId, String serverSeedHash, String clientSeed, long nonce) {
+        PlayerSeeds player = players.get(userId);
+        String serverSeed = null;
+        if (player != null) {
+            synchronized (player) {
+                ServerSeed seed = player.find(serverSeedHash);
+                // Con la semilla activa, solo rondas ya empezadas: nunca se adelanta un resultado
+                if (seed != null && (seed != player.active || nonce < player.nonce)) {
+                    serverSeed = seed.seed;
+                }
+            }
+        }
+        if (serverSeed == null) {
+            throw new IllegalStateException("La semilla del servidor de la ronda no está disponible");
+        }
+        return ProvablyFair.random(serverSeed, clientSeed, nonce);
+    }
+
+    /**
+     * @return las semillas del jugador: hashes publicados, semilla del cliente y próximo nonce
+     */
+    public Seeds getSeeds(long userId) {
+        PlayerSeeds player = player(userId);
+        synchronized (player) {
+            return new Seeds(player.active.hash, player.next.hash, player.clientSeed, player.nonce);
+        }
+    }
+
+    /**
+     * Rota las semillas del jugador: la siguiente semilla del servidor pasa a ser la activa y la
+     * anterior se revela (al terminar sus rondas en curso). El nonce vuelve a 0.
+     *
+     * @param clientSeed nueva semilla del cliente (null para generar una al azar)
+     * @return las nuevas semillas
+     */
+    public Seeds rotate(long userId, String clientSeed) {
+        String newClientSeed = clientSeed != null ? clientSeed : ProvablyFair.newClientSeed();
+        ProvablyFair.validateClientSeed(newClientSeed);
+
+        PlayerSeeds player = player(userId);
+        ServerSeed revealable;
+        Seeds seeds;
+        synchronized (player) {
+            revealable = rotateLocked(player, newClientSeed);
+            seeds = new Seeds(player.active.hash, player.next.hash, player.clientSeed, player.nonce);
+        }
+        if (revealable != null) {
+            reveal(userId, revealable);
+        }
+        return seeds;
+    }
+
+    /**
+     * Olvida las semillas de un jugador cuya cuenta se ha eliminado. Se revelan todas (la activa,
+     * la siguiente y las retiradas), con lo que sus filas de server_seeds se borran.
+     */
+    public void forget(long userId) {
+        PlayerSeeds player = players.remove(userId);
+        if (player == null) {
+            return;
+        }
+        List<ServerSeed> seeds;
+        synchronized (player) {
+            seeds = new ArrayList<>(player.retired);
+            seeds.add(player.active);
+            seeds.add(player.next);
+            player.retired.clear();
+        }
+        for (ServerSeed seed : seeds) {
+            revealNow(userId, seed);
+        }
+    }
+
+    /**
+     * @return semillas generadas de antemano disponibles en la reserva
+     */
+    public int getAvailableSeeds() {
+        return pool.size();
+    }
+
+    /**
+     * @return la semilla retirada si ya se puede revelar, o null si tiene rondas abiertas
+     */
+    private ServerSeed rotateLocked(PlayerSeeds player, String clientSeed) {
+        ServerSeed previous = player.active;
+        player.active = player.next;
+        player.next = takeSeed();
+        player.clientSeed = clientSeed;
+        player.nonce = 0;
+        if (previous.openRounds == 0) {
+            return previous;
+        }
+        player.retired.add(previous);
+        return null;
+    }
+
+    private PlayerSeeds player(long userId) {
+        return players.computeIfAbsent(userId,
+                id -> new PlayerSeeds(takeSeed(), takeSeed(), ProvablyFair.newClientSeed()));
+    }
+
+    private ServerSeed takeSeed() {
+        ServerSeed seed = pool.poll();
+        if (pool.size() < poolSize / 2) {
+            scheduleRefill();
+        }
+        if (seed == null) {
+            // Reserva agotada (o servicio sin iniciar): generarla y guardarla aquí
+            seed = ServerSeed.generate();
+            repository.saveServerSeeds(Map.of(seed.hash, seed.seed));
+        }
+        return seed;
+    }
+
+    private void scheduleRefill() {
+        ExecutorService current;
+        synchronized (lifecycleLock) {
+            current = executor;
+        }
+        if (current == null || !refillScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refillScheduled.set(false);
+        }
+    }
+
+    private void refill() {
+        try {
+            int missing;
+            while ((missing = pool.remainingCapacity()) > 0) {
+                // Se guardan en un solo lote antes de entrar en la reserva
+                List<ServerSeed> seeds = new ArrayList<>(missing);
+                Map<String, String> seedsByHash = new HashMap<>(missing * 2);
+                for (int i = 0; i < missing; i++) {
+                    ServerSeed seed = ServerSeed.generate();
+                    seeds.add(seed);
+                    seedsByHash.put(seed.hash, seed.seed);
+                }
+                repository.saveServerSeeds(seedsByHash);
+                for (ServerSeed seed : seeds) {
+                    pool.offer(seed);
+                }
+            }
+        } catch (Exception e) {
+            // Sin reserva, las semillas se generan y guardan al entregarlas
+            LOGGER.log(Level.WARNING, "No se pudo llenar la reserva de semillas del servidor", e);
+        } finally {
+            refillScheduled.set(false);
+        }
+    }
+
+    private void reveal(long userId, ServerSeed seed) {
+        ExecutorService current;
+        synchronized (lifecycleLock) {
+            current = executor;
+        }
+        if (current != null) {
+            try {
+                current.execute(() -> revealNow(userId, seed));
+                return;
+            } catch (RejectedExecutionException e) {
+                // Detenido entre medias: revelar aquí
+            }
+        }
+        revealNow(userId, seed);
+    }
+
+    private void revealNow(long userId, ServerSeed seed) {
+        try {
+            int rounds = repository.revealServerSeed(seed.hash, seed.seed);
+            GameHistoryCache cache = historyCache;
+            if (cache != null && rounds > 0) {
+                cache.invalidate(userId);
+            }
+            LOGGER.log(Level.FINE, "Semilla del servidor revelada - Hash: {0} - Rondas: {1}",
+                    new Object[]{seed.hash, rounds});
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudo revelar la semilla del servidor " + seed.hash, e);
+        }
+    }
+
+    /**
+     * Semillas y nonce de una ronda, tal como se guardan en la sesión.
+     */
+    public static final class Round {
+        private final String serverSeedHash;
+        private final String clientSeed;
+        private final long nonce;
+
+        Round(String serverSeedHash, String clientSeed, long nonce) {
+            this.serverSeedHash = serverSeedHash;
+            this.clientSeed = clientSeed;
+            this.nonce = nonce;
+        }
+
+        public String getServerSeedHash() {
+            return serverSeedHash;
+        }
+
+        public String getClientSeed() {
+            return clientSeed;
+        }
+
+        public long getNonce() {
+            return nonce;
+        }
+    }
+
+    /**
+     * Semillas que se muestran al jugador.
+     */
+    public static final class Seeds {
+        private final String serverSeedHash;
+        private final String nextServerSeedHash;
+        private final String clientSeed;
+        private final long nonce;
+
+        Seeds(String serverSeedHash, String nextServerSeedHash, String clientSeed, long nonce) {
+            this.serverSeedHash = serverSeedHash;
+            this.nextServerSeedHash = nextServerSeedHash;
+            this.clientSeed = clientSeed;
+            this.nonce = nonce;
+        }
+
+        /**
+         * @return hash de la semilla del servidor activa
+         */
+        public String getServerSeedHash() {
+            return serverSeedHash;
+        }
+
+        /**
+         * @return hash de la semilla del servidor que se activará al rotar
+         */
+        public String getNextServerSeedHash() {
+            return nextServerSeedHash;
+        }
+
+        public String getClientSeed() {
+            return clientSeed;
+        }
+
+        /**
+         * @return nonce de la próxima ronda
+         */
+        public long getNonce() {
+            return nonce;
+        }
+    }
+
+    /**
+     * Semilla del servidor con su hash; el resto de campos está protegido por el cerrojo del jugador.
+     */
+    private static final class ServerSeed {
+        final String seed;
+        final String hash;
+        int openRounds;
+
+        ServerSeed(String seed, String hash) {
+            this.seed = seed;
+            this.hash = hash;
+        }
+
+        static ServerSeed generate() {
+            String seed = ProvablyFair.newServerSeed();
+            return new ServerSeed(seed, ProvablyFair.hash(seed));
+        }
+    }
+
+    /**
+     * Estado de las semillas de un jugador (protegido por su propio monitor).
+     */
+    private static final class PlayerSeeds {
+        ServerSeed active;
+        ServerSeed next;
+        String clientSeed;
+        long nonce;
+        // Semillas rotadas con rondas todavía abiertas
+        final List<ServerSeed> retired = new ArrayList<>(2);
+
+        PlayerSeeds(ServerSeed active, ServerSeed next, String clientSeed) {
+            this.active = active;
+            this.next = next;
+            this.clientSeed = clientSeed;
+        }
+
+        ServerSeed find(String hash) {
+            if (active.hash.equals(hash)) {
+                return active;
+            }
+            for (ServerSeed seed : retired) {
+                if (seed.hash.equals(hash)) {
+                    return seed;
+                }
+            }
+            return null;
+        }
+    }
+}
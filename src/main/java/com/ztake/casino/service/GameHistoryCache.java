@@ -0,0 +1,177 @@
+package com.ztake.casino.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Caché por usuario de los resultados de historial y estadísticas de juego.
+ *
+ * <p>Las entradas se agrupan por usuario y se identifican por el tipo de consulta, el tipo
+ * de juego y el rango de fechas. Cada usuario tiene un número de versión que se incrementa
+ * al invalidar: una consulta que empezó antes de una escritura no guarda su resultado, de modo
+ * que la caché nunca devuelve datos anteriores a la última escritura del usuario.
+ * Cada usuario conserva como máximo {@link #MAX_ENTRIES_PER_USER} consultas (LRU).</p>
+ */
+public class GameHistoryCache {
+    private static final Logger LOGGER = Logger.getLogger(GameHistoryCache.class.getName());
+    private static final int MAX_ENTRIES_PER_USER = 32;
+
+    private final Map<Long, UserEntries> entriesByUser = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Devuelve el resultado en caché o lo calcula y lo guarda.
+     *
+     * @param userId   ID del usuario
+     * @param query    nombre de la consulta (historial, estadísticas...)
+     * @param gameType tipo de juego del filtro (null para todos)
+     * @param fromDate fecha de inicio del filtro (null para sin límite)
+     * @param toDate   fecha de fin del filtro (null para sin límite)
+     * @param loader   consulta a ejecutar si no hay resultado en caché
+     * @return el resultado de la consulta
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String query, String gameType, LocalDateTime fromDate, LocalDateTime toDate,
+                     Supplier<T> loader) {
+        if (userId == null) {
+            return loader.get();
+        }
+
+        UserEntries entries = entriesByUser.computeIfAbsent(userId, id -> new UserEntries());
+        Key key = new Key(query, gameType, fromDate, toDate);
+
+        long version;
+        synchronized (entries) {
+            Object cached = entries.results.get(key);
+            if (cached != null) {
+                hits.increment();
+                return (T) cached;
+            }
+            version = entries.version;
+        }
+
+        misses.increment();
+        T result = loader.get();
+
+        synchronized (entries) {
+            // Si hubo una escritura mientras se consultaba, el resultado puede estar desfasado
+            if (entries.version == version && result != null) {
+                entries.results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Descarta los resultados de un usuario. Se llama tras cada escritura de sus sesiones.
+     *
+     * @param userId ID del usuario
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        UserEntries entries = entriesByUser.computeIfAbsent(userId, id -> new UserEntries());
+        synchronized (entries) {
+            entries.version++;
+            entries.results.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Descarta los resultados de todos los usuarios (escrituras masivas fuera del servicio).
+     */
+    public void invalidateAll() {
+        for (UserEntries entries : entriesByUser.values()) {
+            synchronized (entries) {
+                entries.version++;
+                entries.results.clear();
+            }
+        }
+        invalidations.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return proporción de consultas servidas desde la caché (0 si no hubo ninguna)
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    /**
+     * Registra en el log los aciertos, fallos e invalidaciones acumulados.
+     */
+    public void logStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        double ratio = getHitRatio() * 100.0;
+        LOGGER.info(String.format("Caché de historial - Aciertos: %d (%.1f%%) - Fallos: %d (%.1f%%) - Invalidaciones: %d",
+                h, ratio, m, h + m > 0 ? 100.0 - ratio : 0.0, invalidations.sum()));
+    }
+
+    /**
+     * Resultados de un usuario, en orden de acceso, con su versión actual.
+     */
+    private static final class UserEntries {
+        long version;
+        final Map<Key, Object> results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > MAX_ENTRIES_PER_USER;
+            }
+        };
+    }
+
+    /**
+     * Clave de una consulta: nombre, tipo de juego y rango de fechas.
+     */
+    private static final class Key {
+        final String query;
+        final String gameType;
+        final LocalDateTime fromDate;
+        final LocalDateTime toDate;
+
+        Key(String query, String gameType, LocalDateTime fromDate, LocalDateTime toDate) {
+            this.query = query;
+            this.gameType = gameType;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return query.equals(other.query)
+                    && Objects.equals(gameType, other.gameType)
+                    && Objects.equals(fromDate, other.fromDate)
+                    && Objects.equals(toDate, other.toDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, gameType, fromDate, toDate);
+        }
+    }
+}
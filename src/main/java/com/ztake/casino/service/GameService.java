@@ -2,9 +2,16 @@ package com.ztake.casino.service;
 
 import com.ztake.casino.model.GameSession;
 import com.ztake.casino.model.User;
+import com.ztake.casino.repository.LeaderboardEntry;
+import com.ztake.casino.repository.PnlPoint;
+import com.ztake.casino.repository.Settlement;
+import com.ztake.casino.repository.SettlementResult;
+import com.ztake.casino.repository.Wager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 
 /**
  * Interfaz para el servicio de gestión de juegos.
@@ -34,6 +41,143 @@ public interface GameService {
      */
     GameSession endGame(GameSession gameSession, double winnings, String result, String gameData);
 
+    /**
+     * Inicia una ronda con varias apuestas (por ejemplo, las fichas de una tirada de ruleta):
+     * una sola sesión con la apuesta total y una transacción por apuesta, guardadas en una
+     * única transacción de base de datos.
+     *
+     * @param user     usuario que juega
+     * @param gameType tipo de juego
+     * @param wagers   apuestas de la ronda
+     * @return la sesión de juego creada
+     * @throws IllegalArgumentException si alguna apuesta es inválida
+     * @throws IllegalStateException    si el usuario no tiene saldo suficiente
+     */
+    GameSession startGame(User user, String gameType, List<Wager> wagers);
+
+    /**
+     * Finaliza una ronda con varias apuestas registrando una transacción por cada apuesta
+     * ganadora.
+     *
+     * @param gameSession la sesión de juego
+     * @param winnings    lo pagado por cada apuesta ganadora, incluida la cantidad apostada
+     *                    (vacía si no ganó ninguna)
+     * @param result      resultado del juego (won, lost)
+     * @param gameData    datos específicos del juego en formato JSON (opcional)
+     * @return la sesión de juego actualizada
+     */
+    GameSession endGame(GameSession gameSession, List<Wager> winnings, String result, String gameData);
+
+    /**
+     * Como {@link #startGame(User, String, double)}, pero sin bloquear hasta el commit: con el
+     * commit en grupo activo, el cargo se aplica junto con los de otras llamadas concurrentes en
+     * una sola transacción de base de datos. Las operaciones de un mismo usuario se aplican en el
+     * orden en que se hicieron. Sin commit en grupo se ejecuta como la versión síncrona.
+     *
+     * @param user      el usuario que juega (su saldo se actualiza al confirmarse el cargo)
+     * @param gameType  tipo de juego
+     * @param betAmount cantidad apostada
+     * @return la sesión iniciada, cuando su lote se confirma; termina con IllegalStateException si
+     *         el usuario no tiene saldo suficiente
+     * @throws IllegalArgumentException si la apuesta es inválida (no se encola nada)
+     */
+    CompletableFuture<GameSession> startGameAsync(User user, String gameType, double betAmount);
+
+    /**
+     * Como {@link #endGame(GameSession, double, String, String)}, pero sin bloquear hasta el
+     * commit: con el commit en grupo activo, la liquidación se confirma junto con las de otras
+     * llamadas concurrentes.
+     *
+     * @return la sesión liquidada, cuando su lote se confirma; termina con IllegalStateException si
+     *         la sesión ya está finalizada
+     * @throws IllegalArgumentException si el resultado es inválido (no se encola nada)
+     */
+    CompletableFuture<GameSession> endGameAsync(GameSession gameSession, double winnings, String result, String gameData);
+
+    /**
+     * Finaliza una sesión de juego y abre la siguiente con la misma apuesta ("jugar otra vez")
+     * en una sola transacción de base de datos y sin volver a leer el usuario ni la sesión. Como
+     * {@link #startGame(User, String, double)}, la nueva apuesta se retiene si las retenciones
+     * están activas; si no, el premio y la nueva apuesta se aplican con un único cambio de saldo.
+     *
+     * <p>Si el saldo no alcanza para repetir la apuesta, la sesión se liquida igualmente y el
+     * resultado no trae sesión siguiente.</p>
+     *
+     * @param gameSession la sesión en curso (se actualiza con el resultado, y su usuario con el saldo)
+     * @param winnings    cantidad ganada (0 si perdió)
+     * @param result      resultado del juego (won, lost)
+     * @param gameData    datos específicos del juego en formato JSON (opcional)
+     * @return la sesión liquidada y la nueva sesión en curso con la misma apuesta (null si no
+     *         había saldo para repetirla)
+     * @throws IllegalArgumentException si el resultado o la apuesta son inválidos
+     * @throws IllegalStateException    si la sesión ya está finalizada (no se guarda nada)
+     */
+    RebetResult settleAndRebet(GameSession gameSession, double winnings, String result, String gameData);
+
+    /**
+     * Anula una sesión en curso que todavía no se ha jugado (por ejemplo, la abierta por
+     * {@link #settleAndRebet} si el jugador se va) y devuelve la apuesta.
+     *
+     * @param gameSession la sesión en curso
+     * @return la sesión devuelta
+     * @throws IllegalStateException si la sesión ya está finalizada
+     */
+    GameSession cancelGame(GameSession gameSession);
+
+    /**
+     * Liquida a la vez muchas sesiones en curso (las apuestas de una ronda compartida, las
+     * sesiones abandonadas...): agrupa los abonos por usuario para cambiar su saldo una sola vez
+     * y envía en lotes de JDBC las actualizaciones de las sesiones y sus transacciones.
+     *
+     * <p>Cada liquidación se valida por separado: las inválidas se rechazan sin tocar la base de
+     * datos y, si el lote falla, se reintenta una a una, de modo que una liquidación incorrecta no
+     * hace fallar a las demás. Las sesiones liquidadas se actualizan en memoria, y también el
+     * saldo de su usuario.</p>
+     *
+     * @param settlements liquidación de cada sesión
+     * @return el resultado de cada liquidación, en el mismo orden
+     */
+    List<SettlementResult> settleBatch(List<Settlement> settlements);
+
+    /**
+     * Juega seguidas, con la misma apuesta, varias rondas de un juego que se resuelve en memoria
+     * (por ejemplo, la apuesta automática de Mines) y las guarda todas en una única transacción
+     * de base de datos: un solo cambio de saldo, las sesiones ya liquidadas y sus transacciones.
+     * El lote se detiene antes si el jugador lo pide o si el saldo no cubre la siguiente apuesta.
+     *
+     * @param user      usuario que juega (su saldo se actualiza con el resultado del lote)
+     * @param gameType  tipo de juego
+     * @param betAmount apuesta de cada ronda
+     * @param rounds    número máximo de rondas del lote
+     * @param player    resuelve cada ronda con su generador
+     * @return las sesiones jugadas, en orden
+     * @throws IllegalArgumentException si la apuesta es inválida
+     * @throws IllegalStateException    si el usuario no tiene saldo para la primera ronda o el saldo
+     *                                  cambió mientras se jugaba el lote (no se guarda ninguna ronda)
+     */
+    List<GameSession> playRounds(User user, String gameType, double betAmount, int rounds, RoundPlayer player);
+
+    /**
+     * Añade una apuesta a una ronda en curso (doblar o dividir en blackjack): se descuenta del
+     * saldo y se suma a la apuesta de la sesión en una única transacción de base de datos.
+     *
+     * @param gameSession la sesión en curso
+     * @param wager       apuesta añadida
+     * @return la sesión con la apuesta total y el saldo de su usuario actualizados
+     * @throws IllegalArgumentException si la apuesta es inválida
+     * @throws IllegalStateException    si el usuario no tiene saldo suficiente o la sesión ya está finalizada
+     */
+    GameSession raiseBet(GameSession gameSession, Wager wager);
+
+    /**
+     * Actualiza la exposición de la casa de una ronda en curso (por ejemplo, tras revelar una
+     * casilla en Mines): lo que se pagaría si el jugador cobrara ahora.
+     *
+     * @param gameSession la sesión en curso
+     * @param multiplier  multiplicador actual de la apuesta
+     */
+    void updateExposure(GameSession gameSession, double multiplier);
+
     /**
      * Obtiene el historial de juegos de un usuario.
      *
@@ -61,6 +205,63 @@ public interface GameService {
      */
     java.util.Map<String, Object> calculateUserGameStats(User user);
 
+    /**
+     * Obtiene la evolución de pérdidas y ganancias de un usuario a partir de los acumulados,
+     * sin recorrer las sesiones. La granularidad (minuto, hora o día) se elige según el rango
+     * para que la serie tenga como mucho unos cientos de puntos.
+     *
+     * @param user     el usuario
+     * @param gameType el tipo de juego (null para todos)
+     * @param fromDate fecha de inicio
+     * @param toDate   fecha de fin
+     * @return un punto por intervalo con actividad, en orden cronológico
+     */
+    List<PnlPoint> getPnlSeries(User user, String gameType, LocalDateTime fromDate, LocalDateTime toDate);
+
+    /**
+     * Obtiene una clasificación en vivo (se sirve desde memoria, sin consultar la base de datos).
+     *
+     * @param category tipo de clasificación
+     * @param gameType el tipo de juego (null para todos)
+     * @return las mejores entradas, de mayor a menor
+     */
+    List<LeaderboardEntry> getLeaderboard(Leaderboard.Category category, String gameType);
+
+    /**
+     * Obtiene el generador demostrablemente justo de una ronda en curso: el juego debe sacar
+     * de él su resultado (por ejemplo, la colocación de las minas).
+     *
+     * @param gameSession sesión devuelta por {@link #startGame}
+     * @return generador determinista de las semillas y el nonce de la sesión
+     */
+    RandomGenerator getOutcomeRandom(GameSession gameSession);
+
+    /**
+     * Obtiene las semillas del jugador: los hashes publicados de la semilla del servidor activa
+     * y de la siguiente, la semilla del cliente y el nonce de la próxima ronda.
+     */
+    FairnessService.Seeds getFairnessSeeds(User user);
+
+    /**
+     * Rota las semillas del jugador. La semilla del servidor anterior queda revelada en sus
+     * sesiones cuando terminan las rondas en curso.
+     *
+     * @param clientSeed nueva semilla del cliente (null para generar una al azar)
+     * @return las nuevas semillas
+     */
+    FairnessService.Seeds rotateFairnessSeeds(User user, String clientSeed);
+
+    /**
+     * Elimina la cuenta de un usuario y todo su historial. Antes anula sus rondas en curso por
+     * la liquidación normal (devolviendo la apuesta y cerrando su exposición, sus retenciones y
+     * sus rondas justas); después borra sus filas con {@code UserRepository.eraseAccount} y
+     * olvida lo que queda en memoria: semillas del servidor, clasificaciones y caché.
+     *
+     * @param userId ID del usuario
+     * @return número total de filas eliminadas (0 si el usuario no existe)
+     */
+    long eraseAccount(Long userId);
+
     // Añadir a la interfaz GameService.java
 
     /**
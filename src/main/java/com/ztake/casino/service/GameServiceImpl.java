@@ -1,20 +1,47 @@
 package com.ztake.casino.service;
 
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.config.SqlStatementCounter;
 import com.ztake.casino.model.GameSession;
-import com.ztake.casino.model.Transaction;
+import com.ztake.casino.model.PnlRollup.Granularity;
 import com.ztake.casino.model.User;
+import com.ztake.casino.repository.FetchPlan;
 import com.ztake.casino.repository.GameSessionRepository;
+import com.ztake.casino.repository.LeaderboardEntry;
+import com.ztake.casino.repository.LeaderboardRepository;
+import com.ztake.casino.repository.LeaderboardRepositoryImpl;
+import com.ztake.casino.repository.PnlPoint;
+import com.ztake.casino.repository.PnlRollupRepository;
+import com.ztake.casino.repository.PnlRollupRepositoryImpl;
+import com.ztake.casino.repository.Settlement;
+import com.ztake.casino.repository.SettlementResult;
 import com.ztake.casino.repository.TransactionRepository;
 import com.ztake.casino.repository.UserRepository;
+import com.ztake.casino.repository.WalletCommitPipeline;
+import com.ztake.casino.repository.WalletRepository;
+import com.ztake.casino.repository.WalletRepositoryImpl;
+import com.ztake.casino.repository.Wager;
+import org.hibernate.Hibernate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
 
 /**
  * Implementación mejorada del servicio de gestión de juegos.
@@ -23,84 +50,433 @@ public class GameServiceImpl implements GameService {
     private static final Logger LOGGER = Logger.getLogger(GameServiceImpl.class.getName());
 
     // Use constants for common strings like transaction types and statuses
-    private static final String TRANSACTION_TYPE_BET = "bet";
-    private static final String TRANSACTION_TYPE_WIN = "win";
-    private static final String TRANSACTION_TYPE_DEPOSIT = "deposit";
-    private static final String TRANSACTION_STATUS_COMPLETED = "completed";
     private static final String GAME_RESULT_IN_PROGRESS = "in_progress";
     private static final String GAME_RESULT_WON = "won";
     private static final String GAME_RESULT_LOST = "lost";
     private static final int DEFAULT_SCALE = 2; // For BigDecimal operations
     private static final RoundingMode DEFAULT_ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final String CACHE_QUERY_HISTORY = "history";
+    private static final String CACHE_QUERY_STATS = "stats";
+    private static final String CACHE_QUERY_PNL = "pnl";
+    // SQL budgets per operation (statements sent through Hibernate; JDBC batches are not counted)
+    private static final int SETTLEMENT_MAX_STATEMENTS = 2;
+    // Only the insert of the next session goes through Hibernate; the rest is batched JDBC
+    private static final int REBET_MAX_STATEMENTS = 1;
+    // Batch settlements never go through Hibernate: sessions are already in memory
+    private static final int BATCH_MAX_STATEMENTS = 0;
+    private static final int HISTORY_MAX_STATEMENTS = 1;
+    // Open rounds refunded per batch, and batches tried, before erasing an account
+    private static final int ERASURE_REFUND_BATCH = 100;
+    private static final int ERASURE_REFUND_PASSES = 10;
 
     private final GameSessionRepository gameSessionRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final GameHistoryCache historyCache;
+    private final PnlRollupRepository pnlRollupRepository;
+    private final ExposureTracker exposureTracker;
+    // Optional group-commit stage in front of the wallet writes of a round (null: one commit per write)
+    private final WalletCommitPipeline commitPipeline;
+    // Single-bet rounds hold the stake instead of debiting it (one balance write per round)
+    private final boolean holdFunds;
+    private final Leaderboard leaderboard;
+    private final LeaderboardRepository leaderboardRepository;
+    private final FairnessService fairnessService;
 
     public GameServiceImpl(GameSessionRepository gameSessionRepository,
                            TransactionRepository transactionRepository,
                            UserRepository userRepository) {
-        this.gameSessionRepository = gameSessionRepository;
-        this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this(builder(gameSessionRepository, transactionRepository, userRepository));
+    }
+
+    private GameServiceImpl(Builder builder) {
+        this.gameSessionRepository = builder.gameSessionRepository;
+        this.transactionRepository = builder.transactionRepository;
+        this.userRepository = builder.userRepository;
+        this.walletRepository = builder.walletRepository != null ? builder.walletRepository : new WalletRepositoryImpl();
+        this.historyCache = builder.historyCache != null ? builder.historyCache : new GameHistoryCache();
+        this.pnlRollupRepository = builder.pnlRollupRepository != null
+                ? builder.pnlRollupRepository : new PnlRollupRepositoryImpl();
+        this.exposureTracker = builder.exposureTracker != null ? builder.exposureTracker : new ExposureTracker();
+        this.leaderboard = builder.leaderboard != null ? builder.leaderboard : new Leaderboard();
+        this.leaderboardRepository = builder.leaderboardRepository != null
+                ? builder.leaderboardRepository : new LeaderboardRepositoryImpl();
+        this.fairnessService = builder.fairnessService != null ? builder.fairnessService : new FairnessService();
+        this.commitPipeline = builder.commitPipeline;
+        this.holdFunds = builder.holdFunds;
+    }
+
+    /**
+     * Starts building a service over the given repositories. Every other collaborator defaults
+     * to its standard implementation, holds follow {@code wallet.holds.enabled} and there is no
+     * commit pipeline.
+     */
+    public static Builder builder(GameSessionRepository gameSessionRepository,
+                                  TransactionRepository transactionRepository,
+                                  UserRepository userRepository) {
+        return new Builder(gameSessionRepository, transactionRepository, userRepository);
     }
 
     @Override
-    public synchronized GameSession startGame(User user, String gameType, double betAmount) {
+    public GameSession startGame(User user, String gameType, double betAmount) {
+        if (commitPipeline != null) {
+            // Every balance write must be relative while the pipeline is active. Waiting outside
+            // the monitor lets concurrent callers share a batch
+            return await(startGameAsync(user, gameType, betAmount));
+        }
+        return startSingleGame(user, gameType, betAmount);
+    }
+
+    private synchronized GameSession startSingleGame(User user, String gameType, double betAmount) {
         validateNotNull(user, "El usuario no puede ser nulo");
         validateNotBlank(gameType, "El tipo de juego no puede estar vacío");
         validateBetAmount(betAmount);
 
         BigDecimal bet = BigDecimal.valueOf(betAmount).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+        if (holdFunds) {
+            return startHeldGame(user, gameType, bet);
+        }
+        return startDebitedGame(user, gameType, bet);
+    }
 
-        // Fetch fresh user data to ensure consistency
+    /**
+     * Opens a round debiting the stake with a conditional, relative balance update: a concurrent
+     * write to the same balance (a deposit, a Crash bet, the commit pipeline) is never overwritten.
+     */
+    private GameSession startDebitedGame(User user, String gameType, BigDecimal bet) {
         User freshUser = findUserByIdOrThrow(user.getId());
-        BigDecimal userBalance = BigDecimal.valueOf(freshUser.getBalance()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
-
-        if (userBalance.compareTo(bet) < 0) {
+        if (availableBalance(freshUser).compareTo(bet) < 0) {
             throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
         }
 
+        // Reserve the house exposure first: rejected when the configured ceiling would be exceeded
+        ExposureTracker.Round exposure = exposureTracker.reserve(gameType, bet.doubleValue());
+        // Seeds and nonce of the round: no I/O, the server seeds are pre-generated in the background
+        FairnessService.Round fairRound = fairnessService.nextRound(freshUser.getId());
+
         try {
-            // Create bet transaction (initially pending potential rollback)
-            Transaction betTransaction = new Transaction(freshUser, bet.doubleValue(), TRANSACTION_TYPE_BET);
-            // Note: Status is set later after successful user update
+            // Conditional debit, session and bet transaction in a single database transaction
+            GameSession saved = walletRepository.openSession(newSession(freshUser, gameType, bet, fairRound), null);
+            user.setBalance(availableBalance(freshUser).doubleValue());
+            exposureTracker.attach(exposure, saved.getId());
 
-            // Update user balance (debit)
-            BigDecimal newBalance = userBalance.subtract(bet);
-            freshUser.setBalance(newBalance.doubleValue());
-            userRepository.save(freshUser);
+            LOGGER.log(Level.INFO, "Iniciando juego: {0} - Usuario: {1} - Apuesta: {2}",
+                    new Object[]{gameType, freshUser.getUsername(), bet});
+            return saved;
+        } catch (Exception e) {
+            exposureTracker.cancel(exposure);
+            fairnessService.finishRound(freshUser.getId(), fairRound.getServerSeedHash());
+            if (e instanceof IllegalStateException) {
+                // Balance changed since it was read: nothing was written
+                throw (IllegalStateException) e;
+            }
+            LOGGER.log(Level.SEVERE, "Error al iniciar el juego para el usuario " + user.getUsername() + ": " + e.getMessage(), e);
+            throw new RuntimeException("Error al iniciar el juego: " + e.getMessage(), e);
+        } finally {
+            // The history changed (or may have partially changed): drop cached results
+            historyCache.invalidate(user.getId());
+        }
+    }
+
+    /**
+     * Opens a round holding the stake: the balance row is only written when the round settles.
+     */
+    private GameSession startHeldGame(User user, String gameType, BigDecimal bet) {
+        ExposureTracker.Round exposure = exposureTracker.reserve(gameType, bet.doubleValue());
+        FairnessService.Round fairRound = fairnessService.nextRound(user.getId());
 
-            // Update the original user object reference passed to the method
-            user.setBalance(freshUser.getBalance());
+        try {
+            // The wallet checks the available balance itself: no need to read the user first
+            GameSession saved = walletRepository.holdSession(newSession(user, gameType, bet, fairRound));
+            exposureTracker.attach(exposure, saved.getId());
 
-            // Mark transaction as completed and save it
-            betTransaction.setStatus(TRANSACTION_STATUS_COMPLETED);
-            transactionRepository.save(betTransaction);
+            LOGGER.log(Level.INFO, "Iniciando juego: {0} - Usuario: {1} - Apuesta retenida: {2}",
+                    new Object[]{gameType, user.getUsername(), bet});
+            return saved;
+        } catch (Exception e) {
+            exposureTracker.cancel(exposure);
+            fairnessService.finishRound(user.getId(), fairRound.getServerSeedHash());
+            if (e instanceof IllegalStateException) {
+                // Not enough available balance: nothing was written
+                throw (IllegalStateException) e;
+            }
+            LOGGER.log(Level.SEVERE, "Error al iniciar el juego para el usuario " + user.getUsername() + ": " + e.getMessage(), e);
+            throw new RuntimeException("Error al iniciar el juego: " + e.getMessage(), e);
+        } finally {
+            historyCache.invalidate(user.getId());
+        }
+    }
+
+    private static GameSession newSession(User user, String gameType, BigDecimal bet, FairnessService.Round fairRound) {
+        GameSession gameSession = new GameSession();
+        gameSession.setUser(user);
+        gameSession.setGameType(gameType);
+        gameSession.setBetAmount(bet.doubleValue());
+        gameSession.setWinningAmount(0.0);
+        gameSession.setResult(GAME_RESULT_IN_PROGRESS);
+        gameSession.setSessionDate(LocalDateTime.now());
+        gameSession.setServerSeedHash(fairRound.getServerSeedHash());
+        gameSession.setClientSeed(fairRound.getClientSeed());
+        gameSession.setNonce(fairRound.getNonce());
+        return gameSession;
+    }
+
+    /**
+     * @return the balance not held by rounds in progress
+     */
+    private BigDecimal availableBalance(User freshUser) {
+        return BigDecimal.valueOf(freshUser.getBalance())
+                .subtract(BigDecimal.valueOf(walletRepository.getHeldFunds(freshUser.getId())))
+                .setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+    }
 
-            // Create game session
+    @Override
+    public synchronized GameSession startGame(User user, String gameType, List<Wager> wagers) {
+        validateNotNull(user, "El usuario no puede ser nulo");
+        validateNotBlank(gameType, "El tipo de juego no puede estar vacío");
+        validateNotNull(wagers, "Las apuestas no pueden ser nulas");
+        if (wagers.isEmpty()) {
+            throw new IllegalArgumentException("La ronda necesita al menos una apuesta");
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Wager wager : wagers) {
+            validateBetAmount(wager.getAmount());
+            total = total.add(BigDecimal.valueOf(wager.getAmount()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+        }
+        // The limits apply to the whole round as well as to each wager
+        validateBetAmount(total.doubleValue());
+
+        User freshUser = findUserByIdOrThrow(user.getId());
+        if (availableBalance(freshUser).compareTo(total) < 0) {
+            throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+        }
+
+        ExposureTracker.Round exposure = exposureTracker.reserve(gameType, total.doubleValue());
+        FairnessService.Round fairRound = fairnessService.nextRound(freshUser.getId());
+
+        try {
             GameSession gameSession = new GameSession();
             gameSession.setUser(freshUser);
             gameSession.setGameType(gameType);
-            gameSession.setBetAmount(bet.doubleValue());
-            gameSession.setWinningAmount(0.0); // Initial winning amount is zero
+            gameSession.setBetAmount(total.doubleValue());
+            gameSession.setWinningAmount(0.0);
             gameSession.setResult(GAME_RESULT_IN_PROGRESS);
             gameSession.setSessionDate(LocalDateTime.now());
-
-            LOGGER.log(Level.INFO, "Iniciando juego: {0} - Usuario: {1} - Apuesta: {2}",
-                    new Object[]{gameType, freshUser.getUsername(), bet});
-            return gameSessionRepository.save(gameSession);
-
+            gameSession.setServerSeedHash(fairRound.getServerSeedHash());
+            gameSession.setClientSeed(fairRound.getClientSeed());
+            gameSession.setNonce(fairRound.getNonce());
+
+            // Conditional debit, session and one bet transaction per wager in a single database transaction
+            GameSession saved = walletRepository.openSession(gameSession, wagers);
+            user.setBalance(availableBalance(freshUser).doubleValue());
+            exposureTracker.attach(exposure, saved.getId());
+
+            LOGGER.log(Level.INFO, "Iniciando juego: {0} - Usuario: {1} - Apuestas: {2} - Total: {3}",
+                    new Object[]{gameType, freshUser.getUsername(), wagers.size(), total});
+            return saved;
         } catch (Exception e) {
-            // Consider more specific exception handling or potential rollback logic if needed
+            exposureTracker.cancel(exposure);
+            fairnessService.finishRound(freshUser.getId(), fairRound.getServerSeedHash());
+            if (e instanceof IllegalStateException) {
+                // Balance changed since it was read: nothing was written
+                throw (IllegalStateException) e;
+            }
             LOGGER.log(Level.SEVERE, "Error al iniciar el juego para el usuario " + user.getUsername() + ": " + e.getMessage(), e);
-            // Re-throwing as a runtime exception, consistent with original logic
             throw new RuntimeException("Error al iniciar el juego: " + e.getMessage(), e);
+        } finally {
+            historyCache.invalidate(user.getId());
+        }
+    }
+
+    @Override
+    public List<GameSession> playRounds(User user, String gameType, double betAmount, int rounds,
+                                        RoundPlayer player) {
+        validateNotNull(user, "El usuario no puede ser nulo");
+        validateNotBlank(gameType, "El tipo de juego no puede estar vacío");
+        validateNotNull(player, "El jugador de las rondas no puede ser nulo");
+        validateBetAmount(betAmount);
+        if (rounds < 1) {
+            throw new IllegalArgumentException("El lote necesita al menos una ronda");
+        }
+
+        BigDecimal bet = BigDecimal.valueOf(betAmount).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+        User freshUser = findUserByIdOrThrow(user.getId());
+        BigDecimal balance = availableBalance(freshUser);
+        if (balance.compareTo(bet) < 0) {
+            throw new IllegalStateException("Saldo insuficiente para realizar la apuesta");
+        }
+
+        // Rounds are resolved in memory before anything is written, so no exposure is left open.
+        // No monitor: recordRounds checks the balance in the same update that applies the batch,
+        // and the fairness and leaderboard state is safe for concurrent use
+        List<GameSession> played = new ArrayList<>(rounds);
+        try {
+            boolean more = true;
+            while (more && played.size() < rounds && balance.compareTo(bet) >= 0) {
+                FairnessService.Round fairRound = fairnessService.nextRound(freshUser.getId());
+                GameSession gameSession = new GameSession();
+                gameSession.setUser(freshUser);
+                gameSession.setGameType(gameType);
+                gameSession.setBetAmount(bet.doubleValue());
+                gameSession.setWinningAmount(0.0);
+                gameSession.setResult(GAME_RESULT_IN_PROGRESS);
+                gameSession.setSessionDate(LocalDateTime.now());
+                gameSession.setServerSeedHash(fairRound.getServerSeedHash());
+                gameSession.setClientSeed(fairRound.getClientSeed());
+                gameSession.setNonce(fairRound.getNonce());
+                played.add(gameSession);
+
+                more = player.play(gameSession, fairnessService.random(freshUser.getId(),
+                        fairRound.getServerSeedHash(), fairRound.getClientSeed(), fairRound.getNonce()));
+                validateGameResult(gameSession.getResult());
+                BigDecimal winnings = BigDecimal.valueOf(gameSession.getWinningAmount())
+                        .setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+                if (winnings.signum() < 0) {
+                    throw new IllegalArgumentException("Las ganancias no pueden ser negativas");
+                }
+                gameSession.setWinningAmount(winnings.doubleValue());
+                balance = balance.subtract(bet).add(winnings);
+            }
+
+            // Sessions, one balance change and all transactions in a single database transaction
+            walletRepository.recordRounds(played);
+            user.setBalance(availableBalance(freshUser).doubleValue());
+            for (GameSession gameSession : played) {
+                leaderboard.record(gameSession);
+            }
+
+            LOGGER.log(Level.INFO, "Lote de rondas: {0} - Usuario: {1} - Rondas: {2} - Apuesta: {3} - Saldo: {4}",
+                    new Object[]{gameType, freshUser.getUsername(), played.size(), bet, freshUser.getBalance()});
+            return played;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // Balance changed since it was read, or the game returned an invalid round: nothing was written
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al jugar un lote de rondas para el usuario " + user.getUsername() + ": " + e.getMessage(), e);
+            throw new RuntimeException("Error al jugar el lote de rondas: " + e.getMessage(), e);
+        } finally {
+            // Saved or discarded, the rounds are over: their server seeds can be revealed
+            for (GameSession gameSession : played) {
+                fairnessService.finishRound(freshUser.getId(), gameSession.getServerSeedHash());
+            }
+            historyCache.invalidate(user.getId());
+        }
+    }
+
+    @Override
+    public GameSession endGame(GameSession gameSession, double winnings, String result, String gameData) {
+        if (commitPipeline != null) {
+            return await(endGameAsync(gameSession, winnings, result, gameData));
+        }
+        return endSingleGame(gameSession, winnings, result, gameData);
+    }
+
+    private synchronized GameSession endSingleGame(GameSession gameSession, double winnings, String result,
+                                                   String gameData) {
+        return endGame(gameSession, BigDecimal.valueOf(winnings), null, result, gameData);
+    }
+
+    @Override
+    public CompletableFuture<GameSession> startGameAsync(User user, String gameType, double betAmount) {
+        WalletCommitPipeline pipeline = commitPipeline;
+        if (pipeline == null) {
+            return completed(() -> startSingleGame(user, gameType, betAmount));
         }
+        validateNotNull(user, "El usuario no puede ser nulo");
+        validateNotBlank(gameType, "El tipo de juego no puede estar vacío");
+        validateBetAmount(betAmount);
+
+        BigDecimal bet = BigDecimal.valueOf(betAmount).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+        ExposureTracker.Round exposure = exposureTracker.reserve(gameType, bet.doubleValue());
+        FairnessService.Round fairRound = fairnessService.nextRound(user.getId());
+
+        // No balance read: the queued debit (or hold) is checked against the balance by the wallet
+        GameSession gameSession = newSession(user, gameType, bet, fairRound);
+        CompletableFuture<GameSession> opened = holdFunds
+                ? pipeline.holdSession(gameSession) : pipeline.openSession(gameSession);
+
+        return opened.whenComplete((saved, error) -> {
+            if (error == null) {
+                exposureTracker.attach(exposure, saved.getId());
+                LOGGER.log(Level.INFO, "Iniciando juego: {0} - Usuario: {1} - Apuesta: {2}",
+                        new Object[]{gameType, user.getUsername(), bet});
+            } else {
+                exposureTracker.cancel(exposure);
+                fairnessService.finishRound(user.getId(), fairRound.getServerSeedHash());
+            }
+            historyCache.invalidate(user.getId());
+        });
     }
 
     @Override
-    public synchronized GameSession endGame(GameSession gameSession, double winnings, String result, String gameData) {
+    public CompletableFuture<GameSession> endGameAsync(GameSession gameSession, double winnings, String result,
+                                                      String gameData) {
+        WalletCommitPipeline pipeline = commitPipeline;
+        if (pipeline == null) {
+            return completed(() -> endSingleGame(gameSession, winnings, result, gameData));
+        }
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+            throw new IllegalStateException("La sesión de juego ya está finalizada");
+        }
+        validateGameResult(result);
+        BigDecimal winningsBD = BigDecimal.valueOf(winnings).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+
+        return pipeline.settleSession(gameSession.getId(), winningsBD.doubleValue(), result, gameData)
+                .thenApply(settled -> settled(gameSession, settled, winningsBD, result))
+                .whenComplete((settled, error) -> {
+                    // Same bookkeeping as the synchronous endGame
+                    if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+                        exposureTracker.close(gameSession.getId());
+                        if (gameSession.getUser() != null) {
+                            fairnessService.finishRound(gameSession.getUser().getId(), gameSession.getServerSeedHash());
+                        }
+                    }
+                    if (gameSession.getUser() != null) {
+                        historyCache.invalidate(gameSession.getUser().getId());
+                    }
+                });
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Waits for a queued wallet write and rethrows its own exception (IllegalStateException...).
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized GameSession endGame(GameSession gameSession, List<Wager> winnings, String result, String gameData) {
+        validateNotNull(winnings, "Los premios no pueden ser nulos");
+        BigDecimal total = BigDecimal.ZERO;
+        for (Wager wager : winnings) {
+            total = total.add(BigDecimal.valueOf(wager.getAmount()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+        }
+        return endGame(gameSession, total, winnings, result, gameData);
+    }
+
+    /**
+     * Settles a round; with per-wager credits the wallet records one win transaction per wager.
+     */
+    private GameSession endGame(GameSession gameSession, BigDecimal winnings, List<Wager> credits,
+                                String result, String gameData) {
         validateNotNull(gameSession, "La sesión de juego no puede ser nula");
 
         if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
@@ -109,40 +485,335 @@ public class GameServiceImpl implements GameService {
 
         validateGameResult(result);
 
-        BigDecimal winningsBD = BigDecimal.valueOf(winnings).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+        BigDecimal winningsBD = winnings.setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+
+        try {
+            return SqlStatementCounter.measureCommitted("endGame", SETTLEMENT_MAX_STATEMENTS,
+                    () -> settle(gameSession, winningsBD, credits, result, gameData));
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al finalizar el juego ID " + gameSession.getId() + ": " + e.getMessage(), e);
+            throw new RuntimeException("Error al finalizar el juego: " + e.getMessage(), e);
+        } finally {
+            // Settled: the round is no longer a liability
+            if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+                exposureTracker.close(gameSession.getId());
+                if (gameSession.getUser() != null) {
+                    // The server seed can be revealed once no open round uses it
+                    fairnessService.finishRound(gameSession.getUser().getId(), gameSession.getServerSeedHash());
+                }
+            }
+            if (gameSession.getUser() != null) {
+                historyCache.invalidate(gameSession.getUser().getId());
+            }
+        }
+    }
+
+    @Override
+    public synchronized RebetResult settleAndRebet(GameSession gameSession, double winnings, String result,
+                                                   String gameData) {
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+            throw new IllegalStateException("La sesión de juego ya está finalizada");
+        }
+        validateGameResult(result);
+        // The limits may have changed since the round was opened
+        validateBetAmount(gameSession.getBetAmount());
+        User user = gameSession.getUser();
+        validateNotNull(user, "La sesión de juego no tiene usuario");
 
+        BigDecimal winningsBD = BigDecimal.valueOf(winnings).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+        if (winningsBD.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Las ganancias no pueden ser negativas");
+        }
+        BigDecimal bet = BigDecimal.valueOf(gameSession.getBetAmount()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+
+        ExposureTracker.Round exposure = exposureTracker.reserve(gameSession.getGameType(), bet.doubleValue());
+        FairnessService.Round fairRound = fairnessService.nextRound(user.getId());
+
+        GameSession next = new GameSession();
+        next.setUser(user);
+        next.setGameType(gameSession.getGameType());
+        next.setBetAmount(bet.doubleValue());
+        next.setWinningAmount(0.0);
+        next.setResult(GAME_RESULT_IN_PROGRESS);
+        next.setSessionDate(LocalDateTime.now());
+        next.setServerSeedHash(fairRound.getServerSeedHash());
+        next.setClientSeed(fairRound.getClientSeed());
+        next.setNonce(fairRound.getNonce());
+
+        GameSession opened = null;
         try {
-            // Update session details
+            // Settle, credit, take the next stake (held or debited, like startGame) and open the next
+            // session in a single atomic step
+            opened = SqlStatementCounter.measureCommitted("settleAndRebet", REBET_MAX_STATEMENTS,
+                    () -> holdFunds
+                            ? walletRepository.settleAndHold(gameSession, winningsBD.doubleValue(), result, gameData, next)
+                            : walletRepository.settleAndOpen(gameSession, winningsBD.doubleValue(), result, gameData, next));
+
             gameSession.setWinningAmount(winningsBD.doubleValue());
             gameSession.setResult(result);
-            gameSession.setGameData(gameData); // Store additional game data if provided
+            if (gameData != null) {
+                gameSession.setGameData(gameData);
+            }
+            leaderboard.record(gameSession);
 
-            // Process winnings if the game was won and winnings are positive
-            if (GAME_RESULT_WON.equals(result) && winningsBD.compareTo(BigDecimal.ZERO) > 0) {
-                User user = gameSession.getUser();
-                // Apply the credit transaction using the extracted helper method
-                User updatedUser = applyCreditTransaction(user, winningsBD, TRANSACTION_TYPE_WIN);
+            if (opened == null) {
+                // Settled and paid: only the next stake is missing
+                LOGGER.log(Level.INFO, "Juego finalizado sin saldo para repetir la apuesta - Usuario: {0} - Tipo: {1} - Apuesta: {2} - Ganancias: {3}",
+                        new Object[]{user.getUsername(), gameSession.getGameType(), bet, winningsBD});
+                return new RebetResult(gameSession, null);
+            }
+            exposureTracker.attach(exposure, opened.getId());
+            LOGGER.log(Level.INFO, "Juego finalizado y apuesta repetida - Usuario: {0} - Tipo: {1} - Apuesta: {2} - Ganancias: {3}",
+                    new Object[]{user.getUsername(), gameSession.getGameType(), bet, winningsBD});
+            return new RebetResult(gameSession, opened);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al finalizar el juego ID " + gameSession.getId() + " y repetir la apuesta: " + e.getMessage(), e);
+            throw new RuntimeException("Error al repetir la apuesta: " + e.getMessage(), e);
+        } finally {
+            if (opened == null) {
+                exposureTracker.cancel(exposure);
+                fairnessService.finishRound(user.getId(), fairRound.getServerSeedHash());
+            }
+            if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+                exposureTracker.close(gameSession.getId());
+                fairnessService.finishRound(user.getId(), gameSession.getServerSeedHash());
+            }
+            historyCache.invalidate(user.getId());
+        }
+    }
+
+    @Override
+    public synchronized GameSession cancelGame(GameSession gameSession) {
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+            throw new IllegalStateException("La sesión de juego ya está finalizada");
+        }
 
-                // Update gameSession's user reference if necessary (depends on JPA/Hibernate caching/management)
-                // gameSession.setUser(updatedUser); // Usually not needed if the user object is managed
+        SettlementResult refunded = settleBatch(List.of(Settlement.refund(gameSession))).get(0);
+        switch (refunded.getStatus()) {
+            case SETTLED:
+                LOGGER.log(Level.INFO, "Ronda anulada y apuesta devuelta - Sesión: {0} - Apuesta: {1}",
+                        new Object[]{gameSession.getId(), gameSession.getBetAmount()});
+                return gameSession;
+            case ALREADY_SETTLED:
+                throw new IllegalStateException("La sesión de juego ya está finalizada");
+            default:
+                throw new RuntimeException("Error al anular el juego: " + refunded.getMessage());
+        }
+    }
 
-                LOGGER.log(Level.INFO, "Juego finalizado con ganancias - Usuario: {0} - Tipo: {1} - Apuesta: {2} - Ganancias: {3}",
-                        new Object[]{updatedUser.getUsername(), gameSession.getGameType(), gameSession.getBetAmount(), winningsBD});
+    @Override
+    public synchronized List<SettlementResult> settleBatch(List<Settlement> settlements) {
+        validateNotNull(settlements, "Las liquidaciones no pueden ser nulas");
+
+        // Validate each item on its own: a bad item is rejected without touching the database
+        SettlementResult[] results = new SettlementResult[settlements.size()];
+        Map<Settlement, Integer> positions = new IdentityHashMap<>();
+        List<Settlement> valid = new ArrayList<>(settlements.size());
+        Set<Long> sessionIds = new HashSet<>();
+        for (int i = 0; i < settlements.size(); i++) {
+            Settlement settlement = settlements.get(i);
+            String rejection = validateSettlement(settlement, sessionIds);
+            if (rejection != null) {
+                results[i] = new SettlementResult(settlement,
+                        settlement != null && !GAME_RESULT_IN_PROGRESS.equals(settlement.getSession().getResult())
+                                ? SettlementResult.Status.ALREADY_SETTLED : SettlementResult.Status.REJECTED,
+                        rejection);
             } else {
-                LOGGER.log(Level.INFO, "Juego finalizado sin ganancias - Usuario: {0} - Tipo: {1} - Apuesta: {2}",
-                        new Object[]{gameSession.getUser().getUsername(), gameSession.getGameType(), gameSession.getBetAmount()});
+                positions.put(settlement, i);
+                valid.add(settlement);
+            }
+        }
+
+        try {
+            List<Settlement> applied;
+            try {
+                applied = SqlStatementCounter.measureCommitted("settleBatch", BATCH_MAX_STATEMENTS,
+                        () -> walletRepository.settleBatch(valid));
+                markSettled(valid, applied, positions, results);
+            } catch (RuntimeException e) {
+                // Retry one by one so that the item that broke the batch does not take the rest with it
+                LOGGER.log(Level.WARNING, "Error al liquidar un lote de " + valid.size()
+                        + " sesiones, se liquidan una a una: " + e.getMessage(), e);
+                for (Settlement settlement : valid) {
+                    try {
+                        markSettled(List.of(settlement), walletRepository.settleBatch(List.of(settlement)),
+                                positions, results);
+                    } catch (RuntimeException single) {
+                        results[positions.get(settlement)] = new SettlementResult(settlement,
+                                SettlementResult.Status.FAILED, single.getMessage());
+                    }
+                }
             }
+        } finally {
+            afterSettlement(results);
+        }
+
+        int settled = 0;
+        for (SettlementResult result : results) {
+            if (result.isSettled()) {
+                settled++;
+            }
+        }
+        LOGGER.log(Level.INFO, "Lote de liquidaciones: {0} de {1} sesiones liquidadas",
+                new Object[]{settled, settlements.size()});
+        return Arrays.asList(results);
+    }
 
-            // Save and return the updated session
-            return gameSessionRepository.save(gameSession);
+    /**
+     * @return the reason to reject a settlement, or null when it can be applied
+     */
+    private String validateSettlement(Settlement settlement, Set<Long> sessionIds) {
+        if (settlement == null) {
+            return "La liquidación no puede ser nula";
+        }
+        GameSession session = settlement.getSession();
+        if (!GAME_RESULT_IN_PROGRESS.equals(session.getResult())) {
+            return "La sesión de juego ya está finalizada";
+        }
+        if (!settlement.isRefund() && !GAME_RESULT_WON.equals(settlement.getResult())
+                && !GAME_RESULT_LOST.equals(settlement.getResult())) {
+            return "Resultado inválido: " + settlement.getResult();
+        }
+        if (!(settlement.getWinnings() >= 0)) {
+            return "Las ganancias no pueden ser negativas";
+        }
+        if (!sessionIds.add(session.getId())) {
+            return "Sesión repetida en el lote: " + session.getId();
+        }
+        return null;
+    }
+
+    private static void markSettled(List<Settlement> attempted, List<Settlement> applied,
+                                    Map<Settlement, Integer> positions, SettlementResult[] results) {
+        Set<Settlement> settled = Collections.newSetFromMap(new IdentityHashMap<>());
+        settled.addAll(applied);
+        for (Settlement settlement : attempted) {
+            results[positions.get(settlement)] = settled.contains(settlement)
+                    ? new SettlementResult(settlement, SettlementResult.Status.SETTLED, null)
+                    : new SettlementResult(settlement, SettlementResult.Status.ALREADY_SETTLED,
+                    "La sesión de juego ya está finalizada");
+        }
+    }
+
+    /**
+     * Syncs the settled sessions in memory and releases what the open rounds were holding.
+     */
+    private void afterSettlement(SettlementResult[] results) {
+        Set<Long> users = new HashSet<>();
+        for (SettlementResult result : results) {
+            if (result == null || !result.isSettled()) {
+                continue;
+            }
+            Settlement settlement = result.getSettlement();
+            GameSession session = settlement.getSession();
+            BigDecimal credit = BigDecimal.valueOf(settlement.getWinnings()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+            session.setWinningAmount(credit.doubleValue());
+            session.setResult(settlement.getResult());
+            if (settlement.getGameData() != null) {
+                session.setGameData(settlement.getGameData());
+            }
+            User user = session.getUser();
+            if (Hibernate.isInitialized(user)) {
+                user.setBalance(BigDecimal.valueOf(user.getBalance()).add(credit)
+                        .setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE).doubleValue());
+                leaderboard.record(session);
+            }
+            exposureTracker.close(session.getId());
+            fairnessService.finishRound(user.getId(), session.getServerSeedHash());
+            users.add(user.getId());
+        }
+        for (Long userId : users) {
+            historyCache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public synchronized GameSession raiseBet(GameSession gameSession, Wager wager) {
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        validateNotNull(wager, "La apuesta no puede ser nula");
+        if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+            throw new IllegalStateException("La sesión de juego ya está finalizada");
+        }
+        validateBetAmount(wager.getAmount());
+        // The limits apply to the whole round as well as to each wager
+        validateBetAmount(BigDecimal.valueOf(gameSession.getBetAmount())
+                .add(BigDecimal.valueOf(wager.getAmount())).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE).doubleValue());
+
+        try {
+            // Conditional debit, session stake and bet transaction in a single database transaction
+            GameSession raised = walletRepository.addWager(gameSession, wager);
+            LOGGER.log(Level.INFO, "Apuesta añadida a la sesión {0}: {1} - Total: {2}",
+                    new Object[]{gameSession.getId(), wager.getReference(), raised.getBetAmount()});
+            return raised;
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error al finalizar el juego ID " + gameSession.getId() + ": " + e.getMessage(), e);
-            throw new RuntimeException("Error al finalizar el juego: " + e.getMessage(), e);
+            LOGGER.log(Level.SEVERE, "Error al añadir una apuesta a la sesión ID " + gameSession.getId() + ": " + e.getMessage(), e);
+            throw new RuntimeException("Error al añadir la apuesta: " + e.getMessage(), e);
+        } finally {
+            if (gameSession.getUser() != null) {
+                historyCache.invalidate(gameSession.getUser().getId());
+            }
+        }
+    }
+
+    @Override
+    public void updateExposure(GameSession gameSession, double multiplier) {
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        if (gameSession.getId() != null && GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult())) {
+            exposureTracker.update(gameSession.getId(), gameSession.getBetAmount(), multiplier);
+        }
+    }
+
+    /**
+     * Settles the session through the wallet and syncs the caller's instance.
+     * The settled session comes back with its user loaded (settlement fetch plan), and the
+     * caller's user is only touched when it is already initialized, so no lazy load is triggered.
+     */
+    private GameSession settle(GameSession gameSession, BigDecimal winningsBD, List<Wager> credits,
+                               String result, String gameData) {
+        // Settle the session, credit winnings and record the transaction(s) in a single atomic step
+        GameSession settled = credits == null
+                ? walletRepository.settleSession(gameSession.getId(), winningsBD.doubleValue(), result, gameData)
+                : walletRepository.settleSession(gameSession.getId(), credits, result, gameData);
+        return settled(gameSession, settled, winningsBD, result);
+    }
+
+    /**
+     * Applies a settlement already written by the wallet to the caller's instance and the leaderboards.
+     */
+    private GameSession settled(GameSession gameSession, GameSession settled, BigDecimal winningsBD, String result) {
+        // Feed the live leaderboards in memory (the settled session already carries its user)
+        leaderboard.record(settled);
+
+        // Keep the caller's instance in sync with the persisted state
+        gameSession.setWinningAmount(settled.getWinningAmount());
+        gameSession.setResult(settled.getResult());
+        gameSession.setGameData(settled.getGameData());
+        User settledUser = settled.getUser();
+        if (gameSession.getUser() != null && Hibernate.isInitialized(gameSession.getUser())) {
+            gameSession.getUser().setBalance(settledUser.getBalance());
+        }
+
+        if (GAME_RESULT_WON.equals(result) && winningsBD.compareTo(BigDecimal.ZERO) > 0) {
+            LOGGER.log(Level.INFO, "Juego finalizado con ganancias - Usuario: {0} - Tipo: {1} - Apuesta: {2} - Ganancias: {3}",
+                    new Object[]{settledUser.getUsername(), settled.getGameType(), settled.getBetAmount(), winningsBD});
+        } else {
+            LOGGER.log(Level.INFO, "Juego finalizado sin ganancias - Usuario: {0} - Tipo: {1} - Apuesta: {2}",
+                    new Object[]{settledUser.getUsername(), settled.getGameType(), settled.getBetAmount()});
         }
+
+        return settled;
     }
 
     @Override
-    public synchronized User depositFunds(User user, double amount) {
+    public User depositFunds(User user, double amount) {
         validateNotNull(user, "El usuario no puede ser nulo");
         validatePositiveAmount(amount, "El monto del depósito debe ser mayor que cero");
 
@@ -153,8 +824,11 @@ public class GameServiceImpl implements GameService {
         }
 
         try {
-            // Apply the credit transaction using the extracted helper method
-            User updatedUser = applyCreditTransaction(user, depositAmount, TRANSACTION_TYPE_DEPOSIT);
+            // Relative credit: no read-modify-write of the balance, so concurrent round writes (including
+            // the commit pipeline) are never overwritten and no lock on this service is needed
+            User updatedUser = walletRepository.deposit(user.getId(), depositAmount.doubleValue());
+            // Callers keep the returned user as their session user: stakes on hold are not available
+            user.setBalance(updatedUser.getBalance());
 
             LOGGER.log(Level.INFO, "Depósito realizado - Usuario: {0} - Monto: {1} - Nuevo saldo: {2}",
                     new Object[]{updatedUser.getUsername(), depositAmount, updatedUser.getBalance()});
@@ -166,49 +840,6 @@ public class GameServiceImpl implements GameService {
         }
     }
 
-    /**
-     * Helper method to apply a credit transaction (deposit, win) to a user's balance.
-     * This method fetches the fresh user state, updates the balance, saves the user,
-     * creates and saves the completed transaction.
-     * It assumes it's called within a synchronized context if necessary.
-     *
-     * @param user            The user object (can be stale, used to get ID).
-     * @param amount          The positive amount to credit.
-     * @param transactionType The type of transaction (e.g., "deposit", "win").
-     * @return The updated User object with the new balance.
-     * @throws IllegalArgumentException if user not found or amount is invalid.
-     * @throws RuntimeException         if a database error occurs.
-     */
-    private User applyCreditTransaction(User user, BigDecimal amount, String transactionType) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            // Internal check, should be validated before calling
-            throw new IllegalArgumentException("El monto para acreditar debe ser positivo.");
-        }
-
-        // Fetch fresh user data
-        User freshUser = findUserByIdOrThrow(user.getId());
-
-        // Create transaction (status set later)
-        Transaction transaction = new Transaction(freshUser, amount.doubleValue(), transactionType);
-
-        // Update balance (credit)
-        BigDecimal currentBalance = BigDecimal.valueOf(freshUser.getBalance()).setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
-        BigDecimal newBalance = currentBalance.add(amount);
-        freshUser.setBalance(newBalance.doubleValue());
-
-        // Save user FIRST to ensure balance is updated before transaction is marked complete
-        userRepository.save(freshUser);
-
-        // Update the original user object reference passed to the method
-        user.setBalance(freshUser.getBalance());
-
-        // Mark transaction as completed and save it
-        transaction.setStatus(TRANSACTION_STATUS_COMPLETED);
-        transactionRepository.save(transaction);
-
-        return freshUser; // Return the most up-to-date user object
-    }
-
 
     // --- History and Stats Methods (Unchanged from original, but reviewed) ---
 
@@ -216,7 +847,12 @@ public class GameServiceImpl implements GameService {
     public List<GameSession> getUserGameHistory(User user) {
         validateNotNull(user, "El usuario no puede ser nulo");
         try {
-            return gameSessionRepository.findByUser(user);
+            return historyCache.get(user.getId(), CACHE_QUERY_HISTORY, null, null, null,
+                    () -> SqlStatementCounter.measure("history", HISTORY_MAX_STATEMENTS,
+                            () -> List.copyOf(gameSessionRepository.findByUser(user, FetchPlan.HISTORY_ROW))));
+        } catch (IllegalStateException e) {
+            // SQL budget exceeded in strict (test) mode
+            throw e;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al obtener historial de juegos para usuario " + user.getUsername() + ": " + e.getMessage(), e);
             return List.of(); // Return empty list on error
@@ -232,27 +868,51 @@ public class GameServiceImpl implements GameService {
         }
 
         try {
-            // Delegate to repository methods based on provided filters
-            if (gameType != null && fromDate != null && toDate != null) {
-                return gameSessionRepository.findByUserAndGameTypeAndDateRange(user, gameType, fromDate, toDate);
-            } else if (gameType != null) {
-                return gameSessionRepository.findByUserAndGameType(user, gameType);
-            } else if (fromDate != null && toDate != null) {
-                return gameSessionRepository.findByUserAndDateRange(user, fromDate, toDate);
-            } else {
-                // If only user is provided, call the simpler method
-                return gameSessionRepository.findByUser(user);
-            }
+            // Served from the per-user cache while the user has not played since the last query
+            return historyCache.get(user.getId(), CACHE_QUERY_HISTORY, gameType, fromDate, toDate,
+                    () -> SqlStatementCounter.measure("history", HISTORY_MAX_STATEMENTS,
+                            () -> List.copyOf(findGameHistory(user, gameType, fromDate, toDate))));
+        } catch (IllegalStateException e) {
+            // SQL budget exceeded in strict (test) mode
+            throw e;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al obtener historial de juegos filtrado para usuario " + user.getUsername() + ": " + e.getMessage(), e);
             return List.of(); // Return empty list on error
         }
     }
 
+    /**
+     * Delegates the filtered history query to the matching repository method.
+     */
+    private List<GameSession> findGameHistory(User user, String gameType, LocalDateTime fromDate, LocalDateTime toDate) {
+        // Delegate to repository methods based on provided filters
+        if (gameType != null && fromDate != null && toDate != null) {
+            return gameSessionRepository.findByUserAndGameTypeAndDateRange(user, gameType, fromDate, toDate);
+        } else if (gameType != null) {
+            return gameSessionRepository.findByUserAndGameType(user, gameType);
+        } else if (fromDate != null && toDate != null) {
+            return gameSessionRepository.findByUserAndDateRange(user, fromDate, toDate);
+        } else {
+            // If only user is provided, call the simpler method
+            return gameSessionRepository.findByUser(user, FetchPlan.HISTORY_ROW);
+        }
+    }
+
     @Override
     public Map<String, Object> calculateUserGameStats(User user) {
         validateNotNull(user, "El usuario no puede ser nulo");
 
+        // Cached as an immutable snapshot; callers get their own mutable copy
+        Map<String, Object> cached = historyCache.get(user.getId(), CACHE_QUERY_STATS, null, null, null,
+                () -> SqlStatementCounter.measure("stats", HISTORY_MAX_STATEMENTS,
+                        () -> Map.copyOf(computeUserGameStats(user))));
+        return new HashMap<>(cached);
+    }
+
+    /**
+     * Computes the aggregate stats over the user's full game history.
+     */
+    private Map<String, Object> computeUserGameStats(User user) {
         Map<String, Object> stats = new HashMap<>();
         // Initialize with defaults
         stats.put("totalBet", 0.0);
@@ -263,7 +923,7 @@ public class GameServiceImpl implements GameService {
         stats.put("winRate", 0.0);
 
         try {
-            List<GameSession> gameSessions = gameSessionRepository.findByUser(user);
+            List<GameSession> gameSessions = gameSessionRepository.findByUser(user, FetchPlan.HISTORY_ROW);
 
             if (gameSessions.isEmpty()) {
                 return stats; // No games, return default stats
@@ -311,6 +971,101 @@ public class GameServiceImpl implements GameService {
         }
     }
 
+    @Override
+    public List<PnlPoint> getPnlSeries(User user, String gameType, LocalDateTime fromDate, LocalDateTime toDate) {
+        validateNotNull(user, "El usuario no puede ser nulo");
+        validateNotNull(fromDate, "La fecha 'desde' no puede ser nula");
+        validateNotNull(toDate, "La fecha 'hasta' no puede ser nula");
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a la fecha 'hasta'");
+        }
+
+        Granularity granularity = granularityFor(fromDate, toDate);
+        return historyCache.get(user.getId(), CACHE_QUERY_PNL, gameType, fromDate, toDate,
+                () -> List.copyOf(pnlRollupRepository.findSeries(user.getId(), granularity, gameType, fromDate, toDate)));
+    }
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(Leaderboard.Category category, String gameType) {
+        validateNotNull(category, "La categoría de la clasificación no puede ser nula");
+        return leaderboard.top(category, gameType);
+    }
+
+    @Override
+    public RandomGenerator getOutcomeRandom(GameSession gameSession) {
+        validateNotNull(gameSession, "La sesión de juego no puede ser nula");
+        if (!GAME_RESULT_IN_PROGRESS.equals(gameSession.getResult()) || gameSession.getServerSeedHash() == null
+                || gameSession.getNonce() == null || gameSession.getUser() == null) {
+            throw new IllegalStateException("La sesión de juego no tiene una ronda en curso");
+        }
+        return fairnessService.random(gameSession.getUser().getId(), gameSession.getServerSeedHash(),
+                gameSession.getClientSeed(), gameSession.getNonce());
+    }
+
+    @Override
+    public FairnessService.Seeds getFairnessSeeds(User user) {
+        validateNotNull(user, "El usuario no puede ser nulo");
+        return fairnessService.getSeeds(user.getId());
+    }
+
+    @Override
+    public FairnessService.Seeds rotateFairnessSeeds(User user, String clientSeed) {
+        validateNotNull(user, "El usuario no puede ser nulo");
+        return fairnessService.rotate(user.getId(), clientSeed);
+    }
+
+    @Override
+    public long eraseAccount(Long userId) {
+        validateNotNull(userId, "El ID del usuario no puede ser nulo");
+
+        // Refund the open rounds through the normal settlement path first: it closes their exposure,
+        // holds and fair rounds, which deleting the rows would leave behind. Bounded, since a
+        // failing refund stays in progress and the repository deletes it anyway
+        for (int pass = 0; pass < ERASURE_REFUND_PASSES; pass++) {
+            List<GameSession> open = walletRepository.findInProgress(userId, ERASURE_REFUND_BATCH);
+            if (open.isEmpty()) {
+                break;
+            }
+            List<Settlement> refunds = new ArrayList<>(open.size());
+            for (GameSession session : open) {
+                refunds.add(Settlement.refund(session));
+            }
+            for (SettlementResult result : settleBatch(refunds)) {
+                if (result.getStatus() == SettlementResult.Status.FAILED) {
+                    LOGGER.log(Level.WARNING, "No se pudo anular la ronda {0} antes de eliminar la cuenta: {1}",
+                            new Object[]{result.getSettlement().getSession().getId(), result.getMessage()});
+                }
+            }
+        }
+
+        long deleted = userRepository.eraseAccount(userId);
+
+        // In-memory state keyed by the user outlives the rows: drop it once they are gone
+        fairnessService.forget(userId);
+        if (leaderboard.removeUser(userId)) {
+            // Only the database can refill the win and multiplier boards
+            leaderboard.rebuild(leaderboardRepository);
+        }
+        historyCache.invalidate(userId);
+
+        LOGGER.log(Level.INFO, "Cuenta eliminada con sus rondas y estado en memoria - Usuario: {0}", userId);
+        return deleted;
+    }
+
+    /**
+     * Picks the coarsest-needed rollup granularity so a chart stays within a few hundred points.
+     */
+    private static Granularity granularityFor(LocalDateTime fromDate, LocalDateTime toDate) {
+        Duration range = Duration.between(fromDate, toDate);
+        if (range.compareTo(Duration.ofHours(6)) <= 0) {
+            return Granularity.MINUTE; // <= 360 points
+        }
+        if (range.compareTo(Duration.ofDays(14)) <= 0) {
+            return Granularity.HOUR; // <= 336 points
+        }
+        return Granularity.DAY;
+    }
+
     // --- Validation Helper Methods ---
 
     /**
@@ -378,4 +1133,90 @@ public class GameServiceImpl implements GameService {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + userId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Collaborators and wallet options of a {@link GameServiceImpl}, fixed when it is built.
+     */
+    public static final class Builder {
+        private final GameSessionRepository gameSessionRepository;
+        private final TransactionRepository transactionRepository;
+        private final UserRepository userRepository;
+        private WalletRepository walletRepository;
+        private GameHistoryCache historyCache;
+        private PnlRollupRepository pnlRollupRepository;
+        private ExposureTracker exposureTracker;
+        private Leaderboard leaderboard;
+        private LeaderboardRepository leaderboardRepository;
+        private FairnessService fairnessService;
+        private WalletCommitPipeline commitPipeline;
+        private boolean holdFunds = AppConfig.getBoolean("wallet.holds.enabled", true);
+
+        private Builder(GameSessionRepository gameSessionRepository,
+                        TransactionRepository transactionRepository,
+                        UserRepository userRepository) {
+            this.gameSessionRepository = gameSessionRepository;
+            this.transactionRepository = transactionRepository;
+            this.userRepository = userRepository;
+        }
+
+        public Builder walletRepository(WalletRepository walletRepository) {
+            this.walletRepository = walletRepository;
+            return this;
+        }
+
+        public Builder historyCache(GameHistoryCache historyCache) {
+            this.historyCache = historyCache;
+            return this;
+        }
+
+        public Builder pnlRollupRepository(PnlRollupRepository pnlRollupRepository) {
+            this.pnlRollupRepository = pnlRollupRepository;
+            return this;
+        }
+
+        public Builder exposureTracker(ExposureTracker exposureTracker) {
+            this.exposureTracker = exposureTracker;
+            return this;
+        }
+
+        public Builder leaderboard(Leaderboard leaderboard) {
+            this.leaderboard = leaderboard;
+            return this;
+        }
+
+        /**
+         * Source the leaderboard is rebuilt from when an erased account leaves gaps in it.
+         */
+        public Builder leaderboardRepository(LeaderboardRepository leaderboardRepository) {
+            this.leaderboardRepository = leaderboardRepository;
+            return this;
+        }
+
+        public Builder fairnessService(FairnessService fairnessService) {
+            this.fairnessService = fairnessService;
+            return this;
+        }
+
+        /**
+         * Routes the wallet writes of startGame/endGame through a group-commit pipeline, so that
+         * concurrent rounds share one database transaction. Null writes each one on its own.
+         */
+        public Builder commitPipeline(WalletCommitPipeline commitPipeline) {
+            this.commitPipeline = commitPipeline;
+            return this;
+        }
+
+        /**
+         * With holds, startGame reserves the stake against the available balance (balance minus
+         * the stakes of the rounds in progress) and endGame turns it into a single net balance change.
+         */
+        public Builder holdFunds(boolean holdFunds) {
+            this.holdFunds = holdFunds;
+            return this;
+        }
+
+        public GameServiceImpl build() {
+            return new GameServiceImpl(this);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.repository.LeaderboardEntry;
+import com.ztake.casino.repository.LeaderboardRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Clasificaciones en vivo: mayores premios, mayores multiplicadores y mejor neto del día,
+ * por tipo de juego y en general.
+ *
+ * <p>Cada clasificación es una lista acotada a los {@code leaderboard.size} mejores sobre una
+ * {@link ConcurrentSkipListSet}: se alimenta con cada sesión liquidada y se lee en O(K) sin
+ * consultar la base de datos. Al arrancar se reconstruye desde game_sessions con
+ * {@link #rebuild}. El neto del día se acumula por jugador y se reinicia al cambiar de día.</p>
+ */
+public class Leaderboard {
+    private static final Logger LOGGER = Logger.getLogger(Leaderboard.class.getName());
+
+    private static final String GAME_RESULT_WON = "won";
+    private static final String GAME_RESULT_LOST = "lost";
+    // Clave de las clasificaciones generales (todos los juegos)
+    private static final String ALL_GAMES = "";
+
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingDouble(LeaderboardEntry::getValue).reversed()
+            .thenComparingLong(LeaderboardEntry::getSessionId)
+            .thenComparingLong(LeaderboardEntry::getUserId)
+            .thenComparing(LeaderboardEntry::getGameType);
+
+    /**
+     * Tipo de clasificación.
+     */
+    public enum Category {
+        BIGGEST_WIN,
+        HIGHEST_MULTIPLIER,
+        BEST_DAILY_NET
+    }
+
+    private final int size;
+    private final Map<BoardKey, TopK> boards = new ConcurrentHashMap<>();
+
+    // Neto del día por jugador y tipo de juego (protegido por dailyLock)
+    private final Object dailyLock = new Object();
+    private final Map<NetKey, LeaderboardEntry> dailyNets = new HashMap<>();
+    private LocalDate day = LocalDate.now();
+
+    public Leaderboard() {
+        this(AppConfig.getInt("leaderboard.size", 10));
+    }
+
+    public Leaderboard(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño de la clasificación debe ser mayor que cero");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Reconstruye todas las clasificaciones desde game_sessions.
+     */
+    public void rebuild(LeaderboardRepository repository) {
+        boards.clear();
+
+        List<String> gameTypes = new ArrayList<>(repository.findGameTypes());
+        gameTypes.add(null);
+        for (String gameType : gameTypes) {
+            String key = gameType != null ? gameType : ALL_GAMES;
+            repository.findBiggestWins(gameType, size).forEach(entry -> board(Category.BIGGEST_WIN, key).offer(entry));
+            repository.findHighestMultipliers(gameType, size).forEach(entry -> board(Category.HIGHEST_MULTIPLIER, key).offer(entry));
+        }
+
+        synchronized (dailyLock) {
+            day = LocalDate.now();
+            dailyNets.clear();
+            // La consulta devuelve el neto por juego; el general se suma aquí
+            Map<Long, LeaderboardEntry> overall = new HashMap<>();
+            for (LeaderboardEntry entry : repository.findNetByUserAndGameTypeSince(day.atStartOfDay())) {
+                putDailyNet(new NetKey(entry.getUserId(), entry.getGameType()), entry);
+                overall.merge(entry.getUserId(), withGameType(entry, ALL_GAMES), (a, b) -> new LeaderboardEntry(
+                        Math.max(a.getSessionId(), b.getSessionId()), a.getUserId(), a.getUsername(), ALL_GAMES,
+                        roundCents(a.getValue() + b.getValue()),
+                        a.getDate().isAfter(b.getDate()) ? a.getDate() : b.getDate()));
+            }
+            overall.forEach((userId, entry) -> putDailyNet(new NetKey(userId, ALL_GAMES), entry));
+        }
+
+        LOGGER.log(Level.INFO, "Clasificaciones reconstruidas - Tipos de juego: {0}", gameTypes.size() - 1);
+    }
+
+    /**
+     * Registra una sesión liquidada. La sesión debe traer su usuario cargado.
+     */
+    public void record(GameSession session) {
+        String result = session.getResult();
+        if (!GAME_RESULT_WON.equals(result) && !GAME_RESULT_LOST.equals(result)) {
+            return;
+        }
+
+        long userId = session.getUser().getId();
+        String username = session.getUser().getUsername();
+        String gameType = session.getGameType();
+        double bet = session.getBetAmount();
+        double winnings = session.getWinningAmount();
+
+        if (GAME_RESULT_WON.equals(result) && winnings > 0 && bet > 0) {
+            LeaderboardEntry win = new LeaderboardEntry(session.getId(), userId, username, gameType, winnings,
+                    session.getSessionDate());
+            LeaderboardEntry multiplier = new LeaderboardEntry(session.getId(), userId, username, gameType,
+                    roundCents(winnings / bet), session.getSessionDate());
+            board(Category.BIGGEST_WIN, gameType).offer(win);
+            board(Category.BIGGEST_WIN, ALL_GAMES).offer(withGameType(win, ALL_GAMES));
+            board(Category.HIGHEST_MULTIPLIER, gameType).offer(multiplier);
+            board(Category.HIGHEST_MULTIPLIER, ALL_GAMES).offer(withGameType(multiplier, ALL_GAMES));
+        }
+
+        LocalDateTime date = session.getSessionDate();
+        synchronized (dailyLock) {
+            rollOver(LocalDate.now());
+            // Las sesiones empezadas el día anterior no cuentan para el neto de hoy
+            if (date == null || !date.toLocalDate().equals(day)) {
+                return;
+            }
+            double net = winnings - bet;
+            addDailyNet(new NetKey(userId, gameType), session.getId(), username, net, date);
+            addDailyNet(new NetKey(userId, ALL_GAMES), session.getId(), username, net, date);
+        }
+    }
+
+    /**
+     * Quita a un jugador de todas las clasificaciones (cuenta eliminada). Los netos del día que
+     * habían quedado fuera vuelven a entrar; las listas de premios y multiplicadores solo se
+     * completan con una nueva {@link #rebuild}.
+     *
+     * @return true si el jugador tenía premios o multiplicadores en alguna lista
+     */
+    public boolean removeUser(long userId) {
+        boolean removed = false;
+        synchronized (dailyLock) {
+            dailyNets.keySet().removeIf(key -> key.userId == userId);
+            for (Map.Entry<BoardKey, TopK> board : boards.entrySet()) {
+                if (board.getValue().removeUser(userId) && board.getKey().category != Category.BEST_DAILY_NET) {
+                    removed = true;
+                }
+            }
+            for (Map.Entry<NetKey, LeaderboardEntry> net : dailyNets.entrySet()) {
+                if (net.getValue().getValue() > 0) {
+                    board(Category.BEST_DAILY_NET, net.getKey().gameType).offer(net.getValue());
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Obtiene una clasificación.
+     *
+     * @param category tipo de clasificación
+     * @param gameType tipo de juego (null para todos)
+     * @return las mejores entradas, de mayor a menor
+     */
+    public List<LeaderboardEntry> top(Category category, String gameType) {
+        if (category == Category.BEST_DAILY_NET) {
+            synchronized (dailyLock) {
+                rollOver(LocalDate.now());
+            }
+        }
+        TopK board = boards.get(new BoardKey(category, gameType != null ? gameType : ALL_GAMES));
+        return board != null ? board.top(size) : List.of();
+    }
+
+    /**
+     * @return los tipos de juego con alguna clasificación, en orden alfabético
+     */
+    public Set<String> getGameTypes() {
+        Set<String> gameTypes = new TreeSet<>();
+        for (BoardKey key : boards.keySet()) {
+            if (!ALL_GAMES.equals(key.gameType)) {
+                gameTypes.add(key.gameType);
+            }
+        }
+        return gameTypes;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void addDailyNet(NetKey key, long sessionId, String username, double net, LocalDateTime date) {
+        LeaderboardEntry previous = dailyNets.get(key);
+        double total = roundCents((previous != null ? previous.getValue() : 0.0) + net);
+        putDailyNet(key, new LeaderboardEntry(sessionId, key.userId, username, key.gameType, total, date));
+    }
+
+    /**
+     * Sustituye el neto de un jugador en la clasificación del día. Solo entran los netos positivos.
+     */
+    private void putDailyNet(NetKey key, LeaderboardEntry entry) {
+        TopK board = board(Category.BEST_DAILY_NET, key.gameType);
+        LeaderboardEntry previous = dailyNets.put(key, entry);
+        if (previous != null) {
+            board.remove(previous);
+        }
+        if (entry.getValue() > 0) {
+            board.offer(entry);
+        }
+        if (previous != null && entry.getValue() < previous.getValue() && board.count() < size) {
+            // El jugador bajó: recuperar netos que habían quedado fuera de la lista
+            for (Map.Entry<NetKey, LeaderboardEntry> net : dailyNets.entrySet()) {
+                if (net.getKey().gameType.equals(key.gameType) && net.getValue().getValue() > 0) {
+                    board.offer(net.getValue());
+                }
+            }
+        }
+    }
+
+    private void rollOver(LocalDate today) {
+        if (!today.equals(day)) {
+            day = today;
+            dailyNets.clear();
+            boards.keySet().removeIf(key -> key.category == Category.BEST_DAILY_NET);
+        }
+    }
+
+    private TopK board(Category category, String gameType) {
+        return boards.computeIfAbsent(new BoardKey(category, gameType), key -> new TopK(size));
+    }
+
+    private static LeaderboardEntry withGameType(LeaderboardEntry entry, String gameType) {
+        return new LeaderboardEntry(entry.getSessionId(), entry.getUserId(), entry.getUsername(), gameType,
+                entry.getValue(), entry.getDate());
+    }
+
+    private static double roundCents(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Lista acotada de las mejores entradas. Las inserciones y lecturas no bloquean; si varias
+     * inserciones compiten, la lista puede superar el límite un instante, pero las lecturas
+     * nunca devuelven más de K entradas.
+     */
+    private static final class TopK {
+        private final int size;
+        private final ConcurrentSkipListSet<LeaderboardEntry> entries = new ConcurrentSkipListSet<>(ORDER);
+        private final AtomicInteger count = new AtomicInteger();
+
+        TopK(int size) {
+            this.size = size;
+        }
+
+        void offer(LeaderboardEntry entry) {
+            // Descartar sin tocar la lista las entradas que no entrarían
+            if (count.get() >= size) {
+                LeaderboardEntry last = lastOrNull();
+                if (last != null && ORDER.compare(entry, last) >= 0) {
+                    return;
+                }
+            }
+            if (entries.add(entry) && count.incrementAndGet() > size) {
+                if (entries.pollLast() != null) {
+                    count.decrementAndGet();
+                }
+            }
+        }
+
+        int count() {
+            return count.get();
+        }
+
+        void remove(LeaderboardEntry entry) {
+            if (entries.remove(entry)) {
+                count.decrementAndGet();
+            }
+        }
+
+        boolean removeUser(long userId) {
+            boolean removed = false;
+            for (LeaderboardEntry entry : entries) {
+                if (entry.getUserId() == userId && entries.remove(entry)) {
+                    count.decrementAndGet();
+                    removed = true;
+                }
+            }
+            return removed;
+        }
+
+        List<LeaderboardEntry> top(int limit) {
+            List<LeaderboardEntry> top = new ArrayList<>(limit);
+            for (LeaderboardEntry entry : entries) {
+                if (top.size() == limit) {
+                    break;
+                }
+                top.add(entry);
+            }
+            return top;
+        }
+
+        private LeaderboardEntry lastOrNull() {
+            try {
+                return entries.last();
+            } catch (NoSuchElementException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Clasificación concreta: categoría y tipo de juego.
+     */
+    private static final class BoardKey {
+        final Category category;
+        final String gameType;
+
+        BoardKey(Category category, String gameType) {
+            this.category = category;
+            this.gameType = gameType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BoardKey)) return false;
+            BoardKey other = (BoardKey) o;
+            return category == other.category && gameType.equals(other.gameType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * category.hashCode() + gameType.hashCode();
+        }
+    }
+
+    /**
+     * Neto del día de un jugador en un tipo de juego (o en todos).
+     */
+    private static final class NetKey {
+        final long userId;
+        final String gameType;
+
+        NetKey(long userId, String gameType) {
+            this.userId = userId;
+            this.gameType = gameType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NetKey)) return false;
+            NetKey other = (NetKey) o;
+            return userId == other.userId && gameType.equals(other.gameType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(userId) + gameType.hashCode();
+        }
+    }
+}
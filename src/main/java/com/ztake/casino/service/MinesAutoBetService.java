@@ -0,0 +1,421 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.mines.MinesEngine;
+import com.ztake.casino.game.mines.MinesPayoutTable;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Apuesta automática de Mines en el servidor.
+ *
+ * <p>El jugador fija un tablero, un número de minas, un patrón de casillas y la apuesta; cada
+ * ronda coloca las minas con el generador demostrablemente justo de su sesión (la primera
+ * casilla del patrón es la primera revelada, así que siempre es una gema) y, si ninguna casilla
+ * del patrón tiene mina, cobra con el multiplicador de {@link MinesPayoutTable} para esas gemas.</p>
+ *
+ * <p>Las rondas se juegan en un hilo del servidor, en lotes de {@code mines.autoBatchRounds}
+ * guardados cada uno en una sola transacción con {@link GameService#playRounds}; la vista solo
+ * consulta el progreso. Cada lote vuelve a la cola del hilo, de modo que varios jugadores en
+ * automático se turnan.</p>
+ */
+public class MinesAutoBetService {
+    private static final Logger LOGGER = Logger.getLogger(MinesAutoBetService.class.getName());
+
+    public static final String GAME_TYPE = "Mines";
+
+    private static final String GAME_RESULT_WON = "won";
+    private static final String GAME_RESULT_LOST = "lost";
+
+    private final GameService gameService;
+    private final int batchRounds;
+    private final int maxRounds;
+    private final Map<Long, AutoBet> autoBets = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
+
+    public MinesAutoBetService(GameService gameService) {
+        this(gameService, AppConfig.getInt("mines.autoBatchRounds", 100),
+                AppConfig.getInt("mines.autoMaxRounds", 10000));
+    }
+
+    public MinesAutoBetService(GameService gameService, int batchRounds, int maxRounds) {
+        if (batchRounds < 1) {
+            throw new IllegalArgumentException("El lote debe tener al menos una ronda");
+        }
+        this.gameService = gameService;
+        this.batchRounds = batchRounds;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Inicia el hilo daemon de las apuestas automáticas.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mines-auto");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        LOGGER.info("Apuesta automática de Mines iniciada - Rondas por lote: " + batchRounds
+                + " - Rondas máximas: " + maxRounds);
+    }
+
+    /**
+     * Detiene todas las apuestas automáticas. Los lotes ya guardados quedan liquidados.
+     */
+    public synchronized void stop() {
+        for (AutoBet autoBet : autoBets.values()) {
+            autoBet.finish("Servicio detenido");
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * Inicia la apuesta automática de un usuario (sustituye a la que tuviera en marcha).
+     *
+     * @param user         usuario que juega
+     * @param rows         filas del tablero
+     * @param columns      columnas del tablero
+     * @param mines        minas del tablero
+     * @param pattern      casillas a revelar en cada ronda, en orden
+     * @param amount       apuesta de cada ronda
+     * @param rounds       rondas a jugar (1 a {@code mines.autoMaxRounds})
+     * @param stopOnProfit detenerse al ganar al menos esta cantidad neta (0 = sin límite)
+     * @param stopOnLoss   detenerse al perder al menos esta cantidad neta (0 = sin límite)
+     * @return la apuesta automática en marcha
+     * @throws IllegalArgumentException si algún parámetro no es válido
+     * @throws IllegalStateException    si el servicio no está iniciado
+     */
+    public synchronized AutoBet startAutoBet(User user, int rows, int columns, int mines, int[] pattern,
+                                             double amount, int rounds, double stopOnProfit, double stopOnLoss) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("El usuario no puede ser nulo");
+        }
+        if (rows < 1 || columns < 1 || rows > MinesEngine.MAX_SIDE || columns > MinesEngine.MAX_SIDE) {
+            throw new IllegalArgumentException("El tablero debe tener entre 1 y " + MinesEngine.MAX_SIDE + " filas y columnas");
+        }
+        int cells = rows * columns;
+        if (mines < 1 || mines >= cells) {
+            throw new IllegalArgumentException("El número de minas debe estar entre 1 y " + (cells - 1));
+        }
+        if (pattern == null || pattern.length == 0) {
+            throw new IllegalArgumentException("Elige al menos una casilla");
+        }
+        if (pattern.length > cells - mines) {
+            throw new IllegalArgumentException("Con " + mines + " minas solo hay " + (cells - mines) + " gemas");
+        }
+        long patternMask = 0;
+        for (int cell : pattern) {
+            if (cell < 0 || cell >= cells || (patternMask & 1L << cell) != 0) {
+                throw new IllegalArgumentException("Casilla inválida o repetida en el patrón: " + cell);
+            }
+            patternMask |= 1L << cell;
+        }
+        if (rounds < 1 || rounds > maxRounds) {
+            throw new IllegalArgumentException("El número de rondas debe estar entre 1 y " + maxRounds);
+        }
+        if (!(amount >= 0.01)) {
+            throw new IllegalArgumentException("La apuesta mínima es 0.01");
+        }
+        if (!(stopOnProfit >= 0) || !(stopOnLoss >= 0)) {
+            throw new IllegalArgumentException("Los límites de ganancia y pérdida no pueden ser negativos");
+        }
+        if (executor == null) {
+            throw new IllegalStateException("La apuesta automática de Mines no está iniciada");
+        }
+
+        stopAutoBet(user);
+        // Copia propia del usuario: el hilo automático actualiza su saldo, no el de la vista
+        User player = new User();
+        player.setId(user.getId());
+        player.setUsername(user.getUsername());
+        player.setBalance(user.getBalance());
+
+        double multiplier = MinesPayoutTable.getDefault().multiplier(cells, mines, pattern.length);
+        AutoBet autoBet = new AutoBet(player, rows, columns, mines, pattern.clone(), patternMask, multiplier,
+                amount, rounds, stopOnProfit, stopOnLoss);
+        autoBets.put(user.getId(), autoBet);
+        executor.execute(autoBet::tick);
+
+        LOGGER.info("Apuesta automática de Mines - Usuario: " + user.getUsername() + " - " + rounds
+                + " rondas de " + amount + " - " + mines + " minas, " + pattern.length + " casillas (x" + multiplier + ")");
+        return autoBet;
+    }
+
+    /**
+     * Detiene la apuesta automática de un usuario, si tiene una en marcha.
+     */
+    public void stopAutoBet(User user) {
+        AutoBet autoBet = user != null && user.getId() != null ? autoBets.get(user.getId()) : null;
+        if (autoBet != null) {
+            autoBet.finish("Detenida por el jugador");
+        }
+    }
+
+    /**
+     * @return la apuesta automática en marcha de un usuario, o null si no tiene ninguna
+     */
+    public AutoBet getAutoBet(User user) {
+        return user != null && user.getId() != null ? autoBets.get(user.getId()) : null;
+    }
+
+    /**
+     * Apuesta automática en marcha de un usuario. El hilo de Mines juega los lotes; la vista
+     * consulta el progreso.
+     */
+    public final class AutoBet {
+        private final User player;
+        private final int rows;
+        private final int columns;
+        private final int mines;
+        private final int[] pattern;
+        private final long patternMask;
+        private final double multiplier;
+        private final double amount;
+        private final int rounds;
+        private final double stopOnProfit;
+        private final double stopOnLoss;
+        private final String patternData;
+
+        // Escritos solo por el hilo de Mines, tras guardar cada lote
+        private volatile int played;
+        private volatile int wins;
+        private volatile double totalBet;
+        private volatile double totalWon;
+        private volatile double balance;
+        private volatile long lastMines;
+        private volatile boolean lastWon;
+        private volatile String stopReason;
+
+        private AutoBet(User player, int rows, int columns, int mines, int[] pattern, long patternMask,
+                        double multiplier, double amount, int rounds, double stopOnProfit, double stopOnLoss) {
+            this.player = player;
+            this.rows = rows;
+            this.columns = columns;
+            this.mines = mines;
+            this.pattern = pattern;
+            this.patternMask = patternMask;
+            this.multiplier = multiplier;
+            this.amount = amount;
+            this.rounds = rounds;
+            this.stopOnProfit = stopOnProfit;
+            this.stopOnLoss = stopOnLoss;
+            this.patternData = GameDataCodec.join(pattern);
+            this.balance = player.getBalance();
+        }
+
+        /**
+         * Juega y guarda un lote de rondas; si sigue en marcha, vuelve a la cola del hilo.
+         */
+        private synchronized void tick() {
+            if (stopReason != null) {
+                return;
+            }
+
+            try {
+                Batch batch = new Batch();
+                List<GameSession> sessions = gameService.playRounds(player, GAME_TYPE, amount,
+                        Math.min(batchRounds, rounds - played), batch);
+
+                played += sessions.size();
+                wins += batch.wins;
+                totalBet += batch.bet;
+                totalWon += batch.won;
+                balance = player.getBalance();
+                lastMines = batch.lastMines;
+                lastWon = batch.lastWon;
+
+                if (batch.stopReason != null) {
+                    finish(batch.stopReason);
+                } else if (played >= rounds) {
+                    finish("Completada");
+                } else if (balance < amount) {
+                    finish("Saldo insuficiente");
+                } else {
+                    ExecutorService current = executor;
+                    if (current == null) {
+                        finish("Servicio detenido");
+                    } else {
+                        current.execute(this::tick);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                finish(e.getMessage());
+            } catch (RejectedExecutionException e) {
+                finish("Servicio detenido");
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error en la apuesta automática de Mines del usuario "
+                        + player.getUsername() + ": " + e.getMessage(), e);
+                finish("Error: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Detiene la apuesta; si hay un lote jugándose, espera a que se guarde para que el saldo
+         * y los totales sean los definitivos.
+         */
+        private synchronized void finish(String reason) {
+            if (stopReason == null) {
+                stopReason = reason;
+            }
+            autoBets.remove(player.getId(), this);
+        }
+
+        /**
+         * Rondas de un lote: se juegan dentro de {@link GameService#playRounds}, y sus totales
+         * solo pasan a la apuesta automática si el lote se guarda.
+         */
+        private final class Batch implements RoundPlayer {
+            private int wins;
+            private double bet;
+            private double won;
+            private long lastMines;
+            private boolean lastWon;
+            private String stopReason;
+
+            @Override
+            public boolean play(GameSession gameSession, RandomGenerator random) {
+                long minesMask = MinesEngine.placeMines(rows, columns, mines, pattern[0], random);
+                // Gemas reveladas en el orden del patrón hasta la primera mina
+                int revealed = 0;
+                while (revealed < pattern.length && (minesMask & 1L << pattern[revealed]) == 0) {
+                    revealed++;
+                }
+                boolean win = (minesMask & patternMask) == 0;
+                double winnings = win
+                        ? BigDecimal.valueOf(amount * multiplier).setScale(2, RoundingMode.HALF_UP).doubleValue()
+                        : 0.0;
+
+                // Mismo formato que una ronda manual, con el patrón jugado
+                JSONObject gameData = new JSONObject();
+                gameData.put("minesCount", mines);
+                gameData.put("multiplier", win ? multiplier : 0.0);
+                gameData.put("revealedCells", revealed);
+                gameData.put("rows", rows);
+                gameData.put("columns", columns);
+                gameData.put("firstCell", pattern[0]);
+                gameData.put("mines", Long.toHexString(minesMask));
+                gameData.put("pattern", patternData);
+                gameData.put("auto", true);
+
+                gameSession.setWinningAmount(winnings);
+                gameSession.setResult(win ? GAME_RESULT_WON : GAME_RESULT_LOST);
+                gameSession.setGameData(gameData.toString());
+
+                bet += gameSession.getBetAmount();
+                won += winnings;
+                if (win) {
+                    wins++;
+                }
+                lastMines = minesMask;
+                lastWon = win;
+
+                double net = totalWon + won - totalBet - bet;
+                if (stopOnProfit > 0 && net >= stopOnProfit) {
+                    stopReason = "Objetivo de ganancia alcanzado";
+                } else if (stopOnLoss > 0 && -net >= stopOnLoss) {
+                    stopReason = "Límite de pérdida alcanzado";
+                }
+                return stopReason == null;
+            }
+        }
+
+        public void stop() {
+            finish("Detenida por el jugador");
+        }
+
+        public boolean isRunning() {
+            return stopReason == null;
+        }
+
+        /**
+         * @return por qué se detuvo (null mientras sigue en marcha)
+         */
+        public String getStopReason() {
+            return stopReason;
+        }
+
+        public int[] getPattern() {
+            return pattern.clone();
+        }
+
+        public int getMines() {
+            return mines;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * @return multiplicador que paga una ronda ganada
+         */
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        public int getPlayed() {
+            return played;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public double getTotalBet() {
+            return totalBet;
+        }
+
+        public double getTotalWon() {
+            return totalWon;
+        }
+
+        /**
+         * @return saldo del usuario tras el último lote guardado
+         */
+        public double getBalance() {
+            return balance;
+        }
+
+        /**
+         * @return máscara de minas de la última ronda guardada (un bit por casilla)
+         */
+        public long getLastMines() {
+            return lastMines;
+        }
+
+        public boolean isLastWon() {
+            return lastWon;
+        }
+    }
+}
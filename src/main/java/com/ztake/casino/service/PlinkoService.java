@@ -0,0 +1,480 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.game.GameDataCodec;
+import com.ztake.casino.game.plinko.PlinkoBoard;
+import com.ztake.casino.game.plinko.PlinkoPayoutTable;
+import com.ztake.casino.game.plinko.PlinkoRisk;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.Wager;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rondas de Plinko y caída automática de bolas en el servidor.
+ *
+ * <p>Cada ronda deja caer una o varias bolas de la misma apuesta: es una sola sesión de juego,
+ * abierta con {@link GameService#startGame(User, String, List)} (una transacción de apuesta
+ * por bola) y liquidada en el acto con
+ * {@link GameService#endGame(GameSession, List, String, String)}. Los caminos de las bolas
+ * salen, en orden, del generador demostrablemente justo de la sesión, y el premio de cada bola
+ * es una lectura de {@link PlinkoPayoutTable}.</p>
+ *
+ * <p>La caída automática corre en un hilo del servidor, no en la vista: cada
+ * {@code plinko.autoTickMillis} deja caer en una sola ronda las bolas que tocan según el ritmo
+ * pedido (hasta {@code plinko.maxBallsPerSecond} por jugador), de modo que cientos de bolas por
+ * segundo son unas pocas transacciones de base de datos. Las rondas jugadas se dejan en una cola
+ * que la vista consume para animarlas.</p>
+ */
+public class PlinkoService {
+    private static final Logger LOGGER = Logger.getLogger(PlinkoService.class.getName());
+
+    public static final String GAME_TYPE = "Plinko";
+
+    private static final String GAME_RESULT_WON = "won";
+    private static final String GAME_RESULT_LOST = "lost";
+    private static final double MAX_ROUND_BET = 10000.00;
+    // Rondas pendientes de animar por caída automática: si la vista no las consume, se descartan las más antiguas
+    private static final int MAX_PENDING_DROPS = 256;
+
+    private final GameService gameService;
+    // Null hasta la primera ronda si se usan las tablas por defecto (ver getTable())
+    private volatile PlinkoPayoutTable table;
+    private final int maxBallsPerSecond;
+    private final long tickMillis;
+    private final Map<Long, AutoDrop> autoDrops = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public PlinkoService(GameService gameService) {
+        this(gameService, null,
+                AppConfig.getInt("plinko.maxBallsPerSecond", 500),
+                AppConfig.getInt("plinko.autoTickMillis", 100));
+    }
+
+    public PlinkoService(GameService gameService, PlinkoPayoutTable table, int maxBallsPerSecond, long tickMillis) {
+        this.gameService = gameService;
+        this.table = table;
+        this.maxBallsPerSecond = maxBallsPerSecond;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Inicia el hilo daemon de la caída automática.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plinko-auto");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        LOGGER.info("Plinko iniciado - Bolas automáticas por segundo: " + maxBallsPerSecond);
+    }
+
+    /**
+     * Detiene todas las caídas automáticas. Las rondas ya jugadas quedan liquidadas.
+     */
+    public synchronized void stop() {
+        for (AutoDrop autoDrop : autoDrops.values()) {
+            autoDrop.finish("Servicio detenido");
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return las tablas de pagos; las de por defecto se calculan la primera vez que se piden
+     */
+    public PlinkoPayoutTable getTable() {
+        PlinkoPayoutTable current = table;
+        if (current == null) {
+            current = PlinkoPayoutTable.getDefault();
+            table = current;
+        }
+        return current;
+    }
+
+    public int getMaxBallsPerSecond() {
+        return maxBallsPerSecond;
+    }
+
+    /**
+     * Juega una ronda: deja caer {@code balls} bolas con la misma apuesta y la liquida.
+     *
+     * @param user   usuario que juega (su saldo se actualiza con el resultado)
+     * @param rows   filas de clavos
+     * @param risk   nivel de riesgo
+     * @param amount apuesta de cada bola
+     * @param balls  número de bolas
+     * @return la ronda jugada
+     * @throws IllegalArgumentException si la apuesta o el tablero no son válidos
+     * @throws IllegalStateException    si el usuario no tiene saldo suficiente
+     */
+    public Drop drop(User user, int rows, PlinkoRisk risk, double amount, int balls) {
+        if (risk == null) {
+            throw new IllegalArgumentException("El nivel de riesgo no puede ser nulo");
+        }
+        if (balls < 1) {
+            throw new IllegalArgumentException("La ronda necesita al menos una bola");
+        }
+        double[] multipliers = getTable().multipliers(rows, risk);
+
+        List<Wager> wagers = new ArrayList<>(balls);
+        for (int i = 0; i < balls; i++) {
+            wagers.add(new Wager(reference(i), amount));
+        }
+        GameSession gameSession = gameService.startGame(user, GAME_TYPE, wagers);
+
+        int[] paths = new int[balls];
+        PlinkoBoard.drop(gameService.getOutcomeRandom(gameSession), rows, paths);
+
+        BigDecimal bet = BigDecimal.valueOf(amount);
+        BigDecimal paid = BigDecimal.ZERO;
+        List<Wager> winnings = new ArrayList<>(balls);
+        for (int i = 0; i < balls; i++) {
+            BigDecimal won = bet.multiply(BigDecimal.valueOf(multipliers[PlinkoBoard.slot(paths[i])]))
+                    .setScale(2, RoundingMode.HALF_UP);
+            if (won.signum() > 0) {
+                winnings.add(new Wager(reference(i), won.doubleValue()));
+                paid = paid.add(won);
+            }
+        }
+
+        // Guardar los caminos para repetir la ronda con las semillas de la sesión
+        JSONObject gameData = new JSONObject();
+        gameData.put("rows", rows);
+        gameData.put("risk", risk.name());
+        gameData.put("balls", balls);
+        gameData.put("paths", GameDataCodec.join(paths));
+        gameData.put("multiplier", paid.doubleValue() / (amount * balls));
+
+        String result = paid.doubleValue() > gameSession.getBetAmount() ? GAME_RESULT_WON : GAME_RESULT_LOST;
+        GameSession settled = gameService.endGame(gameSession, winnings, result, gameData.toString());
+        // El premio se abona sobre el usuario de la sesión: sincronizar el saldo del llamante
+        if (settled.getUser() != null) {
+            user.setBalance(settled.getUser().getBalance());
+        }
+        return new Drop(settled, rows, risk, amount, paths, multipliers, paid.doubleValue(), user.getBalance());
+    }
+
+    /**
+     * Inicia la caída automática de bolas para un usuario (sustituye a la que tuviera en marcha).
+     *
+     * @param user           usuario que juega
+     * @param rows           filas de clavos
+     * @param risk           nivel de riesgo
+     * @param amount         apuesta de cada bola
+     * @param ballsPerSecond ritmo de caída (1 a {@code plinko.maxBallsPerSecond})
+     * @param maxBalls       bolas a dejar caer en total (0 = hasta detenerla o quedarse sin saldo)
+     * @return la caída automática en marcha
+     * @throws IllegalArgumentException si algún parámetro no es válido
+     * @throws IllegalStateException    si el servicio no está iniciado
+     */
+    public synchronized AutoDrop startAutoDrop(User user, int rows, PlinkoRisk risk, double amount,
+                                               int ballsPerSecond, int maxBalls) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("El usuario no puede ser nulo");
+        }
+        if (risk == null) {
+            throw new IllegalArgumentException("El nivel de riesgo no puede ser nulo");
+        }
+        getTable().multipliers(rows, risk);
+        if (ballsPerSecond < 1 || ballsPerSecond > maxBallsPerSecond) {
+            throw new IllegalArgumentException("El ritmo debe estar entre 1 y " + maxBallsPerSecond + " bolas por segundo");
+        }
+        if (maxBalls < 0) {
+            throw new IllegalArgumentException("El número de bolas no puede ser negativo");
+        }
+        if (!(amount >= 0.01)) {
+            throw new IllegalArgumentException("La apuesta mínima es 0.01");
+        }
+        // Una ronda lleva como mucho un segundo de bolas, sin pasar de la apuesta máxima por ronda
+        int ballsPerRound = (int) Math.min(ballsPerSecond, Math.floor(MAX_ROUND_BET / amount + 1e-9));
+        if (ballsPerRound < 1) {
+            throw new IllegalArgumentException("La apuesta máxima es " + MAX_ROUND_BET);
+        }
+        if (scheduler == null) {
+            throw new IllegalStateException("Plinko no está iniciado");
+        }
+
+        stopAutoDrop(user);
+        // Copia propia del usuario: el hilo de caída actualiza su saldo, no el de la vista
+        User player = new User();
+        player.setId(user.getId());
+        player.setUsername(user.getUsername());
+        player.setBalance(user.getBalance());
+
+        AutoDrop autoDrop = new AutoDrop(player, rows, risk, amount, ballsPerSecond, ballsPerRound, maxBalls);
+        autoDrops.put(user.getId(), autoDrop);
+        autoDrop.task = scheduler.scheduleWithFixedDelay(autoDrop::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Caída automática de Plinko - Usuario: " + user.getUsername() + " - " + ballsPerSecond
+                + " bolas/s de " + amount + " - " + rows + " filas, riesgo " + risk.getDisplayName());
+        return autoDrop;
+    }
+
+    /**
+     * Detiene la caída automática de un usuario, si tiene una en marcha.
+     */
+    public void stopAutoDrop(User user) {
+        AutoDrop autoDrop = user != null && user.getId() != null ? autoDrops.get(user.getId()) : null;
+        if (autoDrop != null) {
+            autoDrop.finish("Detenida por el jugador");
+        }
+    }
+
+    /**
+     * @return la caída automática en marcha de un usuario, o null si no tiene ninguna
+     */
+    public AutoDrop getAutoDrop(User user) {
+        return user != null && user.getId() != null ? autoDrops.get(user.getId()) : null;
+    }
+
+    private static String reference(int ball) {
+        return "bola:" + (ball + 1);
+    }
+
+    /**
+     * Ronda jugada: los caminos de sus bolas y lo pagado.
+     */
+    public static final class Drop {
+        private final GameSession session;
+        private final int rows;
+        private final PlinkoRisk risk;
+        private final double amount;
+        private final int[] paths;
+        private final double[] multipliers;
+        private final double winnings;
+        private final double balance;
+
+        private Drop(GameSession session, int rows, PlinkoRisk risk, double amount, int[] paths,
+                     double[] multipliers, double winnings, double balance) {
+            this.session = session;
+            this.rows = rows;
+            this.risk = risk;
+            this.amount = amount;
+            this.paths = paths;
+            this.multipliers = multipliers;
+            this.winnings = winnings;
+            this.balance = balance;
+        }
+
+        public GameSession getSession() {
+            return session;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public PlinkoRisk getRisk() {
+            return risk;
+        }
+
+        /**
+         * @return apuesta de cada bola
+         */
+        public double getAmount() {
+            return amount;
+        }
+
+        public int getBallCount() {
+            return paths.length;
+        }
+
+        /**
+         * @return camino de una bola (un bit por fila, 1 = derecha)
+         */
+        public int getPath(int ball) {
+            return paths[ball];
+        }
+
+        public int getSlot(int ball) {
+            return PlinkoBoard.slot(paths[ball]);
+        }
+
+        public double getMultiplier(int ball) {
+            return multipliers[PlinkoBoard.slot(paths[ball])];
+        }
+
+        /**
+         * @return total pagado por la ronda
+         */
+        public double getWinnings() {
+            return winnings;
+        }
+
+        /**
+         * @return saldo del usuario tras liquidar la ronda
+         */
+        public double getBalance() {
+            return balance;
+        }
+    }
+
+    /**
+     * Caída automática en marcha de un usuario. El hilo de Plinko juega las rondas; la vista
+     * consume las jugadas con {@link #poll()}.
+     */
+    public final class AutoDrop {
+        private final User player;
+        private final int rows;
+        private final PlinkoRisk risk;
+        private final double amount;
+        private final int ballsPerSecond;
+        private final int ballsPerRound;
+        private final int maxBalls;
+        private final BlockingQueue<Drop> pending = new ArrayBlockingQueue<>(MAX_PENDING_DROPS);
+        private final long startNanos = System.nanoTime();
+        private ScheduledFuture<?> task;
+
+        // Escritos solo por el hilo de Plinko
+        private volatile long dropped;
+        private volatile double totalBet;
+        private volatile double totalWon;
+        private volatile double balance;
+        private volatile String stopReason;
+
+        private AutoDrop(User player, int rows, PlinkoRisk risk, double amount, int ballsPerSecond,
+                         int ballsPerRound, int maxBalls) {
+            this.player = player;
+            this.rows = rows;
+            this.risk = risk;
+            this.amount = amount;
+            this.ballsPerSecond = ballsPerSecond;
+            this.ballsPerRound = ballsPerRound;
+            this.maxBalls = maxBalls;
+            this.balance = player.getBalance();
+        }
+
+        /**
+         * Deja caer las bolas que tocan desde el inicio según el ritmo pedido: si un tick llega
+         * tarde, el siguiente lleva más bolas (hasta {@code ballsPerRound}).
+         */
+        private synchronized void tick() {
+            if (stopReason != null) {
+                return;
+            }
+            long due = (System.nanoTime() - startNanos) / 1_000_000L * ballsPerSecond / 1000L;
+            if (maxBalls > 0) {
+                due = Math.min(due, maxBalls);
+            }
+            int balls = (int) Math.min(due - dropped, ballsPerRound);
+            if (balls <= 0) {
+                return;
+            }
+
+            try {
+                Drop drop = drop(player, rows, risk, amount, balls);
+                dropped += balls;
+                totalBet += amount * balls;
+                totalWon += drop.getWinnings();
+                balance = drop.getBalance();
+                while (!pending.offer(drop)) {
+                    pending.poll();
+                }
+                if (maxBalls > 0 && dropped >= maxBalls) {
+                    finish("Completada");
+                }
+            } catch (IllegalStateException e) {
+                finish(e.getMessage());
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error en la caída automática de Plinko del usuario "
+                        + player.getUsername() + ": " + e.getMessage(), e);
+                finish("Error: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Detiene la caída; si hay una ronda jugándose, espera a que se liquide para que el saldo
+         * y los totales sean los definitivos.
+         */
+        private synchronized void finish(String reason) {
+            if (stopReason == null) {
+                stopReason = reason;
+            }
+            if (task != null) {
+                task.cancel(false);
+            }
+            autoDrops.remove(player.getId(), this);
+        }
+
+        /**
+         * @return la siguiente ronda jugada pendiente de mostrar, o null si no hay
+         */
+        public Drop poll() {
+            return pending.poll();
+        }
+
+        public void stop() {
+            finish("Detenida por el jugador");
+        }
+
+        public boolean isRunning() {
+            return stopReason == null;
+        }
+
+        /**
+         * @return por qué se detuvo (null mientras sigue en marcha)
+         */
+        public String getStopReason() {
+            return stopReason;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public PlinkoRisk getRisk() {
+            return risk;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public int getBallsPerSecond() {
+            return ballsPerSecond;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public double getTotalBet() {
+            return totalBet;
+        }
+
+        public double getTotalWon() {
+            return totalWon;
+        }
+
+        /**
+         * @return saldo del usuario tras la última ronda liquidada
+         */
+        public double getBalance() {
+            return balance;
+        }
+    }
+}
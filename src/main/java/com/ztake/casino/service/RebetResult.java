@@ -0,0 +1,35 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.model.GameSession;
+
+/**
+ * Resultado de {@link GameService#settleAndRebet}: la sesión liquidada y, si el saldo alcanzaba
+ * para repetir la apuesta, la siguiente sesión en curso.
+ */
+public class RebetResult {
+    private final GameSession settled;
+    private final GameSession next;
+
+    public RebetResult(GameSession settled, GameSession next) {
+        this.settled = settled;
+        this.next = next;
+    }
+
+    /**
+     * @return la sesión liquidada, con su resultado y su usuario con el saldo actualizado
+     */
+    public GameSession getSettled() {
+        return settled;
+    }
+
+    /**
+     * @return la nueva sesión en curso, o null si no había saldo para repetir la apuesta
+     */
+    public GameSession getNext() {
+        return next;
+    }
+
+    public boolean isRebet() {
+        return next != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.model.GameSession;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Juego que resuelve sus rondas en memoria, sin interacción del jugador, para jugarlas en bloque
+ * con {@link GameService#playRounds}.
+ */
+@FunctionalInterface
+public interface RoundPlayer {
+
+    /**
+     * Juega una ronda con el generador de sus semillas y deja su resultado en la sesión:
+     * ganancias ({@link GameSession#setWinningAmount}), resultado ("won" o "lost") y game_data.
+     *
+     * @param gameSession sesión de la ronda, con su apuesta y sus semillas (todavía sin guardar)
+     * @param random      generador demostrablemente justo de la ronda
+     * @return true para seguir con otra ronda del lote, false para detenerse tras esta
+     */
+    boolean play(GameSession gameSession, RandomGenerator random);
+}
@@ -0,0 +1,100 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.config.AppConfig;
+import com.ztake.casino.repository.SessionArchiveRepository;
+
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tarea en segundo plano que mantiene el archivo columnar de los meses cerrados de
+ * game_sessions.
+ *
+ * <p>En cada pasada recorre los meses desde la sesión más antigua hasta el mes anterior al
+ * actual: archiva los que todavía no tienen fichero y vuelve a archivar los que, al
+ * archivarse, tenían sesiones en curso que ya se han liquidado (por ejemplo, por el barrido de
+ * sesiones abandonadas), para que el archivo no se quede sin ellas.</p>
+ */
+public class SessionArchiver {
+    private static final Logger LOGGER = Logger.getLogger(SessionArchiver.class.getName());
+
+    private final SessionArchiveRepository archiveRepository;
+    private final int intervalMinutes;
+    private ScheduledExecutorService scheduler;
+
+    public SessionArchiver(SessionArchiveRepository archiveRepository) {
+        this(archiveRepository, AppConfig.getInt("archive.intervalMinutes", 720));
+    }
+
+    public SessionArchiver(SessionArchiveRepository archiveRepository, int intervalMinutes) {
+        this.archiveRepository = archiveRepository;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    /**
+     * Inicia el archivado periódico en un hilo daemon.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveSafely, 60, intervalMinutes * 60L, TimeUnit.SECONDS);
+
+        LOGGER.info("Archivado de sesiones iniciado - Intervalo: " + intervalMinutes + " min");
+    }
+
+    /**
+     * Detiene el archivado periódico.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Archiva los meses cerrados que faltan y vuelve a archivar los desactualizados.
+     *
+     * @return número de meses escritos
+     */
+    public int archiveOnce() {
+        YearMonth first = archiveRepository.findFirstMonth();
+        if (first == null) {
+            return 0;
+        }
+
+        int written = 0;
+        YearMonth current = YearMonth.now();
+        for (YearMonth month = first; month.isBefore(current); month = month.plusMonths(1)) {
+            if (!archiveRepository.isArchived(month)) {
+                archiveRepository.archiveMonth(month);
+                written++;
+            } else if (archiveRepository.isStale(month)) {
+                LOGGER.info("Se han liquidado sesiones en curso del mes " + month + ", se vuelve a archivar");
+                archiveRepository.archiveMonth(month);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private void archiveSafely() {
+        try {
+            archiveOnce();
+        } catch (Exception e) {
+            // No propagar: una excepción cancelaría las ejecuciones siguientes
+            LOGGER.log(Level.SEVERE, "Error en el archivado de sesiones: " + e.getMessage(), e);
+        }
+    }
+}
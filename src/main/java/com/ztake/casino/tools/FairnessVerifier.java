@@ -0,0 +1,211 @@
+package com.ztake.casino.tools;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameRegistry;
+import com.ztake.casino.game.fair.ProvablyFair;
+import com.ztake.casino.repository.FairnessRepository;
+import com.ztake.casino.repository.FairnessRepositoryImpl;
+import com.ztake.casino.repository.VerifiableRound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Verificador por lotes de las rondas demostrablemente justas.
+ *
+ * <p>Recorre game_sessions en páginas de {@code verifier.pageSize} rondas (la siguiente página
+ * se lee mientras se verifica la actual) y verifica cada página en paralelo con fork-join: que
+ * la semilla del servidor revelada corresponda al hash publicado y, si el juego está en el
+ * {@link GameRegistry}, que repetir la ronda con las semillas y el nonce da el resultado
+ * registrado ({@link Game#replays}). Las rondas cuya semilla sigue sin revelar se cuentan aparte. Si alguna ronda no cuadra, el proceso termina con
+ * código 1.</p>
+ *
+ * <pre>
+ * mvn -B -Pbenchmark compile exec:java -Dexec.mainClass=com.ztake.casino.tools.FairnessVerifier
+ * </pre>
+ */
+public class FairnessVerifier {
+    // Rondas por tarea hoja: cada ronda cuesta unos pocos HMAC y un SHA-256
+    private static final int LEAF_ROUNDS = 2048;
+    private static final int MAX_REPORTED_FAILURES = 20;
+    private static final GameRegistry REGISTRY = GameRegistry.getDefault();
+
+    /**
+     * Resultado de verificar una ronda.
+     */
+    public enum Outcome {
+        VERIFIED,
+        /** La semilla del servidor todavía no se ha revelado. */
+        UNREVEALED,
+        /** La semilla revelada no corresponde al hash publicado. */
+        HASH_MISMATCH,
+        /** El resultado registrado no es el que dan las semillas. */
+        OUTCOME_MISMATCH
+    }
+
+    public static void main(String[] args) {
+        int pageSize = Integer.getInteger("verifier.pageSize", 50_000);
+        DatabaseConfig.initialize();
+        FairnessRepository repository = new FairnessRepositoryImpl();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+
+        long start = System.nanoTime();
+        Report report = new Report();
+        try {
+            List<VerifiableRound> page = repository.findVerifiableRounds(0L, pageSize);
+            while (!page.isEmpty()) {
+                long lastId = page.get(page.size() - 1).getSessionId();
+                CompletableFuture<List<VerifiableRound>> next = page.size() < pageSize
+                        ? CompletableFuture.completedFuture(List.of())
+                        : CompletableFuture.supplyAsync(() -> repository.findVerifiableRounds(lastId, pageSize), reader);
+                report = report.plus(verify(pool, page));
+                page = next.join();
+            }
+        } finally {
+            reader.shutdown();
+            DatabaseConfig.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Rondas: %,d - Verificadas: %,d - Sin revelar: %,d - Hash incorrecto: %,d - "
+                        + "Resultado incorrecto: %,d - %.1f s (%,.0f rondas/s, %d hilos)%n",
+                report.getRounds(), report.verified, report.unrevealed, report.hashMismatches,
+                report.outcomeMismatches, seconds, report.getRounds() / Math.max(seconds, 1e-9), pool.getParallelism());
+        if (report.getFailures() > 0) {
+            System.out.println("Sesiones que no cuadran (primeras " + MAX_REPORTED_FAILURES + "): "
+                    + report.failedSessionIds);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Verifica un lote de rondas en paralelo.
+     */
+    public static Report verify(ForkJoinPool pool, List<VerifiableRound> rounds) {
+        return pool.invoke(new VerifyTask(rounds, 0, rounds.size()));
+    }
+
+    /**
+     * Verifica una ronda.
+     */
+    public static Outcome verify(VerifiableRound round) {
+        if (round.getServerSeed() == null) {
+            return Outcome.UNREVEALED;
+        }
+        if (!ProvablyFair.matches(round.getServerSeed(), round.getServerSeedHash())) {
+            return Outcome.HASH_MISMATCH;
+        }
+        Game game = REGISTRY.find(round.getGameType());
+        if (game != null && !game.replays(round.getServerSeed(), round.getClientSeed(), round.getNonce(),
+                round.getGameData())) {
+            return Outcome.OUTCOME_MISMATCH;
+        }
+        return Outcome.VERIFIED;
+    }
+
+    private static final class VerifyTask extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<VerifiableRound> rounds;
+        private final int from;
+        private final int to;
+
+        VerifyTask(List<VerifiableRound> rounds, int from, int to) {
+            this.rounds = rounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from <= LEAF_ROUNDS) {
+                Report report = new Report();
+                for (int i = from; i < to; i++) {
+                    VerifiableRound round = rounds.get(i);
+                    report.add(round.getSessionId(), verify(round));
+                }
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            VerifyTask left = new VerifyTask(rounds, from, middle);
+            left.fork();
+            Report right = new VerifyTask(rounds, middle, to).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    /**
+     * Recuento de una verificación.
+     */
+    public static final class Report {
+        private long verified;
+        private long unrevealed;
+        private long hashMismatches;
+        private long outcomeMismatches;
+        private final List<Long> failedSessionIds = new ArrayList<>();
+
+        void add(long sessionId, Outcome outcome) {
+            switch (outcome) {
+                case VERIFIED:
+                    verified++;
+                    break;
+                case UNREVEALED:
+                    unrevealed++;
+                    break;
+                case HASH_MISMATCH:
+                    hashMismatches++;
+                    break;
+                case OUTCOME_MISMATCH:
+                    outcomeMismatches++;
+                    break;
+            }
+            if ((outcome == Outcome.HASH_MISMATCH || outcome == Outcome.OUTCOME_MISMATCH)
+                    && failedSessionIds.size() < MAX_REPORTED_FAILURES) {
+                failedSessionIds.add(sessionId);
+            }
+        }
+
+        Report plus(Report other) {
+            Report sum = new Report();
+            sum.verified = verified + other.verified;
+            sum.unrevealed = unrevealed + other.unrevealed;
+            sum.hashMismatches = hashMismatches + other.hashMismatches;
+            sum.outcomeMismatches = outcomeMismatches + other.outcomeMismatches;
+            sum.failedSessionIds.addAll(failedSessionIds);
+            for (Long id : other.failedSessionIds) {
+                if (sum.failedSessionIds.size() == MAX_REPORTED_FAILURES) {
+                    break;
+                }
+                sum.failedSessionIds.add(id);
+            }
+            return sum;
+        }
+
+        public long getRounds() {
+            return verified + unrevealed + hashMismatches + outcomeMismatches;
+        }
+
+        public long getVerified() {
+            return verified;
+        }
+
+        public long getUnrevealed() {
+            return unrevealed;
+        }
+
+        public long getFailures() {
+            return hashMismatches + outcomeMismatches;
+        }
+
+        public List<Long> getFailedSessionIds() {
+            return failedSessionIds;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ztake.casino.tools;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.GameSessionRepository;
+import com.ztake.casino.repository.GameSessionRepositoryImpl;
+import com.ztake.casino.repository.ReadOnlyGameSessionRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compara el tiempo y la memoria del historial de sesiones leído con un EntityManager
+ * frente a la ruta de solo lectura sobre StatelessSession.
+ *
+ * <p>Crea un usuario con {@code benchmark.rows} sesiones (100.000 por defecto) y mide cada
+ * ruta varias veces: mediana de tiempo, bytes asignados por el hilo y memoria retenida
+ * mientras se conserva el resultado. Pensado para ejecutarse contra una base de datos
+ * desechable, por ejemplo H2 en memoria:</p>
+ *
+ * <pre>
+ * mvn -B -Pbenchmark compile exec:java -Dexec.mainClass=com.ztake.casino.tools.ReadPathBenchmark \
+ *     -Djakarta.persistence.jdbc.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1 \
+ *     -Djakarta.persistence.jdbc.driver=org.h2.Driver -Dhibernate.dialect=org.hibernate.dialect.H2Dialect \
+ *     -Dhibernate.hbm2ddl.auto=create -Dhibernate.show_sql=false
+ * </pre>
+ */
+public class ReadPathBenchmark {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    public static void main(String[] args) {
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+
+        try {
+            User user = seed(rows);
+            System.out.printf("Sesiones del usuario: %,d - Iteraciones: %d%n", rows, iterations);
+
+            GameSessionRepository statefulRepository = new GameSessionRepositoryImpl();
+            GameSessionRepository statelessRepository = new ReadOnlyGameSessionRepositoryImpl();
+
+            measure("EntityManager", () -> statefulRepository.findByUser(user), rows, iterations);
+            measure("StatelessSession", () -> statelessRepository.findByUser(user), rows, iterations);
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    private static User seed(int rows) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            User user = new User(null, "bench_" + System.nanoTime(), "bench" + System.nanoTime() + "@ztake.test", "x", 0.0);
+            em.persist(user);
+            em.flush();
+
+            long userId = user.getId();
+            LocalDateTime start = LocalDateTime.now().minusDays(rows / 1000 + 1);
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO game_sessions (user_id, game_type, bet_amount, winning_amount, result, session_date, game_data) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    for (int i = 0; i < rows; i++) {
+                        boolean win = i % 3 == 0;
+                        statement.setLong(1, userId);
+                        statement.setString(2, i % 2 == 0 ? "mines" : "slots");
+                        statement.setDouble(3, 10.0);
+                        statement.setDouble(4, win ? 18.5 : 0.0);
+                        statement.setString(5, win ? "win" : "lost");
+                        statement.setTimestamp(6, Timestamp.valueOf(start.plusSeconds(i * 60L)));
+                        statement.setString(7, "{\"mines\":3,\"revealed\":" + (i % 13) + "}");
+                        statement.addBatch();
+                        if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            });
+
+            em.getTransaction().commit();
+            return user;
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void measure(String label, Supplier<List<GameSession>> read, int expectedRows, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Calentamiento: compilación JIT y caché de planes de consulta
+        read.get();
+
+        long[] millis = new long[iterations];
+        long[] allocated = new long[iterations];
+        long retained = 0;
+        for (int i = 0; i < iterations; i++) {
+            long heapBefore = usedHeapAfterGc();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+
+            List<GameSession> result = read.get();
+
+            millis[i] = (System.nanoTime() - startNanos) / 1_000_000;
+            allocated[i] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            retained = Math.max(retained, usedHeapAfterGc() - heapBefore);
+
+            if (result.size() != expectedRows) {
+                throw new IllegalStateException(label + ": " + result.size() + " filas, se esperaban " + expectedRows);
+            }
+        }
+
+        Arrays.sort(millis);
+        Arrays.sort(allocated);
+        System.out.printf("%-17s mediana %,6d ms - asignado %,10.3f MB - retenido %,7.1f MB%n",
+                label, millis[iterations / 2], allocated[iterations / 2] / 1048576.0, retained / 1048576.0);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,195 @@
+package com.ztake.casino.tools;
+
+import com.ztake.casino.game.Game;
+import com.ztake.casino.game.GameRegistry;
+import com.ztake.casino.game.SimulatableGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Verificación por Monte Carlo del retorno al jugador (RTP) de los juegos.
+ *
+ * <p>Juega {@code sim.rounds} rondas (100 millones por defecto) de cada configuración en
+ * paralelo con fork-join: cada tarea hoja recibe un {@link SplittableRandom} obtenido con
+ * {@code split()}, así que los resultados son reproducibles con la misma semilla
+ * ({@code sim.seed}) sea cual sea el número de núcleos. {@code sim.games} limita la ejecución a
+ * las configuraciones cuyo nombre contiene ese texto. Informa del RTP, la varianza, la
+ * frecuencia de acierto, el pago máximo y el intervalo de confianza al 95 %. Si el juego
+ * conoce su RTP teórico y este queda fuera del intervalo al 99,9 % (ampliado con
+ * {@link SimulatableGame#getRtpTolerance()} si el teórico es aproximado), la configuración falla
+ * y el proceso termina con código 1.</p>
+ *
+ * <pre>
+ * mvn -B -Pbenchmark compile exec:java -Dexec.mainClass=com.ztake.casino.tools.RtpSimulator -Dsim.rounds=1000000000
+ * </pre>
+ */
+public class RtpSimulator {
+    // Rondas por tarea hoja: suficiente para amortizar la creación del jugador
+    private static final long LEAF_ROUNDS = 1L << 20;
+    private static final double Z_95 = 1.959964;
+    private static final double Z_999 = 3.290527;
+
+    public static void main(String[] args) {
+        long rounds = Long.getLong("sim.rounds", 100_000_000L);
+        long seed = Long.getLong("sim.seed", 20240501L);
+
+        String filter = System.getProperty("sim.games", "");
+
+        List<SimulatableGame> games = new ArrayList<>();
+        for (SimulatableGame game : defaultGames()) {
+            if (game.getName().contains(filter)) {
+                games.add(game);
+            }
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("Configuraciones: %d - Rondas por configuración: %,d - Hilos: %d - Semilla: %d%n",
+                games.size(), rounds, pool.getParallelism(), seed);
+        System.out.printf("%-34s %9s %9s %9s %21s %9s %10s %7s%n",
+                "Configuración", "RTP", "Teórico", "Desv.", "IC 95 %", "Acierto", "Máximo", "");
+
+        int failures = 0;
+        long totalStart = System.nanoTime();
+        for (SimulatableGame game : games) {
+            Stats stats = simulate(pool, game, rounds, new SplittableRandom(seed));
+            if (!report(game, stats)) {
+                failures++;
+            }
+        }
+
+        System.out.printf("Tiempo total: %.1f s - Configuraciones fuera del intervalo: %d%n",
+                (System.nanoTime() - totalStart) / 1e9, failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Simula las rondas indicadas de un juego.
+     */
+    public static Stats simulate(ForkJoinPool pool, SimulatableGame game, long rounds, SplittableRandom random) {
+        return pool.invoke(new SimulationTask(game, rounds, random));
+    }
+
+    private static List<SimulatableGame> defaultGames() {
+        List<SimulatableGame> games = new ArrayList<>();
+        for (Game game : GameRegistry.getDefault().getGames()) {
+            games.addAll(game.getSimulations());
+        }
+        return games;
+    }
+
+    private static boolean report(SimulatableGame game, Stats stats) {
+        double rtp = stats.getMean();
+        double standardError = Math.sqrt(stats.getVariance() / stats.rounds);
+        double expected = game.getExpectedRtp();
+        boolean ok = Double.isNaN(expected) || Math.abs(rtp - expected) <= Z_999 * standardError + game.getRtpTolerance();
+
+        System.out.printf("%-34s %9.5f %9.5f %9.4f [%9.5f, %9.5f] %8.4f%% %10.2f %7s%n",
+                game.getName(), rtp, expected, Math.sqrt(stats.getVariance()),
+                rtp - Z_95 * standardError, rtp + Z_95 * standardError,
+                100.0 * stats.hits / stats.rounds, stats.maxPayout, ok ? "OK" : "FALLO");
+        return ok;
+    }
+
+    /**
+     * Divide las rondas en mitades hasta {@link #LEAF_ROUNDS}; cada mitad izquierda recibe
+     * un generador independiente obtenido con {@code split()}.
+     */
+    private static final class SimulationTask extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final SimulatableGame game;
+        private final long rounds;
+        private final SplittableRandom random;
+
+        SimulationTask(SimulatableGame game, long rounds, SplittableRandom random) {
+            this.game = game;
+            this.rounds = rounds;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (rounds <= LEAF_ROUNDS) {
+                return play();
+            }
+            long half = rounds / 2;
+            SimulationTask left = new SimulationTask(game, half, random.split());
+            left.fork();
+            Stats right = new SimulationTask(game, rounds - half, random).compute();
+            return left.join().plus(right);
+        }
+
+        private Stats play() {
+            SimulatableGame.Player player = game.newPlayer(random);
+            double sum = 0;
+            double sumOfSquares = 0;
+            double max = 0;
+            long hits = 0;
+            for (long i = 0; i < rounds; i++) {
+                double payout = player.playRound();
+                sum += payout;
+                sumOfSquares += payout * payout;
+                if (payout > 0) {
+                    hits++;
+                    if (payout > max) {
+                        max = payout;
+                    }
+                }
+            }
+            return new Stats(rounds, sum, sumOfSquares, hits, max);
+        }
+    }
+
+    /**
+     * Acumulados de una simulación (pagos por unidad apostada).
+     */
+    public static final class Stats {
+        private final long rounds;
+        private final double sum;
+        private final double sumOfSquares;
+        private final long hits;
+        private final double maxPayout;
+
+        Stats(long rounds, double sum, double sumOfSquares, long hits, double maxPayout) {
+            this.rounds = rounds;
+            this.sum = sum;
+            this.sumOfSquares = sumOfSquares;
+            this.hits = hits;
+            this.maxPayout = maxPayout;
+        }
+
+        Stats plus(Stats other) {
+            return new Stats(rounds + other.rounds, sum + other.sum, sumOfSquares + other.sumOfSquares,
+                    hits + other.hits, Math.max(maxPayout, other.maxPayout));
+        }
+
+        public long getRounds() {
+            return rounds;
+        }
+
+        /**
+         * @return RTP observado
+         */
+        public double getMean() {
+            return sum / rounds;
+        }
+
+        public double getVariance() {
+            double mean = getMean();
+            return Math.max(0.0, sumOfSquares / rounds - mean * mean);
+        }
+
+        public double getHitFrequency() {
+            return (double) hits / rounds;
+        }
+
+        public double getMaxPayout() {
+            return maxPayout;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ztake.casino.tools;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.ReadOnlyGameSessionRepositoryImpl;
+import com.ztake.casino.repository.ReadOnlyTransactionRepositoryImpl;
+import com.ztake.casino.repository.UserRepositoryImpl;
+import com.ztake.casino.repository.WalletCommitPipeline;
+import com.ztake.casino.repository.WalletRepositoryImpl;
+import com.ztake.casino.service.ExposureTracker;
+import com.ztake.casino.service.FairnessService;
+import com.ztake.casino.service.GameServiceImpl;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compara la latencia y el rendimiento de las rondas (apertura y liquidación) escritas una a
+ * una, cada una en su transacción, frente al commit en grupo de {@link WalletCommitPipeline},
+ * descontando la apuesta al abrir o reteniéndola hasta liquidar (una sola escritura de saldo).
+ *
+ * <p>{@code benchmark.threads} hilos (8 por defecto), cada uno con su usuario, juegan
+ * {@code benchmark.rounds} rondas (500 por defecto) a la vez. Para cada ruta imprime rondas por
+ * segundo, los percentiles 50 y 99 de cada operación y, con el commit en grupo, el tamaño medio
+ * de los lotes. Mientras tanto, otro hilo abona depósitos a los mismos usuarios (uno cada
+ * {@code benchmark.depositMillis} ms, 10 por defecto; 0 los desactiva), que no deben pisar los
+ * cambios de saldo de las rondas; al final comprueba que el saldo de cada usuario cuadra con sus
+ * sesiones y sus depósitos. El
+ * coste del commit depende del almacenamiento, así que conviene medirlo también con una base de
+ * datos en fichero ({@code jdbc:h2:file:/tmp/bench}):</p>
+ *
+ * <pre>
+ * mvn -B -Pbenchmark compile exec:java -Dexec.mainClass=com.ztake.casino.tools.WalletCommitBenchmark \
+ *     -Djakarta.persistence.jdbc.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1 \
+ *     -Djakarta.persistence.jdbc.driver=org.h2.Driver -Dhibernate.dialect=org.hibernate.dialect.H2Dialect \
+ *     -Dhibernate.hbm2ddl.auto=create -Dhibernate.show_sql=false
+ * </pre>
+ */
+public class WalletCommitBenchmark {
+    private static final double INITIAL_BALANCE = 1_000_000.0;
+    private static final double BET = 1.0;
+    private static final double DEPOSIT = 5.0;
+
+    private static int depositMillis;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        int rounds = Integer.getInteger("benchmark.rounds", 500);
+        int maxOperations = Integer.getInteger("benchmark.maxOperations", 256);
+        int maxDelayMillis = Integer.getInteger("benchmark.maxDelayMillis", 2);
+        depositMillis = Integer.getInteger("benchmark.depositMillis", 10);
+
+        // Un mensaje INFO por ronda falsearía la medida
+        Logger.getLogger("").setLevel(Level.WARNING);
+        FairnessService fairnessService = new FairnessService();
+        try {
+            DatabaseConfig.initialize();
+            fairnessService.start();
+            System.out.printf("Hilos: %d - Rondas por hilo: %,d - Lote máximo: %d - Espera máxima: %d ms%n",
+                    threads, rounds, maxOperations, maxDelayMillis);
+
+            run("Una a una", service(fairnessService, null, false), seed(threads), rounds, null);
+            run("Retenciones", service(fairnessService, null, true), seed(threads), rounds, null);
+
+            WalletCommitPipeline pipeline = new WalletCommitPipeline(new WalletRepositoryImpl(), maxOperations, maxDelayMillis);
+            pipeline.start();
+            try {
+                run("Commit en grupo", service(fairnessService, pipeline, false), seed(threads), rounds, pipeline);
+                run("Grupo+retención", service(fairnessService, pipeline, true), seed(threads), rounds, pipeline);
+            } finally {
+                pipeline.stop();
+            }
+        } finally {
+            fairnessService.stop();
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    private static GameServiceImpl service(FairnessService fairnessService, WalletCommitPipeline pipeline,
+                                           boolean holdFunds) {
+        return GameServiceImpl.builder(new ReadOnlyGameSessionRepositoryImpl(),
+                        new ReadOnlyTransactionRepositoryImpl(), new UserRepositoryImpl())
+                .walletRepository(new WalletRepositoryImpl())
+                .exposureTracker(new ExposureTracker(0, 0))
+                .fairnessService(fairnessService)
+                .commitPipeline(pipeline)
+                .holdFunds(holdFunds)
+                .build();
+    }
+
+    private static List<User> seed(int count) {
+        UserRepositoryImpl userRepository = new UserRepositoryImpl();
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long suffix = System.nanoTime();
+            User user = new User(null, "bench_" + suffix, "bench" + suffix + "@ztake.test", "x", INITIAL_BALANCE);
+            user.setRegistrationDate(LocalDateTime.now());
+            user.setStatus("active");
+            users.add(userRepository.save(user));
+        }
+        return users;
+    }
+
+    private static void run(String label, GameServiceImpl service, List<User> users, int rounds,
+                            WalletCommitPipeline pipeline) throws InterruptedException {
+        // Calentamiento: compilación JIT y caché de planes de consulta
+        for (int i = 0; i < 20; i++) {
+            playRound(service, users.get(0), i);
+        }
+        long commitsBefore = pipeline == null ? 0 : pipeline.getCommits();
+        long operationsBefore = pipeline == null ? 0 : pipeline.getOperations();
+
+        int threads = users.size();
+        long[][] startNanos = new long[threads][rounds];
+        long[][] endNanos = new long[threads][rounds];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    ready.countDown();
+                    go.await();
+                    User user = users.get(index);
+                    for (int i = 0; i < rounds; i++) {
+                        long begin = System.nanoTime();
+                        GameSession session = service.startGame(user, "Mines", BET);
+                        long started = System.nanoTime();
+                        service.endGame(session, i % 3 == 0 ? 2 * BET : 0.0, i % 3 == 0 ? "won" : "lost", "{}");
+                        startNanos[index][i] = started - begin;
+                        endNanos[index][i] = System.nanoTime() - started;
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "benchmark-" + t);
+            worker.start();
+        }
+
+        // Depósitos concurrentes con las rondas, repartidos entre los usuarios
+        long[] deposits = new long[1];
+        Thread depositor = new Thread(() -> {
+            try {
+                go.await();
+                for (int i = 0; depositMillis > 0 && done.getCount() > 0; i++) {
+                    service.depositFunds(users.get(i % threads), DEPOSIT);
+                    deposits[0]++;
+                    Thread.sleep(depositMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            }
+        }, "benchmark-deposits");
+        depositor.start();
+
+        ready.await();
+        long begin = System.nanoTime();
+        go.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        depositor.join();
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException(label + ": " + errors.size() + " hilos fallaron", errors.get(0));
+        }
+
+        System.out.printf("%-16s %,8.0f rondas/s - apertura p50 %6.2f ms p99 %6.2f ms - liquidación p50 %6.2f ms p99 %6.2f ms",
+                label, threads * rounds / seconds, percentile(startNanos, 0.50), percentile(startNanos, 0.99),
+                percentile(endNanos, 0.50), percentile(endNanos, 0.99));
+        if (pipeline != null) {
+            long commits = pipeline.getCommits() - commitsBefore;
+            System.out.printf(" - %,d commits, %.1f operaciones por lote",
+                    commits, (pipeline.getOperations() - operationsBefore) / (double) Math.max(1, commits));
+        }
+        System.out.printf(" - %,d depósitos%n", deposits[0]);
+        reconcile(label, users);
+    }
+
+    private static void playRound(GameServiceImpl service, User user, int i) {
+        GameSession session = service.startGame(user, "Mines", BET);
+        service.endGame(session, i % 3 == 0 ? 2 * BET : 0.0, i % 3 == 0 ? "won" : "lost", "{}");
+    }
+
+    private static double percentile(long[][] nanos, double percentile) {
+        long[] all = Arrays.stream(nanos).flatMapToLong(Arrays::stream).sorted().toArray();
+        return all[Math.min(all.length - 1, (int) (all.length * percentile))] / 1e6;
+    }
+
+    /**
+     * Comprueba que el saldo guardado de cada usuario es el inicial más sus depósitos, menos sus
+     * apuestas y más sus ganancias.
+     */
+    private static void reconcile(String label, List<User> users) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            for (User user : users) {
+                double balance = em.find(User.class, user.getId()).getBalance();
+                Object[] totals = em.createQuery(
+                                "SELECT COALESCE(SUM(g.betAmount), 0), COALESCE(SUM(g.winningAmount), 0) " +
+                                        "FROM GameSession g WHERE g.user.id = :userId", Object[].class)
+                        .setParameter("userId", user.getId())
+                        .getSingleResult();
+                double deposited = em.createQuery(
+                                "SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
+                                        "WHERE t.user.id = :userId AND t.transactionType = 'deposit'", Number.class)
+                        .setParameter("userId", user.getId())
+                        .getSingleResult()
+                        .doubleValue();
+                double expected = INITIAL_BALANCE + deposited - ((Number) totals[0]).doubleValue()
+                        + ((Number) totals[1]).doubleValue();
+                if (Math.abs(balance - expected) > 0.005) {
+                    throw new IllegalStateException(label + ": el saldo de " + user.getUsername() + " es " + balance
+                            + ", se esperaba " + expected);
+                }
+            }
+        } finally {
+            em.close();
+        }
+    }
+}
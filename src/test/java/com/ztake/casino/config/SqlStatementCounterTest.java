@@ -0,0 +1,153 @@
+package com.ztake.casino.config;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del detector de N+1 y del presupuesto de sentencias en modo estricto, sobre una
+ * base de datos H2 en memoria.
+ */
+class SqlStatementCounterTest {
+    private static final String[] DATABASE_PROPERTIES = {
+            "jakarta.persistence.jdbc.driver", "org.h2.Driver",
+            "jakarta.persistence.jdbc.url", "jdbc:h2:mem:sqlcounter;DB_CLOSE_DELAY=-1",
+            "jakarta.persistence.jdbc.user", "sa",
+            "jakarta.persistence.jdbc.password", "",
+            "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "hibernate.hbm2ddl.auto", "create",
+            "hibernate.show_sql", "false",
+            "hibernate.format_sql", "false"
+    };
+
+    @BeforeAll
+    static void initializeDatabase() {
+        for (int i = 0; i < DATABASE_PROPERTIES.length; i += 2) {
+            System.setProperty(DATABASE_PROPERTIES[i], DATABASE_PROPERTIES[i + 1]);
+        }
+        DatabaseConfig.initialize();
+
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < 3; i++) {
+                User user = new User(null, "player" + i, "player" + i + "@ztake.test", "x", 100.0);
+                user.setRegistrationDate(LocalDateTime.now());
+                user.setStatus("active");
+                em.persist(user);
+
+                GameSession session = new GameSession();
+                session.setUser(user);
+                session.setGameType("Mines");
+                session.setBetAmount(1.0);
+                session.setWinningAmount(0.0);
+                session.setResult("lost");
+                session.setSessionDate(LocalDateTime.now());
+                em.persist(session);
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @AfterAll
+    static void shutdownDatabase() {
+        DatabaseConfig.shutdown();
+        for (int i = 0; i < DATABASE_PROPERTIES.length; i += 2) {
+            System.clearProperty(DATABASE_PROPERTIES[i]);
+        }
+    }
+
+    @BeforeEach
+    void enableStrictMode() {
+        System.setProperty("sql.strict", "true");
+    }
+
+    @AfterEach
+    void disableStrictMode() {
+        System.clearProperty("sql.strict");
+    }
+
+    @Test
+    void lazyLoadingInALoopFailsInStrictMode() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> SqlStatementCounter.measure("usernames", 100, SqlStatementCounterTest::usernamesOneByOne));
+
+        assertTrue(error.getMessage().contains("posible N+1 en usernames"), error.getMessage());
+    }
+
+    @Test
+    void fetchJoinStaysWithinBudget() {
+        List<String> usernames = SqlStatementCounter.measure("usernames", 1, () -> {
+            EntityManager em = DatabaseConfig.getEntityManager();
+            try {
+                return em.createQuery("SELECT g FROM GameSession g JOIN FETCH g.user ORDER BY g.id", GameSession.class)
+                        .getResultList()
+                        .stream()
+                        .map(session -> session.getUser().getUsername())
+                        .toList();
+            } finally {
+                em.close();
+            }
+        });
+
+        assertEquals(List.of("player0", "player1", "player2"), usernames);
+    }
+
+    @Test
+    void statementBudgetFailsInStrictMode() {
+        // Dos consultas distintas: supera el presupuesto sin repetir ninguna SELECT
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> SqlStatementCounter.measure("counts", 1, () -> {
+                    EntityManager em = DatabaseConfig.getEntityManager();
+                    try {
+                        long users = em.createQuery("SELECT COUNT(u) FROM User u", Long.class).getSingleResult();
+                        long sessions = em.createQuery("SELECT COUNT(g) FROM GameSession g", Long.class)
+                                .getSingleResult();
+                        return users + sessions;
+                    } finally {
+                        em.close();
+                    }
+                }));
+
+        assertTrue(error.getMessage().contains("counts ejecutó 2 sentencias SQL (máximo 1)"), error.getMessage());
+    }
+
+    @Test
+    void committedOperationIsOnlyLogged() {
+        // Los cambios ya están confirmados: el exceso no debe llegar al llamador como error
+        List<String> usernames = SqlStatementCounter.measureCommitted("usernames", 1,
+                SqlStatementCounterTest::usernamesOneByOne);
+
+        assertEquals(3, usernames.size());
+    }
+
+    /**
+     * Carga las sesiones y después el usuario de cada una por separado: una SELECT por sesión.
+     */
+    private static List<String> usernamesOneByOne() {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return em.createQuery("SELECT g FROM GameSession g ORDER BY g.id", GameSession.class)
+                    .getResultList()
+                    .stream()
+                    .map(session -> session.getUser().getUsername())
+                    .toList();
+        } finally {
+            em.close();
+        }
+    }
+}
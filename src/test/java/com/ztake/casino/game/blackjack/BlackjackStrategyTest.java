@@ -0,0 +1,135 @@
+package com.ztake.casino.game.blackjack;
+
+import com.ztake.casino.game.blackjack.BlackjackStrategy.Action;
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tablas de estrategia básica, valor esperado de las reglas y rondas con un generador fijo.
+ */
+class BlackjackStrategyTest {
+
+    private static BlackjackEngine deal(BlackjackRules rules, long nonce) {
+        BlackjackEngine engine = new BlackjackEngine(rules, new Shoe(rules.getDecks(), rules.getPenetration(),
+                ProvablyFair.random("server-seed", "client-seed", nonce)));
+        engine.deal();
+        return engine;
+    }
+
+    @Test
+    void basicStrategyMatchesThePublishedChart() {
+        BlackjackStrategy strategy = BlackjackStrategy.of(BlackjackRules.vegasStrip());
+
+        // Totales duros
+        assertEquals(Action.HIT, strategy.decide(16, false, 10, true, 0));
+        assertEquals(Action.HIT, strategy.decide(15, false, 10, true, 0));
+        assertEquals(Action.STAND, strategy.decide(17, false, 10, true, 0));
+        assertEquals(Action.STAND, strategy.decide(13, false, 2, true, 0));
+        assertEquals(Action.HIT, strategy.decide(12, false, 2, true, 0));
+        assertEquals(Action.HIT, strategy.decide(12, false, 3, true, 0));
+        assertEquals(Action.STAND, strategy.decide(12, false, 4, true, 0));
+        assertEquals(Action.DOUBLE, strategy.decide(11, false, 10, true, 0));
+        assertEquals(Action.HIT, strategy.decide(11, false, 1, true, 0));
+        assertEquals(Action.DOUBLE, strategy.decide(10, false, 9, true, 0));
+        assertEquals(Action.HIT, strategy.decide(10, false, 10, true, 0));
+        assertEquals(Action.DOUBLE, strategy.decide(9, false, 3, true, 0));
+        assertEquals(Action.HIT, strategy.decide(9, false, 2, true, 0));
+        // Sin poder doblar se pide
+        assertEquals(Action.HIT, strategy.decide(11, false, 10, false, 0));
+
+        // Totales blandos
+        assertEquals(Action.STAND, strategy.decide(18, true, 2, true, 0));
+        assertEquals(Action.DOUBLE, strategy.decide(18, true, 3, true, 0));
+        assertEquals(Action.HIT, strategy.decide(18, true, 9, true, 0));
+
+        // Parejas
+        assertEquals(Action.SPLIT, strategy.decide(12, true, 5, true, 1));
+        assertEquals(Action.SPLIT, strategy.decide(16, false, 10, true, 8));
+        assertEquals(Action.SPLIT, strategy.decide(14, false, 7, true, 7));
+        assertEquals(Action.STAND, strategy.decide(18, false, 7, true, 9));
+        assertEquals(Action.STAND, strategy.decide(20, false, 6, true, 10));
+        assertEquals(Action.DOUBLE, strategy.decide(10, false, 6, true, 5));
+    }
+
+    @Test
+    void dealerHittingSoft17ChangesTheDoubles() {
+        BlackjackStrategy strategy = BlackjackStrategy.of(BlackjackRules.downtown());
+
+        assertEquals(Action.DOUBLE, strategy.decide(11, false, 1, true, 0));
+        assertEquals(Action.DOUBLE, strategy.decide(18, true, 2, true, 0));
+    }
+
+    @Test
+    void expectedValuesFollowTheRules() {
+        double strip = BlackjackStrategy.of(BlackjackRules.vegasStrip()).getExpectedValue();
+        double downtown = BlackjackStrategy.of(BlackjackRules.downtown()).getExpectedValue();
+        double european = BlackjackStrategy.of(BlackjackRules.european()).getExpectedValue();
+        double sixToFive = BlackjackStrategy.of(BlackjackRules.singleDeckSixToFive()).getExpectedValue();
+
+        // Zapato infinito, S17, doblar tras dividir y sin rendición: en torno a -0,5 %
+        assertEquals(-0.00512, strip, 0.00005);
+        assertEquals(-0.00731, downtown, 0.00005);
+        assertEquals(-0.00770, european, 0.00005);
+        assertEquals(-0.02227, sixToFive, 0.00005);
+        assertEquals(1 + strip, BlackjackStrategy.of(BlackjackRules.vegasStrip()).getRtp(), 1e-12);
+        // Pagar el blackjack 6 a 5 cuesta más que cualquier otra regla
+        assertTrue(sixToFive < european && european < downtown && downtown < strip);
+    }
+
+    @Test
+    void dealerOutcomesAreDistributions() {
+        BlackjackStrategy peeking = BlackjackStrategy.of(BlackjackRules.vegasStrip());
+        BlackjackStrategy european = BlackjackStrategy.of(BlackjackRules.european());
+
+        for (int upcard = 1; upcard <= 10; upcard++) {
+            for (BlackjackStrategy strategy : new BlackjackStrategy[]{peeking, european}) {
+                double total = 0;
+                for (double probability : strategy.getDealerOutcomes(upcard)) {
+                    total += probability;
+                }
+                assertEquals(1.0, total, 1e-12);
+            }
+            // Si el crupier mira la carta oculta, el blackjack ya está descartado
+            assertEquals(0.0, peeking.getDealerOutcomes(upcard)[6], 1e-12);
+        }
+        assertEquals(0.4232, peeking.getDealerOutcomes(6)[5], 0.00005);
+        assertEquals(4.0 / 13, european.getDealerOutcomes(1)[6], 1e-12);
+        assertEquals(1.0 / 13, european.getDealerOutcomes(10)[6], 1e-12);
+    }
+
+    @Test
+    void fixedSeedsDealTheSameRounds() {
+        BlackjackRules rules = BlackjackRules.vegasStrip();
+
+        BlackjackEngine standing = deal(rules, 1);
+        assertEquals(7, standing.getCard(0, 0));
+        assertEquals(10, standing.getCard(0, 1));
+        assertEquals(10, standing.getUpcard());
+        assertEquals(Action.STAND, BlackjackStrategy.of(rules).decide(standing));
+        standing.stand();
+        assertEquals(18, standing.getDealerValue());
+        assertEquals(-1.0, standing.getNet());
+
+        // Blackjack del jugador: 3 a 2, o 6 a 5 con las mismas cartas
+        BlackjackEngine natural = deal(rules, 2);
+        assertTrue(natural.isNatural(0));
+        assertEquals(BlackjackEngine.State.FINISHED, natural.getState());
+        assertEquals(1.5, natural.getNet());
+        assertEquals(1.2, deal(BlackjackRules.builder().blackjackPayout(1.2).build(), 2).getNet());
+
+        // El crupier mira la carta oculta y tiene blackjack
+        BlackjackEngine dealerNatural = deal(rules, 7);
+        assertTrue(dealerNatural.isDealerBlackjack());
+        assertEquals(BlackjackEngine.State.FINISHED, dealerNatural.getState());
+        assertEquals(-1.0, dealerNatural.getNet());
+
+        BlackjackEngine push = deal(rules, 22);
+        push.stand();
+        assertEquals(0.0, push.getNet());
+
+        assertEquals(Action.SPLIT, BlackjackStrategy.of(rules).decide(deal(rules, 39)));
+    }
+}
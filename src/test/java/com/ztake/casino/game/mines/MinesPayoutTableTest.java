@@ -0,0 +1,89 @@
+package com.ztake.casino.game.mines;
+
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tablas de multiplicadores de Mines y colocación de minas con un generador fijo.
+ */
+class MinesPayoutTableTest {
+
+    @Test
+    void fairTableMatchesTheCombinatorics() {
+        MinesPayoutTable table = new MinesPayoutTable(1.0, false);
+
+        assertEquals(1.0, table.multiplier(25, 3, 0));
+        // 25/24 truncado
+        assertEquals(1.04, table.multiplier(25, 1, 1));
+        assertEquals(25.0, table.multiplier(25, 24, 1));
+        // C(25, 5) / C(22, 5) = 53130 / 26334
+        assertEquals(2.01, table.multiplier(25, 3, 5));
+        // C(25, 20) / C(20, 20)
+        assertEquals(53130.0, table.multiplier(25, 5, 20));
+    }
+
+    @Test
+    void firstRevealSafeTableSkipsTheFirstRisk() {
+        MinesPayoutTable table = new MinesPayoutTable(0.97, true);
+
+        // La primera casilla nunca es una mina: solo paga el RTP
+        assertEquals(0.97, table.multiplier(25, 1, 1));
+        assertEquals(0.97, table.multiplier(25, 24, 1));
+        assertEquals(1.01, table.multiplier(25, 1, 2));
+        assertEquals(1.1, table.multiplier(25, 3, 2));
+        assertEquals(1.72, table.multiplier(25, 3, 5));
+        assertEquals(23.28, table.multiplier(25, 23, 2));
+        assertEquals(2.91, table.multiplier(4, 1, 3));
+    }
+
+    @Test
+    void paidMultipliersStayWithinTheRtp() {
+        for (MinesPayoutTable table : new MinesPayoutTable[]{
+                new MinesPayoutTable(0.97, true), new MinesPayoutTable(0.99, false)}) {
+            double rtp = table.getRtp();
+            for (int cells = 2; cells <= MinesEngine.MAX_SIDE * MinesEngine.MAX_SIDE; cells++) {
+                for (int mines = 1; mines < cells; mines++) {
+                    for (int gems = 1; gems <= cells - mines; gems++) {
+                        double survival = table.survivalProbability(cells, mines, gems);
+                        double expected = survival * table.multiplier(cells, mines, gems);
+                        String combination = cells + " casillas, " + mines + " minas, " + gems + " gemas";
+                        // Truncar a dos decimales solo puede quitar, y como mucho un céntimo
+                        assertTrue(expected <= rtp + 1e-9, combination + ": " + expected);
+                        assertTrue(expected >= rtp - 0.01 * survival - 1e-9, combination + ": " + expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidCombinationsAreRejected() {
+        MinesPayoutTable table = new MinesPayoutTable(0.97, true);
+
+        assertThrows(IllegalArgumentException.class, () -> table.multiplier(25, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.multiplier(25, 25, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.multiplier(25, 3, 23));
+        assertThrows(IllegalArgumentException.class, () -> table.multipliers(65));
+        assertThrows(IllegalArgumentException.class, () -> new MinesPayoutTable(1.01, true));
+    }
+
+    @Test
+    void fixedSeedsPlaceTheSameMines() {
+        long mines = MinesEngine.placeMines(5, 5, 3, 12, ProvablyFair.random("server-seed", "client-seed", 1));
+
+        // Casillas 0, 3 y 7: parte del esquema publicado, no debe cambiar
+        assertEquals(0b10001001L, mines);
+        assertEquals(0L, mines & 1L << 12);
+
+        MinesEngine engine = new MinesEngine(5, 5);
+        engine.start(3, 12, ProvablyFair.random("server-seed", "client-seed", 1));
+        assertEquals(MinesEngine.Reveal.GEM, engine.reveal(12));
+        assertEquals(MinesEngine.Reveal.GEM, engine.reveal(1));
+        assertEquals(MinesEngine.Reveal.MINE, engine.reveal(3));
+        assertEquals(mines, engine.getMines());
+    }
+}
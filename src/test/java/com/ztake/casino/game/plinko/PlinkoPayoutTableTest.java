@@ -0,0 +1,94 @@
+package com.ztake.casino.game.plinko;
+
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tablas binomiales de Plinko y caída de bolas con un generador fijo.
+ */
+class PlinkoPayoutTableTest {
+    private static final PlinkoPayoutTable TABLE = new PlinkoPayoutTable(0.99);
+
+    @Test
+    void slotProbabilitiesAreBinomial() {
+        assertArrayEquals(new double[]{1 / 256.0, 8 / 256.0, 28 / 256.0, 56 / 256.0, 70 / 256.0,
+                56 / 256.0, 28 / 256.0, 8 / 256.0, 1 / 256.0}, TABLE.probabilities(8));
+        assertEquals(12870 / 65536.0, TABLE.probabilities(16)[8]);
+        for (int rows = PlinkoBoard.MIN_ROWS; rows <= PlinkoBoard.MAX_ROWS; rows++) {
+            double total = 0;
+            for (double probability : TABLE.probabilities(rows)) {
+                total += probability;
+            }
+            assertEquals(1.0, total, 1e-15);
+        }
+    }
+
+    @Test
+    void multipliersArePinned() {
+        assertArrayEquals(new double[]{3.8, 2.31, 1.4, 0.84, 0.51, 0.84, 1.4, 2.31, 3.8},
+                TABLE.multipliers(8, PlinkoRisk.LOW));
+        assertArrayEquals(new double[]{17.55, 5.07, 1.46, 0.42, 0.12, 0.42, 1.46, 5.07, 17.55},
+                TABLE.multipliers(8, PlinkoRisk.HIGH));
+        assertArrayEquals(new double[]{563.25, 162.99, 47.16, 13.64, 3.95, 1.14, 0.33, 0.09, 0.02,
+                        0.09, 0.33, 1.14, 3.95, 13.64, 47.16, 162.99, 563.25},
+                TABLE.multipliers(16, PlinkoRisk.HIGH));
+    }
+
+    @Test
+    void everyTablePaysJustUnderTheRtp() {
+        for (int rows = PlinkoBoard.MIN_ROWS; rows <= PlinkoBoard.MAX_ROWS; rows++) {
+            double[] probabilities = TABLE.probabilities(rows);
+            for (PlinkoRisk risk : PlinkoRisk.values()) {
+                double[] multipliers = TABLE.multipliers(rows, risk);
+                double expected = 0;
+                for (int slot = 0; slot <= rows; slot++) {
+                    expected += probabilities[slot] * multipliers[slot];
+                    // Simétrica y creciente del centro hacia los bordes
+                    assertEquals(multipliers[slot], multipliers[rows - slot], rows + " filas " + risk);
+                    if (2 * slot + 2 <= rows) {
+                        assertTrue(multipliers[slot] > multipliers[slot + 1], rows + " filas " + risk);
+                    }
+                }
+                String board = rows + " filas " + risk + ": " + expected;
+                assertEquals(expected, TABLE.getRtp(rows, risk), 1e-12, board);
+                // Truncar a dos decimales solo puede bajar el RTP
+                assertTrue(expected <= 0.99 + 1e-12, board);
+                assertTrue(expected > 0.985, board);
+            }
+            // Más riesgo: el centro paga menos y los bordes más
+            double[] low = TABLE.multipliers(rows, PlinkoRisk.LOW);
+            double[] high = TABLE.multipliers(rows, PlinkoRisk.HIGH);
+            assertTrue(high[rows / 2] < low[rows / 2]);
+            assertTrue(high[0] > low[0]);
+        }
+    }
+
+    @Test
+    void invalidBoardsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TABLE.multipliers(7, PlinkoRisk.LOW));
+        assertThrows(IllegalArgumentException.class, () -> TABLE.probabilities(17));
+        assertThrows(IllegalArgumentException.class, () -> new PlinkoPayoutTable(0));
+    }
+
+    @Test
+    void fixedSeedsDropTheSameBall() {
+        int path = PlinkoBoard.drop(ProvablyFair.random("server-seed", "client-seed", 1), 16);
+
+        // Parte del esquema publicado: no debe cambiar
+        assertEquals(0b1010101000100011, path);
+        assertEquals(7, PlinkoBoard.slot(path));
+        assertEquals(0.09, TABLE.multiplier(16, PlinkoRisk.HIGH, path));
+        assertTrue(PlinkoBoard.goesRight(path, 0));
+        assertFalse(PlinkoBoard.goesRight(path, 2));
+
+        int[] paths = new int[3];
+        PlinkoBoard.drop(ProvablyFair.random("server-seed", "client-seed", 1), 16, paths);
+        assertEquals(path, paths[0]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ztake.casino.game.roulette;
+
+import com.ztake.casino.game.fair.ProvablyFair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catálogo de apuestas de la ruleta europea, pagos por máscara y tirada con un generador fijo.
+ */
+class RouletteTableTest {
+
+    @Test
+    void catalogHasEveryBetOfTheLayout() {
+        assertEquals(37, RouletteTable.getBets(RouletteBetType.STRAIGHT).size());
+        // 24 horizontales, 33 verticales y 3 con el cero
+        assertEquals(60, RouletteTable.getBets(RouletteBetType.SPLIT).size());
+        assertEquals(14, RouletteTable.getBets(RouletteBetType.STREET).size());
+        assertEquals(23, RouletteTable.getBets(RouletteBetType.CORNER).size());
+        assertEquals(11, RouletteTable.getBets(RouletteBetType.SIX_LINE).size());
+        assertEquals(3, RouletteTable.getBets(RouletteBetType.DOZEN).size());
+        assertEquals(3, RouletteTable.getBets(RouletteBetType.COLUMN).size());
+        assertEquals(6, RouletteTable.getBets(RouletteBetType.EVEN_MONEY).size());
+        assertEquals(157, RouletteTable.getAllBets().size());
+    }
+
+    @Test
+    void everyBetReturnsThirtySixOverThirtySeven() {
+        for (RouletteBet bet : RouletteTable.getAllBets()) {
+            // Números cubiertos por (pago + 1) = 36 en todas: RTP de 36/37
+            assertEquals(36, Long.bitCount(bet.getMask()) * (bet.getPayout() + 1), bet.getKey());
+            assertTrue((bet.getMask() >>> RouletteTable.NUMBERS) == 0, bet.getKey());
+        }
+        RouletteSimulation simulation = new RouletteSimulation("mixta",
+                new String[]{"pleno:17", "semipleno:0-3", "cuadro:1-5", "docena:2", "rojo"},
+                new long[]{100, 250, 300, 500, 1000});
+        assertEquals(36.0 / 37, simulation.getExpectedRtp(), 1e-12);
+    }
+
+    @Test
+    void slipPaysEachWinningBet() {
+        RouletteBetSlip slip = new RouletteBetSlip();
+        slip.add(RouletteTable.getBet("pleno:17"), 100);
+        slip.add(RouletteTable.getBet("rojo"), 200);
+        slip.add(RouletteTable.getBet("docena:2"), 100);
+        // Misma casilla: se suma a la apuesta existente
+        slip.add(RouletteTable.getBet("pleno:17"), 50);
+
+        assertEquals(3, slip.size());
+        assertEquals(450, slip.getTotalCents());
+        // 17 es negro y de la segunda docena: 150 × 36 + 100 × 3
+        assertEquals(5700, slip.settle(17));
+        assertEquals(0b101, slip.winners(17));
+        // 14 es rojo y de la segunda docena: 200 × 2 + 100 × 3
+        assertEquals(700, slip.settle(14));
+        assertEquals(0b110, slip.winners(14));
+        assertEquals(0, slip.settle(0));
+        assertEquals(5700, slip.getMaxPayoutCents());
+
+        slip.remove(0);
+        assertEquals(300, slip.getTotalCents());
+        assertEquals(300, slip.settle(17));
+    }
+
+    @Test
+    void unknownBetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RouletteTable.getBet("pleno:37"));
+        assertThrows(IllegalArgumentException.class, () -> RouletteTable.getBet("semipleno:1-3"));
+    }
+
+    @Test
+    void fixedSeedsSpinTheSameNumber() {
+        // Parte del esquema publicado: no debe cambiar
+        assertEquals(5, RouletteTable.spin(ProvablyFair.random("server-seed", "client-seed", 1)));
+
+        RouletteGame game = new RouletteGame();
+        assertTrue(game.replays("server-seed", "client-seed", 1, "{\"number\":5}"));
+        assertFalse(game.replays("server-seed", "client-seed", 1, "{\"number\":6}"));
+    }
+}
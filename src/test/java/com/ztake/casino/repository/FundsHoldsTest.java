@@ -0,0 +1,94 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.GameServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Retenciones de saldo: en memoria y reconstruidas desde una base de datos H2 en memoria.
+ */
+class FundsHoldsTest {
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start("fundsholds");
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        TestDatabase.stop();
+    }
+
+    private static GameServiceImpl newService(boolean holdFunds) {
+        return GameServiceImpl.builder(new GameSessionRepositoryImpl(), new TransactionRepositoryImpl(),
+                        new UserRepositoryImpl())
+                .walletRepository(new WalletRepositoryImpl())
+                .holdFunds(holdFunds)
+                .build();
+    }
+
+    @Test
+    void reserveAttachAndRelease() {
+        FundsHolds holds = new FundsHolds();
+
+        FundsHolds.Hold attached = holds.reserve(1L, new BigDecimal("4.00"));
+        FundsHolds.Hold cancelled = holds.reserve(1L, new BigDecimal("2.50"));
+        holds.reserve(2L, new BigDecimal("1.00"));
+        assertEquals(new BigDecimal("6.50"), holds.getHeld(1L));
+
+        holds.attach(attached, 10L, 100L);
+        assertSame(attached, holds.find(10L));
+
+        // La sesión de esta no llegó a guardarse
+        holds.cancel(cancelled);
+        holds.cancel(cancelled);
+        assertEquals(new BigDecimal("4.00"), holds.getHeld(1L));
+
+        holds.release(10L);
+        holds.release(10L);
+        assertNull(holds.find(10L));
+        assertEquals(BigDecimal.ZERO, holds.getHeld(1L));
+        assertEquals(new BigDecimal("1.00"), holds.getHeld(2L));
+    }
+
+    @Test
+    void holdsSurviveARestart() {
+        User user = TestDatabase.newUser("holds-restart", 10.0);
+        GameServiceImpl beforeRestart = newService(true);
+        GameSession won = beforeRestart.startGame(user, "mines", 4.0);
+        GameSession refunded = beforeRestart.startGame(user, "mines", 3.0);
+        GameSession debited = newService(false).startGame(user, "mines", 1.0);
+
+        TestDatabase.restart();
+        WalletRepository walletRepository = new WalletRepositoryImpl();
+        GameServiceImpl afterRestart = newService(true);
+
+        // Solo las apuestas retenidas: la descontada ya está fuera del saldo
+        assertEquals(7.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+        assertEquals(9.0, TestDatabase.balance(user.getId()), 0.001);
+        assertThrows(IllegalStateException.class, () -> afterRestart.startGame(user, "mines", 3.0));
+
+        afterRestart.endGame(won, 8.0, "won", "{}");
+        assertEquals(13.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(3.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+
+        afterRestart.cancelGame(refunded);
+        afterRestart.cancelGame(debited);
+        assertEquals(14.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+        assertEquals(List.of("won", "refunded", "refunded"), TestDatabase.results(user.getId()));
+        assertEquals(List.of("completed", "completed", "completed"),
+                TestDatabase.transactionStatuses(user.getId(), "bet"));
+    }
+}
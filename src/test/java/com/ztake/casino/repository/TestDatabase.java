@@ -0,0 +1,144 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.config.DatabaseConfig;
+import com.ztake.casino.model.User;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Base de datos H2 en memoria para las pruebas que pasan por la cartera: cada clase de prueba
+ * usa la suya y las retenciones de saldo se reconstruyen desde ella.
+ */
+public final class TestDatabase {
+    private static final String[] DATABASE_PROPERTIES = {
+            "jakarta.persistence.jdbc.driver", "org.h2.Driver",
+            "jakarta.persistence.jdbc.user", "sa",
+            "jakarta.persistence.jdbc.password", "",
+            "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "hibernate.hbm2ddl.auto", "create",
+            "hibernate.show_sql", "false",
+            "hibernate.format_sql", "false"
+    };
+    private static final String URL_PROPERTY = "jakarta.persistence.jdbc.url";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Crea una base de datos vacía con el nombre indicado y la deja configurada.
+     */
+    public static void start(String name) {
+        for (int i = 0; i < DATABASE_PROPERTIES.length; i += 2) {
+            System.setProperty(DATABASE_PROPERTIES[i], DATABASE_PROPERTIES[i + 1]);
+        }
+        System.setProperty(URL_PROPERTY, "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        DatabaseConfig.initialize();
+        FundsHolds.reset();
+    }
+
+    public static void stop() {
+        DatabaseConfig.shutdown();
+        FundsHolds.reset();
+        for (int i = 0; i < DATABASE_PROPERTIES.length; i += 2) {
+            System.clearProperty(DATABASE_PROPERTIES[i]);
+        }
+        System.clearProperty(URL_PROPERTY);
+    }
+
+    /**
+     * Simula un reinicio de la aplicación: las retenciones en memoria se pierden y se vuelven a
+     * cargar desde las transacciones retenidas.
+     */
+    public static void restart() {
+        FundsHolds.reset();
+    }
+
+    public static User newUser(String username, double balance) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            User user = new User(null, username, username + "@ztake.test", "x", balance);
+            em.persist(user);
+            em.getTransaction().commit();
+            return user;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Retrasa la fecha de inicio de una sesión, como si llevara ese tiempo en curso.
+     */
+    public static void ageSession(long sessionId, int minutes) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("UPDATE GameSession g SET g.sessionDate = :sessionDate WHERE g.id = :id")
+                    .setParameter("sessionDate", LocalDateTime.now().minusMinutes(minutes))
+                    .setParameter("id", sessionId)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * @return el saldo guardado en la fila del usuario
+     */
+    public static double balance(long userId) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return em.find(User.class, userId).getBalance();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * @return el resultado guardado de cada sesión del usuario, en orden de ID
+     */
+    public static List<String> results(long userId) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return em.createQuery("SELECT g.result FROM GameSession g WHERE g.user.id = :userId ORDER BY g.id",
+                            String.class)
+                    .setParameter("userId", userId)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * @return el estado de las transacciones de un tipo del usuario, en orden de ID
+     */
+    public static List<String> transactionStatuses(long userId, String transactionType) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return em.createQuery("SELECT t.status FROM Transaction t WHERE t.user.id = :userId " +
+                            "AND t.transactionType = :type ORDER BY t.id", String.class)
+                    .setParameter("userId", userId)
+                    .setParameter("type", transactionType)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * @return true si la semilla del servidor con ese hash sigue pendiente de revelar en server_seeds
+     */
+    public static boolean isSeedPending(String serverSeedHash) {
+        EntityManager em = DatabaseConfig.getEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(s) FROM CommittedSeed s WHERE s.serverSeedHash = :hash", Long.class)
+                    .setParameter("hash", serverSeedHash)
+                    .getSingleResult() > 0;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ztake.casino.repository;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.service.GameServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Commit en grupo de la cartera contra una base de datos H2 en memoria.
+ */
+class WalletCommitPipelineTest {
+    private static WalletRepositoryImpl walletRepository;
+
+    private WalletCommitPipeline pipeline;
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start("pipeline");
+        walletRepository = new WalletRepositoryImpl();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        TestDatabase.stop();
+    }
+
+    @BeforeEach
+    void startPipeline() {
+        // Lotes de tres operaciones y espera larga: las operaciones de cada prueba van en un lote
+        pipeline = new WalletCommitPipeline(walletRepository, 3, 1000);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void stopPipeline() {
+        pipeline.stop();
+    }
+
+    private static GameSession newSession(User user, double betAmount) {
+        GameSession gameSession = new GameSession();
+        gameSession.setUser(user);
+        gameSession.setGameType("mines");
+        gameSession.setBetAmount(betAmount);
+        gameSession.setWinningAmount(0.0);
+        gameSession.setResult("in_progress");
+        gameSession.setSessionDate(LocalDateTime.now());
+        return gameSession;
+    }
+
+    @Test
+    void failedOperationIsRolledBackAlone() {
+        User holding = TestDatabase.newUser("pipeline-holding", 10.0);
+        User debited = TestDatabase.newUser("pipeline-debited", 10.0);
+        long commits = pipeline.getCommits();
+
+        CompletableFuture<GameSession> held = pipeline.holdSession(newSession(holding, 6.0));
+        // El saldo disponible ya no cubre una segunda retención de 6
+        CompletableFuture<GameSession> overdrawn = pipeline.holdSession(newSession(holding, 6.0));
+        CompletableFuture<GameSession> opened = pipeline.openSession(newSession(debited, 4.0));
+
+        assertEquals("in_progress", held.join().getResult());
+        CompletionException error = assertThrows(CompletionException.class, overdrawn::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(6.0, opened.join().getUser().getBalance(), 0.001);
+        assertEquals(commits + 1, pipeline.getCommits());
+
+        // La operación que falla no deja ni sesión, ni transacción, ni retención
+        assertEquals(List.of("in_progress"), TestDatabase.results(holding.getId()));
+        assertEquals(List.of("held"), TestDatabase.transactionStatuses(holding.getId(), "bet"));
+        assertEquals(6.0, walletRepository.getHeldFunds(holding.getId()), 0.001);
+        assertEquals(10.0, TestDatabase.balance(holding.getId()), 0.001);
+        assertEquals(6.0, TestDatabase.balance(debited.getId()), 0.001);
+    }
+
+    @Test
+    void settlementOfAFinishedSessionFailsAlone() {
+        User user = TestDatabase.newUser("pipeline-settle", 10.0);
+        GameSession session = pipeline.openSession(newSession(user, 4.0)).join();
+
+        CompletableFuture<GameSession> won = pipeline.settleSession(session.getId(), 10.0, "won", "{}");
+        CompletableFuture<GameSession> again = pipeline.settleSession(session.getId(), 10.0, "won", "{}");
+        CompletableFuture<GameSession> next = pipeline.openSession(newSession(user, 4.0));
+
+        assertEquals("won", won.join().getResult());
+        CompletionException error = assertThrows(CompletionException.class, again::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        next.join();
+        // 10 - 4 + 10 - 4: el premio se abona una sola vez
+        assertEquals(12.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(List.of("won", "in_progress"), TestDatabase.results(user.getId()));
+    }
+
+    @Test
+    void operationsAfterStopAreDiscarded() {
+        User user = TestDatabase.newUser("pipeline-stopped", 10.0);
+        pipeline.stop();
+
+        CompletableFuture<GameSession> rejected = pipeline.holdSession(newSession(user, 4.0));
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(List.of(), TestDatabase.results(user.getId()));
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+    }
+
+    @Test
+    void depositWithAStaleBalanceKeepsAConcurrentDebit() {
+        User user = TestDatabase.newUser("pipeline-deposit", 10.0);
+        // Copia del usuario leída antes de la apuesta: su saldo en memoria queda desactualizado
+        User stale = new User(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), 10.0);
+        GameServiceImpl service = GameServiceImpl.builder(new GameSessionRepositoryImpl(),
+                        new TransactionRepositoryImpl(), new UserRepositoryImpl())
+                .walletRepository(walletRepository)
+                .commitPipeline(pipeline)
+                .holdFunds(false)
+                .build();
+
+        service.startGame(user, "mines", 4.0);
+        User deposited = service.depositFunds(stale, 5.0);
+
+        assertEquals(11.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(11.0, deposited.getBalance(), 0.001);
+        assertEquals(List.of("completed"), TestDatabase.transactionStatuses(user.getId(), "deposit"));
+    }
+}
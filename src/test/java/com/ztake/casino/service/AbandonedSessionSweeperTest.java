@@ -0,0 +1,116 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.GameSessionRepositoryImpl;
+import com.ztake.casino.repository.TestDatabase;
+import com.ztake.casino.repository.TransactionRepositoryImpl;
+import com.ztake.casino.repository.UserRepositoryImpl;
+import com.ztake.casino.repository.WalletRepository;
+import com.ztake.casino.repository.WalletRepositoryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Barrido de sesiones abandonadas contra una base de datos H2 en memoria.
+ */
+class AbandonedSessionSweeperTest {
+    private static final int STALE_MINUTES = 60;
+
+    private static WalletRepository walletRepository;
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start("sweeper");
+        walletRepository = new WalletRepositoryImpl();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        TestDatabase.stop();
+    }
+
+    private static GameServiceImpl newService(boolean holdFunds) {
+        return GameServiceImpl.builder(new GameSessionRepositoryImpl(), new TransactionRepositoryImpl(),
+                        new UserRepositoryImpl())
+                .walletRepository(walletRepository)
+                .holdFunds(holdFunds)
+                .build();
+    }
+
+    private static AbandonedSessionSweeper newSweeper(GameService gameService, AbandonedSessionSweeper.Policy policy,
+                                                      int batchSize) {
+        return new AbandonedSessionSweeper(walletRepository, gameService, policy, STALE_MINUTES, batchSize, 300);
+    }
+
+    /**
+     * Abre una ronda y la deja más antigua que el umbral del barrido.
+     */
+    private static GameSession abandon(GameService gameService, User user, double betAmount) {
+        GameSession session = gameService.startGame(user, "mines", betAmount);
+        TestDatabase.ageSession(session.getId(), STALE_MINUTES * 2);
+        return session;
+    }
+
+    @Test
+    void refundReturnsHeldAndDebitedStakes() {
+        User held = TestDatabase.newUser("sweep-held", 10.0);
+        User debited = TestDatabase.newUser("sweep-debited", 10.0);
+        User playing = TestDatabase.newUser("sweep-playing", 10.0);
+        GameServiceImpl holdingService = newService(true);
+        abandon(holdingService, held, 4.0);
+        abandon(newService(false), debited, 4.0);
+        holdingService.startGame(playing, "mines", 4.0);
+
+        // Un lote por sesión: el barrido sigue mientras los lotes vengan llenos
+        int swept = newSweeper(holdingService, AbandonedSessionSweeper.Policy.REFUND, 1).sweepOnce();
+
+        assertEquals(2, swept);
+        assertEquals(List.of("refunded"), TestDatabase.results(held.getId()));
+        assertEquals(10.0, TestDatabase.balance(held.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(held.getId()), 0.001);
+        assertEquals(List.of("refunded"), TestDatabase.results(debited.getId()));
+        assertEquals(10.0, TestDatabase.balance(debited.getId()), 0.001);
+        // Una ronda reciente no está abandonada
+        assertEquals(List.of("in_progress"), TestDatabase.results(playing.getId()));
+        assertEquals(4.0, walletRepository.getHeldFunds(playing.getId()), 0.001);
+    }
+
+    @Test
+    void lostPolicyChargesTheHeldStake() {
+        User user = TestDatabase.newUser("sweep-lost", 10.0);
+        GameServiceImpl service = newService(true);
+        abandon(service, user, 4.0);
+
+        int swept = newSweeper(service, AbandonedSessionSweeper.Policy.LOST, 100).sweepOnce();
+
+        assertEquals(1, swept);
+        assertEquals(List.of("lost"), TestDatabase.results(user.getId()));
+        assertEquals(6.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+        assertEquals(List.of("completed"), TestDatabase.transactionStatuses(user.getId(), "bet"));
+    }
+
+    @Test
+    void sweptSessionCannotBeSettledAgain() {
+        User user = TestDatabase.newUser("sweep-twice", 10.0);
+        GameServiceImpl service = newService(true);
+        GameSession session = abandon(service, user, 4.0);
+        AbandonedSessionSweeper sweeper = newSweeper(service, AbandonedSessionSweeper.Policy.REFUND, 100);
+
+        assertEquals(1, sweeper.sweepOnce());
+        // El jugador vuelve con su copia de la sesión, todavía en curso
+        assertThrows(IllegalStateException.class, () -> service.endGame(session, 8.0, "won", "{}"));
+        assertEquals(0, sweeper.sweepOnce());
+
+        assertEquals(List.of("refunded"), TestDatabase.results(user.getId()));
+        assertEquals(10.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(List.of(), TestDatabase.transactionStatuses(user.getId(), "win"));
+    }
+}
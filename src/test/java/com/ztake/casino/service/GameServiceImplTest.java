@@ -0,0 +1,225 @@
+package com.ztake.casino.service;
+
+import com.ztake.casino.model.GameSession;
+import com.ztake.casino.model.User;
+import com.ztake.casino.repository.GameSessionRepositoryImpl;
+import com.ztake.casino.repository.LeaderboardEntry;
+import com.ztake.casino.repository.Settlement;
+import com.ztake.casino.repository.SettlementResult;
+import com.ztake.casino.repository.TestDatabase;
+import com.ztake.casino.repository.TransactionRepositoryImpl;
+import com.ztake.casino.repository.UserRepositoryImpl;
+import com.ztake.casino.repository.WalletRepository;
+import com.ztake.casino.repository.WalletRepositoryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Liquidaciones de GameServiceImpl contra una base de datos H2 en memoria.
+ */
+class GameServiceImplTest {
+    private static WalletRepository walletRepository;
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start("gameservice");
+        walletRepository = new WalletRepositoryImpl();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        TestDatabase.stop();
+    }
+
+    private static GameServiceImpl newService(boolean holdFunds) {
+        return GameServiceImpl.builder(new GameSessionRepositoryImpl(), new TransactionRepositoryImpl(),
+                        new UserRepositoryImpl())
+                .walletRepository(walletRepository)
+                .holdFunds(holdFunds)
+                .build();
+    }
+
+    @Test
+    void playRoundsDoesNotBlockOtherGamesWhileResolving() {
+        User player = TestDatabase.newUser("autobet", 10.0);
+        User other = TestDatabase.newUser("autobet-other", 10.0);
+        GameServiceImpl service = newService(true);
+
+        List<GameSession> played = service.playRounds(player, "mines", 1.0, 3, (gameSession, random) -> {
+            // Another player's game must get through while this round is being resolved
+            CompletableFuture<GameSession> started = CompletableFuture.supplyAsync(
+                    () -> service.startGame(other, "mines", 1.0));
+            GameSession otherSession = assertDoesNotThrow(() -> started.get(10, TimeUnit.SECONDS));
+            service.endGame(otherSession, 0.0, "lost", "{}");
+
+            gameSession.setResult("lost");
+            return true;
+        });
+
+        assertEquals(3, played.size());
+        assertEquals(7.0, TestDatabase.balance(player.getId()), 0.001);
+        assertEquals(7.0, TestDatabase.balance(other.getId()), 0.001);
+    }
+
+    @Test
+    void settleBatchReportsEachItem() {
+        User user = TestDatabase.newUser("batch-items", 20.0);
+        GameServiceImpl service = newService(true);
+        GameSession won = service.startGame(user, "mines", 2.0);
+        GameSession settledElsewhere = service.startGame(user, "mines", 2.0);
+        GameSession invalid = service.startGame(user, "mines", 2.0);
+        // Liquidada por otro camino: la copia en memoria sigue en curso
+        walletRepository.settleBatch(List.of(Settlement.refund(settledElsewhere)));
+
+        List<SettlementResult> results = service.settleBatch(Arrays.asList(
+                new Settlement(won, 5.0, "won", "{}"),
+                new Settlement(settledElsewhere, 5.0, "won", "{}"),
+                new Settlement(invalid, 0.0, "draw", "{}"),
+                new Settlement(won, 0.0, "lost", "{}"),
+                null));
+
+        assertEquals(List.of(SettlementResult.Status.SETTLED, SettlementResult.Status.ALREADY_SETTLED,
+                        SettlementResult.Status.REJECTED, SettlementResult.Status.REJECTED,
+                        SettlementResult.Status.REJECTED),
+                results.stream().map(SettlementResult::getStatus).toList());
+        assertEquals("won", won.getResult());
+        assertEquals("in_progress", invalid.getResult());
+        assertEquals(List.of("won", "refunded", "in_progress"), TestDatabase.results(user.getId()));
+        // 20 - 2 + 5 (la ganadora) - 2 + 2 (la devuelta) - 2 (la que sigue retenida)
+        assertEquals(23.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(2.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+    }
+
+    @Test
+    void failingItemDoesNotAbortTheBatch() {
+        User first = TestDatabase.newUser("batch-first", 10.0);
+        User broken = TestDatabase.newUser("batch-broken", 10.0);
+        User last = TestDatabase.newUser("batch-last", 10.0);
+        GameServiceImpl service = newService(true);
+        GameSession firstSession = service.startGame(first, "mines", 4.0);
+        GameSession brokenSession = service.startGame(broken, "mines", 4.0);
+        GameSession lastSession = service.startGame(last, "mines", 4.0);
+
+        // El premio no cabe en la columna: falla el lote entero y se reintenta una a una
+        List<SettlementResult> results = service.settleBatch(List.of(
+                new Settlement(firstSession, 6.0, "won", "{}"),
+                new Settlement(brokenSession, 1_000_000_000.0, "won", "{}"),
+                new Settlement(lastSession, 0.0, "lost", "{}")));
+
+        assertEquals(List.of(SettlementResult.Status.SETTLED, SettlementResult.Status.FAILED,
+                        SettlementResult.Status.SETTLED),
+                results.stream().map(SettlementResult::getStatus).toList());
+        assertEquals(12.0, TestDatabase.balance(first.getId()), 0.001);
+        assertEquals(6.0, TestDatabase.balance(last.getId()), 0.001);
+        // La que falla no se toca: sigue en curso y con su apuesta retenida
+        assertEquals("in_progress", brokenSession.getResult());
+        assertEquals(List.of("in_progress"), TestDatabase.results(broken.getId()));
+        assertEquals(10.0, TestDatabase.balance(broken.getId()), 0.001);
+        assertEquals(4.0, walletRepository.getHeldFunds(broken.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(first.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(last.getId()), 0.001);
+    }
+
+    @Test
+    void underfundedRebetReturnsTheSettledRound() {
+        User user = TestDatabase.newUser("rebet-short", 5.0);
+        GameServiceImpl service = newService(true);
+
+        GameSession session = service.startGame(user, "mines", 5.0);
+        RebetResult rebet = service.settleAndRebet(session, 0.0, "lost", "{}");
+
+        assertFalse(rebet.isRebet());
+        assertNull(rebet.getNext());
+        assertEquals("lost", rebet.getSettled().getResult());
+        assertEquals(List.of("lost"), TestDatabase.results(user.getId()));
+        assertEquals(0.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+    }
+
+    @Test
+    void rebetHoldsTheNextStakeWhenHoldsAreEnabled() {
+        User user = TestDatabase.newUser("rebet-held", 10.0);
+        GameServiceImpl service = newService(true);
+
+        GameSession session = service.startGame(user, "mines", 4.0);
+        RebetResult rebet = service.settleAndRebet(session, 8.0, "won", "{}");
+
+        assertTrue(rebet.isRebet());
+        assertNotNull(rebet.getNext().getId());
+        assertEquals(List.of("won", "in_progress"), TestDatabase.results(user.getId()));
+        // Las apuestas retenidas no se cargan hasta liquidarse: 10 - 4 + 8
+        assertEquals(14.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(4.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+        assertEquals(List.of("completed", "held"), TestDatabase.transactionStatuses(user.getId(), "bet"));
+
+        service.endGame(rebet.getNext(), 0.0, "lost", "{}");
+        assertEquals(10.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+    }
+
+    @Test
+    void rebetDebitsTheNextStakeWhenHoldsAreDisabled() {
+        User user = TestDatabase.newUser("rebet-debit", 10.0);
+        GameServiceImpl service = newService(false);
+
+        GameSession session = service.startGame(user, "mines", 4.0);
+        RebetResult rebet = service.settleAndRebet(session, 8.0, "won", "{}");
+
+        assertTrue(rebet.isRebet());
+        assertEquals(10.0, TestDatabase.balance(user.getId()), 0.001);
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+    }
+
+    @Test
+    void eraseAccountSettlesOpenRoundsAndForgetsTheUser() {
+        User user = TestDatabase.newUser("erase-me", 20.0);
+        User other = TestDatabase.newUser("erase-other", 20.0);
+        ExposureTracker exposure = new ExposureTracker();
+        Leaderboard leaderboard = new Leaderboard(10);
+        GameServiceImpl service = GameServiceImpl.builder(new GameSessionRepositoryImpl(), new TransactionRepositoryImpl(),
+                        new UserRepositoryImpl())
+                .walletRepository(walletRepository)
+                .exposureTracker(exposure)
+                .leaderboard(leaderboard)
+                .fairnessService(new FairnessService())
+                .holdFunds(true)
+                .build();
+
+        service.endGame(service.startGame(user, "erase-game", 2.0), 50.0, "won", "{}");
+        service.endGame(service.startGame(other, "erase-game", 2.0), 10.0, "won", "{}");
+        GameSession open = service.startGame(user, "erase-game", 5.0);
+        FairnessService.Seeds seeds = service.getFairnessSeeds(user);
+        assertEquals(5.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+
+        assertTrue(service.eraseAccount(user.getId()) > 0);
+
+        assertTrue(new UserRepositoryImpl().findById(user.getId()).isEmpty());
+        assertEquals(List.of(), TestDatabase.results(user.getId()));
+        assertEquals(0.0, walletRepository.getHeldFunds(user.getId()), 0.001);
+        assertEquals(0.0, exposure.getExposure("erase-game"), 0.001);
+        assertFalse(TestDatabase.isSeedPending(open.getServerSeedHash()));
+        assertFalse(TestDatabase.isSeedPending(seeds.getNextServerSeedHash()));
+        // La clasificación se rehace sin el usuario y conserva al resto
+        List<Long> winners = leaderboard.top(Leaderboard.Category.BIGGEST_WIN, "erase-game").stream()
+                .map(LeaderboardEntry::getUserId)
+                .toList();
+        assertEquals(List.of(other.getId()), winners);
+        assertTrue(leaderboard.top(Leaderboard.Category.BEST_DAILY_NET, "erase-game").stream()
+                .noneMatch(entry -> entry.getUserId() == user.getId()));
+        // Volver a ejecutarlo no falla
+        assertEquals(0, service.eraseAccount(user.getId()));
+    }
+}